@@ -1,6 +1,7 @@
 plugins {
     java
     `java-library`
+    id("me.champeau.jmh") version "0.6.5"
 }
 
 group = "org.example"
@@ -22,6 +23,14 @@ tasks.compileJava {
     options.release.set(11)
 }
 
+jmh {
+    jmhVersion.set("1.32")
+    // Report the allocation rate along with throughput
+    profilers.add("gc")
+    // Keep machine readable results around to compare releases
+    resultFormat.set("JSON")
+}
+
 tasks.getByName<Test>("test") {
     useJUnitPlatform()
 
@@ -0,0 +1,233 @@
+package me.i509.gura.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generated Gura content used by the benchmarks.
+ *
+ * <p>Every corpus is generated from a fixed seed so that results are comparable between runs and releases.
+ */
+public enum Corpus {
+	/**
+	 * A large configuration file resembling real world configuration, with nested objects, arrays, comments and
+	 * variables.
+	 */
+	REALISTIC {
+		@Override
+		void generate(StringBuilder builder, Random random, int size) {
+			int service = 0;
+
+			while (builder.length() < size) {
+				builder.append("# Service ").append(service).append('\n');
+				builder.append("$port_").append(service).append(": ").append(1024 + random.nextInt(60000)).append('\n');
+				builder.append("service_").append(service).append(":\n");
+				builder.append("    host: localhost_").append(service).append('\n');
+				builder.append("    port: $port_").append(service).append('\n');
+				builder.append("    enabled: ").append(random.nextBoolean()).append('\n');
+				builder.append("    timeout: ").append(random.nextInt(100)).append('.').append(random.nextInt(100))
+						.append(" # seconds\n");
+				builder.append("    limits:\n");
+				builder.append("        requests: ").append(random.nextInt(100_000)).append('\n');
+				builder.append("        burst: ").append(random.nextInt(1000)).append('\n');
+				builder.append("    tags: [alpha, beta, gamma_").append(service).append("]\n");
+				builder.append("    weights: [").append(random.nextInt(10)).append(", ").append(random.nextInt(10))
+						.append(", ").append(random.nextInt(10)).append("]\n\n");
+				service++;
+			}
+		}
+	},
+
+	/**
+	 * Large blocks of comments with little content.
+	 */
+	COMMENTS {
+		@Override
+		void generate(StringBuilder builder, Random random, int size) {
+			while (builder.length() < size) {
+				for (int line = 0; line < 50; line++) {
+					builder.append("# ");
+
+					for (int word = 0; word < 12; word++) {
+						appendWord(builder, random);
+						builder.append(' ');
+					}
+
+					builder.append('\n');
+				}
+
+				builder.append("key: value\n");
+			}
+		}
+	},
+
+	/**
+	 * Keys and variables with very long names.
+	 */
+	LONG_IDENTIFIERS {
+		@Override
+		void generate(StringBuilder builder, Random random, int size) {
+			while (builder.length() < size) {
+				builder.append('$');
+
+				for (int part = 0; part < 40; part++) {
+					appendWord(builder, random);
+					builder.append('_');
+				}
+
+				builder.append(": ");
+
+				for (int part = 0; part < 40; part++) {
+					appendWord(builder, random);
+				}
+
+				builder.append('\n');
+			}
+		}
+	},
+
+	/**
+	 * Arrays densely packed with hexadecimal, octal and binary integers and floating point numbers with exponents.
+	 */
+	NUMBERS {
+		@Override
+		void generate(StringBuilder builder, Random random, int size) {
+			int key = 0;
+
+			while (builder.length() < size) {
+				builder.append("numbers_").append(key++).append(": [");
+
+				for (int i = 0; i < 32; i++) {
+					if (i != 0) {
+						builder.append(", ");
+					}
+
+					switch (i & 3) {
+						case 0:
+							builder.append("0x").append(Integer.toHexString(random.nextInt()).toUpperCase());
+							break;
+						case 1:
+							builder.append("0o").append(Integer.toOctalString(random.nextInt(1 << 20)));
+							break;
+						case 2:
+							builder.append("0b").append(Integer.toBinaryString(random.nextInt(1 << 16)));
+							break;
+						default:
+							builder.append(1 + random.nextInt(9)).append('.').append(random.nextInt(1000)).append('e')
+									.append(random.nextInt(300));
+					}
+				}
+
+				builder.append("]\n");
+			}
+		}
+	},
+
+	/**
+	 * The realistic corpus with Windows style line endings.
+	 */
+	CRLF {
+		@Override
+		void generate(StringBuilder builder, Random random, int size) {
+			StringBuilder realistic = new StringBuilder(size);
+			REALISTIC.generate(realistic, random, size);
+
+			for (int i = 0; i < realistic.length(); i++) {
+				char c = realistic.charAt(i);
+
+				if (c == '\n') {
+					builder.append('\r');
+				}
+
+				builder.append(c);
+			}
+		}
+	},
+
+	/**
+	 * Deeply nested objects holding arrays, with a lot of indentation.
+	 */
+	NESTED_ARRAYS {
+		@Override
+		void generate(StringBuilder builder, Random random, int size) {
+			while (builder.length() < size) {
+				for (int depth = 0; depth < 16; depth++) {
+					builder.append("    ".repeat(depth)).append("level_").append(depth).append(":\n");
+					builder.append("    ".repeat(depth + 1)).append("values: [[").append(random.nextInt(100))
+							.append(", ").append(random.nextInt(100)).append("], [")
+							.append(random.nextInt(100)).append("]]\n");
+				}
+			}
+		}
+	},
+
+	/**
+	 * Basic and literal strings, mostly plain with some escape sequences, variables and multiline strings.
+	 */
+	STRINGS {
+		@Override
+		void generate(StringBuilder builder, Random random, int size) {
+			int key = 0;
+
+			while (builder.length() < size) {
+				builder.append("name_").append(key).append(": \"");
+				appendSentence(builder, random);
+				builder.append("\"\n");
+				builder.append("path_").append(key).append(": 'C:\\");
+				appendSentence(builder, random);
+				builder.append("'\n");
+				builder.append("message_").append(key).append(": \"Hello $name_").append(key).append(", \\\"");
+				appendSentence(builder, random);
+				builder.append("\\\"\\n\"\n");
+
+				if (key % 8 == 0) {
+					builder.append("text_").append(key).append(": \"\"\"\n");
+
+					for (int line = 0; line < 4; line++) {
+						appendSentence(builder, random);
+						builder.append('\n');
+					}
+
+					builder.append("\"\"\"\n");
+				}
+
+				key++;
+			}
+		}
+	};
+
+	private static final long SEED = 0x6775726161L;
+
+	/**
+	 * Generates the content of this corpus.
+	 *
+	 * @param size the approximate size of the content in characters
+	 * @return the content
+	 */
+	public String generate(int size) {
+		StringBuilder builder = new StringBuilder(size + 1024);
+		this.generate(builder, new Random(SEED), size);
+		return builder.toString();
+	}
+
+	abstract void generate(StringBuilder builder, Random random, int size);
+
+	private static void appendSentence(StringBuilder builder, Random random) {
+		int words = 4 + random.nextInt(8);
+
+		for (int word = 0; word < words; word++) {
+			if (word != 0) {
+				builder.append(' ');
+			}
+
+			appendWord(builder, random);
+		}
+	}
+
+	private static void appendWord(StringBuilder builder, Random random) {
+		int length = 2 + random.nextInt(8);
+
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(26)));
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package me.i509.gura.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenizationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how tokenizing identifiers scales with the length of the identifier.
+ *
+ * <p>The time per operation should grow linearly with {@link #length}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentifierBenchmark {
+	@Param({"16", "256", "4096", "65536", "1048576"})
+	public int length;
+
+	private String key;
+	private String keyWithDigits;
+	private String variable;
+
+	@Setup
+	public void setup() {
+		this.key = "a".repeat(this.length) + ": value";
+		// Digits inside an identifier require checking whether a number starts at each digit.
+		this.keyWithDigits = "a" + "0123456789".repeat(this.length / 10) + "x: value";
+		this.variable = "key: $" + "v".repeat(this.length);
+	}
+
+	@Benchmark
+	public TokenizationResult longKey() {
+		return Token.tokenize(this.key);
+	}
+
+	@Benchmark
+	public TokenizationResult longKeyWithDigits() {
+		return Token.tokenize(this.keyWithDigits);
+	}
+
+	@Benchmark
+	public TokenizationResult longVariable() {
+		return Token.tokenize(this.variable);
+	}
+}
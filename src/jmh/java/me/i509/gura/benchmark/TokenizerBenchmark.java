@@ -0,0 +1,111 @@
+package me.i509.gura.benchmark;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenStream;
+import me.i509.gura.token.TokenizationResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the tokenizer over each {@link Corpus}.
+ *
+ * <p>Besides operations per second, every benchmark reports the throughput in megabytes and tokens per second through
+ * {@link Throughput}. Run with the GC profiler (enabled by default in the build) to also get the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+	@Param({"REALISTIC", "COMMENTS", "LONG_IDENTIFIERS", "NUMBERS", "CRLF", "NESTED_ARRAYS", "STRINGS"})
+	public Corpus corpus;
+
+	/**
+	 * The approximate size of each corpus in characters.
+	 */
+	@Param({"1048576"})
+	public int size;
+
+	private String content;
+	private ByteBuffer utf8;
+	private int tokens;
+
+	@Setup
+	public void setup() {
+		this.content = this.corpus.generate(this.size);
+		byte[] bytes = this.content.getBytes(StandardCharsets.UTF_8);
+		this.utf8 = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+		this.tokens = Token.tokenize(this.content).buffer().size();
+	}
+
+	@Benchmark
+	public TokenizationResult string(Throughput throughput) {
+		throughput.record(this.content.length(), this.tokens);
+		return Token.tokenize(this.content);
+	}
+
+	@Benchmark
+	public TokenizationResult parallel(Throughput throughput) {
+		throughput.record(this.content.length(), this.tokens);
+		return Token.tokenizeParallel(this.content);
+	}
+
+	@Benchmark
+	public TokenizationResult utf8(Throughput throughput) {
+		throughput.record(this.utf8.remaining(), this.tokens);
+		return Token.tokenize(this.utf8);
+	}
+
+	@Benchmark
+	public int stream(Throughput throughput) {
+		throughput.record(this.content.length(), this.tokens);
+		TokenStream stream = TokenStream.of(new StringReader(this.content));
+		int count = 0;
+
+		while (stream.hasNext()) {
+			stream.next();
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Counts the input consumed and tokens produced, which JMH reports as rates per second.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Throughput {
+		public double megabytes;
+		public long tokens;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			this.megabytes = 0;
+			this.tokens = 0;
+		}
+
+		void record(int length, int tokens) {
+			this.megabytes += length / (1024.0 * 1024.0);
+			this.tokens += tokens;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package me.i509.gura.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * An array of values.
+ */
+public final class GuraArray extends GuraValue {
+	private static final GuraArray EMPTY = new GuraArray(Collections.emptyList());
+
+	/**
+	 * Creates an array of values.
+	 *
+	 * @param values the values
+	 * @return a new array
+	 */
+	public static GuraArray of(List<? extends GuraValue> values) {
+		if (values.isEmpty()) {
+			return EMPTY;
+		}
+
+		List<GuraValue> copy = new ArrayList<>(values.size());
+
+		for (GuraValue value : values) {
+			copy.add(Objects.requireNonNull(value, "Value cannot be null"));
+		}
+
+		return new GuraArray(Collections.unmodifiableList(copy));
+	}
+
+	/**
+	 * Creates an array of values.
+	 *
+	 * @param values the values
+	 * @return a new array
+	 */
+	public static GuraArray of(GuraValue... values) {
+		return of(List.of(values));
+	}
+
+	private final List<GuraValue> values;
+
+	private GuraArray(List<GuraValue> values) {
+		this.values = values;
+	}
+
+	@Override
+	public Type type() {
+		return Type.ARRAY;
+	}
+
+	@Override
+	public GuraArray asArray() {
+		return this;
+	}
+
+	/**
+	 * @param index the index of the value
+	 * @return the value
+	 */
+	public GuraValue get(int index) {
+		return this.values.get(index);
+	}
+
+	/**
+	 * @return the amount of values in this array
+	 */
+	public int size() {
+		return this.values.size();
+	}
+
+	/**
+	 * @return an immutable view of the values in this array
+	 */
+	public List<GuraValue> asList() {
+		return this.values;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GuraArray that = (GuraArray) o;
+		return this.values.equals(that.values);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.values);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraArray.class.getSimpleName() + "[", "]")
+				.add("values=" + this.values)
+				.toString();
+	}
+}
@@ -0,0 +1,45 @@
+package me.i509.gura.ast;
+
+/**
+ * A boolean, {@code true} or {@code false}.
+ */
+public final class GuraBoolean extends GuraValue {
+	public static final GuraBoolean TRUE = new GuraBoolean(true);
+	public static final GuraBoolean FALSE = new GuraBoolean(false);
+
+	/**
+	 * @param value the value
+	 * @return the boolean with the value
+	 */
+	public static GuraBoolean of(boolean value) {
+		return value ? TRUE : FALSE;
+	}
+
+	private final boolean value;
+
+	private GuraBoolean(boolean value) {
+		this.value = value;
+	}
+
+	@Override
+	public Type type() {
+		return Type.BOOLEAN;
+	}
+
+	@Override
+	public GuraBoolean asBoolean() {
+		return this;
+	}
+
+	/**
+	 * @return the value of this boolean
+	 */
+	public boolean value() {
+		return this.value;
+	}
+
+	@Override
+	public String toString() {
+		return GuraBoolean.class.getSimpleName() + "[value=" + this.value + "]";
+	}
+}
@@ -0,0 +1,82 @@
+package me.i509.gura.ast;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A parsed Gura document.
+ *
+ * <p>Besides the entries of the document, a document holds the variables it defines and the files it imports.
+ * Variables are not substituted into the entries by the parser, the entries contain {@link GuraVariable} and
+ * {@link GuraInterpolatedString} values wherever variables are used.
+ */
+public final class GuraDocument {
+	private final GuraObject root;
+	private final Map<String, GuraValue> variables;
+	private final List<String> imports;
+
+	/**
+	 * Creates a document.
+	 *
+	 * @param root the entries of the document
+	 * @param variables the variables defined by the document, by name without the leading {@code $}
+	 * @param imports the paths of the files imported by the document, in order
+	 */
+	public GuraDocument(GuraObject root, Map<String, ? extends GuraValue> variables, List<String> imports) {
+		this.root = Objects.requireNonNull(root, "Root cannot be null");
+		this.variables = variables.isEmpty()
+				? Collections.emptyMap()
+				: Collections.unmodifiableMap(new LinkedHashMap<>(variables));
+		this.imports = List.copyOf(imports);
+	}
+
+	/**
+	 * @return the entries of this document
+	 */
+	public GuraObject root() {
+		return this.root;
+	}
+
+	/**
+	 * @return the variables defined by this document in the order they were defined, by name without the leading
+	 * {@code $}
+	 */
+	public Map<String, GuraValue> variables() {
+		return this.variables;
+	}
+
+	/**
+	 * @return the paths of the files imported by this document, in order
+	 */
+	public List<String> imports() {
+		return this.imports;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GuraDocument that = (GuraDocument) o;
+		return this.root.equals(that.root)
+				&& this.variables.equals(that.variables)
+				&& this.imports.equals(that.imports);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.root, this.variables, this.imports);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraDocument.class.getSimpleName() + "[", "]")
+				.add("root=" + this.root)
+				.add("variables=" + this.variables)
+				.add("imports=" + this.imports)
+				.toString();
+	}
+}
@@ -0,0 +1,76 @@
+package me.i509.gura.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A basic string containing variables, such as {@code "Hello $name"}.
+ *
+ * <p>The string is kept as a sequence of parts until variables are resolved. Every part is either a
+ * {@link GuraString} holding text with escape sequences already replaced, or a {@link GuraVariable}.
+ */
+public final class GuraInterpolatedString extends GuraValue {
+	/**
+	 * Creates an interpolated string.
+	 *
+	 * @param parts the parts of the string, each of which is a {@link GuraString} or {@link GuraVariable}
+	 * @return a new interpolated string
+	 * @throws IllegalArgumentException if a part is neither a string nor a variable
+	 */
+	public static GuraInterpolatedString of(List<? extends GuraValue> parts) {
+		List<GuraValue> copy = new ArrayList<>(parts.size());
+
+		for (GuraValue part : parts) {
+			Objects.requireNonNull(part, "Part cannot be null");
+
+			if (part.type() != Type.STRING && part.type() != Type.VARIABLE) {
+				throw new IllegalArgumentException("Part must be a string or variable: " + part);
+			}
+
+			copy.add(part);
+		}
+
+		return new GuraInterpolatedString(Collections.unmodifiableList(copy));
+	}
+
+	private final List<GuraValue> parts;
+
+	private GuraInterpolatedString(List<GuraValue> parts) {
+		this.parts = parts;
+	}
+
+	@Override
+	public Type type() {
+		return Type.INTERPOLATED_STRING;
+	}
+
+	/**
+	 * @return the parts of this string in order
+	 */
+	public List<GuraValue> parts() {
+		return this.parts;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GuraInterpolatedString that = (GuraInterpolatedString) o;
+		return this.parts.equals(that.parts);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.parts);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraInterpolatedString.class.getSimpleName() + "[", "]")
+				.add("parts=" + this.parts)
+				.toString();
+	}
+}
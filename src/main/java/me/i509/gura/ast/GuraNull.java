@@ -0,0 +1,21 @@
+package me.i509.gura.ast;
+
+/**
+ * The null value, written as {@code null} in a Gura document.
+ */
+public final class GuraNull extends GuraValue {
+	public static final GuraNull INSTANCE = new GuraNull();
+
+	private GuraNull() {
+	}
+
+	@Override
+	public Type type() {
+		return Type.NULL;
+	}
+
+	@Override
+	public String toString() {
+		return GuraNull.class.getSimpleName();
+	}
+}
@@ -0,0 +1,177 @@
+package me.i509.gura.ast;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An integer or floating point number.
+ *
+ * <p>Integers are stored as a {@code long} and floating point numbers as a {@code double}. Only integers which do not
+ * fit in a {@code long} are stored as a {@link BigInteger}, and floating point numbers which are too large for a
+ * {@code double} as a {@link BigDecimal}, see {@link #isBig()}.
+ */
+public final class GuraNumber extends GuraValue {
+	/**
+	 * Creates an integer.
+	 *
+	 * @param value the value of the integer
+	 * @return a new number
+	 */
+	public static GuraNumber of(long value) {
+		return new GuraNumber(value, 0, true, null);
+	}
+
+	/**
+	 * Creates a floating point number.
+	 *
+	 * @param value the value of the number
+	 * @return a new number
+	 */
+	public static GuraNumber of(double value) {
+		return new GuraNumber(0, value, false, null);
+	}
+
+	/**
+	 * Creates an integer, which is stored as a {@code long} if it fits in one.
+	 *
+	 * @param value the value of the integer
+	 * @return a new number
+	 */
+	public static GuraNumber of(BigInteger value) {
+		if (value.bitLength() < Long.SIZE) {
+			return of(value.longValue());
+		}
+
+		return new GuraNumber(0, 0, true, value);
+	}
+
+	/**
+	 * Creates a floating point number, which is stored as a {@code double} unless it is too large for one.
+	 *
+	 * @param value the value of the number
+	 * @return a new number
+	 */
+	public static GuraNumber of(BigDecimal value) {
+		double doubleValue = value.doubleValue();
+
+		if (!Double.isInfinite(doubleValue)) {
+			return of(doubleValue);
+		}
+
+		return new GuraNumber(0, 0, false, value);
+	}
+
+	private final long longValue;
+	private final double doubleValue;
+	private final boolean integer;
+	/**
+	 * The {@link BigInteger} or {@link BigDecimal} value of a number which does not fit in a primitive.
+	 */
+	@Nullable
+	private final Number big;
+
+	private GuraNumber(long longValue, double doubleValue, boolean integer, @Nullable Number big) {
+		this.longValue = longValue;
+		this.doubleValue = doubleValue;
+		this.integer = integer;
+		this.big = big;
+	}
+
+	@Override
+	public Type type() {
+		return Type.NUMBER;
+	}
+
+	@Override
+	public GuraNumber asNumber() {
+		return this;
+	}
+
+	/**
+	 * @return true if this number is an integer, false if it is a floating point number
+	 */
+	public boolean isInteger() {
+		return this.integer;
+	}
+
+	/**
+	 * @return true if this number does not fit in a {@code long} or a {@code double}, and its {@link #value()} is a
+	 *     {@link BigInteger} or {@link BigDecimal}
+	 */
+	public boolean isBig() {
+		return this.big != null;
+	}
+
+	/**
+	 * @return the value of this number as a long, floating point numbers are truncated and {@linkplain #isBig() big}
+	 *     numbers are clamped to the range of a long
+	 */
+	public long longValue() {
+		if (this.big != null) {
+			return (long) this.big.doubleValue();
+		}
+
+		return this.integer ? this.longValue : (long) this.doubleValue;
+	}
+
+	/**
+	 * @return the value of this number as a double, {@linkplain #isBig() big} numbers may be infinite
+	 */
+	public double doubleValue() {
+		if (this.big != null) {
+			return this.big.doubleValue();
+		}
+
+		return this.integer ? this.longValue : this.doubleValue;
+	}
+
+	/**
+	 * @return the value of this number as a {@link Long} or {@link Double}, or as a {@link BigInteger} or
+	 *     {@link BigDecimal} if it is {@linkplain #isBig() big}
+	 */
+	public Number value() {
+		if (this.big != null) {
+			return this.big;
+		}
+
+		return this.integer ? (Number) this.longValue : (Number) this.doubleValue;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GuraNumber that = (GuraNumber) o;
+		if (this.big instanceof BigDecimal && that.big instanceof BigDecimal) {
+			// Decimals which only differ by their scale, such as 1e400 and 10e399, are equal.
+			return ((BigDecimal) this.big).compareTo((BigDecimal) that.big) == 0;
+		}
+
+		return this.integer == that.integer
+				&& this.longValue == that.longValue
+				&& Double.compare(this.doubleValue, that.doubleValue) == 0
+				&& Objects.equals(this.big, that.big);
+	}
+
+	@Override
+	public int hashCode() {
+		if (this.big instanceof BigDecimal) {
+			return ((BigDecimal) this.big).stripTrailingZeros().hashCode();
+		} else if (this.big != null) {
+			return this.big.hashCode();
+		}
+
+		return this.integer ? Long.hashCode(this.longValue) : Double.hashCode(this.doubleValue);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraNumber.class.getSimpleName() + "[", "]")
+				.add("value=" + this.value())
+				.toString();
+	}
+}
@@ -0,0 +1,192 @@
+package me.i509.gura.ast;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An object, which maps keys to values in the order they were defined.
+ */
+public final class GuraObject extends GuraValue {
+	private static final GuraObject EMPTY = new GuraObject(Collections.emptyMap());
+
+	/**
+	 * The empty object, which is written as {@code empty} in a Gura document.
+	 *
+	 * @return the empty object
+	 */
+	public static GuraObject empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Creates an object containing the entries of a map.
+	 *
+	 * @param entries the entries, in the order of the map
+	 * @return a new object
+	 */
+	public static GuraObject of(Map<String, ? extends GuraValue> entries) {
+		Builder builder = builder();
+		entries.forEach(builder::put);
+		return builder.build();
+	}
+
+	/**
+	 * @return a new builder of an object
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private final Map<String, GuraValue> entries;
+
+	private GuraObject(Map<String, GuraValue> entries) {
+		this.entries = entries;
+	}
+
+	@Override
+	public Type type() {
+		return Type.OBJECT;
+	}
+
+	@Override
+	public GuraObject asObject() {
+		return this;
+	}
+
+	/**
+	 * @param key the key
+	 * @return the value of the key, or null if this object does not contain the key
+	 */
+	@Nullable
+	public GuraValue get(String key) {
+		return this.entries.get(key);
+	}
+
+	/**
+	 * @param key the key
+	 * @return true if this object contains the key
+	 */
+	public boolean containsKey(String key) {
+		return this.entries.containsKey(key);
+	}
+
+	/**
+	 * @return the keys of this object in the order they were defined
+	 */
+	public Set<String> keys() {
+		return this.entries.keySet();
+	}
+
+	/**
+	 * @return an immutable view of the entries of this object in the order they were defined
+	 */
+	public Map<String, GuraValue> asMap() {
+		return this.entries;
+	}
+
+	/**
+	 * @return the amount of entries in this object
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * @return true if this object has no entries
+	 */
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GuraObject that = (GuraObject) o;
+		return this.entries.equals(that.entries);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.entries);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraObject.class.getSimpleName() + "[", "]")
+				.add("entries=" + this.entries)
+				.toString();
+	}
+
+	/**
+	 * A builder of an object.
+	 *
+	 * <p>A builder must not be used after {@link #build()} was called.
+	 */
+	public static final class Builder {
+		@Nullable
+		private Map<String, GuraValue> entries = new LinkedHashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds an entry.
+		 *
+		 * @param key the key
+		 * @param value the value
+		 * @return this builder
+		 * @throws IllegalArgumentException if the key was already added
+		 */
+		public Builder put(String key, GuraValue value) {
+			if (!this.tryPut(key, value)) {
+				throw new IllegalArgumentException("Duplicate key: " + key);
+			}
+
+			return this;
+		}
+
+		/**
+		 * Adds an entry unless the key was already added.
+		 *
+		 * @param key the key
+		 * @param value the value
+		 * @return true if the entry was added, false if the key was already added
+		 */
+		public boolean tryPut(String key, GuraValue value) {
+			Objects.requireNonNull(key, "Key cannot be null");
+			Objects.requireNonNull(value, "Value cannot be null");
+			return this.entries().putIfAbsent(key, value) == null;
+		}
+
+		/**
+		 * @return the amount of entries added so far
+		 */
+		public int size() {
+			return this.entries().size();
+		}
+
+		/**
+		 * @return a new object containing the added entries
+		 */
+		public GuraObject build() {
+			Map<String, GuraValue> entries = this.entries();
+			this.entries = null;
+			return entries.isEmpty() ? EMPTY : new GuraObject(Collections.unmodifiableMap(entries));
+		}
+
+		private Map<String, GuraValue> entries() {
+			if (this.entries == null) {
+				throw new IllegalStateException("Builder was already built");
+			}
+
+			return this.entries;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package me.i509.gura.ast;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A string.
+ *
+ * <p>The value of a string has escape sequences already replaced.
+ */
+public final class GuraString extends GuraValue {
+	private static final GuraString EMPTY = new GuraString("");
+
+	/**
+	 * Creates a string.
+	 *
+	 * @param value the value of the string
+	 * @return a new string
+	 */
+	public static GuraString of(String value) {
+		Objects.requireNonNull(value, "Value cannot be null");
+		return value.isEmpty() ? EMPTY : new GuraString(value);
+	}
+
+	private final String value;
+
+	private GuraString(String value) {
+		this.value = value;
+	}
+
+	@Override
+	public Type type() {
+		return Type.STRING;
+	}
+
+	@Override
+	public GuraString asString() {
+		return this;
+	}
+
+	/**
+	 * @return the value of this string
+	 */
+	public String value() {
+		return this.value;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GuraString that = (GuraString) o;
+		return this.value.equals(that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.value.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraString.class.getSimpleName() + "[", "]")
+				.add("value=\"" + this.value + "\"")
+				.toString();
+	}
+}
@@ -0,0 +1,106 @@
+package me.i509.gura.ast;
+
+/**
+ * A value in a Gura document.
+ *
+ * <p>Values are immutable. The type of a value is available through {@link #type()}, and the {@code as} methods cast
+ * a value to its specific class.
+ */
+public abstract class GuraValue {
+	GuraValue() {
+	}
+
+	/**
+	 * @return the type of this value
+	 */
+	public abstract Type type();
+
+	/**
+	 * @return this value as an object
+	 * @throws IllegalStateException if this value is not an object
+	 */
+	public GuraObject asObject() {
+		throw this.wrongType(Type.OBJECT);
+	}
+
+	/**
+	 * @return this value as an array
+	 * @throws IllegalStateException if this value is not an array
+	 */
+	public GuraArray asArray() {
+		throw this.wrongType(Type.ARRAY);
+	}
+
+	/**
+	 * @return this value as a string
+	 * @throws IllegalStateException if this value is not a string
+	 */
+	public GuraString asString() {
+		throw this.wrongType(Type.STRING);
+	}
+
+	/**
+	 * @return this value as a number
+	 * @throws IllegalStateException if this value is not a number
+	 */
+	public GuraNumber asNumber() {
+		throw this.wrongType(Type.NUMBER);
+	}
+
+	/**
+	 * @return this value as a boolean
+	 * @throws IllegalStateException if this value is not a boolean
+	 */
+	public GuraBoolean asBoolean() {
+		throw this.wrongType(Type.BOOLEAN);
+	}
+
+	private IllegalStateException wrongType(Type expected) {
+		return new IllegalStateException("Expected " + expected + " but value is " + this.type() + ": " + this);
+	}
+
+	/**
+	 * A type of value.
+	 */
+	public enum Type {
+		/**
+		 * An object, see {@link GuraObject}.
+		 */
+		OBJECT,
+
+		/**
+		 * An array, see {@link GuraArray}.
+		 */
+		ARRAY,
+
+		/**
+		 * A string, see {@link GuraString}.
+		 */
+		STRING,
+
+		/**
+		 * A basic string containing variables which have not been resolved yet, see {@link GuraInterpolatedString}.
+		 */
+		INTERPOLATED_STRING,
+
+		/**
+		 * An integer or floating point number, see {@link GuraNumber}.
+		 */
+		NUMBER,
+
+		/**
+		 * A boolean, see {@link GuraBoolean}.
+		 */
+		BOOLEAN,
+
+		/**
+		 * The null value, see {@link GuraNull}.
+		 */
+		NULL,
+
+		/**
+		 * A reference to a variable which has not been resolved yet, see {@link GuraVariable}.
+		 */
+		VARIABLE
+	}
+}
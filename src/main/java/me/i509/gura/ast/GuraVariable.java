@@ -0,0 +1,60 @@
+package me.i509.gura.ast;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A reference to a variable, written as {@code $name} in a Gura document.
+ *
+ * <p>References are kept in the tree as they were written until variables are resolved.
+ */
+public final class GuraVariable extends GuraValue {
+	/**
+	 * Creates a reference to a variable.
+	 *
+	 * @param name the name of the variable, without the leading {@code $}
+	 * @return a new reference
+	 */
+	public static GuraVariable of(String name) {
+		Objects.requireNonNull(name, "Name cannot be null");
+		return new GuraVariable(name);
+	}
+
+	private final String name;
+
+	private GuraVariable(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public Type type() {
+		return Type.VARIABLE;
+	}
+
+	/**
+	 * @return the name of the variable, without the leading {@code $}
+	 */
+	public String name() {
+		return this.name;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GuraVariable that = (GuraVariable) o;
+		return this.name.equals(that.name);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.name.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraVariable.class.getSimpleName() + "[", "]")
+				.add("name=" + this.name)
+				.toString();
+	}
+}
@@ -0,0 +1,217 @@
+package me.i509.gura.bind;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Converts the values of a Gura document to a Java type.
+ *
+ * <p>Binders are immutable and built once per type. Binders of classes are cached for the lifetime of the class, so
+ * the cost of inspecting a class is only paid once no matter how many documents are bound to it.
+ *
+ * <p>By default every conversion fails, subclasses override the conversions from the Gura values their type can be
+ * bound from.
+ */
+abstract class Binder {
+	private static final ClassValue<Binder> CACHE = new ClassValue<>() {
+		@Override
+		protected Binder computeValue(Class<?> type) {
+			return create(type);
+		}
+	};
+
+	/**
+	 * Gets the binder of a type.
+	 *
+	 * @param type the type, either a class or a parameterized collection or map
+	 * @return the binder
+	 * @throws IllegalArgumentException if values cannot be bound to the type
+	 */
+	static Binder of(Type type) {
+		if (type instanceof Class) {
+			return CACHE.get((Class<?>) type);
+		}
+
+		if (type instanceof ParameterizedType) {
+			ParameterizedType parameterized = (ParameterizedType) type;
+			Class<?> raw = (Class<?>) parameterized.getRawType();
+			Type[] arguments = parameterized.getActualTypeArguments();
+
+			if (raw == List.class || raw == Collection.class || raw == Iterable.class) {
+				return new CollectionBinder(type, of(arguments[0]), false);
+			}
+
+			if (raw == Set.class) {
+				return new CollectionBinder(type, of(arguments[0]), true);
+			}
+
+			if (raw == Map.class) {
+				if (arguments[0] != String.class) {
+					throw new IllegalArgumentException("Keys of maps must be strings: " + type.getTypeName());
+				}
+
+				return new MapBinder(type, of(arguments[1]));
+			}
+
+			return of(raw);
+		}
+
+		if (type instanceof WildcardType) {
+			return of(((WildcardType) type).getUpperBounds()[0]);
+		}
+
+		if (type instanceof GenericArrayType) {
+			throw new IllegalArgumentException("Cannot bind to arrays, use a list instead: " + type.getTypeName());
+		}
+
+		throw new IllegalArgumentException("Cannot bind to type variable " + type.getTypeName());
+	}
+
+	private static Binder create(Class<?> type) {
+		ValueBinder value = ValueBinder.of(type);
+
+		if (value != null) {
+			return value;
+		}
+
+		if (type.isEnum()) {
+			return new EnumBinder(type);
+		}
+
+		if (type == Object.class) {
+			return DynamicBinder.INSTANCE;
+		}
+
+		if (type == List.class || type == Collection.class || type == Iterable.class) {
+			return new CollectionBinder(type, DynamicBinder.INSTANCE, false);
+		}
+
+		if (type == Set.class) {
+			return new CollectionBinder(type, DynamicBinder.INSTANCE, true);
+		}
+
+		if (type == Map.class) {
+			return new MapBinder(type, DynamicBinder.INSTANCE);
+		}
+
+		if (type.isArray()) {
+			throw new IllegalArgumentException("Cannot bind to arrays, use a list instead: " + type.getTypeName());
+		}
+
+		if (type.isPrimitive() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+			throw new IllegalArgumentException("Cannot bind to " + type.getTypeName());
+		}
+
+		return ObjectBinder.of(type);
+	}
+
+	private final Type type;
+
+	Binder(Type type) {
+		this.type = type;
+	}
+
+	/**
+	 * @return the type values are bound to
+	 */
+	Type type() {
+		return this.type;
+	}
+
+	Object fromString(String value, GuraLocator at) {
+		throw this.mismatch("a string", at);
+	}
+
+	Object fromInteger(long value, GuraLocator at) {
+		throw this.mismatch("an integer", at);
+	}
+
+	Object fromFloatingPoint(double value, GuraLocator at) {
+		throw this.mismatch("a floating point number", at);
+	}
+
+	Object fromBigInteger(BigInteger value, GuraLocator at) {
+		throw this.mismatch("an integer", at);
+	}
+
+	Object fromBigDecimal(BigDecimal value, GuraLocator at) {
+		throw this.mismatch("a floating point number", at);
+	}
+
+	Object fromBoolean(boolean value, GuraLocator at) {
+		throw this.mismatch("a boolean", at);
+	}
+
+	@Nullable
+	Object fromNull(GuraLocator at) {
+		return null;
+	}
+
+	/**
+	 * Starts binding an object.
+	 *
+	 * @param key the key of the object in its parent, or null if it is an element of an array or the root
+	 * @param at the position of the object
+	 * @return the frame which receives the entries of the object
+	 */
+	Frame startObject(@Nullable String key, GuraLocator at) {
+		throw this.mismatch("an object", at);
+	}
+
+	/**
+	 * Starts binding an array.
+	 *
+	 * @param key the key of the array in its parent, or null if it is an element of an array
+	 * @param at the position of the array
+	 * @return the frame which receives the elements of the array
+	 */
+	Frame startArray(@Nullable String key, GuraLocator at) {
+		throw this.mismatch("an array", at);
+	}
+
+	/**
+	 * Converts the value of a variable, which was bound with {@link DynamicBinder}.
+	 *
+	 * @param value the value of the variable
+	 * @param at the position of the reference to the variable
+	 * @return the converted value
+	 */
+	@Nullable
+	Object fromDynamic(@Nullable Object value, GuraLocator at) {
+		if (value == null) {
+			return this.fromNull(at);
+		} else if (value instanceof String) {
+			return this.fromString((String) value, at);
+		} else if (value instanceof Long) {
+			return this.fromInteger((Long) value, at);
+		} else if (value instanceof Double) {
+			return this.fromFloatingPoint((Double) value, at);
+		} else if (value instanceof Boolean) {
+			return this.fromBoolean((Boolean) value, at);
+		} else if (value instanceof BigInteger) {
+			return this.fromBigInteger((BigInteger) value, at);
+		} else if (value instanceof BigDecimal) {
+			return this.fromBigDecimal((BigDecimal) value, at);
+		} else if (value instanceof Map) {
+			throw this.mismatch("an object", at);
+		}
+
+		throw this.mismatch("an array", at);
+	}
+
+	GuraBindException mismatch(String value, GuraLocator at) {
+		return new GuraBindException("Cannot bind " + value + " to " + this.type.getTypeName(), at.row(), at.column());
+	}
+}
@@ -0,0 +1,249 @@
+package me.i509.gura.bind;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraHandler;
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A handler which binds the events of the parser directly to objects, without building a tree.
+ *
+ * <p>Objects and arrays whose key does not match anything in the target type are skipped by the parser. Variables
+ * are kept with {@link DynamicBinder} and converted when they are referenced, so they must be defined before they
+ * are used.
+ */
+final class BindingHandler implements GuraHandler {
+	private final Binder root;
+	private final List<Frame> stack = new ArrayList<>();
+	private final Map<String, Object> variables = new HashMap<>();
+	private GuraLocator locator;
+	/**
+	 * The name of the variable whose value is being bound.
+	 */
+	@Nullable
+	private String variable;
+	@Nullable
+	private Object result;
+
+	BindingHandler(Binder root) {
+		this.root = root;
+	}
+
+	/**
+	 * @return the bound document
+	 */
+	Object result() {
+		if (this.result == null) {
+			throw new IllegalStateException("Document was not bound");
+		}
+
+		return this.result;
+	}
+
+	@Override
+	public void startDocument(GuraLocator locator) {
+		this.locator = locator;
+		this.stack.add(this.root.startObject(null, locator));
+	}
+
+	@Override
+	public void endDocument() {
+		this.result = this.stack.remove(0).finish();
+	}
+
+	@Override
+	public void importFile(String path) {
+		throw new GuraBindException(
+				"Documents with imports cannot be bound directly, import '" + path + "'",
+				this.locator.row(),
+				this.locator.column()
+		);
+	}
+
+	/**
+	 * Selects the binder of a child of the current object or array.
+	 *
+	 * @param key the key of the child
+	 * @return the binder, or null if the child is skipped
+	 */
+	@Nullable
+	private Binder select(@Nullable String key) {
+		if (this.stack.size() == 1 && key != null && key.charAt(0) == '$') {
+			this.variable = key.substring(1);
+			return DynamicBinder.INSTANCE;
+		}
+
+		return this.stack.get(this.stack.size() - 1).select(key);
+	}
+
+	private void accept(@Nullable Object value, GuraLocator at) {
+		if (this.stack.size() == 1 && this.variable != null) {
+			if (this.variables.containsKey(this.variable)) {
+				String message = "Variable '$" + this.variable + "' is already defined";
+				throw new GuraBindException(message, at.row(), at.column());
+			}
+
+			this.variables.put(this.variable, value);
+			this.variable = null;
+			return;
+		}
+
+		this.stack.get(this.stack.size() - 1).accept(value, at);
+	}
+
+	@Override
+	public boolean startObject(@Nullable String key) {
+		Binder binder = this.select(key);
+
+		if (binder == null) {
+			return false;
+		}
+
+		this.stack.add(binder.startObject(key, this.locator));
+		return true;
+	}
+
+	@Override
+	public void endObject() {
+		this.end();
+	}
+
+	@Override
+	public boolean startArray(@Nullable String key) {
+		Binder binder = this.select(key);
+
+		if (binder == null) {
+			return false;
+		}
+
+		this.stack.add(binder.startArray(key, this.locator));
+		return true;
+	}
+
+	@Override
+	public void endArray() {
+		this.end();
+	}
+
+	private void end() {
+		Frame frame = this.stack.remove(this.stack.size() - 1);
+		this.accept(frame.finish(), frame);
+	}
+
+	@Override
+	public void string(@Nullable String key, String value) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromString(value, this.locator), this.locator);
+		}
+	}
+
+	@Override
+	public void interpolatedString(@Nullable String key, GuraInterpolatedString value) {
+		Binder binder = this.select(key);
+
+		if (binder == null) {
+			return;
+		}
+
+		StringBuilder builder = new StringBuilder();
+
+		for (GuraValue part : value.parts()) {
+			if (part.type() == GuraValue.Type.STRING) {
+				builder.append(part.asString().value());
+			} else {
+				builder.append(this.lookup(((GuraVariable) part).name()));
+			}
+		}
+
+		this.accept(binder.fromString(builder.toString(), this.locator), this.locator);
+	}
+
+	@Override
+	public void integer(@Nullable String key, long value) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromInteger(value, this.locator), this.locator);
+		}
+	}
+
+	@Override
+	public void floatingPoint(@Nullable String key, double value) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromFloatingPoint(value, this.locator), this.locator);
+		}
+	}
+
+	@Override
+	public void bigInteger(@Nullable String key, BigInteger value) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromBigInteger(value, this.locator), this.locator);
+		}
+	}
+
+	@Override
+	public void bigDecimal(@Nullable String key, BigDecimal value) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromBigDecimal(value, this.locator), this.locator);
+		}
+	}
+
+	@Override
+	public void bool(@Nullable String key, boolean value) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromBoolean(value, this.locator), this.locator);
+		}
+	}
+
+	@Override
+	public void nullValue(@Nullable String key) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromNull(this.locator), this.locator);
+		}
+	}
+
+	@Override
+	public void variable(@Nullable String key, String name) {
+		Binder binder = this.select(key);
+
+		if (binder != null) {
+			this.accept(binder.fromDynamic(this.lookup(name), this.locator), this.locator);
+		}
+	}
+
+	@Nullable
+	private Object lookup(String name) {
+		Object value = this.variables.get(name);
+
+		if (value == null && !this.variables.containsKey(name)) {
+			throw new GuraBindException(
+					"Variable '$" + name + "' is not defined",
+					this.locator.row(),
+					this.locator.column()
+			);
+		}
+
+		return value;
+	}
+}
@@ -0,0 +1,78 @@
+package me.i509.gura.bind;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binds arrays to unmodifiable lists or sets.
+ */
+final class CollectionBinder extends Binder {
+	private final Binder element;
+	private final boolean set;
+
+	CollectionBinder(Type type, Binder element, boolean set) {
+		super(type);
+		this.element = element;
+		this.set = set;
+	}
+
+	@Override
+	Frame startArray(@Nullable String key, GuraLocator at) {
+		return new CollectionFrame(key, at);
+	}
+
+	@Nullable
+	@Override
+	Object fromDynamic(@Nullable Object value, GuraLocator at) {
+		if (!(value instanceof List)) {
+			return super.fromDynamic(value, at);
+		}
+
+		Collection<Object> elements = this.newCollection();
+
+		for (Object element : (List<?>) value) {
+			elements.add(this.element.fromDynamic(element, at));
+		}
+
+		return this.seal(elements);
+	}
+
+	private Collection<Object> newCollection() {
+		return this.set ? new LinkedHashSet<>() : new ArrayList<>();
+	}
+
+	private Collection<Object> seal(Collection<Object> elements) {
+		return this.set ? Collections.unmodifiableSet((LinkedHashSet<Object>) elements)
+				: Collections.unmodifiableList((ArrayList<Object>) elements);
+	}
+
+	private final class CollectionFrame extends Frame {
+		private final Collection<Object> elements = CollectionBinder.this.newCollection();
+
+		CollectionFrame(@Nullable String key, GuraLocator at) {
+			super(key, at);
+		}
+
+		@Override
+		Binder select(@Nullable String key) {
+			return CollectionBinder.this.element;
+		}
+
+		@Override
+		void accept(@Nullable Object value, GuraLocator at) {
+			this.elements.add(value);
+		}
+
+		@Override
+		Object finish() {
+			return CollectionBinder.this.seal(this.elements);
+		}
+	}
+}
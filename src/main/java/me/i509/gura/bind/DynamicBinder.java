@@ -0,0 +1,73 @@
+package me.i509.gura.bind;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binds values to their natural Java representation, for values of type {@link Object}.
+ *
+ * <p>Strings are bound to {@link String}, integers to {@link Long} or {@link BigInteger}, floating point numbers to
+ * {@link Double} or {@link BigDecimal}, booleans to {@link Boolean}, arrays to {@link List} and objects to
+ * {@link Map}. This is also how the values of variables are kept until they are referenced.
+ */
+final class DynamicBinder extends Binder {
+	static final DynamicBinder INSTANCE = new DynamicBinder();
+
+	private final CollectionBinder list = new CollectionBinder(List.class, this, false);
+	private final MapBinder map = new MapBinder(Map.class, this);
+
+	private DynamicBinder() {
+		super(Object.class);
+	}
+
+	@Override
+	Object fromString(String value, GuraLocator at) {
+		return value;
+	}
+
+	@Override
+	Object fromInteger(long value, GuraLocator at) {
+		return value;
+	}
+
+	@Override
+	Object fromFloatingPoint(double value, GuraLocator at) {
+		return value;
+	}
+
+	@Override
+	Object fromBigInteger(BigInteger value, GuraLocator at) {
+		return value;
+	}
+
+	@Override
+	Object fromBigDecimal(BigDecimal value, GuraLocator at) {
+		return value;
+	}
+
+	@Override
+	Object fromBoolean(boolean value, GuraLocator at) {
+		return value;
+	}
+
+	@Override
+	Frame startObject(@Nullable String key, GuraLocator at) {
+		return this.map.startObject(key, at);
+	}
+
+	@Override
+	Frame startArray(@Nullable String key, GuraLocator at) {
+		return this.list.startArray(key, at);
+	}
+
+	@Nullable
+	@Override
+	Object fromDynamic(@Nullable Object value, GuraLocator at) {
+		return value;
+	}
+}
@@ -0,0 +1,47 @@
+package me.i509.gura.bind;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import me.i509.gura.parser.GuraLocator;
+
+/**
+ * Binds strings to the constants of an enum.
+ *
+ * <p>A string matches a constant with the same name, or if there is none, a constant whose name only differs in
+ * case.
+ */
+final class EnumBinder extends Binder {
+	private final Map<String, Object> constants = new HashMap<>();
+	private final Map<String, Object> lowerCaseConstants = new HashMap<>();
+
+	EnumBinder(Class<?> type) {
+		super(type);
+
+		for (Object constant : type.getEnumConstants()) {
+			String name = ((Enum<?>) constant).name();
+			this.constants.put(name, constant);
+			this.lowerCaseConstants.putIfAbsent(name.toLowerCase(Locale.ROOT), constant);
+		}
+	}
+
+	@Override
+	Object fromString(String value, GuraLocator at) {
+		Object constant = this.constants.get(value);
+
+		if (constant == null) {
+			constant = this.lowerCaseConstants.get(value.toLowerCase(Locale.ROOT));
+		}
+
+		if (constant == null) {
+			throw new GuraBindException(
+					"Unknown constant '" + value + "' of " + this.type().getTypeName(),
+					at.row(),
+					at.column()
+			);
+		}
+
+		return constant;
+	}
+}
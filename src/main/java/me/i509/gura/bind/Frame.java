@@ -0,0 +1,65 @@
+package me.i509.gura.bind;
+
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An object or array which is being bound.
+ *
+ * <p>Children are bound in two steps: {@link #select(String)} finds the binder of a child, then the bound value is
+ * passed to {@link #accept(Object, GuraLocator)}, which may happen after the frames of the child were completed.
+ */
+abstract class Frame implements GuraLocator {
+	@Nullable
+	private final String key;
+	private final int row;
+	private final int column;
+
+	Frame(@Nullable String key, GuraLocator at) {
+		this.key = key;
+		this.row = at.row();
+		this.column = at.column();
+	}
+
+	/**
+	 * @return the key of this object or array in its parent
+	 */
+	@Nullable
+	String key() {
+		return this.key;
+	}
+
+	@Override
+	public int row() {
+		return this.row;
+	}
+
+	@Override
+	public int column() {
+		return this.column;
+	}
+
+	/**
+	 * Selects the child which is bound next.
+	 *
+	 * @param key the key of the child, or null for an element of an array
+	 * @return the binder of the child, or null to skip the child
+	 */
+	@Nullable
+	abstract Binder select(@Nullable String key);
+
+	/**
+	 * Accepts the value of the selected child.
+	 *
+	 * @param value the bound value
+	 * @param at the position of the value
+	 */
+	abstract void accept(@Nullable Object value, GuraLocator at);
+
+	/**
+	 * Completes this frame.
+	 *
+	 * @return the bound object or array
+	 */
+	abstract Object finish();
+}
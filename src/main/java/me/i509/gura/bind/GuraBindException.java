@@ -0,0 +1,62 @@
+package me.i509.gura.bind;
+
+/**
+ * Thrown when the content of a Gura document cannot be bound to the requested type.
+ */
+public final class GuraBindException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final String reason;
+	private final int row;
+	private final int column;
+
+	/**
+	 * Creates an exception.
+	 *
+	 * @param reason why the document cannot be bound
+	 * @param row the row of the value which cannot be bound
+	 * @param column the column of the value which cannot be bound
+	 */
+	public GuraBindException(String reason, int row, int column) {
+		super(reason + " at row " + row + ", column " + column);
+		this.reason = reason;
+		this.row = row;
+		this.column = column;
+	}
+
+	/**
+	 * Creates an exception caused by another exception.
+	 *
+	 * @param reason why the document cannot be bound
+	 * @param row the row of the value which cannot be bound
+	 * @param column the column of the value which cannot be bound
+	 * @param cause the cause
+	 */
+	public GuraBindException(String reason, int row, int column, Throwable cause) {
+		super(reason + " at row " + row + ", column " + column, cause);
+		this.reason = reason;
+		this.row = row;
+		this.column = column;
+	}
+
+	/**
+	 * @return why the document cannot be bound, without the position
+	 */
+	public String reason() {
+		return this.reason;
+	}
+
+	/**
+	 * @return the row of the value which cannot be bound
+	 */
+	public int row() {
+		return this.row;
+	}
+
+	/**
+	 * @return the column of the value which cannot be bound
+	 */
+	public int column() {
+		return this.column;
+	}
+}
@@ -0,0 +1,128 @@
+package me.i509.gura.bind;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.token.TokenizationResult;
+
+/**
+ * Binds Gura documents directly to Java objects while they are parsed.
+ *
+ * <p>Documents can be bound to records, to classes with a constructor without parameters, and to maps. The values
+ * of a document are converted as follows:
+ *
+ * <ul>
+ * <li>objects to records, classes, or {@code Map<String, V>}</li>
+ * <li>arrays to {@code List<E>}, {@code Collection<E>} or {@code Set<E>}</li>
+ * <li>strings to {@link String} or to the constants of an enum, matching their name</li>
+ * <li>integers to any numeric type they fit in, including {@link java.math.BigInteger}</li>
+ * <li>floating point numbers to {@code float}, {@code double} and {@link java.math.BigDecimal}</li>
+ * <li>booleans to {@code boolean}</li>
+ * <li>anything to {@link Object}, as strings, longs, doubles, booleans, lists and maps</li>
+ * </ul>
+ *
+ * <p>No tree of the document is built, and the parts of a document which do not match the target type are skipped
+ * without being decoded. How to bind each type is worked out once and cached, so binding many documents to the same
+ * type only pays for inspecting the type once.
+ *
+ * <pre>{@code
+ * record Server(String host, int port, List<String> tags) {}
+ *
+ * Server server = GuraBinder.bind("host: \"localhost\"\nport: 8080\ntags: [\"api\"]", Server.class);
+ * }</pre>
+ */
+public final class GuraBinder {
+	/**
+	 * Binds the content of a Gura file.
+	 *
+	 * @param content the content of the Gura file
+	 * @param type the type to bind the document to
+	 * @param <T> the type to bind the document to
+	 * @return the bound document
+	 * @throws IllegalArgumentException if documents cannot be bound to the type
+	 * @throws GuraParseException if the content is not a valid Gura document
+	 * @throws GuraBindException if the document does not match the type
+	 */
+	public static <T> T bind(CharSequence content, Class<T> type) {
+		BindingHandler handler = handler(type);
+		GuraParser.parse(content, handler);
+		return type.cast(handler.result());
+	}
+
+	/**
+	 * Binds the tokens of a Gura file.
+	 *
+	 * @param tokens the tokens of the Gura file
+	 * @param type the type to bind the document to
+	 * @param <T> the type to bind the document to
+	 * @return the bound document
+	 * @throws IllegalArgumentException if documents cannot be bound to the type
+	 * @throws GuraParseException if the tokens are not a valid Gura document, or some tokens are invalid
+	 * @throws GuraBindException if the document does not match the type
+	 */
+	public static <T> T bind(TokenizationResult tokens, Class<T> type) {
+		BindingHandler handler = handler(type);
+		GuraParser.parse(tokens, handler);
+		return type.cast(handler.result());
+	}
+
+	/**
+	 * Binds the content of a Gura file read from a reader.
+	 *
+	 * <p>The reader is not closed.
+	 *
+	 * @param reader the reader to read the content of the Gura file from
+	 * @param type the type to bind the document to
+	 * @param <T> the type to bind the document to
+	 * @return the bound document
+	 * @throws IllegalArgumentException if documents cannot be bound to the type
+	 * @throws GuraParseException if the content is not a valid Gura document
+	 * @throws GuraBindException if the document does not match the type
+	 * @throws UncheckedIOException if reading from the reader fails
+	 */
+	public static <T> T bind(Reader reader, Class<T> type) {
+		BindingHandler handler = handler(type);
+		GuraParser.parse(reader, handler);
+		return type.cast(handler.result());
+	}
+
+	/**
+	 * Binds a UTF-8 encoded Gura file.
+	 *
+	 * @param path the path to the Gura file
+	 * @param type the type to bind the document to
+	 * @param <T> the type to bind the document to
+	 * @return the bound document
+	 * @throws IOException if the file could not be read
+	 * @throws IllegalArgumentException if documents cannot be bound to the type
+	 * @throws GuraParseException if the content of the file is not a valid Gura document
+	 * @throws GuraBindException if the document does not match the type
+	 */
+	public static <T> T bind(Path path, Class<T> type) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			return bind(reader, type);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static BindingHandler handler(Class<?> type) {
+		Objects.requireNonNull(type, "Type cannot be null");
+		Binder binder = Binder.of(type);
+
+		if (!(binder instanceof ObjectBinder) && !(binder instanceof MapBinder) && binder != DynamicBinder.INSTANCE) {
+			throw new IllegalArgumentException("Documents can only be bound to classes, records or maps: " + type);
+		}
+
+		return new BindingHandler(binder);
+	}
+
+	private GuraBinder() {}
+}
@@ -0,0 +1,56 @@
+package me.i509.gura.bind;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binds objects to unmodifiable maps from keys to values, keeping the order of the entries.
+ */
+final class MapBinder extends Binder {
+	private final Binder value;
+
+	MapBinder(Type type, Binder value) {
+		super(type);
+		this.value = value;
+	}
+
+	@Override
+	Frame startObject(@Nullable String key, GuraLocator at) {
+		return new MapFrame(key, at);
+	}
+
+	private final class MapFrame extends Frame {
+		private final Map<String, Object> entries = new LinkedHashMap<>();
+		@Nullable
+		private String selected;
+
+		MapFrame(@Nullable String key, GuraLocator at) {
+			super(key, at);
+		}
+
+		@Override
+		Binder select(@Nullable String key) {
+			this.selected = key;
+			return MapBinder.this.value;
+		}
+
+		@Override
+		void accept(@Nullable Object value, GuraLocator at) {
+			if (this.entries.containsKey(this.selected)) {
+				throw new GuraBindException("Duplicate key '" + this.selected + "'", at.row(), at.column());
+			}
+
+			this.entries.put(this.selected, value);
+		}
+
+		@Override
+		Object finish() {
+			return Collections.unmodifiableMap(this.entries);
+		}
+	}
+}
@@ -0,0 +1,356 @@
+package me.i509.gura.bind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binds objects to records or to classes with a constructor without parameters.
+ *
+ * <p>The entries of an object are matched with the components of a record, or with the fields of a class, by name.
+ * A name written in camel case also matches the same name in snake case, so {@code maxConnections} matches the key
+ * {@code max_connections}. Fields are set through their setter method if there is one. Entries which do not match
+ * anything are skipped without being decoded.
+ *
+ * <p>Everything which is needed to create instances is looked up once as {@link MethodHandle}s when the binder is
+ * built. Private members can be used as long as the package of the class is open to this module, otherwise only
+ * public members are used.
+ */
+final class ObjectBinder extends Binder {
+	/**
+	 * Marks a property which was not present in a document.
+	 */
+	private static final Object ABSENT = new Object();
+	private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class);
+	private static final MethodType RECORD_CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+	private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+	// Records are accessed reflectively since this library targets a release of Java which predates them.
+	@Nullable
+	private static final Method IS_RECORD;
+	@Nullable
+	private static final Method GET_RECORD_COMPONENTS;
+	@Nullable
+	private static final Method COMPONENT_NAME;
+	@Nullable
+	private static final Method COMPONENT_TYPE;
+	@Nullable
+	private static final Method COMPONENT_GENERIC_TYPE;
+
+	static {
+		Method isRecord = null;
+		Method getRecordComponents = null;
+		Method componentName = null;
+		Method componentType = null;
+		Method componentGenericType = null;
+
+		try {
+			isRecord = Class.class.getMethod("isRecord");
+			getRecordComponents = Class.class.getMethod("getRecordComponents");
+			Class<?> recordComponent = Class.forName("java.lang.reflect.RecordComponent");
+			componentName = recordComponent.getMethod("getName");
+			componentType = recordComponent.getMethod("getType");
+			componentGenericType = recordComponent.getMethod("getGenericType");
+		} catch (ReflectiveOperationException e) {
+			// Records are not supported by the runtime
+			isRecord = null;
+		}
+
+		IS_RECORD = isRecord;
+		GET_RECORD_COMPONENTS = getRecordComponents;
+		COMPONENT_NAME = componentName;
+		COMPONENT_TYPE = componentType;
+		COMPONENT_GENERIC_TYPE = componentGenericType;
+	}
+
+	static ObjectBinder of(Class<?> type) {
+		try {
+			if (IS_RECORD != null && (Boolean) IS_RECORD.invoke(type)) {
+				return ofRecord(type);
+			}
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to inspect record " + type.getTypeName(), e);
+		}
+
+		return ofClass(type);
+	}
+
+	private static ObjectBinder ofRecord(Class<?> type) throws ReflectiveOperationException {
+		Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+		Property[] properties = new Property[components.length];
+		Class<?>[] parameters = new Class<?>[components.length];
+		Object[] defaults = new Object[components.length];
+
+		for (int i = 0; i < components.length; i++) {
+			String name = (String) COMPONENT_NAME.invoke(components[i]);
+			Type genericType = (Type) COMPONENT_GENERIC_TYPE.invoke(components[i]);
+			parameters[i] = (Class<?>) COMPONENT_TYPE.invoke(components[i]);
+			properties[i] = new Property(name, genericType, i, null);
+
+			if (parameters[i].isPrimitive()) {
+				defaults[i] = ((ValueBinder) Binder.of(parameters[i])).defaultValue();
+			}
+		}
+
+		MethodHandle constructor;
+
+		try {
+			constructor = lookup(type).findConstructor(type, MethodType.methodType(void.class, parameters))
+					.asSpreader(Object[].class, parameters.length)
+					.asType(RECORD_CONSTRUCTOR);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException(
+					"Cannot bind to " + type.getTypeName() + ", its canonical constructor is not accessible",
+					e
+			);
+		}
+
+		return new ObjectBinder(type, properties, constructor, defaults);
+	}
+
+	private static ObjectBinder ofClass(Class<?> type) {
+		MethodHandle constructor;
+
+		try {
+			constructor = lookup(type).findConstructor(type, MethodType.methodType(void.class)).asType(CONSTRUCTOR);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException(
+					"Cannot bind to " + type.getTypeName() + ", it has no accessible constructor without parameters",
+					e
+			);
+		}
+
+		List<Property> properties = new ArrayList<>();
+
+		for (Class<?> owner = type; owner != Object.class; owner = owner.getSuperclass()) {
+			MethodHandles.Lookup lookup = lookup(owner);
+
+			for (Field field : owner.getDeclaredFields()) {
+				if ((field.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT)) != 0 || field.isSynthetic()) {
+					continue;
+				}
+
+				// A field of a superclass may be hidden by a field with the same name.
+				if (properties.stream().anyMatch(property -> property.name.equals(field.getName()))) {
+					continue;
+				}
+
+				MethodHandle setter = setter(lookup, owner, field);
+
+				if (setter != null) {
+					properties.add(new Property(field.getName(), field.getGenericType(), properties.size(), setter));
+				}
+			}
+		}
+
+		return new ObjectBinder(type, properties.toArray(new Property[0]), constructor, null);
+	}
+
+	/**
+	 * Finds how to set a field, preferring its setter method.
+	 *
+	 * @return a handle taking the instance and the value, or null if the field cannot be set
+	 */
+	@Nullable
+	private static MethodHandle setter(MethodHandles.Lookup lookup, Class<?> owner, Field field) {
+		String name = field.getName();
+		String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+		try {
+			MethodType setterType = MethodType.methodType(void.class, field.getType());
+			return lookup.findVirtual(owner, setterName, setterType).asType(SETTER);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			// Set the field directly
+		}
+
+		if (Modifier.isFinal(field.getModifiers())) {
+			return null;
+		}
+
+		try {
+			return lookup.unreflectSetter(field).asType(SETTER);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandles.Lookup lookup(Class<?> type) {
+		Module module = ObjectBinder.class.getModule();
+
+		if (!module.canRead(type.getModule())) {
+			module.addReads(type.getModule());
+		}
+
+		try {
+			return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+		} catch (IllegalAccessException e) {
+			// The package is not open to this module
+			return MethodHandles.publicLookup();
+		}
+	}
+
+	private final Map<String, Property> properties = new HashMap<>();
+	private final Property[] ordered;
+	/**
+	 * For a record, the canonical constructor taking all components in an array. For a class, the constructor without
+	 * parameters.
+	 */
+	private final MethodHandle constructor;
+	/**
+	 * For a record, the values of components which are missing from a document. Null for a class.
+	 */
+	@Nullable
+	private final Object[] defaults;
+	/**
+	 * The initial values of a {@link ObjectFrame}.
+	 */
+	private final Object[] absent;
+
+	private ObjectBinder(Class<?> type, Property[] ordered, MethodHandle constructor, @Nullable Object[] defaults) {
+		super(type);
+		this.ordered = ordered;
+		this.constructor = constructor;
+		this.defaults = defaults;
+		this.absent = new Object[ordered.length];
+		Arrays.fill(this.absent, ABSENT);
+
+		for (Property property : ordered) {
+			this.properties.put(property.name, property);
+			this.properties.putIfAbsent(snakeCase(property.name), property);
+		}
+	}
+
+	private static String snakeCase(String name) {
+		StringBuilder builder = new StringBuilder(name.length() + 4);
+
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+
+			if (Character.isUpperCase(c) && i > 0) {
+				builder.append('_').append(Character.toLowerCase(c));
+			} else {
+				builder.append(c);
+			}
+		}
+
+		return builder.toString();
+	}
+
+	@Override
+	Frame startObject(@Nullable String key, GuraLocator at) {
+		return new ObjectFrame(key, at);
+	}
+
+	private Object construct(Object[] values, GuraLocator at) {
+		try {
+			if (this.defaults != null) {
+				for (int i = 0; i < values.length; i++) {
+					if (values[i] == ABSENT) {
+						values[i] = this.defaults[i];
+					}
+				}
+
+				return (Object) this.constructor.invokeExact(values);
+			}
+
+			Object instance = (Object) this.constructor.invokeExact();
+
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != ABSENT) {
+					this.ordered[i].setter.invokeExact(instance, values[i]);
+				}
+			}
+
+			return instance;
+		} catch (Error | GuraBindException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new GuraBindException("Cannot create " + this.type().getTypeName(), at.row(), at.column(), e);
+		}
+	}
+
+	/**
+	 * A component of a record, or a field of a class.
+	 */
+	private static final class Property {
+		final String name;
+		final Type type;
+		final int index;
+		/**
+		 * A handle taking the instance and the value, or null for a component of a record.
+		 */
+		@Nullable
+		final MethodHandle setter;
+		/**
+		 * The binder of the property, resolved on first use since the type of the property may be the class which is
+		 * being inspected.
+		 */
+		@Nullable
+		private Binder binder;
+
+		Property(String name, Type type, int index, @Nullable MethodHandle setter) {
+			this.name = name;
+			this.type = type;
+			this.index = index;
+			this.setter = setter;
+		}
+
+		Binder binder() {
+			Binder binder = this.binder;
+
+			if (binder == null) {
+				// Binders are immutable, so racing threads resolve equivalent binders.
+				binder = Binder.of(this.type);
+				this.binder = binder;
+			}
+
+			return binder;
+		}
+	}
+
+	private final class ObjectFrame extends Frame {
+		private final Object[] values = ObjectBinder.this.absent.clone();
+		@Nullable
+		private String selectedKey;
+		@Nullable
+		private Property selected;
+
+		ObjectFrame(@Nullable String key, GuraLocator at) {
+			super(key, at);
+		}
+
+		@Nullable
+		@Override
+		Binder select(@Nullable String key) {
+			this.selectedKey = key;
+			this.selected = ObjectBinder.this.properties.get(key);
+			return this.selected == null ? null : this.selected.binder();
+		}
+
+		@Override
+		void accept(@Nullable Object value, GuraLocator at) {
+			if (this.values[this.selected.index] != ABSENT) {
+				throw new GuraBindException("Duplicate key '" + this.selectedKey + "'", at.row(), at.column());
+			}
+
+			this.values[this.selected.index] = value;
+		}
+
+		@Override
+		Object finish() {
+			return ObjectBinder.this.construct(this.values, this);
+		}
+	}
+}
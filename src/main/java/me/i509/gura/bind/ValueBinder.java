@@ -0,0 +1,203 @@
+package me.i509.gura.bind;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binds strings, booleans and numbers to the corresponding Java types, primitive or boxed.
+ *
+ * <p>Integers may be bound to any numeric type as long as they fit in it. Floating point numbers may only be bound to
+ * floating point types.
+ */
+final class ValueBinder extends Binder {
+	private enum Kind {
+		STRING,
+		BOOLEAN,
+		BYTE,
+		SHORT,
+		INT,
+		LONG,
+		FLOAT,
+		DOUBLE,
+		BIG_INTEGER,
+		BIG_DECIMAL
+	}
+
+	/**
+	 * @param type a class
+	 * @return a binder if the class is a string, boolean or number type, otherwise null
+	 */
+	@Nullable
+	static ValueBinder of(Class<?> type) {
+		if (type == String.class || type == CharSequence.class) {
+			return new ValueBinder(type, Kind.STRING, null);
+		} else if (type == boolean.class || type == Boolean.class) {
+			return new ValueBinder(type, Kind.BOOLEAN, false);
+		} else if (type == byte.class || type == Byte.class) {
+			return new ValueBinder(type, Kind.BYTE, (byte) 0);
+		} else if (type == short.class || type == Short.class) {
+			return new ValueBinder(type, Kind.SHORT, (short) 0);
+		} else if (type == int.class || type == Integer.class) {
+			return new ValueBinder(type, Kind.INT, 0);
+		} else if (type == long.class || type == Long.class) {
+			return new ValueBinder(type, Kind.LONG, 0L);
+		} else if (type == float.class || type == Float.class) {
+			return new ValueBinder(type, Kind.FLOAT, 0.0F);
+		} else if (type == double.class || type == Double.class) {
+			return new ValueBinder(type, Kind.DOUBLE, 0.0);
+		} else if (type == BigInteger.class) {
+			return new ValueBinder(type, Kind.BIG_INTEGER, null);
+		} else if (type == BigDecimal.class) {
+			return new ValueBinder(type, Kind.BIG_DECIMAL, null);
+		}
+
+		return null;
+	}
+
+	private final Kind kind;
+	/**
+	 * The value of a primitive which is missing from a document, or null if the type is not primitive.
+	 */
+	@Nullable
+	private final Object defaultValue;
+
+	private ValueBinder(Class<?> type, Kind kind, @Nullable Object defaultValue) {
+		super(type);
+		this.kind = kind;
+		this.defaultValue = type.isPrimitive() ? defaultValue : null;
+	}
+
+	/**
+	 * @return the default value of the type, zero or false for primitives and null otherwise
+	 */
+	@Nullable
+	Object defaultValue() {
+		return this.defaultValue;
+	}
+
+	@Override
+	Object fromString(String value, GuraLocator at) {
+		if (this.kind != Kind.STRING) {
+			return super.fromString(value, at);
+		}
+
+		return value;
+	}
+
+	@Override
+	Object fromInteger(long value, GuraLocator at) {
+		switch (this.kind) {
+			case BYTE:
+				return (byte) this.checkRange(value, Byte.MIN_VALUE, Byte.MAX_VALUE, at);
+			case SHORT:
+				return (short) this.checkRange(value, Short.MIN_VALUE, Short.MAX_VALUE, at);
+			case INT:
+				return (int) this.checkRange(value, Integer.MIN_VALUE, Integer.MAX_VALUE, at);
+			case LONG:
+				return value;
+			case FLOAT:
+				return (float) value;
+			case DOUBLE:
+				return (double) value;
+			case BIG_INTEGER:
+				return BigInteger.valueOf(value);
+			case BIG_DECIMAL:
+				return BigDecimal.valueOf(value);
+			default:
+				return super.fromInteger(value, at);
+		}
+	}
+
+	private long checkRange(long value, long min, long max, GuraLocator at) {
+		if (value < min || value > max) {
+			throw this.outOfRange(value, at);
+		}
+
+		return value;
+	}
+
+	private GuraBindException outOfRange(Object value, GuraLocator at) {
+		return new GuraBindException(
+				"Integer " + value + " is out of range for " + this.type().getTypeName(),
+				at.row(),
+				at.column()
+		);
+	}
+
+	@Override
+	Object fromFloatingPoint(double value, GuraLocator at) {
+		switch (this.kind) {
+			case FLOAT:
+				return (float) value;
+			case DOUBLE:
+				return value;
+			case BIG_DECIMAL:
+				if (Double.isNaN(value) || Double.isInfinite(value)) {
+					throw new GuraBindException(
+							"Number " + value + " cannot be represented as " + this.type().getTypeName(),
+							at.row(),
+							at.column()
+					);
+				}
+
+				return BigDecimal.valueOf(value);
+			default:
+				return super.fromFloatingPoint(value, at);
+		}
+	}
+
+	@Override
+	Object fromBigInteger(BigInteger value, GuraLocator at) {
+		switch (this.kind) {
+			case FLOAT:
+				return value.floatValue();
+			case DOUBLE:
+				return value.doubleValue();
+			case BIG_INTEGER:
+				return value;
+			case BIG_DECIMAL:
+				return new BigDecimal(value);
+			case STRING:
+			case BOOLEAN:
+				return super.fromBigInteger(value, at);
+			default:
+				throw this.outOfRange(value, at);
+		}
+	}
+
+	@Override
+	Object fromBigDecimal(BigDecimal value, GuraLocator at) {
+		switch (this.kind) {
+			case FLOAT:
+				return value.floatValue();
+			case DOUBLE:
+				return value.doubleValue();
+			case BIG_DECIMAL:
+				return value;
+			default:
+				return super.fromBigDecimal(value, at);
+		}
+	}
+
+	@Override
+	Object fromBoolean(boolean value, GuraLocator at) {
+		if (this.kind != Kind.BOOLEAN) {
+			return super.fromBoolean(value, at);
+		}
+
+		return value;
+	}
+
+	@Nullable
+	@Override
+	Object fromNull(GuraLocator at) {
+		if (this.defaultValue != null) {
+			throw this.mismatch("null", at);
+		}
+
+		return null;
+	}
+}
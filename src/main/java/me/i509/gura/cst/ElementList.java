@@ -0,0 +1,103 @@
+package me.i509.gura.cst;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of the children of a node, which is copied in logarithmic time when one child is replaced.
+ *
+ * <p>The elements are stored in a trie of arrays of up to 32 elements. Replacing an element copies the arrays on the
+ * path to the element and shares all the others, so even a node with many thousands of children is updated by
+ * copying at most a few small arrays.
+ */
+final class ElementList extends AbstractList<SyntaxElement> implements RandomAccess {
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	private static final ElementList EMPTY = new ElementList(new Object[0], 0, 0);
+
+	static ElementList of(List<? extends SyntaxElement> elements) {
+		int size = elements.size();
+
+		if (size == 0) {
+			return EMPTY;
+		}
+
+		Object[] level = elements.toArray();
+		int shift = 0;
+
+		// Group the arrays until a single one is left.
+		while (level.length > WIDTH) {
+			Object[] parents = new Object[(level.length + WIDTH - 1) >>> BITS];
+
+			for (int i = 0; i < parents.length; i++) {
+				int from = i << BITS;
+				Object[] group = new Object[Math.min(WIDTH, level.length - from)];
+				System.arraycopy(level, from, group, 0, group.length);
+				parents[i] = group;
+			}
+
+			level = parents;
+			shift += BITS;
+		}
+
+		return new ElementList(level, shift, size);
+	}
+
+	private final Object[] root;
+	private final int shift;
+	private final int size;
+
+	private ElementList(Object[] root, int shift, int size) {
+		this.root = root;
+		this.shift = shift;
+		this.size = size;
+	}
+
+	@Override
+	public SyntaxElement get(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+		}
+
+		Object[] node = this.root;
+
+		for (int level = this.shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+
+		return (SyntaxElement) node[index & MASK];
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @param index the index of the element to replace
+	 * @param element the new element
+	 * @return a list with the element replaced, sharing the arrays of this list which are not on the path to it
+	 */
+	ElementList with(int index, SyntaxElement element) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+		}
+
+		return new ElementList(with(this.root, this.shift, index, element), this.shift, this.size);
+	}
+
+	private static Object[] with(Object[] node, int level, int index, SyntaxElement element) {
+		Object[] copy = node.clone();
+
+		if (level == 0) {
+			copy[index & MASK] = element;
+		} else {
+			int slot = (index >>> level) & MASK;
+			copy[slot] = with((Object[]) node[slot], level - BITS, index, element);
+		}
+
+		return copy;
+	}
+}
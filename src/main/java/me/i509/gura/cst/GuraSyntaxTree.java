@@ -0,0 +1,232 @@
+package me.i509.gura.cst;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.parser.GuraHandler;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenizationResult;
+import me.i509.gura.writer.GuraWriter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A lossless syntax tree of a Gura document, which keeps every token of the document, including whitespace, comments
+ * and newlines, so the text of the tree is exactly the text it was parsed from.
+ *
+ * <p>Trees are immutable. Editing a tree creates a new tree which shares every node that was not changed with the
+ * previous one: only the nodes on the path from the root to the edited value are copied, and each of them copies
+ * only the part of its children which leads to the edited value. Replacing one value in a large file therefore costs
+ * time proportional to the depth of the value, and keeps the formatting and comments of the rest of the file.
+ *
+ * <pre>{@code
+ * GuraSyntaxTree tree = GuraSyntaxTree.parse(Path.of("service.ura"));
+ * Files.writeString(path, tree.withValue(List.of("server", "port"), "8081").text());
+ * }</pre>
+ */
+public final class GuraSyntaxTree {
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	/**
+	 * Parses the content of a Gura file.
+	 *
+	 * @param content the content of the Gura file
+	 * @return the syntax tree
+	 * @throws GuraParseException if the content is not a valid Gura document
+	 */
+	public static GuraSyntaxTree parse(String content) {
+		return parse(Token.tokenize(content), content.length() > 0 && content.charAt(0) == BYTE_ORDER_MARK);
+	}
+
+	/**
+	 * Parses a UTF-8 encoded Gura file.
+	 *
+	 * @param path the path to the Gura file
+	 * @return the syntax tree
+	 * @throws IOException if the file could not be read
+	 * @throws GuraParseException if the content of the file is not a valid Gura document
+	 */
+	public static GuraSyntaxTree parse(Path path) throws IOException {
+		byte[] content = Files.readAllBytes(path);
+		boolean byteOrderMark = content.length >= 3
+				&& (content[0] & 0xFF) == 0xEF && (content[1] & 0xFF) == 0xBB && (content[2] & 0xFF) == 0xBF;
+		return parse(Token.tokenize(ByteBuffer.wrap(content)), byteOrderMark);
+	}
+
+	/**
+	 * @param byteOrderMark whether the content starts with a byte order mark, which the tokenizer skips
+	 */
+	private static GuraSyntaxTree parse(TokenizationResult tokens, boolean byteOrderMark) {
+		// The parser checks the document, without building anything.
+		GuraParser.parse(tokens, new GuraHandler() {});
+		String prefix = byteOrderMark ? String.valueOf(BYTE_ORDER_MARK) : "";
+		return new GuraSyntaxTree(new SyntaxBuilder(tokens).document(prefix));
+	}
+
+	private final SyntaxNode root;
+
+	private GuraSyntaxTree(SyntaxNode root) {
+		this.root = root;
+	}
+
+	/**
+	 * @return the {@link SyntaxNode.Kind#DOCUMENT} node of this tree
+	 */
+	public SyntaxNode root() {
+		return this.root;
+	}
+
+	/**
+	 * @return the text of this tree
+	 */
+	public String text() {
+		return this.root.text();
+	}
+
+	/**
+	 * Finds an entry by its path.
+	 *
+	 * @param path the keys of the objects leading to the entry and the key of the entry
+	 * @return the entry, or null if there is no entry at the path
+	 */
+	@Nullable
+	public SyntaxNode entry(String... path) {
+		return this.entry(List.of(path));
+	}
+
+	/**
+	 * Finds an entry by its path.
+	 *
+	 * @param path the keys of the objects leading to the entry and the key of the entry
+	 * @return the entry, or null if there is no entry at the path
+	 */
+	@Nullable
+	public SyntaxNode entry(List<String> path) {
+		SyntaxNode node = this.root;
+		@Nullable SyntaxNode entry = null;
+
+		for (String key : path) {
+			if (node == null || (entry = node.entry(key)) == null) {
+				return null;
+			}
+
+			node = entry.value();
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Replaces the value of an entry, keeping the rest of the text, including the comment on the line of the entry.
+	 *
+	 * @param path the keys of the objects leading to the entry and the key of the entry
+	 * @param value the text of the new value, such as {@code "text"} with its quotes, or {@code [1, 2]}
+	 * @return a new tree with the value replaced
+	 * @throws IllegalArgumentException if there is no entry at the path, the entry holds an object, or the text is not
+	 *     a single value which fits on one line
+	 * @throws GuraParseException if the text is not a valid value
+	 */
+	public GuraSyntaxTree withValue(List<String> path, String value) {
+		if (path.isEmpty()) {
+			throw new IllegalArgumentException("Path cannot be empty");
+		}
+
+		// Check the value on its own, as a document with a single entry.
+		TokenizationResult tokens = Token.tokenize(value + "\n");
+		GuraParser.parse(Token.tokenize("value: " + value + "\n"), new GuraHandler() {});
+		@Nullable SyntaxNode replacement = value.indexOf('\n') < 0 ? new SyntaxBuilder(tokens).value() : null;
+
+		if (replacement == null) {
+			throw new IllegalArgumentException("Expected a single value on one line: " + value);
+		}
+
+		return new GuraSyntaxTree(this.replace(this.root, path, 0, replacement));
+	}
+
+	/**
+	 * Replaces the value of an entry, keeping the rest of the text, including the comment on the line of the entry.
+	 *
+	 * @param path the keys of the objects leading to the entry and the key of the entry
+	 * @param value the new value, which is written as {@link GuraWriter} would write it
+	 * @return a new tree with the value replaced
+	 * @throws IllegalArgumentException if there is no entry at the path, the entry holds an object, or the value does
+	 *     not fit on one line, such as an object
+	 */
+	public GuraSyntaxTree withValue(List<String> path, GuraValue value) {
+		if (value.type() == GuraValue.Type.OBJECT) {
+			throw new IllegalArgumentException("Expected a value which fits on one line: " + value);
+		}
+
+		StringBuilder text = new StringBuilder();
+		GuraWriter writer = GuraWriter.of(text);
+		writer.write("value", value);
+		writer.endDocument();
+		// Strip the key and the newline, "value: ...\n".
+		return this.withValue(path, text.substring("value: ".length(), text.length() - 1));
+	}
+
+	private SyntaxNode replace(SyntaxNode node, List<String> path, int depth, SyntaxNode value) {
+		String key = path.get(depth);
+		int index = node.entryIndex(key);
+
+		if (index < 0) {
+			throw new IllegalArgumentException("No entry at " + String.join(".", path.subList(0, depth + 1)));
+		}
+
+		SyntaxNode entry = (SyntaxNode) node.children().get(index);
+		int valueIndex = entry.valueIndex();
+		SyntaxNode current = (SyntaxNode) entry.children().get(valueIndex);
+		SyntaxNode replaced;
+
+		if (depth + 1 < path.size()) {
+			if (current.kind() != SyntaxNode.Kind.OBJECT) {
+				throw new IllegalArgumentException("Entry " + String.join(".", path.subList(0, depth + 1))
+						+ " does not hold an object");
+			}
+
+			replaced = this.replace(current, path, depth + 1, value);
+		} else if (current.kind() == SyntaxNode.Kind.OBJECT) {
+			throw new IllegalArgumentException("Entry " + String.join(".", path) + " holds an object");
+		} else {
+			replaced = value;
+		}
+
+		return node.with(index, entry.with(valueIndex, replaced));
+	}
+
+	/**
+	 * Parses the text of this tree into a document.
+	 *
+	 * @return the document
+	 */
+	public GuraDocument toDocument() {
+		return GuraParser.parse(this.text());
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraSyntaxTree.class.getSimpleName() + "[", "]")
+				.add("root=" + this.root)
+				.toString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		return this.text().equals(((GuraSyntaxTree) o).text());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.text());
+	}
+}
@@ -0,0 +1,284 @@
+package me.i509.gura.cst;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenBuffer;
+import me.i509.gura.token.TokenizationResult;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Builds syntax trees from tokens.
+ *
+ * <p>The tokens must form a valid document, which the parser checks beforehand, so the builder only follows the
+ * layout rules of the parser to group tokens into nodes and does not report errors.
+ */
+final class SyntaxBuilder {
+	private static final int INDENTATION = 4;
+
+	private final TokenizationResult tokens;
+	private final TokenBuffer buffer;
+	/**
+	 * Tokens whose text repeats all over a document, such as single spaces, colons and newlines, are shared.
+	 */
+	private final Map<String, SyntaxToken> shared = new HashMap<>();
+	private int position;
+
+	SyntaxBuilder(TokenizationResult tokens) {
+		this.tokens = tokens;
+		this.buffer = tokens.buffer();
+	}
+
+	/**
+	 * Builds a document.
+	 *
+	 * @param prefix the text skipped by the tokenizer before the first token, which is a byte order mark or nothing
+	 */
+	SyntaxNode document(String prefix) {
+		List<SyntaxElement> children = new ArrayList<>();
+
+		if (!prefix.isEmpty()) {
+			// A byte order mark is a zero width no-break space, kept as leading whitespace of the document.
+			children.add(new SyntaxToken(Token.Type.SPACE_WS, prefix));
+		}
+
+		this.entries(children, 0, false);
+		return new SyntaxNode(SyntaxNode.Kind.DOCUMENT, children);
+	}
+
+	/**
+	 * Builds a single value, which must be all of the tokens but a last newline.
+	 *
+	 * <p>The value is tokenized with the newline so that its last token ends like it would within a document.
+	 *
+	 * @return the value, or null if the tokens are not a single value followed by a newline
+	 */
+	@Nullable
+	SyntaxNode value() {
+		SyntaxNode value = this.parseValue();
+		return this.position == this.buffer.size() - 1 && this.type(this.position) == Token.Type.NEWLINE
+				? value
+				: null;
+	}
+
+	private Token.Type type(int index) {
+		return index < this.buffer.size() ? this.buffer.type(index) : Token.Type.EOF;
+	}
+
+	private void take(List<SyntaxElement> children) {
+		children.add(this.token(this.position++));
+	}
+
+	private SyntaxToken token(int index) {
+		Token.Type type = this.buffer.type(index);
+
+		switch (type) {
+			case SPACE_WS:
+			case NEWLINE:
+			case COLON:
+			case COMMA:
+			case LEFT_BRACKET:
+			case RIGHT_BRACKET:
+				return this.shared.computeIfAbsent(
+						this.tokens.text(index).toString(),
+						text -> new SyntaxToken(type, text)
+				);
+			default:
+				return new SyntaxToken(type, this.tokens.text(index).toString());
+		}
+	}
+
+	/**
+	 * Builds the entries of an object and the lines between them, up to the first line which is indented less than
+	 * the entries.
+	 */
+	private void entries(List<SyntaxElement> children, int indent, boolean inArray) {
+		while (true) {
+			int lineStart = this.position;
+			int index = lineStart;
+			int lineIndent = 0;
+			Token.Type first = this.type(index);
+
+			if (first == Token.Type.SPACE_WS) {
+				lineIndent = this.buffer.length(index);
+				first = this.type(++index);
+			}
+
+			if (first == Token.Type.EOF || first == Token.Type.NEWLINE || first == Token.Type.COMMENT) {
+				if (first == Token.Type.EOF && index == lineStart) {
+					return;
+				}
+
+				// A blank line or a line with only a comment.
+				while (this.position < index) {
+					this.take(children);
+				}
+
+				if (first == Token.Type.COMMENT) {
+					this.take(children);
+					first = this.type(this.position);
+				}
+
+				if (first == Token.Type.NEWLINE) {
+					this.take(children);
+				}
+
+				continue;
+			}
+
+			if (lineIndent < indent || (inArray && (first == Token.Type.COMMA || first == Token.Type.RIGHT_BRACKET))) {
+				// The line belongs to an enclosing object or array.
+				return;
+			}
+
+			children.add(this.entry(indent, inArray));
+		}
+	}
+
+	private SyntaxNode entry(int indent, boolean inArray) {
+		List<SyntaxElement> children = new ArrayList<>();
+
+		if (this.type(this.position) == Token.Type.SPACE_WS) {
+			this.take(children);
+		}
+
+		// The key
+		this.take(children);
+
+		if (this.type(this.position) != Token.Type.COLON) {
+			// An import, the only line which does not have a colon after its first word.
+			while (this.type(this.position) != Token.Type.NEWLINE && this.type(this.position) != Token.Type.EOF) {
+				this.take(children);
+			}
+
+			this.endLine(children);
+			return new SyntaxNode(SyntaxNode.Kind.IMPORT, children);
+		}
+
+		this.take(children);
+		this.whitespace(children);
+
+		switch (this.type(this.position)) {
+			case COMMENT:
+			case NEWLINE:
+			case EOF:
+				this.endLine(children);
+				List<SyntaxElement> entries = new ArrayList<>();
+				this.entries(entries, indent + INDENTATION, inArray);
+				children.add(new SyntaxNode(SyntaxNode.Kind.OBJECT, entries));
+				break;
+			default:
+				children.add(this.parseValue());
+				this.endLine(children);
+		}
+
+		return new SyntaxNode(SyntaxNode.Kind.ENTRY, children);
+	}
+
+	private SyntaxNode parseValue() {
+		List<SyntaxElement> children = new ArrayList<>();
+
+		switch (this.type(this.position)) {
+			case LEFT_BRACKET:
+				return this.array();
+			case BASIC_STRING_VALUE:
+			case LITERAL_STRING_VALUE:
+				this.take(children);
+				break;
+			default:
+				// Keywords, numbers and variables, which may be made of several tokens such as a sign and a number.
+				while (true) {
+					Token.Type type = this.type(this.position);
+
+					if (type != Token.Type.IDENTIFIER && type != Token.Type.NUMBER
+							&& type != Token.Type.MINUS && type != Token.Type.PLUS) {
+						break;
+					}
+
+					this.take(children);
+				}
+		}
+
+		return new SyntaxNode(SyntaxNode.Kind.VALUE, children);
+	}
+
+	private SyntaxNode array() {
+		List<SyntaxElement> children = new ArrayList<>();
+		this.take(children);
+
+		while (true) {
+			this.arrayTrivia(children);
+
+			if (this.type(this.position) == Token.Type.RIGHT_BRACKET) {
+				this.take(children);
+				break;
+			}
+
+			if (this.type(this.position) == Token.Type.IDENTIFIER && this.type(this.position + 1) == Token.Type.COLON) {
+				// An object, whose entries are indented at the column of its first key.
+				int indent = this.buffer.column(this.position) - 1;
+				List<SyntaxElement> entries = new ArrayList<>();
+				entries.add(this.entry(indent, true));
+				this.entries(entries, indent, true);
+				children.add(new SyntaxNode(SyntaxNode.Kind.OBJECT, entries));
+			} else {
+				children.add(this.parseValue());
+			}
+
+			this.arrayTrivia(children);
+			boolean end = this.type(this.position) == Token.Type.RIGHT_BRACKET;
+			this.take(children);
+
+			if (end) {
+				break;
+			}
+		}
+
+		return new SyntaxNode(SyntaxNode.Kind.ARRAY, children);
+	}
+
+	private void arrayTrivia(List<SyntaxElement> children) {
+		while (true) {
+			switch (this.type(this.position)) {
+				case COMMENT:
+				case SPACE_WS:
+				case TAB_WS:
+				case NEWLINE:
+					this.take(children);
+					break;
+				default:
+					return;
+			}
+		}
+	}
+
+	private void whitespace(List<SyntaxElement> children) {
+		while (this.type(this.position) == Token.Type.SPACE_WS || this.type(this.position) == Token.Type.TAB_WS) {
+			this.take(children);
+		}
+	}
+
+	/**
+	 * Takes the rest of a line: whitespace, a comment and the newline. Within an array, a comma or closing bracket
+	 * may end the line instead, which belongs to the array.
+	 */
+	private void endLine(List<SyntaxElement> children) {
+		while (true) {
+			switch (this.type(this.position)) {
+				case SPACE_WS:
+				case TAB_WS:
+				case COMMENT:
+					this.take(children);
+					break;
+				case NEWLINE:
+					this.take(children);
+					return;
+				default:
+					return;
+			}
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package me.i509.gura.cst;
+
+/**
+ * An element of a {@link GuraSyntaxTree}, either a {@link SyntaxNode} or a {@link SyntaxToken}.
+ *
+ * <p>Elements are immutable and do not know their parent or position, so an element can be shared by many versions of
+ * a tree.
+ */
+public abstract class SyntaxElement {
+	SyntaxElement() {
+	}
+
+	/**
+	 * @return the length of the text of this element
+	 */
+	public abstract int textLength();
+
+	/**
+	 * Appends the text of this element, exactly as it appears in the document.
+	 *
+	 * @param builder the builder to append to
+	 */
+	public abstract void appendTo(StringBuilder builder);
+
+	/**
+	 * @return the text of this element, exactly as it appears in the document
+	 */
+	public String text() {
+		StringBuilder builder = new StringBuilder(this.textLength());
+		this.appendTo(builder);
+		return builder.toString();
+	}
+}
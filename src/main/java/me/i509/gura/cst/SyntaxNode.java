@@ -0,0 +1,207 @@
+package me.i509.gura.cst;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import me.i509.gura.token.Token;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A node of a {@link GuraSyntaxTree}, which holds tokens and other nodes.
+ *
+ * <p>The text of a node is the text of its children in order. Whitespace, comments and newlines are tokens of the node
+ * they appear in, so no text is lost.
+ */
+public final class SyntaxNode extends SyntaxElement {
+	private final Kind kind;
+	private final ElementList children;
+	private final int textLength;
+	/**
+	 * The indices of the entries of a document or object by key, created on first lookup. Replacing a child keeps its
+	 * key and index, so the new node shares the index of this node.
+	 */
+	@Nullable
+	private Map<String, Integer> entries;
+
+	SyntaxNode(Kind kind, List<? extends SyntaxElement> children) {
+		this.kind = kind;
+		this.children = ElementList.of(children);
+		int textLength = 0;
+
+		for (SyntaxElement child : children) {
+			textLength += child.textLength();
+		}
+
+		this.textLength = textLength;
+	}
+
+	private SyntaxNode(Kind kind, ElementList children, int textLength, @Nullable Map<String, Integer> entries) {
+		this.kind = kind;
+		this.children = children;
+		this.textLength = textLength;
+		this.entries = entries;
+	}
+
+	/**
+	 * @return the kind of this node
+	 */
+	public Kind kind() {
+		return this.kind;
+	}
+
+	/**
+	 * @return the tokens and nodes of this node, in order
+	 */
+	public List<SyntaxElement> children() {
+		return this.children;
+	}
+
+	@Override
+	public int textLength() {
+		return this.textLength;
+	}
+
+	@Override
+	public void appendTo(StringBuilder builder) {
+		for (int i = 0; i < this.children.size(); i++) {
+			this.children.get(i).appendTo(builder);
+		}
+	}
+
+	/**
+	 * @return the key of this entry, including the {@code $} of a variable, or null if this node is not an entry
+	 */
+	@Nullable
+	public String key() {
+		if (this.kind != Kind.ENTRY) {
+			return null;
+		}
+
+		for (int i = 0; i < this.children.size(); i++) {
+			SyntaxElement child = this.children.get(i);
+
+			if (child instanceof SyntaxToken && ((SyntaxToken) child).type() == Token.Type.IDENTIFIER) {
+				return ((SyntaxToken) child).text();
+			}
+		}
+
+		throw new AssertionError("Entry without a key");
+	}
+
+	/**
+	 * @return the value of this entry, a {@link Kind#VALUE}, {@link Kind#ARRAY} or {@link Kind#OBJECT} node, or null
+	 *     if this node is not an entry
+	 */
+	@Nullable
+	public SyntaxNode value() {
+		int index = this.valueIndex();
+		return index < 0 ? null : (SyntaxNode) this.children.get(index);
+	}
+
+	int valueIndex() {
+		if (this.kind == Kind.ENTRY) {
+			for (int i = 0; i < this.children.size(); i++) {
+				if (this.children.get(i) instanceof SyntaxNode) {
+					return i;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Finds an entry of this document or object.
+	 *
+	 * @param key the key of the entry, including the {@code $} of a variable
+	 * @return the entry, or null if this node is not a document or object, or has no entry with the key
+	 */
+	@Nullable
+	public SyntaxNode entry(String key) {
+		int index = this.entryIndex(key);
+		return index < 0 ? null : (SyntaxNode) this.children.get(index);
+	}
+
+	int entryIndex(String key) {
+		if (this.kind != Kind.DOCUMENT && this.kind != Kind.OBJECT) {
+			return -1;
+		}
+
+		Map<String, Integer> entries = this.entries;
+
+		if (entries == null) {
+			Map<String, Integer> index = new HashMap<>();
+
+			for (int i = 0; i < this.children.size(); i++) {
+				SyntaxElement child = this.children.get(i);
+
+				if (child instanceof SyntaxNode && ((SyntaxNode) child).kind == Kind.ENTRY) {
+					index.put(((SyntaxNode) child).key(), i);
+				}
+			}
+
+			// Immutable, so the index can be shared between threads without synchronization.
+			this.entries = entries = Map.copyOf(index);
+		}
+
+		Integer index = entries.get(key);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @param index the index of the child to replace
+	 * @param child the new child, which must keep the key of an entry
+	 * @return a node with the child replaced, sharing all other children with this node
+	 */
+	SyntaxNode with(int index, SyntaxElement child) {
+		int textLength = this.textLength - this.children.get(index).textLength() + child.textLength();
+		return new SyntaxNode(this.kind, this.children.with(index, child), textLength, this.entries);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", SyntaxNode.class.getSimpleName() + "[", "]")
+				.add("kind=" + this.kind)
+				.add("children=" + this.children.size())
+				.add("textLength=" + this.textLength)
+				.toString();
+	}
+
+	/**
+	 * A kind of node.
+	 */
+	public enum Kind {
+		/**
+		 * The whole document, holding imports, entries and the lines between them.
+		 */
+		DOCUMENT,
+
+		/**
+		 * An import, {@code import "path"}, along with the rest of its line.
+		 */
+		IMPORT,
+
+		/**
+		 * An entry or variable, from its indentation to the end of its line, holding its key and its value. The value
+		 * of an object entry also holds the lines of its entries.
+		 */
+		ENTRY,
+
+		/**
+		 * The entries of an object and the lines between them.
+		 */
+		OBJECT,
+
+		/**
+		 * An array, from its opening to its closing bracket.
+		 */
+		ARRAY,
+
+		/**
+		 * Any other value, such as a string, a number or {@code empty}.
+		 */
+		VALUE
+	}
+}
@@ -0,0 +1,48 @@
+package me.i509.gura.cst;
+
+import java.util.StringJoiner;
+
+import me.i509.gura.token.Token;
+
+/**
+ * A token of a {@link GuraSyntaxTree}, including whitespace, comments and newlines.
+ */
+public final class SyntaxToken extends SyntaxElement {
+	private final Token.Type type;
+	private final String text;
+
+	SyntaxToken(Token.Type type, String text) {
+		this.type = type;
+		this.text = text;
+	}
+
+	/**
+	 * @return the type of this token
+	 */
+	public Token.Type type() {
+		return this.type;
+	}
+
+	@Override
+	public int textLength() {
+		return this.text.length();
+	}
+
+	@Override
+	public void appendTo(StringBuilder builder) {
+		builder.append(this.text);
+	}
+
+	@Override
+	public String text() {
+		return this.text;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", SyntaxToken.class.getSimpleName() + "[", "]")
+				.add("type=" + this.type)
+				.add("text='" + this.text + "'")
+				.toString();
+	}
+}
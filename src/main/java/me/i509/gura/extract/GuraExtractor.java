@@ -0,0 +1,169 @@
+package me.i509.gura.extract;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraQuery;
+
+/**
+ * Extracts a few values from many Gura files into a {@link GuraTable}.
+ *
+ * <p>Files are read by several threads at once, each running the query against the files it takes through a small
+ * buffer. A file is tokenized as it is parsed, and reading stops as soon as every path of the query was found or can
+ * no longer appear in the file, so the rest of the file is never read, tokenized or checked. A path with wildcards
+ * takes the first value it matches in each file.
+ *
+ * <p>A file which cannot be read or is not valid up to where it was read does not stop the extraction, its row has
+ * no values and records the error instead.
+ *
+ * <pre>{@code
+ * GuraTable table = GuraExtractor.create().extract(GuraQuery.compile("server.port", "name"), files);
+ * long[] ports = table.column("server.port").longs();
+ * }</pre>
+ *
+ * <p>An extractor is thread safe.
+ */
+public final class GuraExtractor {
+	/**
+	 * Creates an extractor which reads files in the common {@link ForkJoinPool}, as many at once as there are
+	 * processors.
+	 *
+	 * @return a new extractor
+	 */
+	public static GuraExtractor create() {
+		return builder().build();
+	}
+
+	/**
+	 * @return a builder to create an extractor
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private final Executor executor;
+	private final int parallelism;
+
+	private GuraExtractor(Executor executor, int parallelism) {
+		this.executor = executor;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Extracts the values matching the paths of a query from UTF-8 encoded Gura files.
+	 *
+	 * @param query the query, whose paths are the columns of the table
+	 * @param files the paths to the Gura files, which are the rows of the table
+	 * @return the table of values
+	 */
+	public GuraTable extract(GuraQuery query, List<Path> files) {
+		Objects.requireNonNull(query, "Query cannot be null");
+		List<Path> rows = List.copyOf(files);
+		List<String> paths = query.paths();
+		GuraValue[][] cells = new GuraValue[paths.size()][rows.size()];
+		Exception[] errors = new Exception[rows.size()];
+		// Workers take the next file until there are none left, so a slow file does not hold up the others.
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			int row;
+
+			while ((row = next.getAndIncrement()) < rows.size()) {
+				try {
+					GuraQuery.Result result = query.run(rows.get(row));
+
+					for (int column = 0; column < cells.length; column++) {
+						cells[column][row] = result.first(paths.get(column));
+					}
+				} catch (IOException | GuraParseException e) {
+					errors[row] = e;
+				}
+			}
+		};
+
+		CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(this.parallelism, rows.size())];
+
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = CompletableFuture.runAsync(worker, this.executor);
+		}
+
+		try {
+			CompletableFuture.allOf(workers).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw e;
+		}
+
+		GuraTable.Column[] columns = new GuraTable.Column[cells.length];
+
+		for (int column = 0; column < columns.length; column++) {
+			columns[column] = GuraTable.Column.of(paths.get(column), cells[column]);
+		}
+
+		return new GuraTable(rows, paths, columns, errors);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraExtractor.class.getSimpleName() + "[", "]")
+				.add("parallelism=" + this.parallelism)
+				.toString();
+	}
+
+	/**
+	 * A builder to create a {@link GuraExtractor}.
+	 */
+	public static final class Builder {
+		private Executor executor = ForkJoinPool.commonPool();
+		private int parallelism = Runtime.getRuntime().availableProcessors();
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the executor which files are read in, the common {@link ForkJoinPool} by default.
+		 *
+		 * @param executor the executor
+		 * @return this builder
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of files which are read at once, the number of processors by default.
+		 *
+		 * @param parallelism the maximum number of files read at once
+		 * @return this builder
+		 * @throws IllegalArgumentException if the parallelism is not positive
+		 */
+		public Builder parallelism(int parallelism) {
+			if (parallelism <= 0) {
+				throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+			}
+
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * @return a new extractor
+		 */
+		public GuraExtractor build() {
+			return new GuraExtractor(this.executor, this.parallelism);
+		}
+	}
+}
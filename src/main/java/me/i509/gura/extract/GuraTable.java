@@ -0,0 +1,301 @@
+package me.i509.gura.extract;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+import java.util.StringJoiner;
+
+import me.i509.gura.ast.GuraValue;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The values extracted from a list of files, with a row for each file and a column for each path.
+ *
+ * <p>Each column stores its values in a single array of the narrowest type which fits all of them, see
+ * {@link Column.Type}. Arrays returned by a column are shared with the column and must not be modified.
+ */
+public final class GuraTable {
+	private final List<Path> files;
+	private final List<String> paths;
+	private final Column[] columns;
+	/**
+	 * The error of each row, or null if its file was read successfully.
+	 */
+	private final Exception[] errors;
+
+	GuraTable(List<Path> files, List<String> paths, Column[] columns, Exception[] errors) {
+		this.files = files;
+		this.paths = paths;
+		this.columns = columns;
+		this.errors = errors;
+	}
+
+	/**
+	 * @return the number of rows, which is the number of files
+	 */
+	public int rows() {
+		return this.files.size();
+	}
+
+	/**
+	 * @param row the row
+	 * @return the file the values of the row were extracted from
+	 */
+	public Path file(int row) {
+		return this.files.get(row);
+	}
+
+	/**
+	 * @param row the row
+	 * @return the error which occurred while reading the file of the row, or null if it was read successfully
+	 */
+	@Nullable
+	public Exception error(int row) {
+		return this.errors[row];
+	}
+
+	/**
+	 * @return the paths of the columns, in the order of the query
+	 */
+	public List<String> columns() {
+		return this.paths;
+	}
+
+	/**
+	 * @param path the path of a column
+	 * @return the column
+	 * @throws IllegalArgumentException if the table has no column with the path
+	 */
+	public Column column(String path) {
+		int index = this.paths.indexOf(path);
+
+		if (index < 0) {
+			throw new IllegalArgumentException("No column for path '" + path + "'");
+		}
+
+		return this.columns[index];
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraTable.class.getSimpleName() + "[", "]")
+				.add("rows=" + this.files.size())
+				.add("columns=" + this.paths)
+				.toString();
+	}
+
+	/**
+	 * The values extracted for a path.
+	 *
+	 * <p>A row which has no value has the default value of the type of the column in its array, {@code 0},
+	 * {@code false} or {@code null}, and is not {@linkplain #isPresent(int) present}. Rows whose file had no value at
+	 * the path, could not be read, or had {@code null} at the path have no value.
+	 */
+	public static final class Column {
+		static Column of(String path, GuraValue[] cells) {
+			Type type = null;
+
+			for (GuraValue cell : cells) {
+				if (cell != null && cell.type() != GuraValue.Type.NULL) {
+					Type cellType = Type.of(cell);
+
+					if (type == null || type == cellType) {
+						type = cellType;
+					} else if ((type == Type.LONG || type == Type.DOUBLE)
+							&& (cellType == Type.LONG || cellType == Type.DOUBLE)) {
+						type = Type.DOUBLE;
+					} else {
+						type = Type.VALUE;
+					}
+				}
+			}
+
+			Column column = new Column(path, type == null ? Type.STRING : type, cells.length);
+
+			for (int row = 0; row < cells.length; row++) {
+				GuraValue cell = cells[row];
+
+				if (cell == null || cell.type() == GuraValue.Type.NULL) {
+					continue;
+				}
+
+				column.present.set(row);
+
+				switch (column.type) {
+					case LONG:
+						column.longs[row] = cell.asNumber().longValue();
+						break;
+					case DOUBLE:
+						column.doubles[row] = cell.asNumber().doubleValue();
+						break;
+					case BOOLEAN:
+						column.booleans[row] = cell.asBoolean().value();
+						break;
+					case STRING:
+						column.strings[row] = cell.asString().value();
+						break;
+					case VALUE:
+						column.values[row] = cell;
+						break;
+				}
+			}
+
+			return column;
+		}
+
+		private final String path;
+		private final Type type;
+		private final BitSet present;
+		@Nullable
+		private final long[] longs;
+		@Nullable
+		private final double[] doubles;
+		@Nullable
+		private final boolean[] booleans;
+		@Nullable
+		private final String[] strings;
+		@Nullable
+		private final GuraValue[] values;
+
+		private Column(String path, Type type, int rows) {
+			this.path = path;
+			this.type = type;
+			this.present = new BitSet(rows);
+			this.longs = type == Type.LONG ? new long[rows] : null;
+			this.doubles = type == Type.DOUBLE ? new double[rows] : null;
+			this.booleans = type == Type.BOOLEAN ? new boolean[rows] : null;
+			this.strings = type == Type.STRING ? new String[rows] : null;
+			this.values = type == Type.VALUE ? new GuraValue[rows] : null;
+		}
+
+		/**
+		 * @return the path of this column
+		 */
+		public String path() {
+			return this.path;
+		}
+
+		/**
+		 * @return the type of the values of this column
+		 */
+		public Type type() {
+			return this.type;
+		}
+
+		/**
+		 * @param row the row
+		 * @return true if the row has a value
+		 */
+		public boolean isPresent(int row) {
+			return this.present.get(row);
+		}
+
+		/**
+		 * @return the values of a {@link Type#LONG} column, by row
+		 * @throws IllegalStateException if the column has another type
+		 */
+		public long[] longs() {
+			return this.check(this.longs, Type.LONG);
+		}
+
+		/**
+		 * @return the values of a {@link Type#DOUBLE} column, by row
+		 * @throws IllegalStateException if the column has another type
+		 */
+		public double[] doubles() {
+			return this.check(this.doubles, Type.DOUBLE);
+		}
+
+		/**
+		 * @return the values of a {@link Type#BOOLEAN} column, by row
+		 * @throws IllegalStateException if the column has another type
+		 */
+		public boolean[] booleans() {
+			return this.check(this.booleans, Type.BOOLEAN);
+		}
+
+		/**
+		 * @return the values of a {@link Type#STRING} column, by row
+		 * @throws IllegalStateException if the column has another type
+		 */
+		public String[] strings() {
+			return this.check(this.strings, Type.STRING);
+		}
+
+		/**
+		 * @return the values of a {@link Type#VALUE} column, by row
+		 * @throws IllegalStateException if the column has another type
+		 */
+		public GuraValue[] values() {
+			return this.check(this.values, Type.VALUE);
+		}
+
+		private <T> T check(@Nullable T array, Type type) {
+			if (array == null) {
+				throw new IllegalStateException(
+						"Column '" + this.path + "' holds " + this.type + " values, not " + type
+				);
+			}
+
+			return array;
+		}
+
+		@Override
+		public String toString() {
+			return new StringJoiner(", ", Column.class.getSimpleName() + "[", "]")
+					.add("path='" + this.path + "'")
+					.add("type=" + this.type)
+					.add("present=" + this.present.cardinality())
+					.toString();
+		}
+
+		/**
+		 * The type of the values of a column.
+		 */
+		public enum Type {
+			/**
+			 * Integers, stored in a {@code long[]}.
+			 */
+			LONG,
+
+			/**
+			 * Numbers of which at least one is a floating point number, stored in a {@code double[]}.
+			 */
+			DOUBLE,
+
+			/**
+			 * Booleans, stored in a {@code boolean[]}.
+			 */
+			BOOLEAN,
+
+			/**
+			 * Strings without variables, stored in a {@code String[]}. A column without any value is also a string
+			 * column.
+			 */
+			STRING,
+
+			/**
+			 * Any other values, such as objects, arrays, {@linkplain me.i509.gura.ast.GuraNumber#isBig() big} numbers
+			 * or values of different types, stored in a {@code GuraValue[]}.
+			 */
+			VALUE;
+
+			static Type of(GuraValue value) {
+				switch (value.type()) {
+					case NUMBER:
+						if (value.asNumber().isBig()) {
+							return VALUE;
+						}
+
+						return value.asNumber().isInteger() ? LONG : DOUBLE;
+					case BOOLEAN:
+						return BOOLEAN;
+					case STRING:
+						return STRING;
+					default:
+						return VALUE;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package me.i509.gura.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import me.i509.gura.ast.GuraInterpolatedString;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives the content of a Gura document as a sequence of events while it is being parsed.
+ *
+ * <p>Events are delivered as the parser consumes the tokens of the document, no tree is built. Every value is
+ * reported with its key, or with a null key if the value is an element of an array. Variables are defined by entries
+ * whose key starts with {@code $}.
+ *
+ * <p>A handler which is not interested in an object or array can return false from {@link #startObject(String)} or
+ * {@link #startArray(String)}, in which case the parser skips over the whole subtree without decoding any of its
+ * values or sending any events for it, not even the matching end event. Skipped content is only checked as much as
+ * needed to find where it ends. A handler which found everything it needs can return true from {@link #done()} to
+ * stop the parser before the end of the document.
+ *
+ * <p>Every method does nothing by default, so a handler only needs to implement the events it is interested in.
+ *
+ * <pre>{@code
+ * GuraParser.parse(reader, new GuraHandler() {
+ *     public boolean startObject(String key) {
+ *         return "server".equals(key);
+ *     }
+ *
+ *     public void integer(String key, long value) {
+ *         if ("port".equals(key)) {
+ *             port = value;
+ *         }
+ *     }
+ * });
+ * }</pre>
+ */
+public interface GuraHandler {
+	/**
+	 * Called before any other event.
+	 *
+	 * @param locator the position of each of the following events, which is only valid during that event
+	 */
+	default void startDocument(GuraLocator locator) {
+	}
+
+	/**
+	 * Called after every other event, once the whole document was parsed successfully.
+	 */
+	default void endDocument() {
+	}
+
+	/**
+	 * Checked by the parser before each line and each element of an array. Once this returns true, the parser stops
+	 * without reading the rest of the document or sending any other event, not even {@link #endDocument()}, so the
+	 * rest of the document is not checked either.
+	 *
+	 * @return true to stop parsing
+	 */
+	default boolean done() {
+		return false;
+	}
+
+	/**
+	 * Called for an import, {@code import "path"}.
+	 *
+	 * @param path the path of the imported file, unresolved
+	 */
+	default void importFile(String path) {
+	}
+
+	/**
+	 * Called at the start of an object.
+	 *
+	 * @param key the key of the object, or null if the object is an element of an array
+	 * @return true to receive the entries of the object, false to skip the object
+	 */
+	default boolean startObject(@Nullable String key) {
+		return true;
+	}
+
+	/**
+	 * Called at the end of an object which was not skipped.
+	 */
+	default void endObject() {
+	}
+
+	/**
+	 * Called at the start of an array.
+	 *
+	 * @param key the key of the array, or null if the array is an element of an array
+	 * @return true to receive the elements of the array, false to skip the array
+	 */
+	default boolean startArray(@Nullable String key) {
+		return true;
+	}
+
+	/**
+	 * Called at the end of an array which was not skipped.
+	 */
+	default void endArray() {
+	}
+
+	/**
+	 * Called for a string without variables.
+	 *
+	 * @param key the key of the string, or null if the string is an element of an array
+	 * @param value the value of the string, with escape sequences replaced
+	 */
+	default void string(@Nullable String key, String value) {
+	}
+
+	/**
+	 * Called for a basic string containing variables.
+	 *
+	 * @param key the key of the string, or null if the string is an element of an array
+	 * @param value the parts of the string
+	 */
+	default void interpolatedString(@Nullable String key, GuraInterpolatedString value) {
+	}
+
+	/**
+	 * Called for an integer.
+	 *
+	 * @param key the key of the number, or null if the number is an element of an array
+	 * @param value the value of the number
+	 */
+	default void integer(@Nullable String key, long value) {
+	}
+
+	/**
+	 * Called for a floating point number, including {@code inf} and {@code nan}.
+	 *
+	 * @param key the key of the number, or null if the number is an element of an array
+	 * @param value the value of the number
+	 */
+	default void floatingPoint(@Nullable String key, double value) {
+	}
+
+	/**
+	 * Called for an integer which does not fit in a {@code long}.
+	 *
+	 * @param key the key of the number, or null if the number is an element of an array
+	 * @param value the value of the number
+	 */
+	default void bigInteger(@Nullable String key, BigInteger value) {
+	}
+
+	/**
+	 * Called for a floating point number which is too large for a {@code double}.
+	 *
+	 * @param key the key of the number, or null if the number is an element of an array
+	 * @param value the value of the number
+	 */
+	default void bigDecimal(@Nullable String key, BigDecimal value) {
+	}
+
+	/**
+	 * Called for {@code true} or {@code false}.
+	 *
+	 * @param key the key of the boolean, or null if the boolean is an element of an array
+	 * @param value the value of the boolean
+	 */
+	default void bool(@Nullable String key, boolean value) {
+	}
+
+	/**
+	 * Called for {@code null}.
+	 *
+	 * @param key the key of the null value, or null if the null value is an element of an array
+	 */
+	default void nullValue(@Nullable String key) {
+	}
+
+	/**
+	 * Called for a reference to a variable, {@code $name}.
+	 *
+	 * @param key the key of the reference, or null if the reference is an element of an array
+	 * @param name the name of the variable, without the {@code $}
+	 */
+	default void variable(@Nullable String key, String name) {
+	}
+
+	/**
+	 * Called for a comment.
+	 *
+	 * @param text the text of the comment without the {@code #}, which is only valid during this event
+	 */
+	default void comment(CharSequence text) {
+	}
+}
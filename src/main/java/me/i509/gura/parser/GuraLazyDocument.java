@@ -0,0 +1,315 @@
+package me.i509.gura.parser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.token.SymbolTable;
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenBuffer;
+import me.i509.gura.token.TokenWindow;
+import me.i509.gura.token.TokenizationResult;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Gura document whose entries are parsed on first access.
+ *
+ * <p>Loading a lazy document only scans the tokens of the file for the lines which start a top level entry: a key at
+ * the start of a line, outside of any array, followed by a colon. Every other line belongs to the entry above it. The
+ * document keeps the range of tokens of each entry, and parses the range the first time the entry is accessed, so
+ * reading a few keys of a large file costs about as much as tokenizing it.
+ *
+ * <p>Since an entry is only parsed when it is accessed, errors within an entry are reported by the first access to the
+ * entry rather than when loading the document. Duplicate top level keys and variables, and errors in the imports at
+ * the start of the document are reported when loading. {@link #document()} parses every entry, which reports any
+ * error in the document.
+ *
+ * <p>Parsed values are immutable, so lazy documents may be read from multiple threads. Two threads accessing an entry
+ * for the first time at once may both parse it.
+ *
+ * <pre>{@code
+ * GuraLazyDocument document = GuraLazyDocument.parse(Path.of("service.ura"));
+ * long port = document.get("port").asNumber().longValue();
+ * }</pre>
+ */
+public final class GuraLazyDocument {
+	/**
+	 * Scans the content of a Gura file.
+	 *
+	 * @param content the content of the Gura file
+	 * @return the lazy document
+	 * @throws GuraParseException if the imports or top level keys of the document are invalid
+	 */
+	public static GuraLazyDocument parse(String content) {
+		return parse(Token.tokenize(content));
+	}
+
+	/**
+	 * Scans a UTF-8 encoded Gura file.
+	 *
+	 * @param path the path to the Gura file
+	 * @return the lazy document
+	 * @throws IOException if the file could not be read
+	 * @throws GuraParseException if the imports or top level keys of the document are invalid
+	 */
+	public static GuraLazyDocument parse(Path path) throws IOException {
+		return parse(Token.tokenize(path));
+	}
+
+	/**
+	 * Scans the tokens of a Gura file.
+	 *
+	 * @param tokens the tokens of the Gura file
+	 * @return the lazy document
+	 * @throws GuraParseException if the imports or top level keys of the document are invalid, or some tokens are
+	 *     invalid
+	 */
+	public static GuraLazyDocument parse(TokenizationResult tokens) {
+		Objects.requireNonNull(tokens, "Tokens cannot be null");
+
+		if (!tokens.success()) {
+			int index = tokens.buffer().invalidIndex(0);
+			throw new GuraParseException("Invalid token", tokens.buffer().row(index), tokens.buffer().column(index));
+		}
+
+		return new GuraLazyDocument(tokens, SymbolTable.shared());
+	}
+
+	private final TokenizationResult tokens;
+	private final SymbolTable symbols;
+	/**
+	 * The top level keys and the names of variables with their leading {@code $}, in the order they were defined.
+	 */
+	private final String[] keys;
+	/**
+	 * The index of the first token of each entry, followed by the index past the last token of the last entry.
+	 */
+	private final int[] starts;
+	/**
+	 * The index of each key in {@link #keys}.
+	 */
+	private final Map<String, Integer> index;
+	private final GuraValue[] values;
+	private final List<String> imports;
+	@Nullable
+	private List<String> entryKeys;
+
+	private GuraLazyDocument(TokenizationResult tokens, SymbolTable symbols) {
+		this.tokens = tokens;
+		this.symbols = symbols;
+		TokenBuffer buffer = tokens.buffer();
+		TokenWindow window = TokenWindow.of(tokens);
+		int size = buffer.size();
+		String[] keys = new String[16];
+		int[] starts = new int[17];
+		Map<String, Integer> index = new HashMap<>();
+		int count = 0;
+		int depth = 0;
+		boolean lineStart = true;
+
+		for (int i = 0; i < size; i++) {
+			Token.Type type = buffer.type(i);
+
+			if (lineStart && depth == 0 && type == Token.Type.IDENTIFIER
+					&& i + 1 < size && buffer.type(i + 1) == Token.Type.COLON) {
+				String key = window.intern(i, symbols);
+
+				if (index.putIfAbsent(key, count) != null) {
+					String reason = key.charAt(0) == '$'
+							? "Variable '" + key + "' is already defined"
+							: "Duplicate key '" + key + "'";
+					throw new GuraParseException(reason, buffer.row(i), buffer.column(i));
+				}
+
+				if (count == keys.length) {
+					keys = Arrays.copyOf(keys, count * 2);
+					starts = Arrays.copyOf(starts, count * 2 + 1);
+				}
+
+				keys[count] = key;
+				starts[count++] = i;
+			}
+
+			switch (type) {
+				case LEFT_BRACKET:
+					depth++;
+					break;
+				case RIGHT_BRACKET:
+					// An unmatched bracket is reported when the entry it belongs to is parsed.
+					depth = Math.max(depth - 1, 0);
+					break;
+			}
+
+			lineStart = type == Token.Type.NEWLINE;
+		}
+
+		starts[count] = size;
+		this.keys = Arrays.copyOf(keys, count);
+		this.starts = Arrays.copyOf(starts, count + 1);
+		this.index = index;
+		this.values = new GuraValue[count];
+		// Imports, comments and blank lines before the first entry.
+		this.imports = this.parse(0, count == 0 ? size : starts[0]).imports();
+	}
+
+	private GuraDocument parse(int start, int end) {
+		TreeBuilder builder = new TreeBuilder();
+		new ParserImpl(TokenWindow.of(this.tokens, end), builder, this.symbols).parseDocument(start);
+		return builder.document();
+	}
+
+	/**
+	 * @return the number of entries and variables of the document
+	 */
+	int size() {
+		return this.keys.length;
+	}
+
+	/**
+	 * @param key the key of an entry, or the name of a variable with its leading {@code $}
+	 * @return the index of the entry or variable, or -1 if the document has none with the key
+	 */
+	int indexOf(String key) {
+		Integer index = this.index.get(key);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @param index the index of an entry or variable
+	 * @return the key of the entry, or the name of the variable with its leading {@code $}
+	 */
+	String key(int index) {
+		return this.keys[index];
+	}
+
+	/**
+	 * Parses an entry or variable, reporting it to a handler as a document of its own, without caching its value.
+	 *
+	 * @param index the index of the entry or variable
+	 * @param handler the handler to report the entry to
+	 */
+	void parse(int index, GuraHandler handler) {
+		new ParserImpl(TokenWindow.of(this.tokens, this.starts[index + 1]), handler, this.symbols)
+				.parseDocument(this.starts[index]);
+	}
+
+	/**
+	 * @return the top level keys of the document in the order they were defined
+	 */
+	public List<String> keys() {
+		List<String> keys = this.entryKeys;
+
+		if (keys == null) {
+			String[] entries = new String[this.keys.length];
+			int count = 0;
+
+			for (String key : this.keys) {
+				if (key.charAt(0) != '$') {
+					entries[count++] = key;
+				}
+			}
+
+			this.entryKeys = keys = List.of(Arrays.copyOf(entries, count));
+		}
+
+		return keys;
+	}
+
+	/**
+	 * @param key the key
+	 * @return true if the document has a top level entry with the key
+	 */
+	public boolean containsKey(String key) {
+		return !key.startsWith("$") && this.index.containsKey(key);
+	}
+
+	/**
+	 * Gets the value of a top level entry of the document, parsing it on first access.
+	 *
+	 * @param key the key of the entry
+	 * @return the value of the entry, or null if the document has no entry with the key
+	 * @throws GuraParseException if the entry is invalid
+	 */
+	@Nullable
+	public GuraValue get(String key) {
+		return key.startsWith("$") ? null : this.entry(key);
+	}
+
+	/**
+	 * Gets a variable defined by the document, parsing it on first access.
+	 *
+	 * @param name the name of the variable without the leading {@code $}
+	 * @return the value of the variable, or null if the document does not define the variable
+	 * @throws GuraParseException if the variable is invalid
+	 */
+	@Nullable
+	public GuraValue variable(String name) {
+		return this.entry("$" + name);
+	}
+
+	@Nullable
+	private GuraValue entry(String key) {
+		int index = this.indexOf(key);
+		return index < 0 ? null : this.value(index);
+	}
+
+	private GuraValue value(int index) {
+		GuraValue value = this.values[index];
+
+		if (value == null) {
+			String key = this.keys[index];
+			GuraDocument document = this.parse(this.starts[index], this.starts[index + 1]);
+			value = key.charAt(0) == '$' ? document.variables().get(key.substring(1)) : document.root().get(key);
+			this.values[index] = value;
+		}
+
+		return value;
+	}
+
+	/**
+	 * @return the paths of the files imported by the document, in order
+	 */
+	public List<String> imports() {
+		return this.imports;
+	}
+
+	/**
+	 * Parses the whole document, reusing the entries which were already parsed.
+	 *
+	 * @return the document
+	 * @throws GuraParseException if the document is invalid
+	 */
+	public GuraDocument document() {
+		GuraObject.Builder root = GuraObject.builder();
+		Map<String, GuraValue> variables = new LinkedHashMap<>();
+
+		for (int i = 0; i < this.keys.length; i++) {
+			String key = this.keys[i];
+
+			if (key.charAt(0) == '$') {
+				variables.put(key.substring(1), this.value(i));
+			} else {
+				root.put(key, this.value(i));
+			}
+		}
+
+		return new GuraDocument(root.build(), variables, this.imports);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraLazyDocument.class.getSimpleName() + "[", "]")
+				.add("keys=" + this.keys.length)
+				.add("parsed=" + Arrays.stream(this.values).filter(Objects::nonNull).count())
+				.toString();
+	}
+}
@@ -0,0 +1,19 @@
+package me.i509.gura.parser;
+
+/**
+ * The position in a Gura file of the event which a {@link GuraHandler} is receiving.
+ *
+ * <p>For a value with a key, the position is that of the key. For a value in an array, the position is that of the
+ * value.
+ */
+public interface GuraLocator {
+	/**
+	 * @return the row of the current event
+	 */
+	int row();
+
+	/**
+	 * @return the column of the current event
+	 */
+	int column();
+}
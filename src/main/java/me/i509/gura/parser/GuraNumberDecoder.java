@@ -0,0 +1,526 @@
+package me.i509.gura.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decodes the text of numbers straight to primitives, without creating intermediate strings.
+ *
+ * <p>Numbers may have a sign, may be written in hexadecimal, octal or binary with a {@code 0x}, {@code 0o} or
+ * {@code 0b} prefix, may have a fraction and an exponent, may contain underscores between digits, and may be
+ * {@code inf} or {@code nan}. Integers which do not fit in a {@code long} are decoded to a {@link BigInteger}, and
+ * floating point numbers which are too large for a {@code double} to a {@link BigDecimal}.
+ *
+ * <p>A decoder keeps the result of the last number it decoded, so it can be reused for any number of numbers without
+ * allocating. Only integers of more than 18 digits, floating point numbers which cannot be computed exactly from their
+ * digits, and numbers too large for primitives allocate. A decoder is not thread safe.
+ *
+ * <pre>{@code
+ * GuraNumberDecoder decoder = new GuraNumberDecoder();
+ *
+ * for (int i = 0; i < buffer.size(); i++) {
+ *     if (buffer.type(i) == Token.Type.NUMBER && decoder.decode(result.text(i)) == GuraNumberDecoder.Kind.INTEGER) {
+ *         sum += decoder.longValue();
+ *     }
+ * }
+ * }</pre>
+ */
+public final class GuraNumberDecoder {
+	/**
+	 * The kind of a decoded number.
+	 */
+	public enum Kind {
+		/**
+		 * An integer which fits in a {@code long}, see {@link #longValue()}.
+		 */
+		INTEGER,
+		/**
+		 * A floating point number, see {@link #doubleValue()}.
+		 */
+		FLOATING_POINT,
+		/**
+		 * An integer which does not fit in a {@code long}, see {@link #bigIntegerValue()}.
+		 */
+		BIG_INTEGER,
+		/**
+		 * A floating point number which is too large for a {@code double}, see {@link #bigDecimalValue()}.
+		 */
+		BIG_DECIMAL,
+		/**
+		 * The text is not a valid number, see {@link #error()} and {@link #errorIndex()}.
+		 */
+		INVALID
+	}
+
+	/**
+	 * Powers of ten which are exactly representable as a double.
+	 */
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	/**
+	 * The largest integer below which all integers are exactly representable as a double.
+	 */
+	private static final long MAX_EXACT_INTEGER = 1L << 53;
+	/**
+	 * The number of significant digits which always fit in a long.
+	 */
+	private static final int MAX_DIGITS = 18;
+	/**
+	 * Exponents are clamped to this value while they are read, which is far beyond the range of a double.
+	 */
+	private static final int MAX_EXPONENT = 100_000;
+
+	private final StringBuilder digits = new StringBuilder();
+	private Kind kind = Kind.INVALID;
+	private long longValue;
+	private double doubleValue;
+	@Nullable
+	private BigInteger bigInteger;
+	@Nullable
+	private BigDecimal bigDecimal;
+	private String error = "Nothing was decoded";
+	private int errorIndex;
+
+	/**
+	 * Creates a decoder.
+	 */
+	public GuraNumberDecoder() {
+	}
+
+	/**
+	 * Decodes a number.
+	 *
+	 * @param text the text of the number
+	 * @return the kind of the number, or {@link Kind#INVALID} if the text is not a valid number
+	 */
+	public Kind decode(CharSequence text) {
+		return this.decode(text, 0, text.length());
+	}
+
+	/**
+	 * Decodes a number within some text, such as the span of a token within the content of a file.
+	 *
+	 * @param text the text containing the number
+	 * @param start the index of the first character of the number, inclusive
+	 * @param end the index after the last character of the number, exclusive
+	 * @return the kind of the number, or {@link Kind#INVALID} if the text is not a valid number
+	 * @throws IndexOutOfBoundsException if the range is not within the text
+	 */
+	public Kind decode(CharSequence text, int start, int end) {
+		Objects.checkFromToIndex(start, end, text.length());
+		this.bigInteger = null;
+		this.bigDecimal = null;
+		int index = start;
+		boolean negative = false;
+
+		if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+			negative = text.charAt(index) == '-';
+			index++;
+		}
+
+		if (matches(text, index, end, "inf")) {
+			return this.floatingPoint(negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+		} else if (matches(text, index, end, "nan")) {
+			return this.floatingPoint(Double.NaN);
+		}
+
+		if (index == end) {
+			return this.invalid(index, "Expected a digit");
+		} else if (digit(text.charAt(index)) >= 10) {
+			return this.invalid(index, "Expected a digit, found '" + text.charAt(index) + "'");
+		}
+
+		if (text.charAt(index) == '0' && index + 1 < end) {
+			switch (text.charAt(index + 1)) {
+				case 'x':
+					return this.decodeRadix(text, index + 2, end, negative, 4);
+				case 'o':
+					return this.decodeRadix(text, index + 2, end, negative, 3);
+				case 'b':
+					return this.decodeRadix(text, index + 2, end, negative, 1);
+			}
+		}
+
+		return this.decodeDecimal(text, start, index, end, negative);
+	}
+
+	/**
+	 * Decodes the digits of a hexadecimal, octal or binary integer.
+	 *
+	 * @param shift the number of bits of each digit
+	 */
+	private Kind decodeRadix(CharSequence text, int from, int end, boolean negative, int shift) {
+		int radix = 1 << shift;
+		long magnitude = 0;
+		boolean overflow = false;
+
+		if (from == end) {
+			return this.invalid(from, "Expected digits after the prefix");
+		}
+
+		for (int i = from; i < end; i++) {
+			char c = text.charAt(i);
+
+			if (c == '_') {
+				if (!separates(text, i, from, end, radix)) {
+					return this.invalid(i, "Underscores must be between digits");
+				}
+
+				continue;
+			}
+
+			int digit = digit(c);
+
+			if (digit >= radix) {
+				return this.invalid(i, "Invalid digit '" + c + "' in a number of base " + radix);
+			}
+
+			// Digits shifted out of an unsigned long
+			overflow |= magnitude >>> (Long.SIZE - shift) != 0;
+			magnitude = magnitude << shift | digit;
+		}
+
+		if (!overflow && (magnitude >= 0 || negative && magnitude == Long.MIN_VALUE)) {
+			return this.integer(negative ? -magnitude : magnitude);
+		}
+
+		BigInteger value = new BigInteger(this.strip(text, from, end), radix);
+		this.bigInteger = negative ? value.negate() : value;
+		return this.kind = Kind.BIG_INTEGER;
+	}
+
+	private Kind decodeDecimal(CharSequence text, int start, int from, int end, boolean negative) {
+		// The first significant digits, and the power of ten to multiply them by.
+		long mantissa = 0;
+		int significantDigits = 0;
+		int exponent = 0;
+		// Whether a non-zero digit was dropped from the mantissa.
+		boolean truncated = false;
+		boolean floatingPoint = false;
+		int i = from;
+
+		for (; i < end; i++) {
+			char c = text.charAt(i);
+
+			if (c == '_') {
+				if (!separates(text, i, from, end, 10)) {
+					return this.invalid(i, "Underscores must be between digits");
+				}
+
+				continue;
+			}
+
+			int digit = digit(c);
+
+			if (digit >= 10) {
+				break;
+			}
+
+			if (significantDigits < MAX_DIGITS) {
+				if (mantissa != 0 || digit != 0) {
+					mantissa = mantissa * 10 + digit;
+					significantDigits++;
+				}
+			} else {
+				exponent++;
+				truncated |= digit != 0;
+			}
+		}
+
+		if (i < end && text.charAt(i) == '.') {
+			floatingPoint = true;
+			int fraction = ++i;
+
+			for (; i < end; i++) {
+				char c = text.charAt(i);
+
+				if (c == '_') {
+					if (!separates(text, i, fraction, end, 10)) {
+						return this.invalid(i, "Underscores must be between digits");
+					}
+
+					continue;
+				}
+
+				int digit = digit(c);
+
+				if (digit >= 10) {
+					break;
+				}
+
+				if (significantDigits < MAX_DIGITS) {
+					if (mantissa != 0 || digit != 0) {
+						mantissa = mantissa * 10 + digit;
+						significantDigits++;
+					}
+
+					exponent--;
+				} else {
+					truncated |= digit != 0;
+				}
+			}
+
+			if (i == fraction) {
+				return this.invalid(i, "Expected digits after the decimal point");
+			}
+		}
+
+		if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+			floatingPoint = true;
+			boolean negativeExponent = false;
+			int value = 0;
+
+			if (++i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+				negativeExponent = text.charAt(i++) == '-';
+			}
+
+			int digits = i;
+
+			for (; i < end; i++) {
+				char c = text.charAt(i);
+
+				if (c == '_') {
+					if (!separates(text, i, digits, end, 10)) {
+						return this.invalid(i, "Underscores must be between digits");
+					}
+
+					continue;
+				}
+
+				int digit = digit(c);
+
+				if (digit >= 10) {
+					break;
+				}
+
+				value = Math.min(value * 10 + digit, MAX_EXPONENT);
+			}
+
+			if (i == digits) {
+				return this.invalid(i, "Expected digits in the exponent");
+			}
+
+			exponent += negativeExponent ? -value : value;
+		}
+
+		if (i < end) {
+			return this.invalid(i, "Unexpected character '" + text.charAt(i) + "' in a number");
+		}
+
+		if (!floatingPoint) {
+			if (exponent == 0) {
+				return this.integer(negative ? -mantissa : mantissa);
+			}
+
+			// More digits than always fit in a long
+			BigInteger value = new BigInteger(this.strip(text, start, end));
+
+			if (value.bitLength() < Long.SIZE) {
+				return this.integer(value.longValue());
+			}
+
+			this.bigInteger = value;
+			return this.kind = Kind.BIG_INTEGER;
+		}
+
+		if (mantissa == 0) {
+			return this.floatingPoint(negative ? -0.0 : 0.0);
+		}
+
+		// When both the mantissa and the power of ten are exact doubles, a single operation rounds correctly.
+		if (!truncated && mantissa <= MAX_EXACT_INTEGER && exponent >= -22 && exponent <= 22) {
+			double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+			return this.floatingPoint(negative ? -value : value);
+		}
+
+		String digits = this.strip(text, start, end);
+		double value = Double.parseDouble(digits);
+
+		if (!Double.isInfinite(value)) {
+			return this.floatingPoint(value);
+		}
+
+		try {
+			this.bigDecimal = new BigDecimal(digits);
+		} catch (NumberFormatException | ArithmeticException e) {
+			// The exponent does not fit in an int
+			return this.invalid(start, "Number is too large");
+		}
+
+		return this.kind = Kind.BIG_DECIMAL;
+	}
+
+	private static boolean matches(CharSequence text, int from, int end, String expected) {
+		if (end - from != expected.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < expected.length(); i++) {
+			if (text.charAt(from + i) != expected.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the value of an ASCII digit of up to base 16, or 16 if the character is not a digit
+	 */
+	private static int digit(char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		} else if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		} else if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+
+		return 16;
+	}
+
+	/**
+	 * @return true if the underscore at an index is between two digits of a run of digits
+	 */
+	private static boolean separates(CharSequence text, int index, int from, int end, int radix) {
+		return index > from && index + 1 < end
+				&& digit(text.charAt(index - 1)) < radix && digit(text.charAt(index + 1)) < radix;
+	}
+
+	/**
+	 * @return the text without underscores, only used once a number cannot be decoded without allocating
+	 */
+	private String strip(CharSequence text, int from, int end) {
+		this.digits.setLength(0);
+
+		for (int i = from; i < end; i++) {
+			char c = text.charAt(i);
+
+			if (c != '_') {
+				this.digits.append(c);
+			}
+		}
+
+		return this.digits.toString();
+	}
+
+	private Kind integer(long value) {
+		this.longValue = value;
+		return this.kind = Kind.INTEGER;
+	}
+
+	private Kind floatingPoint(double value) {
+		this.doubleValue = value;
+		return this.kind = Kind.FLOATING_POINT;
+	}
+
+	private Kind invalid(int index, String error) {
+		this.errorIndex = index;
+		this.error = error;
+		return this.kind = Kind.INVALID;
+	}
+
+	/**
+	 * @return the kind of the last decoded number
+	 */
+	public Kind kind() {
+		return this.kind;
+	}
+
+	/**
+	 * @return the value of the last decoded number
+	 * @throws IllegalStateException if the number is not an {@link Kind#INTEGER}
+	 */
+	public long longValue() {
+		this.check(this.kind == Kind.INTEGER);
+		return this.longValue;
+	}
+
+	/**
+	 * Returns the value of the last decoded number as a double, which may be rounded or infinite for numbers which
+	 * are not {@link Kind#FLOATING_POINT}.
+	 *
+	 * @return the value of the last decoded number
+	 * @throws IllegalStateException if the number is {@link Kind#INVALID}
+	 */
+	public double doubleValue() {
+		switch (this.kind) {
+			case INTEGER:
+				return this.longValue;
+			case FLOATING_POINT:
+				return this.doubleValue;
+			case BIG_INTEGER:
+				return this.bigInteger.doubleValue();
+			case BIG_DECIMAL:
+				return this.bigDecimal.doubleValue();
+			default:
+				throw this.invalidState();
+		}
+	}
+
+	/**
+	 * @return the value of the last decoded number
+	 * @throws IllegalStateException if the number is not an {@link Kind#INTEGER} or {@link Kind#BIG_INTEGER}
+	 */
+	public BigInteger bigIntegerValue() {
+		if (this.kind == Kind.INTEGER) {
+			return BigInteger.valueOf(this.longValue);
+		}
+
+		this.check(this.kind == Kind.BIG_INTEGER);
+		return this.bigInteger;
+	}
+
+	/**
+	 * @return the value of the last decoded number
+	 * @throws IllegalStateException if the number is {@link Kind#INVALID}, infinite or not a number
+	 */
+	public BigDecimal bigDecimalValue() {
+		switch (this.kind) {
+			case INTEGER:
+				return BigDecimal.valueOf(this.longValue);
+			case FLOATING_POINT:
+				this.check(!Double.isNaN(this.doubleValue) && !Double.isInfinite(this.doubleValue));
+				return BigDecimal.valueOf(this.doubleValue);
+			case BIG_INTEGER:
+				return new BigDecimal(this.bigInteger);
+			case BIG_DECIMAL:
+				return this.bigDecimal;
+			default:
+				throw this.invalidState();
+		}
+	}
+
+	/**
+	 * @return why the last decoded number is invalid
+	 * @throws IllegalStateException if the number is not {@link Kind#INVALID}
+	 */
+	public String error() {
+		this.check(this.kind == Kind.INVALID);
+		return this.error;
+	}
+
+	/**
+	 * @return the index in the decoded text at which the last decoded number is invalid
+	 * @throws IllegalStateException if the number is not {@link Kind#INVALID}
+	 */
+	public int errorIndex() {
+		this.check(this.kind == Kind.INVALID);
+		return this.errorIndex;
+	}
+
+	private void check(boolean state) {
+		if (!state) {
+			throw this.invalidState();
+		}
+	}
+
+	private IllegalStateException invalidState() {
+		return new IllegalStateException("Last decoded number is " + this.kind);
+	}
+}
@@ -0,0 +1,47 @@
+package me.i509.gura.parser;
+
+/**
+ * Thrown when the content of a Gura file is not a valid Gura document.
+ */
+public final class GuraParseException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final String reason;
+	private final int row;
+	private final int column;
+
+	/**
+	 * Creates an exception.
+	 *
+	 * @param reason why the document is invalid
+	 * @param row the row where the problem was found
+	 * @param column the column where the problem was found
+	 */
+	public GuraParseException(String reason, int row, int column) {
+		super(reason + " at row " + row + ", column " + column);
+		this.reason = reason;
+		this.row = row;
+		this.column = column;
+	}
+
+	/**
+	 * @return why the document is invalid, without the position
+	 */
+	public String reason() {
+		return this.reason;
+	}
+
+	/**
+	 * @return the row where the problem was found
+	 */
+	public int row() {
+		return this.row;
+	}
+
+	/**
+	 * @return the column where the problem was found
+	 */
+	public int column() {
+		return this.column;
+	}
+}
@@ -0,0 +1,166 @@
+package me.i509.gura.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.token.SymbolTable;
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenWindow;
+import me.i509.gura.token.TokenizationResult;
+
+/**
+ * Parses Gura documents.
+ *
+ * <p>The parser reads tokens in a single forward pass and reports the content of the document as events to a
+ * {@link GuraHandler}. The methods returning a {@link GuraDocument} build the tree of the document from these events,
+ * while the methods taking a handler never build a tree, so that only the parts of a document which are needed are
+ * decoded. When reading from a {@link Reader} or a file, the memory used by the parser does not depend on the size of
+ * the document.
+ *
+ * <p>Keys and the names of variables are interned in a {@link SymbolTable}, the {@link SymbolTable#shared() shared}
+ * one unless another is given, so that documents which are kept in memory share the strings of their keys.
+ *
+ * <pre>{@code
+ * GuraDocument document = GuraParser.parse("port: 8080");
+ * long port = document.root().get("port").asNumber().longValue();
+ * }</pre>
+ */
+public final class GuraParser {
+	/**
+	 * Parses the content of a Gura file.
+	 *
+	 * @param content the content of the Gura file
+	 * @return the document
+	 * @throws GuraParseException if the content is not a valid Gura document
+	 */
+	public static GuraDocument parse(String content) {
+		return parse(Token.tokenize(content));
+	}
+
+	/**
+	 * Parses the tokens of a Gura file.
+	 *
+	 * @param tokens the tokens of the Gura file
+	 * @return the document
+	 * @throws GuraParseException if the tokens are not a valid Gura document, or some tokens are invalid
+	 */
+	public static GuraDocument parse(TokenizationResult tokens) {
+		TreeBuilder builder = new TreeBuilder();
+		parse(tokens, builder);
+		return builder.document();
+	}
+
+	/**
+	 * Parses a UTF-8 encoded Gura file.
+	 *
+	 * @param path the path to the Gura file
+	 * @return the document
+	 * @throws IOException if the file could not be read
+	 * @throws GuraParseException if the content of the file is not a valid Gura document
+	 * @see Token#tokenize(Path)
+	 */
+	public static GuraDocument parse(Path path) throws IOException {
+		return parse(Token.tokenize(path));
+	}
+
+	/**
+	 * Parses the content of a Gura file, reporting it to a handler.
+	 *
+	 * @param content the content of the Gura file
+	 * @param handler the handler to report the content of the document to
+	 * @throws GuraParseException if the content is not a valid Gura document
+	 */
+	public static void parse(CharSequence content, GuraHandler handler) {
+		parse(TokenWindow.of(content), handler);
+	}
+
+	/**
+	 * Parses the tokens of a Gura file, reporting the content of the document to a handler.
+	 *
+	 * @param tokens the tokens of the Gura file
+	 * @param handler the handler to report the content of the document to
+	 * @throws GuraParseException if the tokens are not a valid Gura document, or some tokens are invalid
+	 */
+	public static void parse(TokenizationResult tokens, GuraHandler handler) {
+		Objects.requireNonNull(tokens, "Tokens cannot be null");
+
+		if (!tokens.success()) {
+			// Report the first invalid token even if it comes after other problems.
+			int index = tokens.buffer().invalidIndex(0);
+			throw new GuraParseException("Invalid token", tokens.buffer().row(index), tokens.buffer().column(index));
+		}
+
+		parse(TokenWindow.of(tokens), handler);
+	}
+
+	/**
+	 * Parses the content of a Gura file read from a reader, reporting it to a handler.
+	 *
+	 * <p>The content is read through a bounded buffer as the document is parsed. The reader is not closed.
+	 *
+	 * @param reader the reader to read the content of the Gura file from
+	 * @param handler the handler to report the content of the document to
+	 * @throws GuraParseException if the content is not a valid Gura document
+	 * @throws UncheckedIOException if reading from the reader fails
+	 */
+	public static void parse(Reader reader, GuraHandler handler) {
+		parse(TokenWindow.of(reader), handler);
+	}
+
+	/**
+	 * Parses a UTF-8 encoded Gura file, reporting its content to a handler.
+	 *
+	 * <p>The file is read through a bounded buffer as the document is parsed.
+	 *
+	 * @param path the path to the Gura file
+	 * @param handler the handler to report the content of the document to
+	 * @throws IOException if the file could not be read
+	 * @throws GuraParseException if the content of the file is not a valid Gura document
+	 */
+	public static void parse(Path path, GuraHandler handler) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			parse(reader, handler);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Parses the tokens in a window, reporting the content of the document to a handler.
+	 *
+	 * <p>Tokens are released from the window as soon as they were parsed.
+	 *
+	 * @param tokens the window over the tokens of the Gura file
+	 * @param handler the handler to report the content of the document to
+	 * @throws GuraParseException if the tokens are not a valid Gura document, or some tokens are invalid
+	 */
+	public static void parse(TokenWindow tokens, GuraHandler handler) {
+		parse(tokens, handler, SymbolTable.shared());
+	}
+
+	/**
+	 * Parses the tokens in a window, reporting the content of the document to a handler and interning keys and the
+	 * names of variables in a symbol table.
+	 *
+	 * <p>Tokens are released from the window as soon as they were parsed.
+	 *
+	 * @param tokens the window over the tokens of the Gura file
+	 * @param handler the handler to report the content of the document to
+	 * @param symbols the symbol table to intern keys in
+	 * @throws GuraParseException if the tokens are not a valid Gura document, or some tokens are invalid
+	 */
+	public static void parse(TokenWindow tokens, GuraHandler handler, SymbolTable symbols) {
+		Objects.requireNonNull(tokens, "Tokens cannot be null");
+		Objects.requireNonNull(handler, "Handler cannot be null");
+		Objects.requireNonNull(symbols, "Symbol table cannot be null");
+		new ParserImpl(tokens, handler, symbols).parseDocument();
+	}
+
+	private GuraParser() {}
+}
@@ -0,0 +1,677 @@
+package me.i509.gura.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.token.TokenizationResult;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A compiled set of paths to values of Gura documents, which finds the values without building the tree of the
+ * documents.
+ *
+ * <p>A path is a sequence of keys separated by dots, each of which may be followed by indices of array elements, such
+ * as {@code services.api.ports[2]}. A key of {@code *} matches every key of an object and an index of {@code *} matches
+ * every element of an array, so {@code *.timeout} matches the {@code timeout} of every top level object. Paths never
+ * match variables.
+ *
+ * <p>Queries are compiled once and may be run against any number of documents from any number of threads. A run
+ * reads the events of the parser and skips every object and array which no path can match within. Only the values
+ * which match a path are built. The run stops as soon as every path is settled: a path without wildcards once it was
+ * found, or once the object or array which would hold it ended, and a path with wildcards once the object or array
+ * before its first wildcard ended. When a run stops early, the rest of the document is neither read nor checked.
+ *
+ * <pre>{@code
+ * GuraQuery query = GuraQuery.compile("services.api.ports[2]", "*.timeout");
+ * GuraQuery.Result result = query.run(Path.of("service.ura"));
+ * GuraValue port = result.first("services.api.ports[2]");
+ * Map<String, GuraValue> timeouts = result.matches("*.timeout");
+ * }</pre>
+ */
+public final class GuraQuery {
+	/**
+	 * The key which matched values are built at in their own document.
+	 */
+	private static final String VALUE = "value";
+
+	/**
+	 * Compiles paths into a query.
+	 *
+	 * @param paths the paths
+	 * @return the query
+	 * @throws IllegalArgumentException if a path is invalid
+	 */
+	public static GuraQuery compile(String... paths) {
+		return compile(List.of(paths));
+	}
+
+	/**
+	 * Compiles paths into a query.
+	 *
+	 * @param paths the paths
+	 * @return the query
+	 * @throws IllegalArgumentException if a path is invalid
+	 */
+	public static GuraQuery compile(List<String> paths) {
+		Step[][] steps = new Step[paths.size()][];
+		int[] concrete = new int[steps.length];
+
+		for (int i = 0; i < steps.length; i++) {
+			steps[i] = parsePath(paths.get(i));
+
+			while (concrete[i] < steps[i].length && !steps[i][concrete[i]].wildcard()) {
+				concrete[i]++;
+			}
+		}
+
+		return new GuraQuery(List.copyOf(paths), steps, concrete);
+	}
+
+	private static Step[] parsePath(String path) {
+		List<Step> steps = new ArrayList<>();
+		int length = path.length();
+		int i = 0;
+
+		while (true) {
+			if (i < length && path.charAt(i) == '*') {
+				steps.add(new Step(null, -1, false));
+				i++;
+			} else {
+				int start = i;
+
+				while (i < length && StringDecoder.isVariableCharacter(path.charAt(i))) {
+					i++;
+				}
+
+				if (i == start) {
+					throw invalidPath(path, i, "expected a key or '*'");
+				}
+
+				steps.add(new Step(path.substring(start, i), -1, false));
+			}
+
+			while (i < length && path.charAt(i) == '[') {
+				i++;
+
+				if (i < length && path.charAt(i) == '*') {
+					steps.add(new Step(null, -1, true));
+					i++;
+				} else {
+					int start = i;
+
+					while (i < length && path.charAt(i) >= '0' && path.charAt(i) <= '9') {
+						i++;
+					}
+
+					if (i == start || i - start > 9) {
+						throw invalidPath(path, start, "expected an index or '*'");
+					}
+
+					steps.add(new Step(null, Integer.parseInt(path, start, i, 10), true));
+				}
+
+				if (i == length || path.charAt(i) != ']') {
+					throw invalidPath(path, i, "expected ']'");
+				}
+
+				i++;
+			}
+
+			if (i == length) {
+				return steps.toArray(new Step[0]);
+			}
+
+			if (path.charAt(i) != '.') {
+				throw invalidPath(path, i, "expected '.' or '['");
+			}
+
+			i++;
+		}
+	}
+
+	private static IllegalArgumentException invalidPath(String path, int index, String reason) {
+		return new IllegalArgumentException("Invalid path '" + path + "' at index " + index + ", " + reason);
+	}
+
+	private final List<String> paths;
+	private final Step[][] steps;
+	/**
+	 * The number of steps of each path before its first wildcard.
+	 */
+	private final int[] concrete;
+
+	private GuraQuery(List<String> paths, Step[][] steps, int[] concrete) {
+		this.paths = paths;
+		this.steps = steps;
+		this.concrete = concrete;
+	}
+
+	/**
+	 * @return the paths of this query, in the order they were compiled
+	 */
+	public List<String> paths() {
+		return this.paths;
+	}
+
+	/**
+	 * Runs this query against the content of a Gura file, tokenizing it only as far as needed.
+	 *
+	 * @param content the content of the Gura file
+	 * @return the values found
+	 * @throws GuraParseException if the part of the content which was read is not valid
+	 */
+	public Result run(CharSequence content) {
+		Matcher matcher = new Matcher();
+		GuraParser.parse(content, matcher);
+		return matcher.result();
+	}
+
+	/**
+	 * Runs this query against the tokens of a Gura file.
+	 *
+	 * @param tokens the tokens of the Gura file
+	 * @return the values found
+	 * @throws GuraParseException if the part of the tokens which was read is not valid, or some tokens are invalid
+	 */
+	public Result run(TokenizationResult tokens) {
+		Matcher matcher = new Matcher();
+		GuraParser.parse(tokens, matcher);
+		return matcher.result();
+	}
+
+	/**
+	 * Runs this query against the content of a Gura file read from a reader, reading it only as far as needed.
+	 *
+	 * @param reader the reader to read the content of the Gura file from, which is not closed
+	 * @return the values found
+	 * @throws GuraParseException if the part of the content which was read is not valid
+	 */
+	public Result run(Reader reader) {
+		Matcher matcher = new Matcher();
+		GuraParser.parse(reader, matcher);
+		return matcher.result();
+	}
+
+	/**
+	 * Runs this query against a UTF-8 encoded Gura file, reading it only as far as needed.
+	 *
+	 * @param path the path to the Gura file
+	 * @return the values found
+	 * @throws IOException if the file could not be read
+	 * @throws GuraParseException if the part of the file which was read is not valid
+	 */
+	public Result run(Path path) throws IOException {
+		Matcher matcher = new Matcher();
+		GuraParser.parse(path, matcher);
+		return matcher.result();
+	}
+
+	/**
+	 * Runs this query against a lazy document, parsing only the top level entries which a path may match within.
+	 *
+	 * <p>Entries are parsed again rather than read from the values cached by the document, and this query does not
+	 * cache them either.
+	 *
+	 * @param document the lazy document
+	 * @return the values found
+	 * @throws GuraParseException if a parsed entry is invalid
+	 */
+	public Result run(GuraLazyDocument document) {
+		Matcher matcher = new Matcher();
+		boolean[] entries = new boolean[document.size()];
+
+		for (int i = 0; i < this.steps.length; i++) {
+			String key = this.steps[i][0].key;
+
+			if (key != null) {
+				int index = document.indexOf(key);
+
+				if (index < 0) {
+					matcher.settle(i);
+				} else {
+					entries[index] = true;
+				}
+			} else {
+				for (int j = 0; j < entries.length; j++) {
+					entries[j] |= document.key(j).charAt(0) != '$';
+				}
+			}
+		}
+
+		for (int i = 0; i < entries.length && !matcher.done(); i++) {
+			if (entries[i]) {
+				document.parse(i, matcher);
+			}
+		}
+
+		return matcher.result();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraQuery.class.getSimpleName() + "[", "]")
+				.add("paths=" + this.paths)
+				.toString();
+	}
+
+	/**
+	 * The values found by a run of a query.
+	 */
+	public static final class Result {
+		private final List<String> paths;
+		private final List<Map<String, GuraValue>> matches;
+
+		Result(List<String> paths, List<Map<String, GuraValue>> matches) {
+			this.paths = paths;
+			this.matches = matches;
+		}
+
+		/**
+		 * Gets the values matching a path.
+		 *
+		 * @param path one of the paths of the query
+		 * @return the values matching the path by the path of each value without wildcards, such as
+		 *     {@code api.timeout} for {@code *.timeout}, in the order of the document
+		 * @throws IllegalArgumentException if the path is not one of the paths of the query
+		 */
+		public Map<String, GuraValue> matches(String path) {
+			int index = this.paths.indexOf(path);
+
+			if (index < 0) {
+				throw new IllegalArgumentException("Path '" + path + "' is not part of the query");
+			}
+
+			return this.matches.get(index);
+		}
+
+		/**
+		 * Gets the first value matching a path.
+		 *
+		 * @param path one of the paths of the query
+		 * @return the first value matching the path in the order of the document, or null if there is none
+		 * @throws IllegalArgumentException if the path is not one of the paths of the query
+		 */
+		@Nullable
+		public GuraValue first(String path) {
+			Map<String, GuraValue> matches = this.matches(path);
+			return matches.isEmpty() ? null : matches.values().iterator().next();
+		}
+
+		@Override
+		public String toString() {
+			return new StringJoiner(", ", Result.class.getSimpleName() + "[", "]")
+					.add("paths=" + this.paths)
+					.add("matches=" + this.matches)
+					.toString();
+		}
+	}
+
+	/**
+	 * A step of a path, a key or the index of an element.
+	 */
+	private static final class Step {
+		/**
+		 * The key, or null to match every key or if this is an element.
+		 */
+		@Nullable
+		final String key;
+		/**
+		 * The index of the element, or -1 to match every element or if this is a key.
+		 */
+		final int index;
+		final boolean element;
+
+		Step(@Nullable String key, int index, boolean element) {
+			this.key = key;
+			this.index = index;
+			this.element = element;
+		}
+
+		boolean wildcard() {
+			return this.element ? this.index < 0 : this.key == null;
+		}
+
+		/**
+		 * @param key the key of the value, or null if the value is an element
+		 * @param index the index of the element, or -1 if the value is not an element
+		 */
+		boolean matches(@Nullable String key, int index) {
+			if (this.element) {
+				return index >= 0 && (this.index < 0 || this.index == index);
+			}
+
+			return key != null && (this.key == null || this.key.equals(key));
+		}
+	}
+
+	/**
+	 * An object or array being read, with the steps of the paths which may match within it.
+	 */
+	private static final class Frame {
+		@Nullable
+		String key;
+		int index;
+		boolean array;
+		int nextIndex;
+		int[] paths = new int[4];
+		int[] steps = new int[4];
+		int count;
+
+		void reset(@Nullable String key, int index) {
+			this.key = key;
+			this.index = index;
+			this.nextIndex = 0;
+			this.count = 0;
+		}
+
+		void add(int path, int step) {
+			if (this.count == this.paths.length) {
+				this.paths = Arrays.copyOf(this.paths, this.count * 2);
+				this.steps = Arrays.copyOf(this.steps, this.count * 2);
+			}
+
+			this.paths[this.count] = path;
+			this.steps[this.count++] = step;
+		}
+	}
+
+	/**
+	 * A value matching a path which is being built.
+	 */
+	private static final class Capture {
+		final int path;
+		final String match;
+		final TreeBuilder builder = new TreeBuilder();
+		int depth;
+
+		Capture(int path, String match) {
+			this.path = path;
+			this.match = match;
+		}
+	}
+
+	/**
+	 * Matches the events of the parser against the paths of the query.
+	 */
+	private final class Matcher implements GuraHandler {
+		private final List<Map<String, GuraValue>> matches = new ArrayList<>();
+		private final boolean[] settled = new boolean[GuraQuery.this.steps.length];
+		private int settledCount;
+		private Frame[] stack = new Frame[8];
+		private int depth;
+		/**
+		 * The values being built, with the innermost last.
+		 */
+		private final List<Capture> captures = new ArrayList<>();
+		private GuraLocator locator;
+
+		Matcher() {
+			Frame root = new Frame();
+			root.index = -1;
+
+			for (int i = 0; i < GuraQuery.this.steps.length; i++) {
+				root.add(i, 0);
+				this.matches.add(new LinkedHashMap<>());
+			}
+
+			this.stack[0] = root;
+		}
+
+		Result result() {
+			List<Map<String, GuraValue>> matches = new ArrayList<>(this.matches.size());
+
+			for (Map<String, GuraValue> match : this.matches) {
+				matches.add(Collections.unmodifiableMap(match));
+			}
+
+			return new Result(GuraQuery.this.paths, matches);
+		}
+
+		void settle(int path) {
+			if (!this.settled[path]) {
+				this.settled[path] = true;
+				this.settledCount++;
+			}
+		}
+
+		@Override
+		public boolean done() {
+			return this.settledCount == this.settled.length;
+		}
+
+		@Override
+		public void startDocument(GuraLocator locator) {
+			// A lazy document reports each entry as a document.
+			this.locator = locator;
+		}
+
+		/**
+		 * Matches a value against the steps of its parent, starting a capture for every path which it completes.
+		 *
+		 * @return true if any path may match within the value
+		 */
+		private boolean match(@Nullable String key, boolean container) {
+			Frame parent = this.stack[this.depth];
+			int index = parent.array ? parent.nextIndex++ : -1;
+
+			if (this.depth + 1 == this.stack.length) {
+				this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+			}
+
+			Frame next = this.stack[this.depth + 1];
+
+			if (next == null) {
+				this.stack[this.depth + 1] = next = new Frame();
+			}
+
+			next.reset(key, index);
+
+			if (key != null && key.charAt(0) == '$') {
+				// Variables
+				return false;
+			}
+
+			for (int i = 0; i < parent.count; i++) {
+				int path = parent.paths[i];
+				int step = parent.steps[i];
+
+				if (!GuraQuery.this.steps[path][step].matches(key, index)) {
+					continue;
+				}
+
+				if (step + 1 == GuraQuery.this.steps[path].length) {
+					Capture capture = new Capture(path, this.pathOf(next));
+					capture.builder.startDocument(this.locator);
+					capture.depth = this.depth + 1;
+					this.captures.add(capture);
+				} else if (container) {
+					next.add(path, step + 1);
+				} else if (step < GuraQuery.this.concrete[path]) {
+					// Only one value can match the step, and it has no children.
+					this.settle(path);
+				}
+			}
+
+			return next.count > 0;
+		}
+
+		private String pathOf(Frame value) {
+			StringBuilder path = new StringBuilder();
+
+			for (int i = 1; i <= this.depth + 1; i++) {
+				Frame frame = i <= this.depth ? this.stack[i] : value;
+
+				if (frame.key != null) {
+					if (path.length() > 0) {
+						path.append('.');
+					}
+
+					path.append(frame.key);
+				} else {
+					path.append('[').append(frame.index).append(']');
+				}
+			}
+
+			return path.toString();
+		}
+
+		private void finish(Capture capture) {
+			capture.builder.endDocument();
+			GuraValue value = capture.builder.document().root().get(VALUE);
+			this.matches.get(capture.path).put(capture.match, value);
+
+			if (GuraQuery.this.concrete[capture.path] == GuraQuery.this.steps[capture.path].length) {
+				this.settle(capture.path);
+			}
+		}
+
+		private void scalar(@Nullable String key, BiConsumer<GuraHandler, String> event) {
+			int captures = this.captures.size();
+
+			for (int i = 0; i < captures; i++) {
+				event.accept(this.captures.get(i).builder, key);
+			}
+
+			this.match(key, false);
+
+			while (this.captures.size() > captures) {
+				Capture capture = this.captures.remove(this.captures.size() - 1);
+				event.accept(capture.builder, VALUE);
+				this.finish(capture);
+			}
+		}
+
+		private boolean start(@Nullable String key, boolean array) {
+			int captures = this.captures.size();
+			boolean enter = this.match(key, true);
+
+			for (int i = captures; i < this.captures.size(); i++) {
+				Capture capture = this.captures.get(i);
+
+				if (array) {
+					capture.builder.startArray(VALUE);
+				} else {
+					capture.builder.startObject(VALUE);
+				}
+			}
+
+			if (!enter && this.captures.isEmpty()) {
+				return false;
+			}
+
+			this.stack[++this.depth].array = array;
+			return true;
+		}
+
+		private void end() {
+			Frame frame = this.stack[this.depth];
+
+			for (int i = 0; i < frame.count; i++) {
+				if (frame.steps[i] <= GuraQuery.this.concrete[frame.paths[i]]) {
+					// No other value can hold the path.
+					this.settle(frame.paths[i]);
+				}
+			}
+
+			while (!this.captures.isEmpty() && this.captures.get(this.captures.size() - 1).depth == this.depth) {
+				this.finish(this.captures.remove(this.captures.size() - 1));
+			}
+
+			this.depth--;
+		}
+
+		@Override
+		public boolean startObject(@Nullable String key) {
+			for (Capture capture : this.captures) {
+				capture.builder.startObject(key);
+			}
+
+			return this.start(key, false);
+		}
+
+		@Override
+		public void endObject() {
+			for (Capture capture : this.captures) {
+				capture.builder.endObject();
+			}
+
+			this.end();
+		}
+
+		@Override
+		public boolean startArray(@Nullable String key) {
+			for (Capture capture : this.captures) {
+				capture.builder.startArray(key);
+			}
+
+			return this.start(key, true);
+		}
+
+		@Override
+		public void endArray() {
+			for (Capture capture : this.captures) {
+				capture.builder.endArray();
+			}
+
+			this.end();
+		}
+
+		@Override
+		public void string(@Nullable String key, String value) {
+			this.scalar(key, (handler, k) -> handler.string(k, value));
+		}
+
+		@Override
+		public void interpolatedString(@Nullable String key, GuraInterpolatedString value) {
+			this.scalar(key, (handler, k) -> handler.interpolatedString(k, value));
+		}
+
+		@Override
+		public void integer(@Nullable String key, long value) {
+			this.scalar(key, (handler, k) -> handler.integer(k, value));
+		}
+
+		@Override
+		public void floatingPoint(@Nullable String key, double value) {
+			this.scalar(key, (handler, k) -> handler.floatingPoint(k, value));
+		}
+
+		@Override
+		public void bigInteger(@Nullable String key, BigInteger value) {
+			this.scalar(key, (handler, k) -> handler.bigInteger(k, value));
+		}
+
+		@Override
+		public void bigDecimal(@Nullable String key, BigDecimal value) {
+			this.scalar(key, (handler, k) -> handler.bigDecimal(k, value));
+		}
+
+		@Override
+		public void bool(@Nullable String key, boolean value) {
+			this.scalar(key, (handler, k) -> handler.bool(k, value));
+		}
+
+		@Override
+		public void nullValue(@Nullable String key) {
+			this.scalar(key, GuraHandler::nullValue);
+		}
+
+		@Override
+		public void variable(@Nullable String key, String name) {
+			this.scalar(key, (handler, k) -> handler.variable(k, name));
+		}
+	}
+}
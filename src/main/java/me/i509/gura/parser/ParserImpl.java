@@ -0,0 +1,693 @@
+package me.i509.gura.parser;
+
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.token.SymbolTable;
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenWindow;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Implementation of the Gura parser.
+ *
+ * <p>The parser reads the tokens of a document in a single forward pass, looking at most a few tokens ahead and never
+ * backtracking. Objects are delimited by indentation: every entry of an object is on its own line, indented by four
+ * spaces more than the key of the object.
+ *
+ * <p>The content of the document is reported to a {@link GuraHandler} as it is read. The parser itself only keeps
+ * the tokens of the current line or array element, which are released from the {@link TokenWindow} as soon as the
+ * next one starts, so the memory used while parsing does not depend on the size of the document.
+ */
+final class ParserImpl implements GuraLocator {
+	/**
+	 * The amount of spaces each level of objects is indented by.
+	 */
+	static final int INDENTATION = 4;
+
+	private final TokenWindow tokens;
+	private final GuraHandler handler;
+	/**
+	 * The table which keys and the names of variables are interned in.
+	 */
+	private final SymbolTable symbols;
+	private final GuraNumberDecoder numbers = new GuraNumberDecoder();
+	/**
+	 * The index of the next token to read.
+	 */
+	private int position;
+	/**
+	 * Whether an entry or variable was read, after which imports are no longer allowed.
+	 */
+	private boolean hasEntries;
+	// The position of the current event
+	private int row = 1;
+	private int column = 1;
+
+	ParserImpl(TokenWindow tokens, GuraHandler handler, SymbolTable symbols) {
+		this.tokens = tokens;
+		this.handler = handler;
+		this.symbols = symbols;
+	}
+
+	void parseDocument() {
+		this.handler.startDocument(this);
+
+		try {
+			this.parseEntries(0, false);
+		} catch (Stop e) {
+			return;
+		}
+
+		this.handler.endDocument();
+	}
+
+	/**
+	 * Parses the tokens from the start of a line to the end of the window as a document of their own.
+	 *
+	 * @param start the index of the first token of the line
+	 */
+	void parseDocument(int start) {
+		this.position = start;
+		this.parseDocument();
+	}
+
+	@Override
+	public int row() {
+		return this.row;
+	}
+
+	@Override
+	public int column() {
+		return this.column;
+	}
+
+	private void locate(int row, int column) {
+		this.row = row;
+		this.column = column;
+	}
+
+	/**
+	 * @param index the index of a token
+	 * @return the type of the token, or {@link Token.Type#EOF} past the last token
+	 * @throws GuraParseException if the token is invalid
+	 */
+	private Token.Type type(int index) {
+		Token.Type type = this.tokens.type(index);
+
+		if (!type.valid()) {
+			throw this.error(index, "Invalid token");
+		}
+
+		return type;
+	}
+
+	/**
+	 * Parses the entries of an object, each starting on its own line at the indentation of the object.
+	 *
+	 * <p>The cursor must be at the start of a line. Parsing stops at the first line which is indented less than the
+	 * object, leaving the cursor at the start of that line.
+	 *
+	 * @param indent the indentation of the entries
+	 * @param inArray whether the object is within an array, in which case a comma or closing bracket also ends it
+	 * @return true if the object has any entries
+	 */
+	private boolean parseEntries(int indent, boolean inArray) {
+		boolean hasEntries = false;
+
+		while (true) {
+			this.checkDone();
+			int lineStart = this.position;
+			this.tokens.release(lineStart);
+			Token.Type first = this.type(lineStart);
+
+			if (inArray && (first == Token.Type.COMMA || first == Token.Type.RIGHT_BRACKET)) {
+				return hasEntries;
+			}
+
+			int index = lineStart;
+			int lineIndent = 0;
+
+			if (first == Token.Type.SPACE_WS) {
+				lineIndent = this.tokens.length(index);
+				first = this.type(++index);
+			}
+
+			switch (first) {
+				case EOF:
+					this.position = index;
+					return hasEntries;
+				case NEWLINE:
+					// Blank line
+					this.position = index + 1;
+					continue;
+				case COMMENT:
+					// Line with only a comment
+					this.comment(index);
+					this.position = this.type(index + 1) == Token.Type.NEWLINE ? index + 2 : index + 1;
+					continue;
+				case TAB_WS:
+					throw this.error(index, "Tabs cannot be used for indentation");
+			}
+
+			if (lineIndent < indent
+					|| (inArray && (first == Token.Type.COMMA || first == Token.Type.RIGHT_BRACKET))) {
+				// The line belongs to an enclosing object or array.
+				this.position = lineStart;
+				return hasEntries;
+			}
+
+			if (lineIndent > indent) {
+				throw this.error(index, "Unexpected indentation, expected " + indent + " spaces");
+			}
+
+			this.position = index;
+			this.parseEntry(indent, inArray);
+			hasEntries = true;
+		}
+	}
+
+	/**
+	 * Parses an entry of an object, a variable or an import, starting at the key.
+	 *
+	 * @param indent the indentation of the object
+	 * @param inArray whether the object is within an array
+	 */
+	private void parseEntry(int indent, boolean inArray) {
+		int keyIndex = this.position;
+
+		if (this.type(keyIndex) != Token.Type.IDENTIFIER) {
+			throw this.error(keyIndex, "Expected a key");
+		}
+
+		int keyRow = this.tokens.row(keyIndex);
+		int keyColumn = this.tokens.column(keyIndex);
+		String key = this.tokens.intern(keyIndex, this.symbols);
+
+		if (this.type(keyIndex + 1) != Token.Type.COLON) {
+			if (indent == 0 && !inArray && key.equals("import")) {
+				this.parseImport();
+				return;
+			}
+
+			throw this.error(keyIndex + 1, "Expected ':' after key");
+		}
+
+		this.hasEntries = true;
+		boolean variable = key.charAt(0) == '$';
+		this.position = keyIndex + 2;
+		this.skipInlineWhitespace();
+
+		switch (this.type(this.position)) {
+			case COMMENT:
+			case NEWLINE:
+			case EOF:
+				// The value is an object on the following lines.
+				if (variable) {
+					throw new GuraParseException("Variables cannot hold objects", keyRow, keyColumn);
+				}
+
+				this.locate(keyRow, keyColumn);
+				boolean read = this.handler.startObject(key);
+				this.endLine(false, read);
+				int entryIndent = indent + INDENTATION;
+
+				if (!(read ? this.parseEntries(entryIndent, inArray) : this.skipEntries(entryIndent, inArray))) {
+					throw new GuraParseException("Expected a value or an indented object after key", keyRow, keyColumn);
+				}
+
+				if (read) {
+					this.handler.endObject();
+				}
+
+				break;
+			default:
+				this.parseValue(key, keyRow, keyColumn, variable);
+				this.endLine(inArray, true);
+		}
+	}
+
+	/**
+	 * Parses an import, {@code import "path"}.
+	 */
+	private void parseImport() {
+		int importIndex = this.position;
+
+		if (this.hasEntries) {
+			throw this.error(importIndex, "Imports must come before any other entry");
+		}
+
+		this.position++;
+		this.skipInlineWhitespace();
+		int pathIndex = this.position;
+
+		if (this.position == importIndex + 1 || this.type(pathIndex) != Token.Type.BASIC_STRING_VALUE) {
+			throw this.error(pathIndex, "Expected the path of the file to import");
+		}
+
+		GuraValue path = this.decodeString(pathIndex);
+
+		if (path.type() != GuraValue.Type.STRING) {
+			throw this.error(pathIndex, "The path of an import cannot contain variables");
+		}
+
+		this.locate(this.tokens.row(importIndex), this.tokens.column(importIndex));
+		this.handler.importFile(path.asString().value());
+		this.position = pathIndex + 1;
+		this.endLine(false, true);
+	}
+
+	/**
+	 * Parses a value which starts on the current line.
+	 *
+	 * @param key the key of the value, or null if the value is an element of an array
+	 * @param row the row of the key or value
+	 * @param column the column of the key or value
+	 * @param variable whether the value is that of a variable
+	 */
+	private void parseValue(@Nullable String key, int row, int column, boolean variable) {
+		int index = this.position;
+
+		switch (this.type(index)) {
+			case BASIC_STRING_VALUE:
+			case LITERAL_STRING_VALUE:
+				this.position++;
+				GuraValue value = this.decodeString(index);
+				this.locate(row, column);
+
+				if (value.type() == GuraValue.Type.STRING) {
+					this.handler.string(key, value.asString().value());
+				} else {
+					this.handler.interpolatedString(key, (GuraInterpolatedString) value);
+				}
+
+				return;
+			case LEFT_BRACKET:
+				this.locate(row, column);
+
+				if (this.handler.startArray(key)) {
+					this.parseArray();
+					this.handler.endArray();
+				} else {
+					this.skipArray();
+				}
+
+				return;
+			case IDENTIFIER:
+			case NUMBER:
+			case MINUS:
+			case PLUS:
+				this.parseScalar(key, row, column, variable);
+				return;
+			default:
+				throw this.error(index, "Expected a value");
+		}
+	}
+
+	private GuraValue decodeString(int index) {
+		return StringDecoder.decode(
+				this.tokens.text(index),
+				this.tokens.type(index),
+				this.tokens.flags(index),
+				this.tokens.row(index),
+				this.tokens.column(index)
+		);
+	}
+
+	/**
+	 * Parses a keyword, variable or number.
+	 *
+	 * <p>The tokenizer may split a number into multiple tokens, such as the sign of a number or exponent and single
+	 * digits, so every adjacent token which may be part of a number is read.
+	 *
+	 * @param key the key of the value, or null if the value is an element of an array
+	 * @param row the row of the key or value
+	 * @param column the column of the key or value
+	 * @param variable whether the value is that of a variable
+	 */
+	private void parseScalar(@Nullable String key, int row, int column, boolean variable) {
+		int start = this.position;
+		int end = start;
+
+		while (true) {
+			Token.Type type = this.type(end);
+
+			if (type != Token.Type.IDENTIFIER && type != Token.Type.NUMBER
+					&& type != Token.Type.MINUS && type != Token.Type.PLUS) {
+				break;
+			}
+
+			end++;
+		}
+
+		this.position = end;
+		CharSequence text = this.tokens.text(start, end);
+		this.locate(row, column);
+
+		if (end == start + 1 && this.tokens.type(start) == Token.Type.IDENTIFIER) {
+			// Compared without creating a string for every value.
+			if ("true".contentEquals(text)) {
+				this.handler.bool(key, true);
+				return;
+			} else if ("false".contentEquals(text)) {
+				this.handler.bool(key, false);
+				return;
+			} else if ("null".contentEquals(text)) {
+				this.handler.nullValue(key);
+				return;
+			} else if ("empty".contentEquals(text)) {
+				if (variable) {
+					throw new GuraParseException("Variables cannot hold objects", row, column);
+				}
+
+				if (this.handler.startObject(key)) {
+					this.handler.endObject();
+				}
+
+				return;
+			}
+		}
+
+		// The tokenizer may split the digits at the end of a variable name from the rest of the name.
+		if (text.charAt(0) == '$') {
+			this.handler.variable(key, this.parseVariableName(start, text));
+			return;
+		}
+
+		switch (this.numbers.decode(text)) {
+			case INTEGER:
+				this.handler.integer(key, this.numbers.longValue());
+				return;
+			case FLOATING_POINT:
+				this.handler.floatingPoint(key, this.numbers.doubleValue());
+				return;
+			case BIG_INTEGER:
+				this.handler.bigInteger(key, this.numbers.bigIntegerValue());
+				return;
+			case BIG_DECIMAL:
+				this.handler.bigDecimal(key, this.numbers.bigDecimalValue());
+				return;
+		}
+
+		int digits = text.charAt(0) == '-' || text.charAt(0) == '+' ? 1 : 0;
+
+		if (digits == text.length() || text.charAt(digits) < '0' || text.charAt(digits) > '9') {
+			throw this.error(start, "Invalid value '" + text + "'");
+		}
+
+		// Numbers never span multiple lines, so the error is on the row of the first token.
+		throw new GuraParseException(
+				this.numbers.error(),
+				this.tokens.row(start),
+				this.tokens.column(start) + this.numbers.errorIndex()
+		);
+	}
+
+	private String parseVariableName(int index, CharSequence text) {
+		if (text.length() == 1) {
+			throw this.error(index, "Expected the name of a variable");
+		}
+
+		for (int i = 1; i < text.length(); i++) {
+			if (!StringDecoder.isVariableCharacter(text.charAt(i))) {
+				throw this.error(index, "Invalid name of variable '" + text + "'");
+			}
+		}
+
+		return this.symbols.intern(text, 1, text.length());
+	}
+
+	/**
+	 * Parses the elements of an array, starting at the opening bracket.
+	 *
+	 * <p>Values of an array are separated by commas and may span multiple lines. A key followed by a colon starts an
+	 * object, whose entries are indented at the column of its first key.
+	 */
+	private void parseArray() {
+		this.position++;
+
+		while (true) {
+			this.checkDone();
+			this.skipArrayTrivia();
+			this.tokens.release(this.position);
+			int index = this.position;
+			Token.Type type = this.type(index);
+
+			if (type == Token.Type.RIGHT_BRACKET) {
+				this.position++;
+				return;
+			}
+
+			if (type == Token.Type.EOF) {
+				throw this.error(index, "Expected ',' or ']' in array");
+			}
+
+			if (type == Token.Type.IDENTIFIER && this.type(index + 1) == Token.Type.COLON) {
+				this.parseArrayObject();
+			} else {
+				this.parseValue(null, this.tokens.row(index), this.tokens.column(index), false);
+			}
+
+			this.skipArrayTrivia();
+
+			switch (this.type(this.position)) {
+				case COMMA:
+					this.position++;
+					break;
+				case RIGHT_BRACKET:
+					this.position++;
+					return;
+				default:
+					throw this.error(this.position, "Expected ',' or ']' in array");
+			}
+		}
+	}
+
+	private void parseArrayObject() {
+		int indent = this.tokens.column(this.position) - 1;
+		this.locate(this.tokens.row(this.position), this.tokens.column(this.position));
+
+		if (this.handler.startObject(null)) {
+			this.parseEntry(indent, true);
+			this.parseEntries(indent, true);
+			this.handler.endObject();
+		} else {
+			this.skipLine(true);
+			this.skipEntries(indent, true);
+		}
+	}
+
+	/**
+	 * Skips whitespace, newlines and comments between the values of an array.
+	 */
+	private void skipArrayTrivia() {
+		while (true) {
+			switch (this.type(this.position)) {
+				case COMMENT:
+					this.comment(this.position);
+					this.position++;
+					break;
+				case SPACE_WS:
+				case TAB_WS:
+				case NEWLINE:
+					this.position++;
+					break;
+				default:
+					return;
+			}
+		}
+	}
+
+	private void skipInlineWhitespace() {
+		while (this.type(this.position).whitespace()) {
+			this.position++;
+		}
+	}
+
+	/**
+	 * Reads the end of a line after a value, which may have a trailing comment.
+	 *
+	 * @param inArray whether the value is within an array, in which case a comma or closing bracket may also follow
+	 * @param comments whether to report a trailing comment to the handler
+	 */
+	private void endLine(boolean inArray, boolean comments) {
+		this.skipInlineWhitespace();
+		Token.Type type = this.type(this.position);
+
+		if (type == Token.Type.COMMENT) {
+			if (comments) {
+				this.comment(this.position);
+			}
+
+			type = this.type(++this.position);
+		}
+
+		if (type == Token.Type.NEWLINE) {
+			this.position++;
+		} else if (type != Token.Type.EOF
+				&& !(inArray && (type == Token.Type.COMMA || type == Token.Type.RIGHT_BRACKET))) {
+			throw this.error(this.position, "Expected the end of the line");
+		}
+	}
+
+	private void comment(int index) {
+		CharSequence text = this.tokens.text(index);
+		this.locate(this.tokens.row(index), this.tokens.column(index));
+		this.handler.comment(text.subSequence(1, text.length()));
+	}
+
+	/**
+	 * Skips the entries of an object which the handler is not interested in.
+	 *
+	 * <p>Every line indented at least as much as the object belongs to it. Only brackets are matched, so that arrays
+	 * spanning multiple lines are skipped as a whole.
+	 *
+	 * @param indent the indentation of the entries
+	 * @param inArray whether the object is within an array, in which case a comma or closing bracket also ends it
+	 * @return true if the object has any entries
+	 * @see #parseEntries(int, boolean)
+	 */
+	private boolean skipEntries(int indent, boolean inArray) {
+		boolean hasEntries = false;
+
+		while (true) {
+			int lineStart = this.position;
+			this.tokens.release(lineStart);
+			Token.Type first = this.type(lineStart);
+
+			if (inArray && (first == Token.Type.COMMA || first == Token.Type.RIGHT_BRACKET)) {
+				return hasEntries;
+			}
+
+			int index = lineStart;
+			int lineIndent = 0;
+
+			if (first == Token.Type.SPACE_WS) {
+				lineIndent = this.tokens.length(index);
+				first = this.type(++index);
+			}
+
+			switch (first) {
+				case EOF:
+					this.position = index;
+					return hasEntries;
+				case NEWLINE:
+				case COMMENT:
+					// Blank line or line with only a comment
+					this.position = index;
+					this.skipLine(false);
+					continue;
+			}
+
+			if (lineIndent < indent || first == Token.Type.TAB_WS
+					|| (inArray && (first == Token.Type.COMMA || first == Token.Type.RIGHT_BRACKET))) {
+				// The line belongs to an enclosing object or array.
+				this.position = lineStart;
+				return hasEntries;
+			}
+
+			this.position = index;
+			this.skipLine(inArray);
+			hasEntries = true;
+		}
+	}
+
+	/**
+	 * Skips to the start of the next line, or to a comma or closing bracket which ends an object in an array.
+	 *
+	 * @param inArray whether the line is within an array
+	 */
+	private void skipLine(boolean inArray) {
+		int depth = 0;
+
+		while (true) {
+			switch (this.type(this.position)) {
+				case EOF:
+					return;
+				case NEWLINE:
+					this.position++;
+
+					if (depth == 0) {
+						return;
+					}
+
+					this.tokens.release(this.position);
+					continue;
+				case LEFT_BRACKET:
+					depth++;
+					break;
+				case RIGHT_BRACKET:
+					if (depth > 0) {
+						depth--;
+					} else if (inArray) {
+						return;
+					}
+
+					break;
+				case COMMA:
+					if (depth == 0 && inArray) {
+						return;
+					}
+
+					break;
+			}
+
+			this.position++;
+		}
+	}
+
+	/**
+	 * Skips an array which the handler is not interested in, starting at the opening bracket.
+	 */
+	private void skipArray() {
+		int depth = 0;
+
+		while (true) {
+			switch (this.type(this.position)) {
+				case LEFT_BRACKET:
+					depth++;
+					break;
+				case RIGHT_BRACKET:
+					if (--depth == 0) {
+						this.position++;
+						return;
+					}
+
+					break;
+				case NEWLINE:
+					this.tokens.release(this.position);
+					break;
+				case EOF:
+					throw this.error(this.position, "Expected ',' or ']' in array");
+			}
+
+			this.position++;
+		}
+	}
+
+	private void checkDone() {
+		if (this.handler.done()) {
+			throw Stop.INSTANCE;
+		}
+	}
+
+	private GuraParseException error(int index, String reason) {
+		if (this.tokens.type(index) == Token.Type.EOF) {
+			// At the end of the content, after the last token.
+			return new GuraParseException(reason, this.tokens.endRow(), this.tokens.endColumn());
+		}
+
+		return new GuraParseException(reason, this.tokens.row(index), this.tokens.column(index));
+	}
+
+	/**
+	 * Unwinds the parser once the handler is done with the document.
+	 */
+	private static final class Stop extends RuntimeException {
+		private static final long serialVersionUID = 0L;
+		static final Stop INSTANCE = new Stop();
+
+		private Stop() {
+			super(null, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package me.i509.gura.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.token.Token;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decodes the value of string tokens.
+ *
+ * <p>The flags of a string token tell whether the string needs any decoding. Strings without escape sequences or
+ * variables are copied out of the content directly.
+ */
+final class StringDecoder {
+	/**
+	 * Decodes a string token.
+	 *
+	 * @param text the text of the token, including the quotes
+	 * @param type the type of the token
+	 * @param flags the flags of the token
+	 * @param row the row of the token, for errors
+	 * @param column the column of the token, for errors
+	 * @return a {@link GuraString}, or a {@link GuraInterpolatedString} if the string contains variables
+	 * @throws GuraParseException if the string contains an invalid escape sequence
+	 */
+	static GuraValue decode(CharSequence text, Token.Type type, int flags, int row, int column) {
+		boolean multiline = (flags & Token.MULTILINE) != 0;
+		int quoteLength = multiline ? 3 : 1;
+		int start = quoteLength;
+		int end = text.length() - quoteLength;
+
+		if (multiline) {
+			// A newline right after the opening quotes is not part of the string.
+			if (start < end && text.charAt(start) == '\n') {
+				start++;
+			} else if (start + 1 < end && text.charAt(start) == '\r' && text.charAt(start + 1) == '\n') {
+				start += 2;
+			}
+		}
+
+		if (type == Token.Type.LITERAL_STRING_VALUE || (flags & (Token.ESCAPES | Token.INTERPOLATIONS)) == 0) {
+			return GuraString.of(text.subSequence(start, end).toString());
+		}
+
+		StringBuilder builder = new StringBuilder(end - start);
+		@Nullable List<GuraValue> parts = null;
+
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+
+			if (c == '\\') {
+				i = unescape(text, i + 1, end, builder, row, column);
+			} else if (c == '$' && i + 1 < end && isVariableCharacter(text.charAt(i + 1))) {
+				int nameEnd = i + 1;
+
+				while (nameEnd < end && isVariableCharacter(text.charAt(nameEnd))) {
+					nameEnd++;
+				}
+
+				if (parts == null) {
+					parts = new ArrayList<>();
+				}
+
+				if (builder.length() > 0) {
+					parts.add(GuraString.of(builder.toString()));
+					builder.setLength(0);
+				}
+
+				parts.add(GuraVariable.of(text.subSequence(i + 1, nameEnd).toString()));
+				i = nameEnd - 1;
+			} else {
+				builder.append(c);
+			}
+		}
+
+		if (parts == null) {
+			return GuraString.of(builder.toString());
+		}
+
+		if (builder.length() > 0) {
+			parts.add(GuraString.of(builder.toString()));
+		}
+
+		return GuraInterpolatedString.of(parts);
+	}
+
+	/**
+	 * Appends the character of an escape sequence.
+	 *
+	 * @param text the text of the token
+	 * @param index the index of the character after the backslash
+	 * @param end the index of the closing quotes
+	 * @param builder the builder to append to
+	 * @param row the row of the token, for errors
+	 * @param column the column of the token, for errors
+	 * @return the index of the last character of the escape sequence
+	 */
+	private static int unescape(CharSequence text, int index, int end, StringBuilder builder, int row, int column) {
+		if (index >= end) {
+			throw new GuraParseException("Incomplete escape sequence", row, column);
+		}
+
+		char c = text.charAt(index);
+
+		switch (c) {
+			case 'b':
+				builder.append('\b');
+				return index;
+			case 'f':
+				builder.append('\f');
+				return index;
+			case 'n':
+				builder.append('\n');
+				return index;
+			case 'r':
+				builder.append('\r');
+				return index;
+			case 't':
+				builder.append('\t');
+				return index;
+			case '"':
+			case '\\':
+			case '$':
+				builder.append(c);
+				return index;
+			case 'u':
+				return unescapeUnicode(text, index, 4, end, builder, row, column);
+			case 'U':
+				return unescapeUnicode(text, index, 8, end, builder, row, column);
+			case '\r':
+			case '\n':
+				// A backslash at the end of a line removes the newline and all whitespace up to the next character.
+				while (index + 1 < end && isWhitespace(text.charAt(index + 1))) {
+					index++;
+				}
+
+				return index;
+			default:
+				throw new GuraParseException("Invalid escape sequence \\" + c, row, column);
+		}
+	}
+
+	private static int unescapeUnicode(
+			CharSequence text,
+			int index,
+			int digits,
+			int end,
+			StringBuilder builder,
+			int row,
+			int column
+	) {
+		if (index + digits >= end) {
+			throw new GuraParseException("Incomplete unicode escape sequence", row, column);
+		}
+
+		int codePoint = 0;
+
+		for (int i = index + 1; i <= index + digits; i++) {
+			int digit = Character.digit(text.charAt(i), 16);
+
+			if (digit < 0) {
+				throw new GuraParseException("Invalid unicode escape sequence", row, column);
+			}
+
+			codePoint = (codePoint << 4) | digit;
+		}
+
+		if (!Character.isValidCodePoint(codePoint)) {
+			throw new GuraParseException("Invalid unicode code point " + Integer.toHexString(codePoint), row, column);
+		}
+
+		builder.appendCodePoint(codePoint);
+		return index + digits;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+	}
+
+	/**
+	 * @param c the character
+	 * @return true if the character may be part of the name of a variable
+	 */
+	static boolean isVariableCharacter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	private StringDecoder() {}
+}
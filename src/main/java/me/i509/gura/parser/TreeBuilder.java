@@ -0,0 +1,184 @@
+package me.i509.gura.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.ast.GuraArray;
+import me.i509.gura.ast.GuraBoolean;
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraNull;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A handler which builds the tree of a document from the events of the parser.
+ *
+ * <p>Keys must be unique within an object, which the parser does not check by itself since it does not remember keys.
+ */
+final class TreeBuilder implements GuraHandler {
+	private final List<Frame> stack = new ArrayList<>();
+	private final Map<String, GuraValue> variables = new LinkedHashMap<>();
+	private final List<String> imports = new ArrayList<>();
+	private GuraLocator locator;
+	@Nullable
+	private GuraDocument document;
+
+	/**
+	 * @return the document, once it was parsed
+	 */
+	GuraDocument document() {
+		if (this.document == null) {
+			throw new IllegalStateException("Document was not parsed");
+		}
+
+		return this.document;
+	}
+
+	@Override
+	public void startDocument(GuraLocator locator) {
+		this.locator = locator;
+		this.stack.add(Frame.object(null, 1, 1));
+	}
+
+	@Override
+	public void endDocument() {
+		this.document = new GuraDocument(this.stack.remove(0).object.build(), this.variables, this.imports);
+	}
+
+	@Override
+	public void importFile(String path) {
+		this.imports.add(path);
+	}
+
+	@Override
+	public boolean startObject(@Nullable String key) {
+		this.stack.add(Frame.object(key, this.locator.row(), this.locator.column()));
+		return true;
+	}
+
+	@Override
+	public void endObject() {
+		Frame frame = this.stack.remove(this.stack.size() - 1);
+		this.add(frame.key, frame.object.build(), frame.row, frame.column);
+	}
+
+	@Override
+	public boolean startArray(@Nullable String key) {
+		this.stack.add(Frame.array(key, this.locator.row(), this.locator.column()));
+		return true;
+	}
+
+	@Override
+	public void endArray() {
+		Frame frame = this.stack.remove(this.stack.size() - 1);
+		this.add(frame.key, GuraArray.of(frame.array), frame.row, frame.column);
+	}
+
+	@Override
+	public void string(@Nullable String key, String value) {
+		this.add(key, GuraString.of(value));
+	}
+
+	@Override
+	public void interpolatedString(@Nullable String key, GuraInterpolatedString value) {
+		this.add(key, value);
+	}
+
+	@Override
+	public void integer(@Nullable String key, long value) {
+		this.add(key, GuraNumber.of(value));
+	}
+
+	@Override
+	public void floatingPoint(@Nullable String key, double value) {
+		this.add(key, GuraNumber.of(value));
+	}
+
+	@Override
+	public void bigInteger(@Nullable String key, BigInteger value) {
+		this.add(key, GuraNumber.of(value));
+	}
+
+	@Override
+	public void bigDecimal(@Nullable String key, BigDecimal value) {
+		this.add(key, GuraNumber.of(value));
+	}
+
+	@Override
+	public void bool(@Nullable String key, boolean value) {
+		this.add(key, GuraBoolean.of(value));
+	}
+
+	@Override
+	public void nullValue(@Nullable String key) {
+		this.add(key, GuraNull.INSTANCE);
+	}
+
+	@Override
+	public void variable(@Nullable String key, String name) {
+		this.add(key, GuraVariable.of(name));
+	}
+
+	private void add(@Nullable String key, GuraValue value) {
+		this.add(key, value, this.locator.row(), this.locator.column());
+	}
+
+	private void add(@Nullable String key, GuraValue value, int row, int column) {
+		Frame parent = this.stack.get(this.stack.size() - 1);
+
+		if (parent.array != null) {
+			parent.array.add(value);
+		} else if (key.charAt(0) == '$') {
+			if (this.variables.putIfAbsent(key.substring(1), value) != null) {
+				throw new GuraParseException("Variable '" + key + "' is already defined", row, column);
+			}
+		} else if (!parent.object.tryPut(key, value)) {
+			throw new GuraParseException("Duplicate key '" + key + "'", row, column);
+		}
+	}
+
+	/**
+	 * An object or array which is being built.
+	 */
+	private static final class Frame {
+		@Nullable
+		final String key;
+		final int row;
+		final int column;
+		@Nullable
+		final GuraObject.Builder object;
+		@Nullable
+		final List<GuraValue> array;
+
+		static Frame object(@Nullable String key, int row, int column) {
+			return new Frame(key, row, column, GuraObject.builder(), null);
+		}
+
+		static Frame array(@Nullable String key, int row, int column) {
+			return new Frame(key, row, column, null, new ArrayList<>());
+		}
+
+		private Frame(
+				@Nullable String key,
+				int row,
+				int column,
+				@Nullable GuraObject.Builder object,
+				@Nullable List<GuraValue> array
+		) {
+			this.key = key;
+			this.row = row;
+			this.column = column;
+			this.object = object;
+			this.array = array;
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package me.i509.gura.resolve;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+
+/**
+ * A cache of parsed Gura files, shared between loaders and threads.
+ *
+ * <p>Files are keyed by their canonical path, and a cached document is reused as long as the modification time and
+ * size of its file have not changed, so a file which is imported by many documents is only parsed once. Files which
+ * are requested by several threads at once are also only parsed once, by the first thread, while the other threads
+ * wait for the result. Files which fail to parse are not cached.
+ *
+ * <p>Cached documents are kept until their file changes or they are {@link #invalidate(Path) invalidated}.
+ */
+public final class GuraFileCache {
+	private static final GuraFileCache SHARED = new GuraFileCache();
+
+	/**
+	 * Returns the cache shared by the whole application, which loaders use by default.
+	 *
+	 * @return the shared cache
+	 */
+	public static GuraFileCache shared() {
+		return SHARED;
+	}
+
+	private final ConcurrentMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an empty cache.
+	 */
+	public GuraFileCache() {
+	}
+
+	/**
+	 * Gets the parsed document of a UTF-8 encoded Gura file, parsing it if it is not cached or has changed.
+	 *
+	 * <p>The imports and variables of the document are not resolved.
+	 *
+	 * @param path the path to the Gura file
+	 * @return the document
+	 * @throws IOException if the file could not be read
+	 * @throws GuraParseException if the content of the file is not a valid Gura document
+	 */
+	public GuraDocument get(Path path) throws IOException {
+		try {
+			return this.get(path.toRealPath(), Runnable::run).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the parsed document of a file, parsing it through an executor if needed.
+	 *
+	 * @param path the canonical path to the file
+	 * @param executor the executor to parse the file with
+	 * @return a future completed with the document, or exceptionally with an {@link UncheckedIOException} or
+	 *     {@link GuraParseException}
+	 */
+	CompletableFuture<GuraDocument> get(Path path, Executor executor) {
+		BasicFileAttributes attributes;
+
+		try {
+			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(new UncheckedIOException(e));
+		}
+
+		FileTime modified = attributes.lastModifiedTime();
+		long size = attributes.size();
+		Entry entry = this.entries.compute(path, (key, existing) -> {
+			if (existing != null && existing.modified.equals(modified) && existing.size == size) {
+				return existing;
+			}
+
+			return new Entry(modified, size);
+		});
+
+		if (entry.claim()) {
+			executor.execute(() -> {
+				try {
+					entry.document.complete(GuraParser.parse(path));
+				} catch (IOException e) {
+					this.fail(path, entry, new UncheckedIOException(e));
+				} catch (RuntimeException | Error e) {
+					this.fail(path, entry, e);
+				}
+			});
+		}
+
+		return entry.document;
+	}
+
+	private void fail(Path path, Entry entry, Throwable cause) {
+		// Let the next request try again.
+		this.entries.remove(path, entry);
+		entry.document.completeExceptionally(cause);
+	}
+
+	/**
+	 * Removes a file from the cache.
+	 *
+	 * @param path the path to the file
+	 */
+	public void invalidate(Path path) {
+		Objects.requireNonNull(path, "Path cannot be null");
+
+		try {
+			this.entries.remove(path.toRealPath());
+		} catch (IOException e) {
+			// The file no longer exists, so it is only cached under its absolute path.
+			this.entries.remove(path.toAbsolutePath().normalize());
+		}
+	}
+
+	/**
+	 * Removes all files from the cache.
+	 */
+	public void clear() {
+		this.entries.clear();
+	}
+
+	/**
+	 * @return the number of files in the cache
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	private static final class Entry {
+		final FileTime modified;
+		final long size;
+		final CompletableFuture<GuraDocument> document = new CompletableFuture<>();
+		/**
+		 * Whether a thread started parsing the file.
+		 */
+		private boolean claimed;
+
+		Entry(FileTime modified, long size) {
+			this.modified = modified;
+			this.size = size;
+		}
+
+		synchronized boolean claim() {
+			if (this.claimed) {
+				return false;
+			}
+
+			this.claimed = true;
+			return true;
+		}
+	}
+}
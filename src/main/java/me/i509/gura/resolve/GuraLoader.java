@@ -0,0 +1,316 @@
+package me.i509.gura.resolve;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.parser.GuraParseException;
+
+/**
+ * Loads Gura files along with the files they import.
+ *
+ * <p>The path of an import is relative to the directory of the importing file. Files are parsed through a
+ * {@link GuraFileCache}, and the imports of a file are all loaded at the same time, with at most
+ * {@link Builder#parallelism(int) parallelism} files being parsed at once. The entries and variables of imported files
+ * are merged into the importing document, before its own entries, in the order of the imports.
+ *
+ * <p>A file may only be imported once by a document and the files it imports, directly or not. Keys and variables
+ * must be unique across all of these files.
+ *
+ * <pre>{@code
+ * GuraDocument document = GuraLoader.create().load(Path.of("service.ura"));
+ * GuraDocument resolved = GuraVariableResolver.of(document).resolve(document);
+ * }</pre>
+ *
+ * <p>A loader is thread safe.
+ */
+public final class GuraLoader {
+	/**
+	 * Creates a loader which parses files in the common {@link ForkJoinPool}, as many at once as there are processors,
+	 * and caches them in the {@link GuraFileCache#shared() shared} cache.
+	 *
+	 * @return a new loader
+	 */
+	public static GuraLoader create() {
+		return builder().build();
+	}
+
+	/**
+	 * @return a builder to create a loader
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private final GuraFileCache cache;
+	private final Executor executor;
+
+	private GuraLoader(GuraFileCache cache, Executor executor) {
+		this.cache = cache;
+		this.executor = executor;
+	}
+
+	/**
+	 * Loads a UTF-8 encoded Gura file and the files it imports.
+	 *
+	 * <p>The variables of the document are not resolved, see {@link GuraVariableResolver}.
+	 *
+	 * @param path the path to the Gura file
+	 * @return the document with the content of the imported files merged into it, and no imports
+	 * @throws IOException if a file could not be read
+	 * @throws GuraParseException if the content of a file is not a valid Gura document
+	 * @throws GuraResolveException if the imports form a cycle, a file is imported more than once, or a key or variable
+	 *     is defined by multiple files
+	 */
+	public GuraDocument load(Path path) throws IOException {
+		Objects.requireNonNull(path, "Path cannot be null");
+		Node root;
+
+		try {
+			root = this.load(path.toRealPath(), Collections.emptyList()).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw e;
+		}
+
+		GuraObject.Builder entries = GuraObject.builder();
+		Map<String, GuraValue> variables = new LinkedHashMap<>();
+		merge(root, entries, variables, new HashSet<>());
+		return new GuraDocument(entries.build(), variables, List.of());
+	}
+
+	/**
+	 * Loads a file and, once it is parsed, all of its imports at the same time.
+	 *
+	 * @param path the canonical path to the file
+	 * @param chain the canonical paths of the files importing the file, from the first
+	 */
+	private CompletableFuture<Node> load(Path path, List<Path> chain) {
+		return this.cache.get(path, this.executor).thenCompose(document -> {
+			if (document.imports().isEmpty()) {
+				return CompletableFuture.completedFuture(new Node(path, document, List.of()));
+			}
+
+			List<Path> imported = new ArrayList<>(chain);
+			imported.add(path);
+			List<CompletableFuture<Node>> children = new ArrayList<>();
+
+			for (String file : document.imports()) {
+				Path target;
+
+				try {
+					target = path.resolveSibling(file).toRealPath();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+
+				if (imported.contains(target)) {
+					throw cycle(imported, target);
+				}
+
+				children.add(this.load(target, imported));
+			}
+
+			return CompletableFuture.allOf(children.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+				List<Node> nodes = new ArrayList<>(children.size());
+
+				for (CompletableFuture<Node> child : children) {
+					nodes.add(child.join());
+				}
+
+				return new Node(path, document, nodes);
+			});
+		});
+	}
+
+	private static GuraResolveException cycle(List<Path> chain, Path target) {
+		StringJoiner joiner = new StringJoiner(" -> ");
+
+		for (int i = chain.indexOf(target); i < chain.size(); i++) {
+			joiner.add(chain.get(i).toString());
+		}
+
+		joiner.add(target.toString());
+		return new GuraResolveException("Import cycle: " + joiner);
+	}
+
+	/**
+	 * Merges the imports of a file and then its own content.
+	 */
+	private static void merge(
+			Node node,
+			GuraObject.Builder entries,
+			Map<String, GuraValue> variables,
+			Set<Path> merged
+	) {
+		if (!merged.add(node.path)) {
+			throw new GuraResolveException("File '" + node.path + "' is imported more than once");
+		}
+
+		for (Node child : node.imports) {
+			merge(child, entries, variables, merged);
+		}
+
+		for (Map.Entry<String, GuraValue> entry : node.document.root().asMap().entrySet()) {
+			if (!entries.tryPut(entry.getKey(), entry.getValue())) {
+				throw new GuraResolveException(
+						"Duplicate key '" + entry.getKey() + "', defined again in '" + node.path + "'"
+				);
+			}
+		}
+
+		for (Map.Entry<String, GuraValue> entry : node.document.variables().entrySet()) {
+			if (variables.putIfAbsent(entry.getKey(), entry.getValue()) != null) {
+				throw new GuraResolveException(
+						"Variable '$" + entry.getKey() + "' is already defined, defined again in '" + node.path + "'"
+				);
+			}
+		}
+	}
+
+	/**
+	 * A parsed file and its loaded imports.
+	 */
+	private static final class Node {
+		final Path path;
+		final GuraDocument document;
+		final List<Node> imports;
+
+		Node(Path path, GuraDocument document, List<Node> imports) {
+			this.path = path;
+			this.document = document;
+			this.imports = imports;
+		}
+	}
+
+	/**
+	 * Runs at most a fixed number of tasks at once on another executor, queueing the others.
+	 */
+	private static final class BoundedExecutor implements Executor {
+		private final Executor executor;
+		private final int parallelism;
+		private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger running = new AtomicInteger();
+
+		BoundedExecutor(Executor executor, int parallelism) {
+			this.executor = executor;
+			this.parallelism = parallelism;
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			this.queue.add(command);
+			this.drain();
+		}
+
+		private void drain() {
+			while (!this.queue.isEmpty()) {
+				int running = this.running.get();
+
+				if (running >= this.parallelism) {
+					// A running worker will pick up the task once it is done.
+					return;
+				}
+
+				if (this.running.compareAndSet(running, running + 1)) {
+					this.executor.execute(this::work);
+				}
+			}
+		}
+
+		private void work() {
+			try {
+				Runnable task;
+
+				while ((task = this.queue.poll()) != null) {
+					task.run();
+				}
+			} finally {
+				this.running.decrementAndGet();
+				// A task may have been queued after the queue was seen empty but before the worker stopped.
+				this.drain();
+			}
+		}
+	}
+
+	/**
+	 * A builder to create a {@link GuraLoader}.
+	 */
+	public static final class Builder {
+		private GuraFileCache cache = GuraFileCache.shared();
+		private Executor executor = ForkJoinPool.commonPool();
+		private int parallelism = Runtime.getRuntime().availableProcessors();
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the cache of parsed files, {@link GuraFileCache#shared()} by default.
+		 *
+		 * @param cache the cache
+		 * @return this builder
+		 */
+		public Builder cache(GuraFileCache cache) {
+			this.cache = Objects.requireNonNull(cache, "Cache cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the executor which files are parsed in, the common {@link ForkJoinPool} by default.
+		 *
+		 * @param executor the executor
+		 * @return this builder
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of files which are parsed at once, the number of processors by default.
+		 *
+		 * @param parallelism the maximum number of files parsed at once
+		 * @return this builder
+		 * @throws IllegalArgumentException if the parallelism is not positive
+		 */
+		public Builder parallelism(int parallelism) {
+			if (parallelism <= 0) {
+				throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+			}
+
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * @return a new loader
+		 */
+		public GuraLoader build() {
+			return new GuraLoader(this.cache, new BoundedExecutor(this.executor, this.parallelism));
+		}
+	}
+}
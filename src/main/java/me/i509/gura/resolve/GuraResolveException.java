@@ -0,0 +1,27 @@
+package me.i509.gura.resolve;
+
+/**
+ * Thrown when the variables or imports of a Gura document cannot be resolved.
+ */
+public final class GuraResolveException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates an exception.
+	 *
+	 * @param message why the document cannot be resolved
+	 */
+	public GuraResolveException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Creates an exception.
+	 *
+	 * @param message why the document cannot be resolved
+	 * @param cause the cause of the exception
+	 */
+	public GuraResolveException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,459 @@
+package me.i509.gura.resolve;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import me.i509.gura.ast.GuraArray;
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves the variables of Gura documents.
+ *
+ * <p>The variables a resolver knows about form a dependency graph, built once when the resolver is created: a
+ * variable depends on every variable it references, directly or in an interpolated string. Cycles are rejected up
+ * front. Each variable is then evaluated at most once, the first time it is needed, after the variables it depends
+ * on. Values are shared rather than copied, and values which contain no variables are never rebuilt.
+ *
+ * <p>{@link #define(String, GuraValue) Redefining} a variable only discards the values of the variables which depend
+ * on it, directly or transitively, so they are evaluated again when next needed while every other value is kept.
+ *
+ * <pre>{@code
+ * GuraDocument document = GuraParser.parse("$host: \"localhost\"\nurl: \"http://$host\"");
+ * GuraDocument resolved = GuraVariableResolver.of(document).resolve(document);
+ * }</pre>
+ *
+ * <p>Interpolating a variable into a string uses the text of its value: strings as they are, numbers, booleans and
+ * {@code null} as they are written in Gura. A resolver is not thread safe.
+ */
+public final class GuraVariableResolver {
+	/**
+	 * Creates a resolver for the variables defined by a document.
+	 *
+	 * @param document the document
+	 * @return a new resolver
+	 * @throws GuraResolveException if some variables depend on themselves
+	 */
+	public static GuraVariableResolver of(GuraDocument document) {
+		return of(document.variables());
+	}
+
+	/**
+	 * Creates a resolver for some variables.
+	 *
+	 * @param variables the values of the variables, by name without the leading {@code $}
+	 * @return a new resolver
+	 * @throws GuraResolveException if some variables depend on themselves
+	 */
+	public static GuraVariableResolver of(Map<String, ? extends GuraValue> variables) {
+		GuraVariableResolver resolver = new GuraVariableResolver();
+		variables.forEach(resolver::put);
+		resolver.checkCycles(resolver.definitions.keySet());
+		return resolver;
+	}
+
+	private final Map<String, GuraValue> definitions = new LinkedHashMap<>();
+	/**
+	 * The variables each variable references.
+	 */
+	private final Map<String, Set<String>> dependencies = new HashMap<>();
+	/**
+	 * The variables which reference each variable, the reverse of {@link #dependencies}.
+	 */
+	private final Map<String, Set<String>> dependents = new HashMap<>();
+	/**
+	 * The evaluated values of variables.
+	 */
+	private final Map<String, GuraValue> resolved = new HashMap<>();
+
+	private GuraVariableResolver() {
+	}
+
+	/**
+	 * @return the names of the defined variables, in the order they were first defined
+	 */
+	public Set<String> names() {
+		return Collections.unmodifiableSet(this.definitions.keySet());
+	}
+
+	/**
+	 * Defines or redefines a variable.
+	 *
+	 * <p>The values of the variables which depend on the variable are discarded, and evaluated again when next needed.
+	 *
+	 * @param name the name of the variable, without the leading {@code $}
+	 * @param value the value of the variable, which may reference other variables
+	 * @throws GuraResolveException if the variable would depend on itself, in which case nothing is changed
+	 */
+	public void define(String name, GuraValue value) {
+		Objects.requireNonNull(name, "Name cannot be null");
+		Objects.requireNonNull(value, "Value cannot be null");
+		@Nullable GuraValue previous = this.definitions.get(name);
+		this.put(name, value);
+
+		try {
+			this.checkCycles(Collections.singleton(name));
+		} catch (GuraResolveException e) {
+			if (previous == null) {
+				this.remove(name);
+			} else {
+				this.put(name, previous);
+			}
+
+			throw e;
+		}
+
+		this.invalidate(name);
+	}
+
+	/**
+	 * Resolves the value of a variable, evaluating it and the variables it depends on if needed.
+	 *
+	 * @param name the name of the variable, without the leading {@code $}
+	 * @return the value of the variable, which contains no variables
+	 * @throws GuraResolveException if the variable, or a variable it depends on, is not defined or cannot be
+	 *     interpolated
+	 */
+	public GuraValue resolve(String name) {
+		@Nullable GuraValue value = this.resolved.get(name);
+
+		if (value != null) {
+			return value;
+		}
+
+		if (!this.definitions.containsKey(name)) {
+			throw new GuraResolveException("Variable '$" + name + "' is not defined");
+		}
+
+		// Evaluate the variables the variable depends on first, in post-order. The graph has no cycles, so no
+		// variable is pushed while it is already on the stack.
+		Deque<String> names = new ArrayDeque<>();
+		Deque<Iterator<String>> remaining = new ArrayDeque<>();
+		names.push(name);
+		remaining.push(this.dependencies.get(name).iterator());
+
+		while (!names.isEmpty()) {
+			Iterator<String> iterator = remaining.peek();
+
+			if (iterator.hasNext()) {
+				String dependency = iterator.next();
+
+				if (!this.resolved.containsKey(dependency)) {
+					if (!this.definitions.containsKey(dependency)) {
+						throw new GuraResolveException(
+								"Variable '$" + dependency + "' is not defined, referenced by '$" + names.peek() + "'"
+						);
+					}
+
+					names.push(dependency);
+					remaining.push(this.dependencies.get(dependency).iterator());
+				}
+			} else {
+				String evaluated = names.pop();
+				remaining.pop();
+				this.resolved.put(evaluated, this.substitute(this.definitions.get(evaluated)));
+			}
+		}
+
+		return this.resolved.get(name);
+	}
+
+	/**
+	 * Resolves the values of all variables.
+	 *
+	 * @return the values of the variables, in the order they were first defined
+	 * @throws GuraResolveException if a variable cannot be resolved
+	 */
+	public Map<String, GuraValue> resolveAll() {
+		Map<String, GuraValue> values = new LinkedHashMap<>();
+
+		for (String name : this.definitions.keySet()) {
+			values.put(name, this.resolve(name));
+		}
+
+		return Collections.unmodifiableMap(values);
+	}
+
+	/**
+	 * Replaces the variables within a value with their values.
+	 *
+	 * @param value the value, which may be an object or array containing variables
+	 * @return the value without variables, the same instance if it contained no variables
+	 * @throws GuraResolveException if a variable cannot be resolved
+	 */
+	public GuraValue resolve(GuraValue value) {
+		return this.substitute(Objects.requireNonNull(value, "Value cannot be null"));
+	}
+
+	/**
+	 * Replaces the variables within the entries of a document with their values.
+	 *
+	 * <p>The variables of the document are expected to be known by this resolver, which is the case if it was created
+	 * through {@link #of(GuraDocument)}.
+	 *
+	 * @param document the document
+	 * @return a document whose entries and variables contain no variables
+	 * @throws GuraResolveException if a variable cannot be resolved
+	 */
+	public GuraDocument resolve(GuraDocument document) {
+		GuraObject root = this.substitute(document.root()).asObject();
+		Map<String, GuraValue> variables = new LinkedHashMap<>();
+
+		for (String name : document.variables().keySet()) {
+			variables.put(name, this.resolve(name));
+		}
+
+		return new GuraDocument(root, variables, document.imports());
+	}
+
+	private GuraValue substitute(GuraValue value) {
+		switch (value.type()) {
+			case VARIABLE:
+				return this.resolve(((GuraVariable) value).name());
+			case INTERPOLATED_STRING:
+				return this.interpolate((GuraInterpolatedString) value);
+			case ARRAY:
+				return this.substitute(value.asArray());
+			case OBJECT:
+				return this.substitute(value.asObject());
+			default:
+				return value;
+		}
+	}
+
+	private GuraValue interpolate(GuraInterpolatedString value) {
+		StringBuilder builder = new StringBuilder();
+
+		for (GuraValue part : value.parts()) {
+			if (part.type() == GuraValue.Type.STRING) {
+				builder.append(part.asString().value());
+				continue;
+			}
+
+			String name = ((GuraVariable) part).name();
+			GuraValue resolved = this.resolve(name);
+
+			switch (resolved.type()) {
+				case STRING:
+					builder.append(resolved.asString().value());
+					break;
+				case NUMBER:
+					GuraNumber number = resolved.asNumber();
+
+					if (number.isBig()) {
+						builder.append(number.value());
+					} else if (number.isInteger()) {
+						builder.append(number.longValue());
+					} else {
+						builder.append(number.doubleValue());
+					}
+
+					break;
+				case BOOLEAN:
+					builder.append(resolved.asBoolean().value());
+					break;
+				case NULL:
+					builder.append("null");
+					break;
+				default:
+					String holds = resolved.type() == GuraValue.Type.ARRAY ? "an array" : "an object";
+					throw new GuraResolveException("Cannot interpolate '$" + name + "', it holds " + holds);
+			}
+		}
+
+		return GuraString.of(builder.toString());
+	}
+
+	private GuraValue substitute(GuraArray array) {
+		@Nullable List<GuraValue> values = null;
+
+		for (int i = 0; i < array.size(); i++) {
+			GuraValue element = array.get(i);
+			GuraValue substituted = this.substitute(element);
+
+			if (values == null && substituted != element) {
+				values = new ArrayList<>(array.asList().subList(0, i));
+			}
+
+			if (values != null) {
+				values.add(substituted);
+			}
+		}
+
+		return values == null ? array : GuraArray.of(values);
+	}
+
+	private GuraValue substitute(GuraObject object) {
+		@Nullable GuraObject.Builder builder = null;
+		int index = 0;
+
+		for (Map.Entry<String, GuraValue> entry : object.asMap().entrySet()) {
+			GuraValue substituted = this.substitute(entry.getValue());
+
+			if (builder == null && substituted != entry.getValue()) {
+				builder = GuraObject.builder();
+				Iterator<Map.Entry<String, GuraValue>> previous = object.asMap().entrySet().iterator();
+
+				for (int i = 0; i < index; i++) {
+					Map.Entry<String, GuraValue> unchanged = previous.next();
+					builder.put(unchanged.getKey(), unchanged.getValue());
+				}
+			}
+
+			if (builder != null) {
+				builder.put(entry.getKey(), substituted);
+			}
+
+			index++;
+		}
+
+		return builder == null ? object : builder.build();
+	}
+
+	private void put(String name, GuraValue value) {
+		this.remove(name);
+		Set<String> references = new LinkedHashSet<>();
+		collect(value, references);
+		this.definitions.put(name, value);
+		this.dependencies.put(name, references);
+
+		for (String reference : references) {
+			this.dependents.computeIfAbsent(reference, key -> new LinkedHashSet<>()).add(name);
+		}
+	}
+
+	private void remove(String name) {
+		this.definitions.remove(name);
+		@Nullable Set<String> references = this.dependencies.remove(name);
+
+		if (references != null) {
+			for (String reference : references) {
+				this.dependents.get(reference).remove(name);
+			}
+		}
+	}
+
+	private static void collect(GuraValue value, Set<String> references) {
+		switch (value.type()) {
+			case VARIABLE:
+				references.add(((GuraVariable) value).name());
+				break;
+			case INTERPOLATED_STRING:
+				for (GuraValue part : ((GuraInterpolatedString) value).parts()) {
+					collect(part, references);
+				}
+
+				break;
+			case ARRAY:
+				for (GuraValue element : value.asArray().asList()) {
+					collect(element, references);
+				}
+
+				break;
+			case OBJECT:
+				for (GuraValue entry : value.asObject().asMap().values()) {
+					collect(entry, references);
+				}
+
+				break;
+		}
+	}
+
+	/**
+	 * Discards the values of a variable and of every variable which depends on it.
+	 */
+	private void invalidate(String name) {
+		Deque<String> pending = new ArrayDeque<>();
+		pending.push(name);
+
+		while (!pending.isEmpty()) {
+			String invalidated = pending.pop();
+
+			// A variable whose value was not evaluated has no evaluated dependents either.
+			if (this.resolved.remove(invalidated) != null || invalidated.equals(name)) {
+				pending.addAll(this.dependents.getOrDefault(invalidated, Collections.emptySet()));
+			}
+		}
+	}
+
+	/**
+	 * Checks that no variable reachable from some variables depends on itself.
+	 */
+	private void checkCycles(Set<String> roots) {
+		// The path being visited, and the variables which were fully visited.
+		Deque<String> path = new ArrayDeque<>();
+		Set<String> visiting = new HashSet<>();
+		Set<String> visited = new HashSet<>();
+		Deque<Iterator<String>> remaining = new ArrayDeque<>();
+
+		for (String root : roots) {
+			if (visited.contains(root)) {
+				continue;
+			}
+
+			path.push(root);
+			visiting.add(root);
+			remaining.push(this.dependencies.get(root).iterator());
+
+			while (!remaining.isEmpty()) {
+				Iterator<String> iterator = remaining.peek();
+
+				if (!iterator.hasNext()) {
+					remaining.pop();
+					String done = path.pop();
+					visiting.remove(done);
+					visited.add(done);
+					continue;
+				}
+
+				String dependency = iterator.next();
+
+				if (visiting.contains(dependency)) {
+					throw cycle(path, dependency);
+				}
+
+				if (!visited.contains(dependency) && this.definitions.containsKey(dependency)) {
+					path.push(dependency);
+					visiting.add(dependency);
+					remaining.push(this.dependencies.get(dependency).iterator());
+				}
+			}
+		}
+	}
+
+	private static GuraResolveException cycle(Deque<String> path, String start) {
+		StringJoiner joiner = new StringJoiner(" -> ");
+		boolean inCycle = false;
+
+		// The path is a stack, so the first variable of the path is last.
+		for (Iterator<String> iterator = path.descendingIterator(); iterator.hasNext(); ) {
+			String name = iterator.next();
+			inCycle |= name.equals(start);
+
+			if (inCycle) {
+				joiner.add("$" + name);
+			}
+		}
+
+		joiner.add("$" + start);
+		return new GuraResolveException("Variable '$" + start + "' depends on itself: " + joiner);
+	}
+}
@@ -0,0 +1,659 @@
+package me.i509.gura.snapshot;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.zip.CRC32C;
+
+import me.i509.gura.ast.GuraArray;
+import me.i509.gura.ast.GuraBoolean;
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraNull;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.token.Token;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A parsed Gura document stored in a compact binary form, which can be read back without tokenizing or parsing the
+ * document again.
+ *
+ * <p>A snapshot holds a string pool where every distinct string and key is stored once, arrays of the integers and
+ * floating point numbers of the document, and the structure of its objects and arrays, where every value is a
+ * single {@code int} which is either the value itself or an index into the other sections. Objects keep an index of
+ * their keys in sorted order, so a key is found without scanning the object.
+ *
+ * <p>Opening a snapshot verifies the checksum of its content and reads its header, and a snapshot file is
+ * {@linkplain #open(Path) memory mapped} rather than read. The values of the top level entries of the document are
+ * decoded when they are first accessed and then kept, so the entries which are never accessed cost nothing.
+ *
+ * <p>A snapshot records the {@linkplain #hash(byte[]) hash} of the file it was created from, which tells whether it
+ * is still up to date:
+ *
+ * <pre>{@code
+ * GuraSnapshot snapshot = GuraSnapshot.load(Path.of("service.ura"), Path.of("service.ura.snapshot"));
+ * GuraValue port = snapshot.get("port");
+ * }</pre>
+ *
+ * <p>A snapshot is thread safe.
+ */
+public final class GuraSnapshot {
+	/**
+	 * The bytes {@code GURA} read as a little endian integer.
+	 */
+	static final int MAGIC = 0x41525547;
+	static final int VERSION = 2;
+	static final int HASH_LENGTH = 32;
+	/**
+	 * The offset of the CRC-32C checksum of everything which follows it.
+	 */
+	static final int CHECKSUM = 8 + HASH_LENGTH;
+	static final int HEADER_SIZE = CHECKSUM + Long.BYTES + 8 * Integer.BYTES;
+
+	// A value is stored as an int holding a tag in its lowest bits and a payload in the other bits.
+	static final int TAG_BITS = 4;
+	static final int TAG_MASK = (1 << TAG_BITS) - 1;
+	static final int MAX_PAYLOAD = (1 << (Integer.SIZE - TAG_BITS)) - 1;
+	static final int MIN_SMALL_INTEGER = Integer.MIN_VALUE >> TAG_BITS;
+	static final int MAX_SMALL_INTEGER = Integer.MAX_VALUE >> TAG_BITS;
+
+	static final int NULL = 0;
+	static final int FALSE = 1;
+	static final int TRUE = 2;
+	/**
+	 * An integer stored in the payload.
+	 */
+	static final int SMALL_INTEGER = 3;
+	/**
+	 * An integer, the payload is an index into the integers.
+	 */
+	static final int LONG = 4;
+	/**
+	 * A floating point number, the payload is an index into the floating point numbers.
+	 */
+	static final int DOUBLE = 5;
+	/**
+	 * A string, the payload is an index into the string pool.
+	 */
+	static final int STRING = 6;
+	/**
+	 * A variable, the payload is the index of its name in the string pool.
+	 */
+	static final int VARIABLE = 7;
+	/**
+	 * An object, the payload is the offset of its size in the structure, followed by pairs of the index of a key and
+	 * a value, and then the indices of the pairs sorted by key.
+	 */
+	static final int OBJECT = 8;
+	/**
+	 * An array, the payload is the offset of its size in the structure, followed by its values.
+	 */
+	static final int ARRAY = 9;
+	/**
+	 * An interpolated string, laid out like an array of its parts.
+	 */
+	static final int INTERPOLATED_STRING = 10;
+	/**
+	 * An integer which does not fit in a long, the payload is the index of its decimal text in the string pool.
+	 */
+	static final int BIG_INTEGER = 11;
+	/**
+	 * A floating point number which is too large for a double, the payload is the index of its text in the string
+	 * pool.
+	 */
+	static final int BIG_DECIMAL = 12;
+
+	static int ref(int tag, int payload) {
+		return payload << TAG_BITS | tag;
+	}
+
+	/**
+	 * Computes the hash of the content of a Gura file, which a snapshot of the file records.
+	 *
+	 * @param source the content of the file
+	 * @return the SHA-256 digest of the content
+	 */
+	public static byte[] hash(byte[] source) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(source);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Computes the hash of a Gura file, which a snapshot of the file records.
+	 *
+	 * @param source the path to the file
+	 * @return the SHA-256 digest of the content of the file
+	 * @throws IOException if the file could not be read
+	 */
+	public static byte[] hash(Path source) throws IOException {
+		return hash(Files.readAllBytes(source));
+	}
+
+	/**
+	 * Encodes a document into a snapshot.
+	 *
+	 * @param document the document
+	 * @param sourceHash the {@linkplain #hash(byte[]) hash} of the file the document was parsed from
+	 * @return the content of the snapshot
+	 * @throws GuraSnapshotException if the document is too large to be stored in a snapshot
+	 */
+	public static byte[] encode(GuraDocument document, byte[] sourceHash) {
+		Objects.requireNonNull(document, "Document cannot be null");
+
+		if (sourceHash.length != HASH_LENGTH) {
+			throw new IllegalArgumentException("Source hash must be " + HASH_LENGTH + " bytes: " + sourceHash.length);
+		}
+
+		return SnapshotWriter.encode(document, sourceHash);
+	}
+
+	/**
+	 * Writes a snapshot of a document to a file.
+	 *
+	 * <p>The snapshot is written to a temporary file which then replaces the file, so a snapshot which was previously
+	 * opened from the file stays readable.
+	 *
+	 * @param document the document
+	 * @param sourceHash the {@linkplain #hash(byte[]) hash} of the file the document was parsed from
+	 * @param path the path to write the snapshot to
+	 * @throws IOException if the snapshot could not be written
+	 * @throws GuraSnapshotException if the document is too large to be stored in a snapshot
+	 */
+	public static void write(GuraDocument document, byte[] sourceHash, Path path) throws IOException {
+		write(encode(document, sourceHash), path);
+	}
+
+	private static void write(byte[] content, Path path) throws IOException {
+		Path absolute = path.toAbsolutePath();
+		Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+		try {
+			Files.write(temporary, content);
+			Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Opens a snapshot file by mapping it into memory.
+	 *
+	 * @param path the path to the snapshot
+	 * @return the snapshot
+	 * @throws IOException if the file could not be read
+	 * @throws GuraSnapshotException if the file is not a valid snapshot
+	 */
+	public static GuraSnapshot open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new GuraSnapshotException("Snapshot is too large: " + channel.size() + " bytes");
+			}
+
+			// The mapping stays valid once the channel is closed.
+			return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Reads a snapshot from a buffer.
+	 *
+	 * <p>The content of the buffer from its position to its limit is the snapshot, and must not be modified while the
+	 * snapshot is used.
+	 *
+	 * @param buffer the buffer holding the snapshot
+	 * @return the snapshot
+	 * @throws GuraSnapshotException if the content of the buffer is not a valid snapshot
+	 */
+	public static GuraSnapshot of(ByteBuffer buffer) {
+		return new GuraSnapshot(buffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	/**
+	 * Loads the snapshot of a Gura file, creating it if it does not exist or is out of date.
+	 *
+	 * <p>If the snapshot file exists, is intact and was created from the current content of the Gura file, it is
+	 * opened. Otherwise the Gura file is parsed and the snapshot file is replaced with a snapshot of the document.
+	 *
+	 * @param source the path to the UTF-8 encoded Gura file
+	 * @param snapshot the path to the snapshot of the file
+	 * @return the snapshot
+	 * @throws IOException if a file could not be read or written
+	 * @throws GuraParseException if the content of the Gura file is not a valid Gura document
+	 */
+	public static GuraSnapshot load(Path source, Path snapshot) throws IOException {
+		byte[] content = Files.readAllBytes(source);
+		byte[] hash = hash(content);
+
+		if (Files.isRegularFile(snapshot)) {
+			try {
+				GuraSnapshot existing = open(snapshot);
+
+				if (existing.isValidFor(hash)) {
+					return existing;
+				}
+			} catch (GuraSnapshotException e) {
+				// The snapshot is replaced below.
+			}
+		}
+
+		byte[] encoded = encode(GuraParser.parse(Token.tokenize(ByteBuffer.wrap(content))), hash);
+		write(encoded, snapshot);
+		return of(ByteBuffer.wrap(encoded));
+	}
+
+	private final ByteBuffer buffer;
+	private final int stringCount;
+	private final int longCount;
+	private final int doubleCount;
+	private final int structureLength;
+	private final int doubles;
+	private final int longs;
+	private final int stringOffsets;
+	private final int structure;
+	private final int stringData;
+	private final int root;
+	private final int variables;
+	private final int imports;
+	// Decoded strings and top level values are cached without synchronization: they are immutable, so a thread which
+	// does not see the value cached by another thread only decodes an equal value again.
+	private final String[] strings;
+	private final GuraValue[] values;
+	@Nullable
+	private List<String> keys;
+
+	private GuraSnapshot(ByteBuffer buffer) {
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new GuraSnapshotException("Not a Gura snapshot");
+		}
+
+		if (buffer.getInt(4) != VERSION) {
+			throw new GuraSnapshotException("Unsupported snapshot version " + buffer.getInt(4));
+		}
+
+		if (buffer.getLong(CHECKSUM) != checksum(buffer)) {
+			throw new GuraSnapshotException("Corrupt snapshot, checksum mismatch");
+		}
+
+		this.buffer = buffer;
+		int header = CHECKSUM + Long.BYTES;
+		this.stringCount = buffer.getInt(header);
+		this.longCount = buffer.getInt(header + 4);
+		this.doubleCount = buffer.getInt(header + 8);
+		this.structureLength = buffer.getInt(header + 12);
+		int stringBytes = buffer.getInt(header + 16);
+		this.root = buffer.getInt(header + 20);
+		this.variables = buffer.getInt(header + 24);
+		this.imports = buffer.getInt(header + 28);
+
+		if ((this.stringCount | this.longCount | this.doubleCount | this.structureLength | stringBytes) < 0) {
+			throw new GuraSnapshotException("Malformed snapshot header");
+		}
+
+		// Computed as longs so that large counts cannot overflow into offsets within the buffer.
+		long size = HEADER_SIZE
+				+ (long) this.doubleCount * Double.BYTES
+				+ (long) this.longCount * Long.BYTES
+				+ (this.stringCount + 1L) * Integer.BYTES
+				+ (long) this.structureLength * Integer.BYTES
+				+ stringBytes;
+
+		if (size != buffer.remaining()) {
+			throw new GuraSnapshotException("Truncated snapshot");
+		}
+
+		this.doubles = HEADER_SIZE;
+		this.longs = this.doubles + this.doubleCount * Double.BYTES;
+		this.stringOffsets = this.longs + this.longCount * Long.BYTES;
+		this.structure = this.stringOffsets + (this.stringCount + 1) * Integer.BYTES;
+		this.stringData = this.structure + this.structureLength * Integer.BYTES;
+
+		this.checkStructure(this.root, OBJECT);
+		this.checkStructure(this.variables, OBJECT);
+		this.checkStructure(this.imports, ARRAY);
+		this.strings = new String[this.stringCount];
+		this.values = new GuraValue[this.size(payload(this.root), 3)];
+	}
+
+	static long checksum(ByteBuffer buffer) {
+		CRC32C checksum = new CRC32C();
+		checksum.update(buffer.duplicate().position(CHECKSUM + Long.BYTES));
+		return checksum.getValue();
+	}
+
+	/**
+	 * @return the SHA-256 digest of the file this snapshot was created from
+	 */
+	public byte[] sourceHash() {
+		byte[] hash = new byte[HASH_LENGTH];
+		this.buffer.duplicate().position(8).get(hash);
+		return hash;
+	}
+
+	/**
+	 * @param sourceHash the {@linkplain #hash(byte[]) hash} of the current content of a file
+	 * @return true if this snapshot was created from content with the hash
+	 */
+	public boolean isValidFor(byte[] sourceHash) {
+		return Arrays.equals(this.sourceHash(), sourceHash);
+	}
+
+	/**
+	 * @param source the path to a file
+	 * @return true if this snapshot was created from the current content of the file
+	 * @throws IOException if the file could not be read
+	 */
+	public boolean isValidFor(Path source) throws IOException {
+		return this.isValidFor(hash(source));
+	}
+
+	/**
+	 * @return the top level keys of the document in the order they were defined
+	 */
+	public List<String> keys() {
+		List<String> keys = this.keys;
+
+		if (keys == null) {
+			int start = payload(this.root);
+			String[] decoded = new String[this.values.length];
+
+			for (int i = 0; i < decoded.length; i++) {
+				decoded[i] = this.string(this.structureInt(start + 1 + i * 2));
+			}
+
+			this.keys = keys = List.of(decoded);
+		}
+
+		return keys;
+	}
+
+	/**
+	 * @param key the key
+	 * @return true if the document has a top level entry with the key
+	 */
+	public boolean containsKey(String key) {
+		return this.find(payload(this.root), key) >= 0;
+	}
+
+	/**
+	 * Gets the value of a top level entry of the document, decoding it on first access.
+	 *
+	 * @param key the key of the entry
+	 * @return the value of the entry, or null if the document has no entry with the key
+	 */
+	@Nullable
+	public GuraValue get(String key) {
+		int index = this.find(payload(this.root), key);
+		return index < 0 ? null : this.entry(index);
+	}
+
+	private GuraValue entry(int index) {
+		GuraValue value = this.values[index];
+
+		if (value == null) {
+			value = this.decode(this.structureInt(payload(this.root) + 2 + index * 2), payload(this.root));
+			this.values[index] = value;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Gets a variable defined by the document.
+	 *
+	 * @param name the name of the variable without the leading {@code $}
+	 * @return the value of the variable, or null if the document does not define the variable
+	 */
+	@Nullable
+	public GuraValue variable(String name) {
+		int start = payload(this.variables);
+		int index = this.find(start, name);
+		return index < 0 ? null : this.decode(this.structureInt(start + 2 + index * 2), start);
+	}
+
+	/**
+	 * @return the paths of the files imported by the document, in order
+	 */
+	public List<String> imports() {
+		int start = payload(this.imports);
+		String[] imports = new String[this.size(start, 1)];
+
+		for (int i = 0; i < imports.length; i++) {
+			GuraValue path = this.decode(this.structureInt(start + 1 + i), start);
+
+			if (path.type() != GuraValue.Type.STRING) {
+				throw new GuraSnapshotException("Malformed snapshot import " + i);
+			}
+
+			imports[i] = path.asString().value();
+		}
+
+		return List.of(imports);
+	}
+
+	/**
+	 * Decodes the whole document.
+	 *
+	 * @return the document
+	 */
+	public GuraDocument document() {
+		GuraObject.Builder root = GuraObject.builder();
+		List<String> keys = this.keys();
+
+		for (int i = 0; i < keys.size(); i++) {
+			if (!root.tryPut(keys.get(i), this.entry(i))) {
+				throw new GuraSnapshotException("Malformed snapshot, duplicate key '" + keys.get(i) + "'");
+			}
+		}
+
+		return new GuraDocument(root.build(), this.decode(this.variables, -1).asObject().asMap(), this.imports());
+	}
+
+	/**
+	 * Finds a key in an object with a binary search of its sorted index.
+	 *
+	 * @return the index of the entry with the key, or -1
+	 */
+	private int find(int object, String key) {
+		Objects.requireNonNull(key, "Key cannot be null");
+		int size = this.size(object, 3);
+		int sorted = object + 1 + size * 2;
+		int low = 0;
+		int high = size - 1;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int index = this.structureInt(sorted + middle);
+			check(index, size);
+			int comparison = this.string(this.structureInt(object + 1 + index * 2)).compareTo(key);
+
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Decodes a value held by the structure at an offset. The structure of a value always follows the structure of its
+	 * parent, which keeps a malformed snapshot from referencing a structure which holds itself.
+	 */
+	private GuraValue decode(int ref, int parent) {
+		int payload = payload(ref);
+		int tag = ref & TAG_MASK;
+
+		if ((tag == OBJECT || tag == ARRAY || tag == INTERPOLATED_STRING) && payload <= parent) {
+			throw new GuraSnapshotException("Malformed snapshot value " + ref);
+		}
+
+		switch (ref & TAG_MASK) {
+			case NULL:
+				return GuraNull.INSTANCE;
+			case FALSE:
+				return GuraBoolean.FALSE;
+			case TRUE:
+				return GuraBoolean.TRUE;
+			case SMALL_INTEGER:
+				return GuraNumber.of((long) (ref >> TAG_BITS));
+			case LONG:
+				check(payload, this.longCount);
+				return GuraNumber.of(this.buffer.getLong(this.longs + payload * Long.BYTES));
+			case DOUBLE:
+				check(payload, this.doubleCount);
+				return GuraNumber.of(this.buffer.getDouble(this.doubles + payload * Double.BYTES));
+			case STRING:
+				return GuraString.of(this.string(payload));
+			case VARIABLE:
+				return GuraVariable.of(this.string(payload));
+			case BIG_INTEGER:
+			case BIG_DECIMAL: {
+				String text = this.string(payload);
+
+				try {
+					if (tag == BIG_INTEGER) {
+						return GuraNumber.of(new BigInteger(text));
+					}
+
+					return GuraNumber.of(new BigDecimal(text));
+				} catch (NumberFormatException e) {
+					throw new GuraSnapshotException("Malformed snapshot number " + ref);
+				}
+			}
+			case OBJECT: {
+				int size = this.size(payload, 3);
+				GuraObject.Builder builder = GuraObject.builder();
+
+				for (int i = 0; i < size; i++) {
+					int entry = payload + 1 + i * 2;
+					String key = this.string(this.structureInt(entry));
+
+					if (!builder.tryPut(key, this.decode(this.structureInt(entry + 1), payload))) {
+						throw new GuraSnapshotException("Malformed snapshot, duplicate key '" + key + "'");
+					}
+				}
+
+				return builder.build();
+			}
+			case ARRAY:
+				return GuraArray.of(this.list(payload));
+			case INTERPOLATED_STRING:
+				List<GuraValue> parts = this.list(payload);
+
+				for (GuraValue part : parts) {
+					if (part.type() != GuraValue.Type.STRING && part.type() != GuraValue.Type.VARIABLE) {
+						throw new GuraSnapshotException("Malformed snapshot interpolated string " + ref);
+					}
+				}
+
+				return GuraInterpolatedString.of(parts);
+			default:
+				throw new GuraSnapshotException("Malformed snapshot value " + ref);
+		}
+	}
+
+	private List<GuraValue> list(int start) {
+		int size = this.size(start, 1);
+		List<GuraValue> values = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++) {
+			values.add(this.decode(this.structureInt(start + 1 + i), start));
+		}
+
+		return values;
+	}
+
+	private String string(int index) {
+		check(index, this.stringCount);
+		String string = this.strings[index];
+
+		if (string == null) {
+			int offset = this.buffer.getInt(this.stringOffsets + index * Integer.BYTES);
+			int end = this.buffer.getInt(this.stringOffsets + (index + 1) * Integer.BYTES);
+
+			if (offset < 0 || offset > end || this.stringData + (long) end > this.buffer.limit()) {
+				throw new GuraSnapshotException("Malformed snapshot string " + index);
+			}
+
+			byte[] bytes = new byte[end - offset];
+			this.buffer.duplicate().position(this.stringData + offset).get(bytes);
+			string = new String(bytes, StandardCharsets.UTF_8);
+			this.strings[index] = string;
+		}
+
+		return string;
+	}
+
+	private int structureInt(int offset) {
+		check(offset, this.structureLength);
+		return this.buffer.getInt(this.structure + offset * Integer.BYTES);
+	}
+
+	/**
+	 * Reads the size of an object or array, checking that its elements of {@code width} ints fit in the structure.
+	 */
+	private int size(int start, int width) {
+		int size = this.structureInt(start);
+
+		if (size < 0 || start + 1 + (long) size * width > this.structureLength) {
+			throw new GuraSnapshotException("Malformed snapshot: size " + size + " at " + start + " is out of bounds");
+		}
+
+		return size;
+	}
+
+	private void checkStructure(int ref, int tag) {
+		if ((ref & TAG_MASK) != tag) {
+			throw new GuraSnapshotException("Malformed snapshot header");
+		}
+
+		check(payload(ref), this.structureLength);
+	}
+
+	private static int payload(int ref) {
+		return ref >>> TAG_BITS;
+	}
+
+	private static void check(int index, int count) {
+		if (index < 0 || index >= count) {
+			throw new GuraSnapshotException("Malformed snapshot: index " + index + " is out of bounds for " + count);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraSnapshot.class.getSimpleName() + "[", "]")
+				.add("keys=" + this.values.length)
+				.add("strings=" + this.stringCount)
+				.add("size=" + this.buffer.capacity())
+				.toString();
+	}
+}
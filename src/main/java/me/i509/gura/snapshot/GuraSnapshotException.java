@@ -0,0 +1,17 @@
+package me.i509.gura.snapshot;
+
+/**
+ * Thrown when a Gura snapshot is malformed, or a document is too large to be stored in a snapshot.
+ */
+public final class GuraSnapshotException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates an exception.
+	 *
+	 * @param message why the snapshot is malformed
+	 */
+	public GuraSnapshotException(String message) {
+		super(message);
+	}
+}
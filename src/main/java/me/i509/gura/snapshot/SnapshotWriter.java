@@ -0,0 +1,236 @@
+package me.i509.gura.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+
+/**
+ * Encodes a document into the layout read by {@link GuraSnapshot}.
+ *
+ * <p>Values are first collected into a string pool, arrays of numbers and an array of structures, which are then
+ * copied into the snapshot after the header.
+ */
+final class SnapshotWriter {
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final List<byte[]> encodedStrings = new ArrayList<>();
+	private int stringBytes;
+	private long[] longs = new long[16];
+	private int longCount;
+	private double[] doubles = new double[16];
+	private int doubleCount;
+	private int[] structure = new int[64];
+	private int structureLength;
+
+	static byte[] encode(GuraDocument document, byte[] sourceHash) {
+		SnapshotWriter writer = new SnapshotWriter();
+		int root = writer.value(document.root());
+		int variables = writer.object(document.variables());
+		int imports = writer.reserve(document.imports().size() + 1);
+		writer.structure[imports] = document.imports().size();
+
+		for (int i = 0; i < document.imports().size(); i++) {
+			int path = writer.string(document.imports().get(i));
+			writer.structure[imports + 1 + i] = GuraSnapshot.ref(GuraSnapshot.STRING, path);
+		}
+
+		return writer.finish(sourceHash, root, variables, GuraSnapshot.ref(GuraSnapshot.ARRAY, imports));
+	}
+
+	private SnapshotWriter() {
+	}
+
+	private int value(GuraValue value) {
+		switch (value.type()) {
+			case OBJECT:
+				return this.object(value.asObject().asMap());
+			case ARRAY:
+				return this.list(GuraSnapshot.ARRAY, value.asArray().asList());
+			case STRING:
+				return GuraSnapshot.ref(GuraSnapshot.STRING, this.string(value.asString().value()));
+			case INTERPOLATED_STRING:
+				return this.list(GuraSnapshot.INTERPOLATED_STRING, ((GuraInterpolatedString) value).parts());
+			case NUMBER:
+				return this.number(value.asNumber());
+			case BOOLEAN:
+				return value.asBoolean().value() ? GuraSnapshot.TRUE : GuraSnapshot.FALSE;
+			case NULL:
+				return GuraSnapshot.NULL;
+			case VARIABLE:
+				return GuraSnapshot.ref(GuraSnapshot.VARIABLE, this.string(((GuraVariable) value).name()));
+			default:
+				throw new AssertionError(value.type());
+		}
+	}
+
+	private int number(GuraNumber number) {
+		if (number.isBig()) {
+			int tag = number.isInteger() ? GuraSnapshot.BIG_INTEGER : GuraSnapshot.BIG_DECIMAL;
+			return GuraSnapshot.ref(tag, this.string(number.value().toString()));
+		}
+
+		if (!number.isInteger()) {
+			if (this.doubleCount == this.doubles.length) {
+				this.doubles = Arrays.copyOf(this.doubles, this.doubleCount * 2);
+			}
+
+			this.doubles[this.doubleCount] = number.doubleValue();
+			return GuraSnapshot.ref(GuraSnapshot.DOUBLE, this.doubleCount++);
+		}
+
+		long value = number.longValue();
+
+		if (value >= GuraSnapshot.MIN_SMALL_INTEGER && value <= GuraSnapshot.MAX_SMALL_INTEGER) {
+			return ((int) value << GuraSnapshot.TAG_BITS) | GuraSnapshot.SMALL_INTEGER;
+		}
+
+		if (this.longCount == this.longs.length) {
+			this.longs = Arrays.copyOf(this.longs, this.longCount * 2);
+		}
+
+		this.longs[this.longCount] = value;
+		return GuraSnapshot.ref(GuraSnapshot.LONG, this.longCount++);
+	}
+
+	/**
+	 * Writes an object as its size, its entries as pairs of a key and a value, and the indices of its entries sorted
+	 * by key so they can be looked up by a binary search.
+	 */
+	private int object(Map<String, GuraValue> entries) {
+		int size = entries.size();
+		int start = this.reserve(1 + size * 3);
+		String[] keys = entries.keySet().toArray(new String[0]);
+		Integer[] sorted = new Integer[size];
+		this.structure[start] = size;
+		int index = 0;
+
+		for (Map.Entry<String, GuraValue> entry : entries.entrySet()) {
+			// Children are written after the object, so the structure may be reallocated while writing them.
+			int key = this.string(entry.getKey());
+			int value = this.value(entry.getValue());
+			this.structure[start + 1 + index * 2] = key;
+			this.structure[start + 2 + index * 2] = value;
+			sorted[index] = index;
+			index++;
+		}
+
+		Arrays.sort(sorted, (a, b) -> keys[a].compareTo(keys[b]));
+
+		for (int i = 0; i < size; i++) {
+			this.structure[start + 1 + size * 2 + i] = sorted[i];
+		}
+
+		return GuraSnapshot.ref(GuraSnapshot.OBJECT, start);
+	}
+
+	private int list(int tag, List<GuraValue> values) {
+		int start = this.reserve(1 + values.size());
+		this.structure[start] = values.size();
+
+		for (int i = 0; i < values.size(); i++) {
+			int value = this.value(values.get(i));
+			this.structure[start + 1 + i] = value;
+		}
+
+		return GuraSnapshot.ref(tag, start);
+	}
+
+	private int string(String value) {
+		Integer existing = this.strings.get(value);
+
+		if (existing != null) {
+			return existing;
+		}
+
+		byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+
+		if (this.stringBytes + (long) encoded.length > Integer.MAX_VALUE - 8) {
+			throw new GuraSnapshotException("Document is too large for a snapshot");
+		}
+
+		int id = this.encodedStrings.size();
+		this.strings.put(value, id);
+		this.encodedStrings.add(encoded);
+		this.stringBytes += encoded.length;
+		return id;
+	}
+
+	private int reserve(int length) {
+		int start = this.structureLength;
+
+		if (start + (long) length > GuraSnapshot.MAX_PAYLOAD) {
+			throw new GuraSnapshotException("Document is too large for a snapshot");
+		}
+
+		if (start + length > this.structure.length) {
+			this.structure = Arrays.copyOf(this.structure, Math.max(start + length, this.structure.length * 2));
+		}
+
+		this.structureLength += length;
+		return start;
+	}
+
+	private byte[] finish(byte[] sourceHash, int root, int variables, int imports) {
+		int stringCount = this.encodedStrings.size();
+		long size = GuraSnapshot.HEADER_SIZE
+				+ (long) this.doubleCount * Double.BYTES
+				+ (long) this.longCount * Long.BYTES
+				+ (long) (stringCount + 1) * Integer.BYTES
+				+ (long) this.structureLength * Integer.BYTES
+				+ this.stringBytes;
+
+		if (size > Integer.MAX_VALUE - 8 || stringCount > GuraSnapshot.MAX_PAYLOAD
+				|| this.longCount > GuraSnapshot.MAX_PAYLOAD || this.doubleCount > GuraSnapshot.MAX_PAYLOAD) {
+			throw new GuraSnapshotException("Document is too large for a snapshot");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(GuraSnapshot.MAGIC)
+				.putInt(GuraSnapshot.VERSION)
+				.put(sourceHash)
+				// The checksum is computed once the rest of the snapshot was written.
+				.putLong(0)
+				.putInt(stringCount)
+				.putInt(this.longCount)
+				.putInt(this.doubleCount)
+				.putInt(this.structureLength)
+				.putInt(this.stringBytes)
+				.putInt(root)
+				.putInt(variables)
+				.putInt(imports);
+
+		// Numbers come first, right after the header, so they are aligned to 8 bytes.
+		buffer.asDoubleBuffer().put(this.doubles, 0, this.doubleCount);
+		buffer.position(buffer.position() + this.doubleCount * Double.BYTES);
+		buffer.asLongBuffer().put(this.longs, 0, this.longCount);
+		buffer.position(buffer.position() + this.longCount * Long.BYTES);
+
+		int offset = 0;
+
+		for (byte[] string : this.encodedStrings) {
+			buffer.putInt(offset);
+			offset += string.length;
+		}
+
+		buffer.putInt(offset);
+		buffer.asIntBuffer().put(this.structure, 0, this.structureLength);
+		buffer.position(buffer.position() + this.structureLength * Integer.BYTES);
+
+		for (byte[] string : this.encodedStrings) {
+			buffer.put(string);
+		}
+
+		buffer.putLong(GuraSnapshot.CHECKSUM, GuraSnapshot.checksum(buffer.flip()));
+		return buffer.array();
+	}
+}
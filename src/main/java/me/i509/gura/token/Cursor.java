@@ -0,0 +1,489 @@
+package me.i509.gura.token;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * A cursor tracking the current position of the tokenizer in a file.
+ *
+ * <p>The tokenizer only ever looks forward from the cursor, so implementations are free to discard any content before
+ * the cursor.
+ */
+abstract class Cursor {
+	/**
+	 * The offset of the cursor from the start of the file.
+	 */
+	int position;
+	int line;
+	int column;
+
+	// The last token which was read
+	Token.Type tokenType;
+	int tokenOffset;
+	int tokenLength;
+	int tokenLine;
+	int tokenColumn;
+	int tokenFlags;
+
+	Cursor() {
+		this.line = 1;
+		this.column = 1;
+	}
+
+	/**
+	 * Checks whether there is a character at an amount of characters forward relative to the cursor.
+	 *
+	 * @param amount the amount of characters to look forward relative to the cursor
+	 * @return true if a character exists at that position
+	 */
+	abstract boolean has(int amount);
+
+	/**
+	 * Gets the character at an amount of characters forward relative to the cursor.
+	 *
+	 * <p>The caller must have checked that the character exists using {@link #has(int)}.
+	 *
+	 * @param amount the amount of characters to look forward relative to the cursor
+	 * @return the character
+	 */
+	abstract char charAt(int amount);
+
+	/**
+	 * Gets the amount of characters taken by the code point at an amount of characters forward relative to the
+	 * cursor, which is 2 for a surrogate pair.
+	 *
+	 * <p>The caller must have checked that the character exists using {@link #has(int)}.
+	 *
+	 * @param amount the amount of characters to look forward relative to the cursor
+	 * @return the amount of characters of the code point
+	 */
+	int characterLength(int amount) {
+		if (Character.isHighSurrogate(this.charAt(amount))
+				&& this.has(amount + 1) && Character.isLowSurrogate(this.charAt(amount + 1))) {
+			return 2;
+		}
+
+		return 1;
+	}
+
+	/**
+	 * Gets the amount of characters from the cursor which are known to exist without checking {@link #has(int)}.
+	 *
+	 * <p>This allows scanning a run of characters with a single bounds check per run rather than per character.
+	 * Content which has not been read yet is not included, so more characters may exist.
+	 *
+	 * @return the amount of characters which are available
+	 */
+	abstract int available();
+
+	/**
+	 * Gets a view of a span of the content, without copying the content where possible.
+	 *
+	 * @param offset the offset of the span from the start of the file
+	 * @param length the length of the span
+	 * @return the characters of the span
+	 * @throws UnsupportedOperationException if the content is no longer available
+	 */
+	abstract CharSequence text(int offset, int length);
+
+	/**
+	 * Interns a span of the content, without copying the content if the span is already in the symbol table.
+	 *
+	 * @param symbols the symbol table
+	 * @param offset the offset of the span from the start of the file
+	 * @param length the length of the span
+	 * @return the canonical string of the span
+	 * @throws UnsupportedOperationException if the content is no longer available
+	 */
+	String intern(SymbolTable symbols, int offset, int length) {
+		return symbols.intern(this.text(offset, length));
+	}
+
+	/**
+	 * Keeps the content from an offset onward available through {@link #text(int, int)} while reading more tokens.
+	 *
+	 * <p>Cursors over content which is entirely in memory always have all of the content available.
+	 *
+	 * @param offset the offset of the first character to keep from the start of the file, or
+	 *     {@link Integer#MAX_VALUE} to only keep the content after the cursor
+	 */
+	void retain(int offset) {
+	}
+
+	public void advanceBy(int amount) {
+		this.position += amount;
+		this.column += amount;
+	}
+
+	/**
+	 * Skips the byte order mark if the content starts with one.
+	 *
+	 * <p>This must only be called before any tokens are read.
+	 */
+	void skipByteOrderMark() {
+		if (this.has(0) && this.charAt(0) == '\uFEFF') {
+			this.position++;
+		}
+	}
+
+	/**
+	 * Records a token starting at the cursor and advances the cursor past it.
+	 *
+	 * @param type the type of the token
+	 * @param length the length of the token
+	 * @return true, for convenience when returning from {@link TokenizerImpl#nextToken(Cursor)}
+	 */
+	public boolean emit(Token.Type type, int length) {
+		this.record(type, length);
+		this.advanceBy(length);
+		return true;
+	}
+
+	/**
+	 * Records a newline token starting at the cursor and advances the cursor to the start of the next line.
+	 *
+	 * @param length the length of the newline, 1 for LF or 2 for CRLF
+	 * @return true, for convenience when returning from {@link TokenizerImpl#nextToken(Cursor)}
+	 */
+	public boolean emitNewline(int length) {
+		this.record(Token.Type.NEWLINE, length);
+		this.position += length;
+		this.line++;
+		this.column = 1;
+		return true;
+	}
+
+	/**
+	 * Records a string token starting at the cursor and advances the cursor past it.
+	 *
+	 * <p>Unlike other tokens, multiline strings may span multiple lines.
+	 *
+	 * @param type the type of the token
+	 * @param length the length of the token
+	 * @param flags the flags of the token
+	 * @param lines the amount of newlines within the token
+	 * @param lastLineStart the offset relative to the cursor of the start of the last line of the token, 0 if the token
+	 * contains no newlines
+	 * @return true, for convenience when returning from {@link TokenizerImpl#nextToken(Cursor)}
+	 */
+	public boolean emitString(Token.Type type, int length, int flags, int lines, int lastLineStart) {
+		this.record(type, length);
+		this.tokenFlags = flags;
+		this.position += lastLineStart;
+
+		if (lines > 0) {
+			this.line += lines;
+			this.column = 1;
+		}
+
+		this.advanceBy(length - lastLineStart);
+		return true;
+	}
+
+	void record(Token.Type type, int length) {
+		this.tokenType = type;
+		this.tokenOffset = this.position;
+		this.tokenLength = length;
+		this.tokenLine = this.line;
+		this.tokenColumn = this.column;
+		this.tokenFlags = 0;
+	}
+
+	/**
+	 * Creates a token object from the last token which was read.
+	 *
+	 * @return a new token
+	 */
+	Token token() {
+		return new Token(
+				this.tokenOffset,
+				this.tokenLength,
+				this.tokenType,
+				this.tokenLine,
+				this.tokenColumn,
+				this.tokenFlags
+		);
+	}
+
+	/**
+	 * A cursor over content which is entirely in memory.
+	 */
+	static final class OfCharSequence extends Cursor {
+		private final CharSequence content;
+		private final int length;
+
+		OfCharSequence(CharSequence content) {
+			this.content = content;
+			this.length = content.length();
+		}
+
+		@Override
+		boolean has(int amount) {
+			return this.position + amount < this.length;
+		}
+
+		@Override
+		char charAt(int amount) {
+			return this.content.charAt(this.position + amount);
+		}
+
+		@Override
+		int available() {
+			return this.length - this.position;
+		}
+
+		@Override
+		CharSequence text(int offset, int length) {
+			return CharBuffer.wrap(this.content, offset, offset + length);
+		}
+
+		@Override
+		String intern(SymbolTable symbols, int offset, int length) {
+			return symbols.intern(this.content, offset, offset + length);
+		}
+	}
+
+	/**
+	 * A cursor over content read from a {@link Reader}.
+	 *
+	 * <p>Content is read into a sliding buffer. When more content is needed, everything before the cursor is discarded
+	 * and the remaining content is moved to the start of the buffer. The buffer only grows if a single token needs more
+	 * lookahead than fits in the buffer, so the memory used does not depend on the size of the content.
+	 */
+	static final class OfReader extends Cursor {
+		private final Reader reader;
+		private char[] buffer;
+		/**
+		 * The offset of the first character in the buffer from the start of the file.
+		 */
+		private int bufferOffset;
+		/**
+		 * The amount of characters in the buffer which were read.
+		 */
+		private int filled;
+		private boolean eof;
+		/**
+		 * The offset from the start of the file of the first character which must not be discarded.
+		 */
+		private int retained = Integer.MAX_VALUE;
+
+		OfReader(Reader reader, int bufferSize) {
+			if (bufferSize <= 0) {
+				throw new IllegalArgumentException("Buffer size must be positive");
+			}
+
+			this.reader = reader;
+			this.buffer = new char[bufferSize];
+		}
+
+		@Override
+		boolean has(int amount) {
+			// Filling the buffer may move the content, so the index must be recomputed every time.
+			while (this.position - this.bufferOffset + amount >= this.filled) {
+				if (this.eof) {
+					return false;
+				}
+
+				this.fill();
+			}
+
+			return true;
+		}
+
+		@Override
+		char charAt(int amount) {
+			return this.buffer[this.position - this.bufferOffset + amount];
+		}
+
+		@Override
+		int available() {
+			return this.filled - (this.position - this.bufferOffset);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * <p>Only content which was {@link #retain(int) retained} is available. The returned text is a view over the
+		 * buffer, which is only valid until more content is read.
+		 */
+		@Override
+		CharSequence text(int offset, int length) {
+			if (offset < this.bufferOffset || offset + length > this.bufferOffset + this.filled) {
+				throw new UnsupportedOperationException("Content read from a reader is not retained");
+			}
+
+			return CharBuffer.wrap(this.buffer, offset - this.bufferOffset, length);
+		}
+
+		@Override
+		String intern(SymbolTable symbols, int offset, int length) {
+			if (offset < this.bufferOffset || offset + length > this.bufferOffset + this.filled) {
+				throw new UnsupportedOperationException("Content read from a reader is not retained");
+			}
+
+			return symbols.intern(this.buffer, offset - this.bufferOffset, offset - this.bufferOffset + length);
+		}
+
+		@Override
+		void retain(int offset) {
+			this.retained = offset;
+		}
+
+		private void fill() {
+			if (this.filled == this.buffer.length) {
+				int start = Math.min(this.position, this.retained) - this.bufferOffset;
+
+				if (start == 0) {
+					// The retained content and the lookahead of the current token do not fit in the buffer.
+					char[] buffer = new char[this.buffer.length * 2];
+					System.arraycopy(this.buffer, 0, buffer, 0, this.filled);
+					this.buffer = buffer;
+				} else {
+					// Discard everything before the cursor and the retained content.
+					System.arraycopy(this.buffer, start, this.buffer, 0, this.filled - start);
+					this.filled -= start;
+					this.bufferOffset += start;
+				}
+			}
+
+			try {
+				int read = this.reader.read(this.buffer, this.filled, this.buffer.length - this.filled);
+
+				if (read < 0) {
+					this.eof = true;
+				} else {
+					this.filled += read;
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * A cursor over UTF-8 encoded content.
+	 *
+	 * <p>The content is never decoded. Every character which is significant to the tokenizer is ASCII, so each byte is
+	 * presented to the tokenizer as a character. Bytes of multibyte sequences are never significant and are always
+	 * consumed as part of an identifier, comment or string.
+	 *
+	 * <p>The offset and length of tokens are in bytes, while columns are counted in UTF-16 characters so that tokens
+	 * are at the same rows and columns as when tokenizing the decoded content. Multibyte sequences are only validated
+	 * within tokens which carry a value, invalid sequences turn the token into an {@link Token.Type#UNKNOWN unknown}
+	 * token.
+	 */
+	static final class OfUtf8 extends Cursor {
+		private final ByteBuffer content;
+		private final int start;
+		private final int length;
+
+		OfUtf8(ByteBuffer content) {
+			this.content = content;
+			this.start = content.position();
+			this.length = content.remaining();
+		}
+
+		@Override
+		boolean has(int amount) {
+			return this.position + amount < this.length;
+		}
+
+		@Override
+		char charAt(int amount) {
+			return (char) (this.content.get(this.start + this.position + amount) & 0xFF);
+		}
+
+		@Override
+		int available() {
+			return this.length - this.position;
+		}
+
+		@Override
+		CharSequence text(int offset, int length) {
+			return Utf8.slice(this.content, this.start + offset, length);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * <p>The length is in bytes, and only counts the continuation bytes which follow the leading byte, so a
+		 * truncated or invalid sequence is as long as the replacement character it decodes to.
+		 */
+		@Override
+		int characterLength(int amount) {
+			int lead = this.charAt(amount);
+			int expected = lead < 0xC0 ? 1 : lead < 0xE0 ? 2 : lead < 0xF0 ? 3 : lead < 0xF8 ? 4 : 1;
+			int length = 1;
+
+			while (length < expected && this.has(amount + length) && (this.charAt(amount + length) & 0xC0) == 0x80) {
+				length++;
+			}
+
+			return length;
+		}
+
+		@Override
+		void skipByteOrderMark() {
+			if (this.has(2) && this.charAt(0) == 0xEF && this.charAt(1) == 0xBB && this.charAt(2) == 0xBF) {
+				this.position += 3;
+			}
+		}
+
+		@Override
+		public void advanceBy(int amount) {
+			this.column += Utf8.characters(this.content, this.start + this.position, amount);
+			this.position += amount;
+		}
+
+		@Override
+		public boolean emit(Token.Type type, int length) {
+			int characters;
+
+			switch (type) {
+				case IDENTIFIER:
+				case BASIC_STRING_VALUE:
+				case LITERAL_STRING_VALUE:
+					characters = Utf8.validate(this.content, this.start + this.position, length);
+
+					if (characters < 0) {
+						type = Token.Type.UNKNOWN;
+						characters = Utf8.characters(this.content, this.start + this.position, length);
+					}
+
+					break;
+				case COMMENT:
+				case UNKNOWN:
+				case NUMBER:
+					// A number may end with any character at the end of the content.
+					characters = Utf8.characters(this.content, this.start + this.position, length);
+					break;
+				default:
+					// Every other token only consists of ASCII characters.
+					characters = length;
+			}
+
+			this.record(type, length);
+			this.position += length;
+			this.column += characters;
+			return true;
+		}
+
+		@Override
+		public boolean emitString(Token.Type type, int length, int flags, int lines, int lastLineStart) {
+			if (lines == 0) {
+				this.emit(type, length);
+				this.tokenFlags = flags;
+				return true;
+			}
+
+			if (type != Token.Type.UNKNOWN && Utf8.validate(this.content, this.start + this.position, length) < 0) {
+				type = Token.Type.UNKNOWN;
+			}
+
+			return super.emitString(type, length, flags, lines, lastLineStart);
+		}
+	}
+}
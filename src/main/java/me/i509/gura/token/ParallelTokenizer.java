@@ -0,0 +1,171 @@
+package me.i509.gura.token;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Tokenizes large files by splitting them into chunks which are tokenized in parallel.
+ *
+ * <p>Chunks are split at line boundaries and every chunk is tokenized as if it started a file. This is correct unless
+ * a token crosses the start of a chunk, which would make the chunk start in the middle of a token. So when merging
+ * the chunks in order, the tokens of a chunk are only used from the first token which starts where the tokens before
+ * it end. Until such a token is found, the content is tokenized again from where the tokens before it end.
+ */
+final class ParallelTokenizer {
+	/**
+	 * The smallest chunk worth tokenizing on its own, smaller files are tokenized on the calling thread.
+	 */
+	static final int MINIMUM_CHUNK_SIZE = 1 << 16;
+
+	static TokenizationResult tokenize(String content, ForkJoinPool pool) {
+		int chunkCount = Math.min(content.length() / MINIMUM_CHUNK_SIZE, pool.getParallelism() * 4);
+
+		// Merging chunks has a cost, which is not worth paying without multiple threads.
+		if (chunkCount <= 1 || pool.getParallelism() <= 1) {
+			return TokenizerImpl.tokenize(content, TokenizerOptions.DEFAULT);
+		}
+
+		List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(chunkCount);
+		int chunkSize = content.length() / chunkCount;
+		int start = 0;
+
+		for (int i = 1; i <= chunkCount && start < content.length(); i++) {
+			int end = i == chunkCount ? content.length() : lineStartAtOrAfter(content, Math.max(start, i * chunkSize));
+
+			if (end == start) {
+				continue;
+			}
+
+			int chunkStart = start;
+			tasks.add(pool.submit(() -> Chunk.tokenize(content, chunkStart, end)));
+			start = end;
+		}
+
+		// Merge the chunks in order
+		Chunk first = tasks.get(0).join();
+		TokenBuffer tokens = new TokenBuffer(content.length() / 4);
+		tokens.addRange(first.tokens, 0, first.tokens.size(), 0, 0, 0, 0);
+		int position = first.endPosition;
+		int line = first.endLine;
+		int column = first.endColumn;
+
+		for (int i = 1; i < tasks.size(); i++) {
+			Chunk chunk = tasks.get(i).join();
+			TokenBuffer chunkTokens = chunk.tokens;
+			Cursor cursor = new Cursor.OfCharSequence(content);
+			cursor.position = position;
+			cursor.line = line;
+			cursor.column = column;
+			int candidate = 0;
+
+			while (true) {
+				while (candidate < chunkTokens.size() && chunkTokens.offset(candidate) < cursor.position) {
+					candidate++;
+				}
+
+				if (candidate < chunkTokens.size() && chunkTokens.offset(candidate) == cursor.position) {
+					// The tokens line up, use the remaining tokens of the chunk.
+					int syncRow = chunkTokens.row(candidate);
+					int rowDelta = cursor.line - syncRow;
+					int columnDelta = cursor.column - chunkTokens.column(candidate);
+					tokens.addRange(chunkTokens, candidate, chunkTokens.size(), 0, rowDelta, syncRow, columnDelta);
+					cursor.position = chunk.endPosition;
+					cursor.column = chunk.endColumn + (chunk.endLine == syncRow ? columnDelta : 0);
+					cursor.line = chunk.endLine + rowDelta;
+					break;
+				}
+
+				// Speculatively tokenize until the tokens line up or the end of the chunk is reached.
+				if (cursor.position >= chunk.end || !TokenizerImpl.nextToken(cursor)) {
+					break;
+				}
+
+				tokens.add(
+						cursor.tokenType,
+						cursor.tokenOffset,
+						cursor.tokenLength,
+						cursor.tokenLine,
+						cursor.tokenColumn,
+						cursor.tokenFlags
+				);
+			}
+
+			position = cursor.position;
+			line = cursor.line;
+			column = cursor.column;
+		}
+
+		return new TokenizationResult(tokens, new Cursor.OfCharSequence(content), true);
+	}
+
+	/**
+	 * @param content the content
+	 * @param offset the offset to start searching from
+	 * @return the offset of the start of the first line at or after the offset, or the length of the content
+	 */
+	private static int lineStartAtOrAfter(String content, int offset) {
+		if (offset == 0) {
+			return 0;
+		}
+
+		int newline = content.indexOf('\n', offset - 1);
+		return newline < 0 ? content.length() : newline + 1;
+	}
+
+	private ParallelTokenizer() {}
+
+	/**
+	 * The tokens of a chunk, with rows relative to the start of the chunk.
+	 */
+	private static final class Chunk {
+		final int end;
+		final TokenBuffer tokens;
+		// The state of the cursor after the last token of the chunk
+		int endPosition;
+		int endLine;
+		int endColumn;
+
+		private Chunk(int end, TokenBuffer tokens) {
+			this.end = end;
+			this.tokens = tokens;
+		}
+
+		/**
+		 * Tokenizes every token which starts within a chunk.
+		 *
+		 * <p>The last token may extend beyond the end of the chunk.
+		 *
+		 * @param content the entire content
+		 * @param start the offset of the start of the chunk
+		 * @param end the offset of the end of the chunk
+		 * @return the chunk
+		 */
+		static Chunk tokenize(String content, int start, int end) {
+			Chunk chunk = new Chunk(end, new TokenBuffer((end - start) / 4));
+			Cursor cursor = new Cursor.OfCharSequence(content);
+			cursor.position = start;
+
+			if (start == 0) {
+				cursor.skipByteOrderMark();
+			}
+
+			while (cursor.position < end && TokenizerImpl.nextToken(cursor)) {
+				chunk.tokens.add(
+						cursor.tokenType,
+						cursor.tokenOffset,
+						cursor.tokenLength,
+						cursor.tokenLine,
+						cursor.tokenColumn,
+						cursor.tokenFlags
+				);
+			}
+
+			chunk.endPosition = cursor.position;
+			chunk.endLine = cursor.line;
+			chunk.endColumn = cursor.column;
+			return chunk;
+		}
+	}
+}
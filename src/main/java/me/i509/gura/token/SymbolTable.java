@@ -0,0 +1,191 @@
+package me.i509.gura.token;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded table of canonical strings, used to share a single instance of every key between documents.
+ *
+ * <p>Files of the same kind tend to use the same keys, such as {@code host} or {@code port}. Interning keys through a
+ * symbol table means that documents which are kept in memory share the strings of their keys, and that the parser
+ * does not need to create a string for a key which is already in the table, since spans of text are looked up by
+ * their hash and compared character by character.
+ *
+ * <p>The table has a fixed number of slots, so its memory use is bounded no matter how many distinct keys are
+ * interned. When a key is interned while its slots are taken by other keys, one of those keys is replaced. Strings
+ * longer than {@link #MAX_LENGTH} are never stored. Interning always returns a string equal to the text, the only
+ * thing which depends on the content of the table is whether that string is shared.
+ *
+ * <p>A symbol table is thread safe, and lookups do not lock.
+ */
+public final class SymbolTable {
+	/**
+	 * The number of slots of the {@link #shared() shared} table.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+	/**
+	 * The length of the longest string which is stored in a table. Keys are usually short, and longer strings are
+	 * rarely repeated.
+	 */
+	public static final int MAX_LENGTH = 64;
+	private static final SymbolTable SHARED = new SymbolTable(DEFAULT_CAPACITY);
+
+	/**
+	 * Returns the symbol table shared by the whole application, which the parser uses by default.
+	 *
+	 * @return the shared symbol table
+	 */
+	public static SymbolTable shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Slots are grouped by two, a string is stored in either slot of the pair selected by its hash.
+	 */
+	private final AtomicReferenceArray<String> slots;
+	private final int mask;
+
+	/**
+	 * Creates a symbol table.
+	 *
+	 * @param capacity the maximum number of strings in the table, rounded up to a power of two
+	 * @throws IllegalArgumentException if the capacity is not positive or larger than 2<sup>30</sup>
+	 */
+	public SymbolTable(int capacity) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+		}
+
+		int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+		this.slots = new AtomicReferenceArray<>(size);
+		// The index of the first slot of a pair.
+		this.mask = size - 2;
+	}
+
+	/**
+	 * @return the maximum number of strings in the table
+	 */
+	public int capacity() {
+		return this.slots.length();
+	}
+
+	/**
+	 * Returns the canonical instance of a string.
+	 *
+	 * @param text the text of the string
+	 * @return a string equal to the text
+	 */
+	public String intern(CharSequence text) {
+		return this.intern(text, 0, text.length());
+	}
+
+	/**
+	 * Returns the canonical instance of a span of text, without creating a string if it is already in the table.
+	 *
+	 * @param text the text containing the span
+	 * @param start the index of the first character of the span, inclusive
+	 * @param end the index after the last character of the span, exclusive
+	 * @return a string equal to the span
+	 * @throws IndexOutOfBoundsException if the span is not within the text
+	 */
+	public String intern(CharSequence text, int start, int end) {
+		Objects.checkFromToIndex(start, end, text.length());
+		int length = end - start;
+
+		if (length > MAX_LENGTH) {
+			return text.subSequence(start, end).toString();
+		}
+
+		// The same hash as String.hashCode()
+		int hash = 0;
+
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + text.charAt(i);
+		}
+
+		int slot = this.slot(hash);
+
+		for (int i = slot; i < slot + 2; i++) {
+			String symbol = this.slots.get(i);
+
+			if (symbol != null && symbol.hashCode() == hash && symbol.length() == length
+					&& regionEquals(symbol, text, start)) {
+				return symbol;
+			}
+		}
+
+		return this.store(slot, text.subSequence(start, end).toString());
+	}
+
+	/**
+	 * Returns the canonical instance of a span of characters, without creating a string if it is already in the table.
+	 *
+	 * @param chars the characters containing the span
+	 * @param start the index of the first character of the span, inclusive
+	 * @param end the index after the last character of the span, exclusive
+	 * @return a string equal to the span
+	 * @throws IndexOutOfBoundsException if the span is not within the array
+	 */
+	public String intern(char[] chars, int start, int end) {
+		Objects.checkFromToIndex(start, end, chars.length);
+		int length = end - start;
+
+		if (length > MAX_LENGTH) {
+			return new String(chars, start, length);
+		}
+
+		int hash = 0;
+
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+
+		int slot = this.slot(hash);
+
+		for (int i = slot; i < slot + 2; i++) {
+			String symbol = this.slots.get(i);
+
+			if (symbol != null && symbol.hashCode() == hash && symbol.length() == length
+					&& regionEquals(symbol, chars, start)) {
+				return symbol;
+			}
+		}
+
+		return this.store(slot, new String(chars, start, length));
+	}
+
+	private int slot(int hash) {
+		// Spread the high bits, since short keys only differ in their low bits.
+		return (hash ^ hash >>> 16) << 1 & this.mask;
+	}
+
+	private String store(int slot, String symbol) {
+		// Fill the pair, then evict the older string by moving the newer one to the second slot.
+		if (!this.slots.compareAndSet(slot, null, symbol) && !this.slots.compareAndSet(slot + 1, null, symbol)) {
+			this.slots.set(slot + 1, this.slots.get(slot));
+			this.slots.set(slot, symbol);
+		}
+
+		return symbol;
+	}
+
+	private static boolean regionEquals(String symbol, CharSequence text, int start) {
+		for (int i = 0; i < symbol.length(); i++) {
+			if (symbol.charAt(i) != text.charAt(start + i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean regionEquals(String symbol, char[] chars, int start) {
+		for (int i = 0; i < symbol.length(); i++) {
+			if (symbol.charAt(i) != chars[start + i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -1,15 +1,23 @@
 package me.i509.gura.token;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.StringJoiner;
 
 /**
  * A token in a Gura file.
  *
- * <p>A token is simply a length and a type. Although for convince, the row and column of the token within a file is
- * also included.
+ * <p>A token is simply a length and a type. Although for convince, the offset of the token from the start of the file
+ * and the row and column of the token within a file are also included. The text of a token can be obtained from
+ * {@link TokenizationResult#text(Token)} without copying the content of the file.
  *
- * <p>To get a list of tokens, use the {@link Token#tokenize(String)} method.
+ * <p>To get a list of tokens, use the {@link Token#tokenize(String)} method. To read tokens one at a time without
+ * holding the entire file in memory, use a {@link TokenStream}.
  */
 public final class Token {
 	/**
@@ -19,19 +27,215 @@ public final class Token {
 	 * @return an immutable list of tokens
 	 */
 	public static TokenizationResult tokenize(String content) {
-		return TokenizerImpl.tokenize(content);
+		return tokenize(content, TokenizerOptions.DEFAULT);
 	}
 
+	/**
+	 * Generates a list of tokens from the content of a gura file, stopping early as specified by the options.
+	 *
+	 * @param content the content of the Gura file.
+	 * @param options the options
+	 * @return an immutable list of tokens
+	 * @see TokenizationResult#complete()
+	 */
+	public static TokenizationResult tokenize(String content, TokenizerOptions options) {
+		Objects.requireNonNull(options, "Options cannot be null");
+		return TokenizerImpl.tokenize(content, options);
+	}
+
+	/**
+	 * Generates a list of tokens from the content of a gura file, using multiple threads for large files.
+	 *
+	 * <p>The content is split into chunks at line boundaries which are tokenized in parallel on the
+	 * {@link ForkJoinPool#commonPool() common pool}. The result is the same as {@link #tokenize(String)}.
+	 *
+	 * @param content the content of the Gura file.
+	 * @return an immutable list of tokens
+	 */
+	public static TokenizationResult tokenizeParallel(String content) {
+		return tokenizeParallel(content, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Generates a list of tokens from the content of a gura file, using multiple threads for large files.
+	 *
+	 * <p>The content is split into chunks at line boundaries which are tokenized in parallel on the specified pool. The
+	 * result is the same as {@link #tokenize(String)}.
+	 *
+	 * @param content the content of the Gura file.
+	 * @param pool the pool to tokenize chunks on
+	 * @return an immutable list of tokens
+	 */
+	public static TokenizationResult tokenizeParallel(String content, ForkJoinPool pool) {
+		Objects.requireNonNull(pool, "Pool cannot be null");
+		return ParallelTokenizer.tokenize(content, pool);
+	}
+
+	/**
+	 * Updates the tokens of a gura file after an edit.
+	 *
+	 * <p>Only the content around the edit is tokenized again, until the tokens line up with the previous tokens. The
+	 * remaining previous tokens are reused and moved to account for the edit. The result is the same as tokenizing the
+	 * new content entirely, but the cost depends on the size of the edit rather than the size of the file.
+	 *
+	 * <p>The edit replaced {@code removedLength} characters at {@code offset} in the previous content with
+	 * {@code insertedLength} characters.
+	 *
+	 * @param previous the result of tokenizing the content before the edit
+	 * @param content the content of the Gura file after the edit
+	 * @param offset the offset of the edit from the start of the file
+	 * @param removedLength the amount of characters the edit removed
+	 * @param insertedLength the amount of characters the edit inserted
+	 * @return an immutable list of tokens
+	 * @throws IllegalArgumentException if the edit is out of bounds, or the previous tokens were not produced by
+	 * tokenizing characters
+	 */
+	public static TokenizationResult retokenize(
+			TokenizationResult previous,
+			String content,
+			int offset,
+			int removedLength,
+			int insertedLength
+	) {
+		return TokenizerImpl.retokenize(previous, content, offset, removedLength, insertedLength);
+	}
+
+	/**
+	 * Generates a list of tokens from the UTF-8 encoded content of a gura file.
+	 *
+	 * <p>The content is tokenized directly without being decoded. Tokens have the same types, rows and columns as when
+	 * tokenizing the decoded content, however the offset and length of each token are measured in bytes. A leading
+	 * byte order mark is skipped.
+	 *
+	 * <p>The bytes between the position and the limit of the buffer are tokenized, the position of the buffer is not
+	 * changed.
+	 *
+	 * @param content the UTF-8 encoded content of the Gura file.
+	 * @return an immutable list of tokens
+	 */
+	public static TokenizationResult tokenize(ByteBuffer content) {
+		return tokenize(content, TokenizerOptions.DEFAULT);
+	}
+
+	/**
+	 * Generates a list of tokens from the UTF-8 encoded content of a gura file, stopping early as specified by the
+	 * options.
+	 *
+	 * @param content the UTF-8 encoded content of the Gura file.
+	 * @param options the options
+	 * @return an immutable list of tokens
+	 * @see #tokenize(ByteBuffer)
+	 * @see TokenizationResult#complete()
+	 */
+	public static TokenizationResult tokenize(ByteBuffer content, TokenizerOptions options) {
+		Objects.requireNonNull(options, "Options cannot be null");
+		return TokenizerImpl.tokenize(content, options);
+	}
+
+	/**
+	 * Generates a list of tokens from a UTF-8 encoded gura file.
+	 *
+	 * <p>The file is memory mapped and tokenized as described in {@link #tokenize(ByteBuffer)}, so the content of the
+	 * file is never copied onto the heap.
+	 *
+	 * @param path the path to the Gura file.
+	 * @return an immutable list of tokens
+	 * @throws IOException if the file could not be read
+	 */
+	public static TokenizationResult tokenize(Path path) throws IOException {
+		return tokenize(path, TokenizerOptions.DEFAULT);
+	}
+
+	/**
+	 * Generates a list of tokens from a UTF-8 encoded gura file, stopping early as specified by the options.
+	 *
+	 * @param path the path to the Gura file.
+	 * @param options the options
+	 * @return an immutable list of tokens
+	 * @throws IOException if the file could not be read
+	 * @see #tokenize(Path)
+	 * @see TokenizationResult#complete()
+	 */
+	public static TokenizationResult tokenize(Path path, TokenizerOptions options) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return tokenize(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), options);
+		}
+	}
+
+	/**
+	 * Flag of a string token which contains escape sequences, so its value differs from its text.
+	 */
+	public static final int ESCAPES = 1;
+	/**
+	 * Flag of a basic string token which contains variables to interpolate.
+	 */
+	public static final int INTERPOLATIONS = 1 << 1;
+	/**
+	 * Flag of a string token which uses the multiline form.
+	 */
+	public static final int MULTILINE = 1 << 2;
+
+	private final int offset;
 	private final int length;
 	private final Type type;
 	private final int row;
 	private final int column;
+	private final int flags;
 
+	/**
+	 * Creates a token with an unknown offset.
+	 *
+	 * @param length the length of the token
+	 * @param type the type of the token
+	 * @param row the row of the token
+	 * @param column the column of the token
+	 */
 	public Token(int length, Type type, int row, int column) {
+		this(-1, length, type, row, column);
+	}
+
+	/**
+	 * Creates a token.
+	 *
+	 * @param offset the offset of the first character of the token from the start of the file, or -1 if unknown
+	 * @param length the length of the token
+	 * @param type the type of the token
+	 * @param row the row of the token
+	 * @param column the column of the token
+	 */
+	public Token(int offset, int length, Type type, int row, int column) {
+		this(offset, length, type, row, column, 0);
+	}
+
+	/**
+	 * Creates a token with flags.
+	 *
+	 * @param offset the offset of the first character of the token from the start of the file, or -1 if unknown
+	 * @param length the length of the token
+	 * @param type the type of the token
+	 * @param row the row of the token
+	 * @param column the column of the token
+	 * @param flags the flags of the token, see {@link #flags()}
+	 */
+	public Token(int offset, int length, Type type, int row, int column, int flags) {
+		this.offset = offset;
 		this.length = length;
 		this.type = type;
 		this.row = row;
 		this.column = column;
+		this.flags = flags;
+	}
+
+	/**
+	 * Returns the offset of the first character of this token from the start of the file.
+	 *
+	 * <p>The offset is not considered when comparing tokens, since the row and column already identify where a token is
+	 * within a file.
+	 *
+	 * @return the offset of this token, or -1 if unknown
+	 */
+	public int offset() {
+		return this.offset;
 	}
 
 	/**
@@ -62,6 +266,26 @@ public final class Token {
 		return this.column;
 	}
 
+	/**
+	 * Returns the flags of this token.
+	 *
+	 * <p>Flags describe the content of string tokens, so that later stages can skip work for plain strings. A string
+	 * without {@link #ESCAPES} or {@link #INTERPOLATIONS} has the same value as its text without the quotes.
+	 *
+	 * @return a combination of {@link #ESCAPES}, {@link #INTERPOLATIONS} and {@link #MULTILINE}, or 0
+	 */
+	public int flags() {
+		return this.flags;
+	}
+
+	/**
+	 * @param flag the flag
+	 * @return true if this token has the flag
+	 */
+	public boolean hasFlag(int flag) {
+		return (this.flags & flag) != 0;
+	}
+
 	/**
 	 * @return true if this token is valid
 	 */
@@ -77,21 +301,24 @@ public final class Token {
 		return this.length == token.length
 				&& this.row == token.row
 				&& this.column == token.column
+				&& this.flags == token.flags
 				&& this.type == token.type;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.length, this.type, this.row, this.column);
+		return Objects.hash(this.length, this.type, this.row, this.column, this.flags);
 	}
 
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", Token.class.getSimpleName() + "[", "]")
+				.add("offset=" + this.offset)
 				.add("length=" + this.length)
 				.add("type=" + this.type)
 				.add("row=" + this.row)
 				.add("column=" + this.column)
+				.add("flags=" + this.flags)
 				.toString();
 	}
 
@@ -136,12 +363,14 @@ public final class Token {
 		NUMBER,
 
 		/**
-		 * A basic string value to a key.
+		 * A basic string value to a key, including the quotes.
+		 *
+		 * <p>Basic strings may contain escape sequences and variables to interpolate, see {@link Token#flags()}.
 		 */
 		BASIC_STRING_VALUE,
 
 		/**
-		 * A literal string value to a key.
+		 * A literal string value to a key, including the quotes.
 		 */
 		LITERAL_STRING_VALUE,
 
@@ -0,0 +1,402 @@
+package me.i509.gura.token;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.StringJoiner;
+
+/**
+ * A compact buffer of tokens.
+ *
+ * <p>Rather than storing a {@link Token} object per token, the type, offset, length, row, column and flags of every
+ * token are stored in parallel primitive arrays. The accessors of this class and {@link Cursor} do not allocate,
+ * {@link Token} objects are only created when explicitly requested through {@link #token(int)} or {@link #asList()}.
+ *
+ * <p>A token buffer is effectively immutable once it has been returned by the tokenizer.
+ */
+public final class TokenBuffer {
+	private static final Token.Type[] TYPES = Token.Type.values();
+	private static final int MINIMUM_CAPACITY = 16;
+	private static final byte UNKNOWN = (byte) Token.Type.UNKNOWN.ordinal();
+
+	private byte[] types;
+	private int[] offsets;
+	private int[] lengths;
+	private int[] rows;
+	private int[] columns;
+	private byte[] flags;
+	private int size;
+	/**
+	 * The indices of invalid tokens in ascending order, collected as tokens are added.
+	 */
+	private int[] invalid = new int[0];
+	private int invalidSize;
+
+	TokenBuffer(int capacity) {
+		capacity = Math.max(capacity, MINIMUM_CAPACITY);
+		this.types = new byte[capacity];
+		this.offsets = new int[capacity];
+		this.lengths = new int[capacity];
+		this.rows = new int[capacity];
+		this.columns = new int[capacity];
+		this.flags = new byte[capacity];
+	}
+
+	void add(Token.Type type, int offset, int length, int row, int column, int flags) {
+		if (this.size == this.types.length) {
+			this.grow();
+		}
+
+		int index = this.size++;
+		byte ordinal = (byte) type.ordinal();
+		this.types[index] = ordinal;
+		this.offsets[index] = offset;
+		this.lengths[index] = length;
+		this.rows[index] = row;
+		this.columns[index] = column;
+		this.flags[index] = (byte) flags;
+
+		if (ordinal == UNKNOWN) {
+			this.addInvalid(index);
+		}
+	}
+
+	private void addInvalid(int index) {
+		if (this.invalidSize == this.invalid.length) {
+			this.invalid = Arrays.copyOf(this.invalid, Math.max(this.invalidSize * 2, 4));
+		}
+
+		this.invalid[this.invalidSize++] = index;
+	}
+
+	/**
+	 * Appends a range of tokens from another buffer, moving them by the specified amounts.
+	 *
+	 * @param source the buffer to copy tokens from
+	 * @param from the index of the first token to copy, inclusive
+	 * @param to the index of the last token to copy, exclusive
+	 * @param offsetDelta the amount to move the offset of each token by
+	 * @param rowDelta the amount to move the row of each token by
+	 * @param columnRow the row, before moving, of the tokens whose column should be moved
+	 * @param columnDelta the amount to move the column of tokens on {@code columnRow} by
+	 */
+	void addRange(TokenBuffer source, int from, int to, int offsetDelta, int rowDelta, int columnRow, int columnDelta) {
+		int count = to - from;
+
+		while (this.size + count > this.types.length) {
+			this.grow();
+		}
+
+		int start = this.size;
+		System.arraycopy(source.types, from, this.types, start, count);
+		System.arraycopy(source.lengths, from, this.lengths, start, count);
+		System.arraycopy(source.flags, from, this.flags, start, count);
+
+		for (int i = 0; i < count; i++) {
+			int row = source.rows[from + i];
+			this.offsets[start + i] = source.offsets[from + i] + offsetDelta;
+			this.rows[start + i] = row + rowDelta;
+			this.columns[start + i] = source.columns[from + i] + (row == columnRow ? columnDelta : 0);
+		}
+
+		// The invalid tokens in the range are already known, so the types do not need to be checked again.
+		for (int i = source.firstInvalidAtOrAfter(from); i < source.invalidSize && source.invalid[i] < to; i++) {
+			this.addInvalid(source.invalid[i] - from + start);
+		}
+
+		this.size += count;
+	}
+
+	/**
+	 * @param index the index of a token
+	 * @return the position in the invalid token indices of the first invalid token at or after the index
+	 */
+	private int firstInvalidAtOrAfter(int index) {
+		int position = Arrays.binarySearch(this.invalid, 0, this.invalidSize, index);
+		return position < 0 ? -position - 1 : position;
+	}
+
+	private void grow() {
+		int capacity = this.types.length + (this.types.length >> 1);
+		this.types = Arrays.copyOf(this.types, capacity);
+		this.offsets = Arrays.copyOf(this.offsets, capacity);
+		this.lengths = Arrays.copyOf(this.lengths, capacity);
+		this.rows = Arrays.copyOf(this.rows, capacity);
+		this.columns = Arrays.copyOf(this.columns, capacity);
+		this.flags = Arrays.copyOf(this.flags, capacity);
+	}
+
+	/**
+	 * @return the amount of tokens in this buffer
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return the amount of invalid tokens in this buffer
+	 */
+	public int invalidCount() {
+		return this.invalidSize;
+	}
+
+	/**
+	 * Gets the index of an invalid token.
+	 *
+	 * <p>Invalid tokens are recorded as they are tokenized, so finding them does not require scanning every token.
+	 *
+	 * @param n the position of the invalid token among all invalid tokens, from 0 to {@link #invalidCount()}
+	 * @return the index of the n-th invalid token in this buffer
+	 */
+	public int invalidIndex(int n) {
+		if (n < 0 || n >= this.invalidSize) {
+			throw new IndexOutOfBoundsException("Index " + n + " out of bounds for size " + this.invalidSize);
+		}
+
+		return this.invalid[n];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return the type of the token
+	 */
+	public Token.Type type(int index) {
+		return TYPES[this.typeOrdinal(index)];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return the ordinal of the type of the token
+	 * @see Token.Type#ordinal()
+	 */
+	public int typeOrdinal(int index) {
+		return this.types[this.checkIndex(index)];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return the offset of the first character of the token from the start of the file
+	 */
+	public int offset(int index) {
+		return this.offsets[this.checkIndex(index)];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return the length of the token
+	 */
+	public int length(int index) {
+		return this.lengths[this.checkIndex(index)];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return the row of the token in a file
+	 */
+	public int row(int index) {
+		return this.rows[this.checkIndex(index)];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return the column of where the token starts in a file
+	 */
+	public int column(int index) {
+		return this.columns[this.checkIndex(index)];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return the flags of the token
+	 * @see Token#flags()
+	 */
+	public int flags(int index) {
+		return this.flags[this.checkIndex(index)];
+	}
+
+	/**
+	 * @param index the index of the token
+	 * @return true if the token is valid
+	 */
+	public boolean valid(int index) {
+		return this.type(index).valid();
+	}
+
+	/**
+	 * Creates a token object for a token in this buffer.
+	 *
+	 * @param index the index of the token
+	 * @return a new token
+	 */
+	public Token token(int index) {
+		this.checkIndex(index);
+		return new Token(
+				this.offsets[index],
+				this.lengths[index],
+				TYPES[this.types[index]],
+				this.rows[index],
+				this.columns[index],
+				this.flags[index]
+		);
+	}
+
+	/**
+	 * Returns a view of this buffer as a list of tokens.
+	 *
+	 * <p>Token objects are created lazily when elements of the list are accessed.
+	 *
+	 * @return an immutable list view of the tokens
+	 */
+	public List<Token> asList() {
+		return new ListView();
+	}
+
+	/**
+	 * Creates a new cursor positioned before the first token of this buffer.
+	 *
+	 * @return a new cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+		}
+
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", TokenBuffer.class.getSimpleName() + "[", "]")
+				.add("size=" + this.size)
+				.add("invalid=" + this.invalidSize)
+				.toString();
+	}
+
+	/**
+	 * A cursor over the tokens of a buffer.
+	 *
+	 * <p>A cursor starts before the first token and must be moved onto a token with {@link #next()} before any of the
+	 * accessors may be used.
+	 *
+	 * <pre>{@code
+	 * TokenBuffer.Cursor cursor = buffer.cursor();
+	 *
+	 * while (cursor.next()) {
+	 *     if (cursor.type() == Token.Type.IDENTIFIER) {
+	 *         ...
+	 *     }
+	 * }
+	 * }</pre>
+	 */
+	public final class Cursor {
+		private int index = -1;
+
+		private Cursor() {
+		}
+
+		/**
+		 * Moves the cursor to the next token.
+		 *
+		 * @return true if the cursor is on a token, false if there are no more tokens
+		 */
+		public boolean next() {
+			if (this.index < TokenBuffer.this.size) {
+				this.index++;
+			}
+
+			return this.index < TokenBuffer.this.size;
+		}
+
+		/**
+		 * Moves the cursor to a specific token.
+		 *
+		 * @param index the index of the token
+		 */
+		public void moveTo(int index) {
+			this.index = TokenBuffer.this.checkIndex(index);
+		}
+
+		/**
+		 * Moves the cursor back to before the first token.
+		 */
+		public void reset() {
+			this.index = -1;
+		}
+
+		/**
+		 * @return the index of the token the cursor is on
+		 */
+		public int index() {
+			return this.index;
+		}
+
+		/**
+		 * @return the type of the current token
+		 */
+		public Token.Type type() {
+			return TokenBuffer.this.type(this.current());
+		}
+
+		/**
+		 * @return the offset of the first character of the current token from the start of the file
+		 */
+		public int offset() {
+			return TokenBuffer.this.offsets[this.current()];
+		}
+
+		/**
+		 * @return the length of the current token
+		 */
+		public int length() {
+			return TokenBuffer.this.lengths[this.current()];
+		}
+
+		/**
+		 * @return the row of the current token in a file
+		 */
+		public int row() {
+			return TokenBuffer.this.rows[this.current()];
+		}
+
+		/**
+		 * @return the column of where the current token starts in a file
+		 */
+		public int column() {
+			return TokenBuffer.this.columns[this.current()];
+		}
+
+		/**
+		 * @return the flags of the current token
+		 * @see Token#flags()
+		 */
+		public int flags() {
+			return TokenBuffer.this.flags[this.current()];
+		}
+
+		private int current() {
+			if (this.index < 0 || this.index >= TokenBuffer.this.size) {
+				throw new NoSuchElementException("Cursor is not on a token");
+			}
+
+			return this.index;
+		}
+	}
+
+	private final class ListView extends AbstractList<Token> implements RandomAccess {
+		@Override
+		public Token get(int index) {
+			return TokenBuffer.this.token(index);
+		}
+
+		@Override
+		public int size() {
+			return TokenBuffer.this.size;
+		}
+	}
+}
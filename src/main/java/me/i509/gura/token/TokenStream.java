@@ -0,0 +1,133 @@
+package me.i509.gura.token;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A stream of tokens which are read from the content of a Gura file on demand.
+ *
+ * <p>Unlike {@link Token#tokenize(String)}, a token stream does not need the entire content of the file up front and
+ * never stores more than one token ahead. When reading from a {@link Reader}, the content is read through a bounded
+ * buffer, so the memory used by the stream does not depend on the size of the file.
+ *
+ * <p>Invalid tokens are returned by the stream like any other token, check {@link Token#valid()} if needed.
+ */
+public final class TokenStream implements Iterator<Token>, Closeable {
+	/**
+	 * The default size of the buffer used when reading from a {@link Reader}.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * Creates a token stream which reads from a reader.
+	 *
+	 * <p>Closing the stream will close the reader.
+	 *
+	 * @param reader the reader to read the content of the Gura file from
+	 * @return a new token stream
+	 */
+	public static TokenStream of(Reader reader) {
+		return of(reader, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a token stream which reads from a reader.
+	 *
+	 * <p>Closing the stream will close the reader.
+	 *
+	 * @param reader the reader to read the content of the Gura file from
+	 * @param bufferSize the initial size of the buffer, the buffer only grows if a single token does not fit in it
+	 * @return a new token stream
+	 */
+	public static TokenStream of(Reader reader, int bufferSize) {
+		Objects.requireNonNull(reader, "Reader cannot be null");
+		return new TokenStream(new Cursor.OfReader(reader, bufferSize), reader);
+	}
+
+	/**
+	 * Creates a token stream over the content of a Gura file.
+	 *
+	 * @param content the content of the Gura file
+	 * @return a new token stream
+	 */
+	public static TokenStream of(CharSequence content) {
+		Objects.requireNonNull(content, "Content cannot be null");
+		return new TokenStream(new Cursor.OfCharSequence(content), null);
+	}
+
+	private final Cursor cursor;
+	@Nullable
+	private final Closeable source;
+	@Nullable
+	private Token next;
+	private boolean done;
+
+	private TokenStream(Cursor cursor, @Nullable Closeable source) {
+		this.cursor = cursor;
+		this.source = source;
+		this.cursor.skipByteOrderMark();
+	}
+
+	/**
+	 * @return true if there is another token in the stream
+	 * @throws java.io.UncheckedIOException if reading from the underlying reader fails
+	 */
+	@Override
+	public boolean hasNext() {
+		if (this.next == null && !this.done) {
+			if (TokenizerImpl.nextToken(this.cursor)) {
+				this.next = this.cursor.token();
+			} else {
+				this.done = true;
+			}
+		}
+
+		return this.next != null;
+	}
+
+	/**
+	 * Reads the next token in the stream.
+	 *
+	 * @return the next token
+	 * @throws NoSuchElementException if there are no more tokens
+	 * @throws java.io.UncheckedIOException if reading from the underlying reader fails
+	 */
+	@Override
+	public Token next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException("No more tokens");
+		}
+
+		Token token = this.next;
+		this.next = null;
+		return token;
+	}
+
+	/**
+	 * Returns the next token in the stream without consuming it.
+	 *
+	 * @return the next token, or null if there are no more tokens
+	 * @throws java.io.UncheckedIOException if reading from the underlying reader fails
+	 */
+	@Nullable
+	public Token peek() {
+		this.hasNext();
+		return this.next;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.done = true;
+		this.next = null;
+
+		if (this.source != null) {
+			this.source.close();
+		}
+	}
+}
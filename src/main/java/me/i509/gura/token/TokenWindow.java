@@ -0,0 +1,462 @@
+package me.i509.gura.token;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A sliding window over the tokens of a Gura file, with random access to the tokens within the window.
+ *
+ * <p>Tokens are addressed by their index from the start of the file, like in a {@link TokenBuffer}. When reading from
+ * a {@link Reader} or a {@link CharSequence}, tokens are read on demand as they are accessed and discarded once
+ * {@link #release(int) released}, so the memory used by the window only depends on how far ahead of the released
+ * tokens the reader of the window looks, not on the size of the file.
+ *
+ * <p>Invalid tokens are in the window like any other token, check {@link Token.Type#valid()} if needed.
+ */
+public abstract class TokenWindow implements Closeable {
+	/**
+	 * Creates a window over the tokens of a tokenization result.
+	 *
+	 * <p>All tokens are already in memory, so releasing tokens has no effect.
+	 *
+	 * @param result the tokenization result
+	 * @return a new token window
+	 */
+	public static TokenWindow of(TokenizationResult result) {
+		Objects.requireNonNull(result, "Result cannot be null");
+		return new OfResult(result, result.buffer().size());
+	}
+
+	/**
+	 * Creates a window over the tokens of a tokenization result which ends before a token, as if the file ended there.
+	 *
+	 * <p>Tokens keep their index from the start of the file, so a window starting at the start of a line can be used
+	 * to read a part of a file on its own.
+	 *
+	 * @param result the tokenization result
+	 * @param toIndex the index of the first token past the end of the window
+	 * @return a new token window
+	 */
+	public static TokenWindow of(TokenizationResult result, int toIndex) {
+		Objects.requireNonNull(result, "Result cannot be null");
+		Objects.checkFromToIndex(0, toIndex, result.buffer().size());
+		return new OfResult(result, toIndex);
+	}
+
+	/**
+	 * Creates a window which reads tokens from the content of a Gura file on demand.
+	 *
+	 * @param content the content of the Gura file
+	 * @return a new token window
+	 */
+	public static TokenWindow of(CharSequence content) {
+		Objects.requireNonNull(content, "Content cannot be null");
+		return new OfCursor(new Cursor.OfCharSequence(content), null);
+	}
+
+	/**
+	 * Creates a window which reads tokens from a reader on demand.
+	 *
+	 * <p>Closing the window will close the reader.
+	 *
+	 * @param reader the reader to read the content of the Gura file from
+	 * @return a new token window
+	 */
+	public static TokenWindow of(Reader reader) {
+		return of(reader, TokenStream.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a window which reads tokens from a reader on demand.
+	 *
+	 * <p>Closing the window will close the reader.
+	 *
+	 * @param reader the reader to read the content of the Gura file from
+	 * @param bufferSize the initial size of the buffer, the buffer only grows if the content of the tokens in the
+	 *     window does not fit in it
+	 * @return a new token window
+	 */
+	public static TokenWindow of(Reader reader, int bufferSize) {
+		Objects.requireNonNull(reader, "Reader cannot be null");
+		return new OfCursor(new Cursor.OfReader(reader, bufferSize), reader);
+	}
+
+	TokenWindow() {
+	}
+
+	/**
+	 * Gets the type of a token, reading tokens up to it if needed.
+	 *
+	 * @param index the index of the token
+	 * @return the type of the token, or {@link Token.Type#EOF} if the file has less tokens
+	 * @throws IndexOutOfBoundsException if the token was released
+	 * @throws java.io.UncheckedIOException if reading from the underlying reader fails
+	 */
+	public abstract Token.Type type(int index);
+
+	/**
+	 * Gets the length of a token.
+	 *
+	 * <p>This and the following accessors require the token to have been read through {@link #type(int)} first.
+	 *
+	 * @param index the index of the token
+	 * @return the length of the token
+	 * @throws IndexOutOfBoundsException if the token is not in the window
+	 */
+	public abstract int length(int index);
+
+	/**
+	 * @param index the index of the token
+	 * @return the row of the token
+	 * @throws IndexOutOfBoundsException if the token is not in the window
+	 */
+	public abstract int row(int index);
+
+	/**
+	 * @param index the index of the token
+	 * @return the column of the token
+	 * @throws IndexOutOfBoundsException if the token is not in the window
+	 */
+	public abstract int column(int index);
+
+	/**
+	 * @param index the index of the token
+	 * @return the flags of the token, see {@link Token#flags()}
+	 * @throws IndexOutOfBoundsException if the token is not in the window
+	 */
+	public abstract int flags(int index);
+
+	/**
+	 * Returns the text of a token.
+	 *
+	 * <p>The returned sequence may be a view over a buffer, which is only valid until more tokens are read.
+	 *
+	 * @param index the index of the token
+	 * @return the text of the token
+	 * @throws IndexOutOfBoundsException if the token is not in the window
+	 */
+	public CharSequence text(int index) {
+		return this.text(index, index + 1);
+	}
+
+	/**
+	 * Returns the text of a range of consecutive tokens.
+	 *
+	 * <p>The returned sequence may be a view over a buffer, which is only valid until more tokens are read.
+	 *
+	 * @param fromIndex the index of the first token, inclusive
+	 * @param toIndex the index of the last token, exclusive
+	 * @return the text of the tokens
+	 * @throws IndexOutOfBoundsException if a token is not in the window
+	 */
+	public abstract CharSequence text(int fromIndex, int toIndex);
+
+	/**
+	 * Returns the text of a token as the canonical string of a symbol table.
+	 *
+	 * <p>No string is created if the text is already in the symbol table.
+	 *
+	 * @param index the index of the token
+	 * @param symbols the symbol table
+	 * @return the text of the token
+	 * @throws IndexOutOfBoundsException if the token is not in the window
+	 */
+	public abstract String intern(int index, SymbolTable symbols);
+
+	/**
+	 * Gets the row right after the last token of the file.
+	 *
+	 * <p>This requires the end of the file to have been reached through {@link #type(int)} first.
+	 *
+	 * @return the row after the last token
+	 */
+	public abstract int endRow();
+
+	/**
+	 * Gets the column right after the last token of the file.
+	 *
+	 * <p>This requires the end of the file to have been reached through {@link #type(int)} first.
+	 *
+	 * @return the column after the last token
+	 */
+	public abstract int endColumn();
+
+	/**
+	 * Releases the tokens before an index, which will no longer be accessed.
+	 *
+	 * @param index the index of the first token which is still needed
+	 */
+	public abstract void release(int index);
+
+	@Override
+	public void close() throws IOException {
+	}
+
+	private static final class OfResult extends TokenWindow {
+		private final TokenizationResult result;
+		private final TokenBuffer buffer;
+		private final int size;
+
+		OfResult(TokenizationResult result, int size) {
+			this.result = result;
+			this.buffer = result.buffer();
+			this.size = size;
+		}
+
+		@Override
+		public Token.Type type(int index) {
+			return index < this.size ? this.buffer.type(index) : Token.Type.EOF;
+		}
+
+		@Override
+		public int length(int index) {
+			return this.buffer.length(index);
+		}
+
+		@Override
+		public int row(int index) {
+			return this.buffer.row(index);
+		}
+
+		@Override
+		public int column(int index) {
+			return this.buffer.column(index);
+		}
+
+		@Override
+		public int flags(int index) {
+			return this.buffer.flags(index);
+		}
+
+		@Override
+		public CharSequence text(int index) {
+			return this.result.text(index);
+		}
+
+		@Override
+		public CharSequence text(int fromIndex, int toIndex) {
+			return this.result.text(fromIndex, toIndex);
+		}
+
+		@Override
+		public String intern(int index, SymbolTable symbols) {
+			return this.result.source().intern(symbols, this.buffer.offset(index), this.buffer.length(index));
+		}
+
+		@Override
+		public int endRow() {
+			if (this.size == 0) {
+				return 1;
+			}
+
+			int last = this.size - 1;
+			return this.buffer.type(last) == Token.Type.NEWLINE ? this.buffer.row(last) + 1 : this.buffer.row(last);
+		}
+
+		@Override
+		public int endColumn() {
+			if (this.size == 0) {
+				return 1;
+			}
+
+			int last = this.size - 1;
+
+			if (this.buffer.type(last) == Token.Type.NEWLINE) {
+				return 1;
+			}
+
+			return this.buffer.column(last) + this.buffer.length(last);
+		}
+
+		@Override
+		public void release(int index) {
+		}
+	}
+
+	/**
+	 * A window which reads tokens from a cursor into a ring buffer.
+	 */
+	private static final class OfCursor extends TokenWindow {
+		private static final Token.Type[] TYPES = Token.Type.values();
+		private static final int INITIAL_CAPACITY = 16;
+
+		private final Cursor cursor;
+		@Nullable
+		private final Closeable source;
+		private byte[] types = new byte[INITIAL_CAPACITY];
+		private int[] offsets = new int[INITIAL_CAPACITY];
+		private int[] lengths = new int[INITIAL_CAPACITY];
+		private int[] rows = new int[INITIAL_CAPACITY];
+		private int[] columns = new int[INITIAL_CAPACITY];
+		private byte[] flags = new byte[INITIAL_CAPACITY];
+		/**
+		 * The capacity of the ring buffer minus one, the capacity is always a power of two.
+		 */
+		private int mask = INITIAL_CAPACITY - 1;
+		/**
+		 * The index of the first token in the window.
+		 */
+		private int first;
+		/**
+		 * The index after the last token which was read.
+		 */
+		private int end;
+		private boolean done;
+
+		OfCursor(Cursor cursor, @Nullable Closeable source) {
+			this.cursor = cursor;
+			this.source = source;
+			this.cursor.skipByteOrderMark();
+		}
+
+		@Override
+		public Token.Type type(int index) {
+			if (index < this.first) {
+				throw new IndexOutOfBoundsException("Token " + index + " was released");
+			}
+
+			while (index >= this.end) {
+				if (!this.read()) {
+					return Token.Type.EOF;
+				}
+			}
+
+			return TYPES[this.types[index & this.mask]];
+		}
+
+		private boolean read() {
+			if (this.done) {
+				return false;
+			}
+
+			// Keep the content of the tokens in the window while the cursor reads ahead.
+			this.cursor.retain(this.first < this.end ? this.offsets[this.first & this.mask] : Integer.MAX_VALUE);
+
+			if (!TokenizerImpl.nextToken(this.cursor)) {
+				this.done = true;
+				return false;
+			}
+
+			if (this.end - this.first > this.mask) {
+				this.grow();
+			}
+
+			int slot = this.end++ & this.mask;
+			this.types[slot] = (byte) this.cursor.tokenType.ordinal();
+			this.offsets[slot] = this.cursor.tokenOffset;
+			this.lengths[slot] = this.cursor.tokenLength;
+			this.rows[slot] = this.cursor.tokenLine;
+			this.columns[slot] = this.cursor.tokenColumn;
+			this.flags[slot] = (byte) this.cursor.tokenFlags;
+			return true;
+		}
+
+		private void grow() {
+			int capacity = (this.mask + 1) * 2;
+			this.types = this.grow(this.types, capacity);
+			this.offsets = this.grow(this.offsets, capacity);
+			this.lengths = this.grow(this.lengths, capacity);
+			this.rows = this.grow(this.rows, capacity);
+			this.columns = this.grow(this.columns, capacity);
+			this.flags = this.grow(this.flags, capacity);
+			this.mask = capacity - 1;
+		}
+
+		/**
+		 * Copies the tokens in the window to a larger ring buffer, keeping every token at its index modulo the
+		 * capacity.
+		 */
+		private byte[] grow(byte[] array, int capacity) {
+			byte[] grown = new byte[capacity];
+
+			for (int i = this.first; i < this.end; i++) {
+				grown[i & (capacity - 1)] = array[i & this.mask];
+			}
+
+			return grown;
+		}
+
+		private int[] grow(int[] array, int capacity) {
+			int[] grown = new int[capacity];
+
+			for (int i = this.first; i < this.end; i++) {
+				grown[i & (capacity - 1)] = array[i & this.mask];
+			}
+
+			return grown;
+		}
+
+		private int slot(int index) {
+			if (index < this.first || index >= this.end) {
+				throw new IndexOutOfBoundsException("Token " + index + " is not in the window");
+			}
+
+			return index & this.mask;
+		}
+
+		@Override
+		public int length(int index) {
+			return this.lengths[this.slot(index)];
+		}
+
+		@Override
+		public int row(int index) {
+			return this.rows[this.slot(index)];
+		}
+
+		@Override
+		public int column(int index) {
+			return this.columns[this.slot(index)];
+		}
+
+		@Override
+		public int flags(int index) {
+			return this.flags[this.slot(index)];
+		}
+
+		@Override
+		public CharSequence text(int fromIndex, int toIndex) {
+			if (fromIndex >= toIndex) {
+				throw new IllegalArgumentException("Range of tokens is empty: " + fromIndex + " to " + toIndex);
+			}
+
+			int offset = this.offsets[this.slot(fromIndex)];
+			int last = this.slot(toIndex - 1);
+			return this.cursor.text(offset, this.offsets[last] + this.lengths[last] - offset);
+		}
+
+		@Override
+		public String intern(int index, SymbolTable symbols) {
+			int slot = this.slot(index);
+			return this.cursor.intern(symbols, this.offsets[slot], this.lengths[slot]);
+		}
+
+		@Override
+		public int endRow() {
+			return this.cursor.line;
+		}
+
+		@Override
+		public int endColumn() {
+			return this.cursor.column;
+		}
+
+		@Override
+		public void release(int index) {
+			this.first = Math.max(this.first, Math.min(index, this.end));
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.done = true;
+
+			if (this.source != null) {
+				this.source.close();
+			}
+		}
+	}
+}
@@ -1,23 +1,24 @@
 package me.i509.gura.token;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.StringJoiner;
 
 public final class TokenizationResult {
+	private final TokenBuffer buffer;
+	/**
+	 * The cursor which read the tokens, used to access the content of the file.
+	 */
+	private final Cursor source;
 	private final List<Token> tokens;
-	private final List<Token> invalidTokens;
-
-	TokenizationResult(List<Token> tokens) {
-		this.tokens = tokens;
-		this.invalidTokens = new ArrayList<>();
+	private final boolean complete;
 
-		for (var token : this.tokens) {
-			if (!token.valid()) {
-				this.invalidTokens.add(token);
-			}
-		}
+	TokenizationResult(TokenBuffer buffer, Cursor source, boolean complete) {
+		this.buffer = buffer;
+		this.source = source;
+		this.tokens = buffer.asList();
+		this.complete = complete;
 	}
 
 	/**
@@ -26,21 +27,99 @@ public final class TokenizationResult {
 	 * <p>Beware that this list may contain some invalid tokens, make sure to guard any calls to this method with
 	 * {@link #success()} if you do not want invalid tokens.
 	 *
+	 * <p>The list is a view over {@link #buffer()}, token objects are created as the list is accessed. Prefer using the
+	 * buffer directly when iterating over many tokens.
+	 *
 	 * @return an immutable list of all tokens
 	 */
 	public List<Token> tokens() {
-		return Collections.unmodifiableList(this.tokens);
+		return this.tokens;
+	}
+
+	/**
+	 * Returns the buffer of all tokens.
+	 *
+	 * <p>Beware that this buffer may contain some invalid tokens, see {@link #tokens()}.
+	 *
+	 * @return the buffer of all tokens
+	 */
+	public TokenBuffer buffer() {
+		return this.buffer;
+	}
+
+	Cursor source() {
+		return this.source;
+	}
+
+	/**
+	 * Returns the text of a token.
+	 *
+	 * <p>The returned sequence is a view over the content which was tokenized rather than a copy. The only exception is
+	 * a token containing non-ASCII characters in UTF-8 encoded content, which must be decoded.
+	 *
+	 * @param index the index of the token in {@link #buffer()}
+	 * @return the text of the token
+	 */
+	public CharSequence text(int index) {
+		return this.source.text(this.buffer.offset(index), this.buffer.length(index));
+	}
+
+	/**
+	 * Returns the text of a range of consecutive tokens.
+	 *
+	 * @param fromIndex the index of the first token in {@link #buffer()}, inclusive
+	 * @param toIndex the index of the last token in {@link #buffer()}, exclusive
+	 * @return the text of the tokens
+	 * @see #text(int)
+	 */
+	public CharSequence text(int fromIndex, int toIndex) {
+		if (fromIndex >= toIndex) {
+			throw new IllegalArgumentException("Range of tokens is empty: " + fromIndex + " to " + toIndex);
+		}
+
+		int offset = this.buffer.offset(fromIndex);
+		int last = toIndex - 1;
+		return this.source.text(offset, this.buffer.offset(last) + this.buffer.length(last) - offset);
+	}
+
+	/**
+	 * Returns the text of a token.
+	 *
+	 * @param token a token from this result
+	 * @return the text of the token
+	 * @throws IllegalArgumentException if the offset of the token is unknown
+	 * @see #text(int)
+	 */
+	public CharSequence text(Token token) {
+		if (token.offset() < 0) {
+			throw new IllegalArgumentException("Offset of token is unknown: " + token);
+		}
+
+		return this.source.text(token.offset(), token.length());
 	}
 
 	/**
 	 * Returns a list of all invalid tokens.
 	 *
-	 * <p>If all tokens were valid, this list would be empty.
+	 * <p>If all tokens were valid, this list would be empty. Invalid tokens are recorded while tokenizing, see
+	 * {@link TokenBuffer#invalidIndex(int)}.
 	 *
 	 * @return an immutable list of invalid tokens
 	 */
 	public List<Token> invalidTokens() {
-		return Collections.unmodifiableList(this.invalidTokens);
+		return new InvalidTokens();
+	}
+
+	/**
+	 * Returns whether the entire file was tokenized.
+	 *
+	 * <p>This is only false if tokenizing stopped early because of the {@link TokenizerOptions options}, in which case
+	 * the tokens end at the last allowed invalid token.
+	 *
+	 * @return {@code true} if the entire file was tokenized
+	 */
+	public boolean complete() {
+		return this.complete;
 	}
 
 	/**
@@ -52,7 +131,7 @@ public final class TokenizationResult {
 	 * @see #invalidTokens()
 	 */
 	public boolean success() {
-		return this.invalidTokens.isEmpty();
+		return this.buffer.invalidCount() == 0;
 	}
 
 	@Override
@@ -62,4 +141,16 @@ public final class TokenizationResult {
 				.add("tokens=" + this.tokens)
 				.toString();
 	}
+
+	private final class InvalidTokens extends AbstractList<Token> implements RandomAccess {
+		@Override
+		public Token get(int index) {
+			return TokenizationResult.this.buffer.token(TokenizationResult.this.buffer.invalidIndex(index));
+		}
+
+		@Override
+		public int size() {
+			return TokenizationResult.this.buffer.invalidCount();
+		}
+	}
 }
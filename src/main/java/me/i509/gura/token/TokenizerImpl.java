@@ -1,29 +1,233 @@
 package me.i509.gura.token;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import org.jetbrains.annotations.Nullable;
+import java.nio.ByteBuffer;
 
 /**
  * Implementation of the Gura tokenizer.
  */
 final class TokenizerImpl {
-	static TokenizationResult tokenize(String content) {
-		List<Token> tokens = new ArrayList<>();
-		Cursor cursor = new Cursor(content);
+	static TokenizationResult tokenize(String content, TokenizerOptions options) {
+		return tokenize(new Cursor.OfCharSequence(content), content.length(), options);
+	}
 
-		while (true) {
-			Token nextToken;
+	static TokenizationResult tokenize(ByteBuffer content, TokenizerOptions options) {
+		return tokenize(new Cursor.OfUtf8(content), content.remaining(), options);
+	}
+
+	private static TokenizationResult tokenize(Cursor cursor, int contentLength, TokenizerOptions options) {
+		// Most tokens are several characters long, so this avoids growing the buffer a few times for typical files.
+		TokenBuffer tokens = new TokenBuffer(contentLength / 4);
+		int maxErrors = options.maxErrors();
+		cursor.skipByteOrderMark();
+
+		while (nextToken(cursor)) {
+			tokens.add(
+					cursor.tokenType,
+					cursor.tokenOffset,
+					cursor.tokenLength,
+					cursor.tokenLine,
+					cursor.tokenColumn,
+					cursor.tokenFlags
+			);
+
+			if (cursor.tokenType == Token.Type.UNKNOWN && tokens.invalidCount() >= maxErrors) {
+				// Only complete if this happened to be the last token.
+				return new TokenizationResult(tokens, cursor, !cursor.has(0));
+			}
+		}
+
+		return new TokenizationResult(tokens, cursor, true);
+	}
+
+	static TokenizationResult retokenize(
+			TokenizationResult previous,
+			String content,
+			int offset,
+			int removedLength,
+			int insertedLength
+	) {
+		if (!(previous.source() instanceof Cursor.OfCharSequence)) {
+			throw new IllegalArgumentException("Only results of tokenizing characters can be retokenized");
+		}
+
+		if (offset < 0 || removedLength < 0 || insertedLength < 0 || offset + insertedLength > content.length()) {
+			throw new IllegalArgumentException("Edit is out of bounds of the content");
+		}
+
+		TokenBuffer old = previous.buffer();
+		int delta = insertedLength - removedLength;
+		int editEnd = offset + insertedLength; // In the new content
+
+		/*
+		 * The tokenizer never looks behind the cursor, and no token depends on any content after a newline which ends
+		 * it. So every token up to the last newline which ends before the edit is unaffected and tokenizing can restart
+		 * right after that newline.
+		 */
+		int restart = firstTokenAtOrAfter(old, offset);
 
-			if ((nextToken = nextToken(cursor, true)) == null) {
+		while (restart > 0) {
+			int previousToken = restart - 1;
+
+			if (old.type(previousToken) == Token.Type.NEWLINE
+					&& old.offset(previousToken) + old.length(previousToken) <= offset) {
 				break;
 			}
 
-			tokens.add(nextToken);
+			restart--;
+		}
+
+		TokenBuffer tokens = new TokenBuffer(old.size() + Math.max(delta, 0) / 4);
+		tokens.addRange(old, 0, restart, 0, 0, 0, 0);
+
+		Cursor cursor = new Cursor.OfCharSequence(content);
+
+		if (restart == 0) {
+			cursor.skipByteOrderMark();
+		} else {
+			int newline = restart - 1;
+			cursor.position = old.offset(newline) + old.length(newline);
+			cursor.line = old.row(newline) + 1;
+		}
+
+		// The index of the next old token which may line up with the new tokens
+		int candidate = restart;
+
+		while (nextToken(cursor)) {
+			if (cursor.tokenOffset >= editEnd) {
+				// Skip old tokens which were passed by the new tokens.
+				int oldOffset = cursor.tokenOffset - delta;
+
+				while (candidate < old.size() && old.offset(candidate) < oldOffset) {
+					candidate++;
+				}
+
+				// Once a new token starts at the same place as an old token after the edit, the remaining tokens are
+				// the same as the old tokens, only moved.
+				if (candidate < old.size() && old.offset(candidate) == oldOffset) {
+					int rowDelta = cursor.tokenLine - old.row(candidate);
+					int columnDelta = cursor.tokenColumn - old.column(candidate);
+					tokens.addRange(old, candidate, old.size(), delta, rowDelta, old.row(candidate), columnDelta);
+					return new TokenizationResult(tokens, cursor, true);
+				}
+			}
+
+			tokens.add(
+					cursor.tokenType,
+					cursor.tokenOffset,
+					cursor.tokenLength,
+					cursor.tokenLine,
+					cursor.tokenColumn,
+					cursor.tokenFlags
+			);
+		}
+
+		return new TokenizationResult(tokens, cursor, true);
+	}
+
+	/**
+	 * @param tokens the tokens
+	 * @param offset an offset from the start of the file
+	 * @return the index of the first token which starts at or after the offset
+	 */
+	private static int firstTokenAtOrAfter(TokenBuffer tokens, int offset) {
+		int low = 0;
+		int high = tokens.size();
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (tokens.offset(middle) < offset) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/*
+	 * Character classes
+	 *
+	 * Every character which is significant to the tokenizer is ASCII, so the classes of every ASCII character are
+	 * precomputed into a table of bit flags. Characters outside of ASCII do not belong to any class.
+	 */
+
+	/**
+	 * Characters which may be part of the digits of a number.
+	 */
+	private static final int NUMBER_DIGIT = 1;
+	/**
+	 * Characters which may be part of the encoding base or digits of a number.
+	 */
+	private static final int ENCODING_BASE_OR_NUMBER_DIGIT = 1 << 1;
+	/**
+	 * Characters which may be part of the latter digits of a regular number or hexadecimal number.
+	 */
+	private static final int HEXADECIMAL_OR_OCTAL_OR_BINARY_DIGIT = 1 << 2;
+	/**
+	 * Characters which end a number.
+	 */
+	private static final int NUMBER_TERMINATOR = 1 << 3;
+	/**
+	 * Characters which always start a token other than an identifier.
+	 */
+	private static final int IDENTIFIER_TERMINATOR = 1 << 4;
+	/**
+	 * Characters which start a newline.
+	 */
+	private static final int NEWLINE = 1 << 5;
+	private static final int DECIMAL_DIGIT = 1 << 6;
+	private static final int SPACE = 1 << 7;
+	private static final int TAB = 1 << 8;
+	private static final int CARRIAGE_RETURN = 1 << 9;
+	/**
+	 * Characters which need to be looked at within a basic string.
+	 */
+	private static final int BASIC_STRING_SPECIAL = 1 << 10;
+	/**
+	 * Characters which need to be looked at within a literal string.
+	 */
+	private static final int LITERAL_STRING_SPECIAL = 1 << 11;
+
+	private static final short[] CHARACTER_CLASSES = new short[128];
+
+	static {
+		for (char c = '0'; c <= '9'; c++) {
+			addClass(c, DECIMAL_DIGIT | NUMBER_DIGIT);
+			addClass(c, ENCODING_BASE_OR_NUMBER_DIGIT | HEXADECIMAL_OR_OCTAL_OR_BINARY_DIGIT);
 		}
 
-		return new TokenizationResult(tokens);
+		addClass("eE._", NUMBER_DIGIT); // Exponent, decimal point and spacing
+		addClass("boxeE.+-_", ENCODING_BASE_OR_NUMBER_DIGIT); // Binary, octal, hexadecimal and the above
+		addClass("abcdefABCDEF_", HEXADECIMAL_OR_OCTAL_OR_BINARY_DIGIT); // Exponents also get covered within this range
+		addClass(" \t\r\n#", NUMBER_TERMINATOR);
+		addClass(" \t[],#'\":\n-+", IDENTIFIER_TERMINATOR);
+		addClass("\r\n", NEWLINE);
+		addClass(" ", SPACE);
+		addClass("\t", TAB);
+		addClass("\r", CARRIAGE_RETURN);
+		addClass("\"\\$\n", BASIC_STRING_SPECIAL); // Closing quotes, escape sequences, variables and newlines
+		addClass("'\n", LITERAL_STRING_SPECIAL);
+	}
+
+	private static void addClass(String characters, int characterClass) {
+		for (int i = 0; i < characters.length(); i++) {
+			addClass(characters.charAt(i), characterClass);
+		}
+	}
+
+	private static void addClass(char c, int characterClass) {
+		CHARACTER_CLASSES[c] |= characterClass;
+	}
+
+	/**
+	 * @param c the character
+	 * @param characterClass the character class, or a combination of multiple classes
+	 * @return true if the character is in the class, or in any of the combined classes
+	 */
+	private static boolean is(char c, int characterClass) {
+		return c < 128 && (CHARACTER_CLASSES[c] & characterClass) != 0;
 	}
 
 	/**
@@ -31,11 +235,7 @@ final class TokenizerImpl {
 	 * @return true if the character may be part of the digits of a number
 	 */
 	static boolean isValidNumberDigit(char c) {
-		return (c >= '0' && c <= '9')
-				|| c == 'e' // Exponent
-				|| c == 'E' // 0e6 is a redundant but still valid floating point value
-				|| c == '.' // Decimal point
-				|| c == '_'; // Spacing
+		return is(c, NUMBER_DIGIT);
 	}
 
 	/**
@@ -43,16 +243,7 @@ final class TokenizerImpl {
 	 * @return true if the character may be part of the encoding base or digits of a number
 	 */
 	static boolean isValidEncodingBaseOrNumberDigit(char c) {
-		return (c >= '0' && c <= '9')
-				|| c == 'b' // Binary
-				|| c == 'o' // Octal
-				|| c == 'x' // Hexadecimal
-				|| c == 'e' // Exponent
-				|| c == 'E' // 0e6 is a redundant but still valid floating point value
-				|| c == '.' // Decimal point
-				|| c == '+' // Sign of an exponent
-				|| c == '-'
-				|| c == '_'; // Spacing
+		return is(c, ENCODING_BASE_OR_NUMBER_DIGIT);
 	}
 
 	/**
@@ -60,449 +251,428 @@ final class TokenizerImpl {
 	 * @return true if the character may be part of the latter digits of a regular number or hexadecimal number
 	 */
 	static boolean isValidHexadecimalOrOctalOrBinaryDigit(char c) {
-		return (c >= '0' && c <= '9')
-				|| (c >= 'a' && c <= 'f') // Exponents also get covered within this range
-				|| (c >= 'A' && c <= 'F')
-				|| c == '_'; // Spacing;
+		return is(c, HEXADECIMAL_OR_OCTAL_OR_BINARY_DIGIT);
+	}
+
+	/**
+	 * Finds the end of a run of characters in a character class.
+	 *
+	 * @param cursor the cursor
+	 * @param offset the offset relative to the cursor to start at
+	 * @param characterClass the character class
+	 * @return the offset relative to the cursor of the first character which is not in the class
+	 */
+	private static int skipWhile(Cursor cursor, int offset, int characterClass) {
+		int limit = cursor.available();
+
+		while (true) {
+			if (offset >= limit) {
+				if (!cursor.has(offset)) {
+					return offset;
+				}
+
+				limit = cursor.available();
+			}
+
+			if (!is(cursor.charAt(offset), characterClass)) {
+				return offset;
+			}
+
+			offset++;
+		}
+	}
+
+	/**
+	 * Finds the first character in a character class.
+	 *
+	 * @param cursor the cursor
+	 * @param offset the offset relative to the cursor to start at
+	 * @param characterClass the character class
+	 * @return the offset relative to the cursor of the first character which is in the class, or of the end of the
+	 * content
+	 */
+	private static int skipUntil(Cursor cursor, int offset, int characterClass) {
+		int limit = cursor.available();
+
+		while (true) {
+			if (offset >= limit) {
+				if (!cursor.has(offset)) {
+					return offset;
+				}
+
+				limit = cursor.available();
+			}
+
+			if (is(cursor.charAt(offset), characterClass)) {
+				return offset;
+			}
+
+			offset++;
+		}
 	}
 
 	/**
 	 * Reads the next token in the file.
 	 *
+	 * <p>The token is not returned as an object. Instead its type, position and length are stored in the cursor, see
+	 * {@link Cursor#emit(Token.Type, int)}.
+	 *
 	 * @param cursor the cursor tracking the current position in the content of the file
-	 * @param advanceCursor whether the cursor should be advanced after obtaining a token
-	 * @return the next token or null
+	 * @return true if a token was read, false if the end of the content was reached
 	 */
-	@Nullable
-	static Token nextToken(Cursor cursor, boolean advanceCursor) {
+	static boolean nextToken(Cursor cursor) {
 		/*
 		 * Tokenizing occurs in a two steps:
 		 *
 		 * 1. Peek forward to determine the type of token.
-		 * 2. Determine type of token, and move the cursor if we are consuming.
+		 * 2. Determine type of token, and move the cursor past the token.
 		 */
 
 		// End of content.
-		if (cursor.remaining() <= 0) {
-			return null;
+		if (!cursor.has(0)) {
+			return false;
 		}
 
-		Character c = cursor.peek();
-		assert c != null;
+		char c = cursor.charAt(0);
 
 		// Narrow down the type of token
 		switch (c) {
 			// Space whitespace
-			case ' ': {
-				int length = 1;
-
-				while (cursor.remaining() > length) {
-					Character next = cursor.peekBy(length);
-					assert next != null;
-
-					if (next != ' ') {
-						break;
-					}
-
-					length++;
-				}
-
-				Token token = new Token(length, Token.Type.SPACE_WS, cursor.line, cursor.column);
-
-				if (advanceCursor) {
-					cursor.advanceBy(length);
-				}
-
-				return token;
-			}
+			case ' ':
+				return cursor.emit(Token.Type.SPACE_WS, skipWhile(cursor, 1, SPACE));
 
 			// Tab whitespace
-			case '\t': {
-				int length = 1;
-
-				while (cursor.remaining() > length) {
-					Character next = cursor.peekBy(length);
-					assert next != null;
-
-					if (next != '\t') {
-						break;
-					}
-
-					length++;
-				}
-
-				Token token = new Token(length, Token.Type.TAB_WS, cursor.line, cursor.column);
-
-				if (advanceCursor) {
-					cursor.advanceBy(length);
-				}
-
-				return token;
-			}
+			case '\t':
+				return cursor.emit(Token.Type.TAB_WS, skipWhile(cursor, 1, TAB));
 
 			// Open an array
-			case '[': {
-				Token token = new Token(1, Token.Type.LEFT_BRACKET, cursor.line, cursor.column);
-
-				if (advanceCursor) {
-					cursor.advanceBy(1);
-				}
-
-				return token;
-			}
+			case '[':
+				return cursor.emit(Token.Type.LEFT_BRACKET, 1);
 
 			// Close an array
-			case ']': {
-				Token token = new Token(1, Token.Type.RIGHT_BRACKET, cursor.line, cursor.column);
-
-				if (advanceCursor) {
-					cursor.advanceBy(1);
-				}
-
-				return token;
-			}
+			case ']':
+				return cursor.emit(Token.Type.RIGHT_BRACKET, 1);
 
 			// Comma separating entries in an array
-			case ',': {
-				Token token = new Token(1, Token.Type.COMMA, cursor.line, cursor.column);
+			case ',':
+				return cursor.emit(Token.Type.COMMA, 1);
 
-				if (advanceCursor) {
-					cursor.advanceBy(1);
-				}
-
-				return token;
-			}
-
-			// Comment
-			case '#': {
-				int length = 1;
-
-				while (cursor.remaining() > length) {
-					Character next = cursor.peekBy(length);
-					assert next != null;
-
-					// Find the start of the newline and terminate once encountered.
-					if (next == '\n' || next == '\r') {
-						break;
-					}
-
-					length++;
-				}
-
-				Token token = new Token(length, Token.Type.COMMENT, cursor.line, cursor.column);
-
-				if (advanceCursor) {
-					cursor.advanceBy(length);
-				}
-
-				return token;
-			}
+			// Comment, terminated by the start of a newline.
+			case '#':
+				return cursor.emit(Token.Type.COMMENT, skipUntil(cursor, 1, NEWLINE));
 
 			// Literal string
-			case '\'': {
-				throw new UnsupportedOperationException("TODO");
-			}
+			case '\'':
+				return nextString(cursor, '\'', Token.Type.LITERAL_STRING_VALUE, LITERAL_STRING_SPECIAL);
 
 			// String
-			case '"': {
-				throw new UnsupportedOperationException("TODO");
-			}
-
-			case ':': {
-				Token token = new Token(1, Token.Type.COLON, cursor.line, cursor.column);
-
-				if (advanceCursor) {
-					cursor.advanceBy(1);
-				}
+			case '"':
+				return nextString(cursor, '"', Token.Type.BASIC_STRING_VALUE, BASIC_STRING_SPECIAL);
 
-				return token;
-			}
+			case ':':
+				return cursor.emit(Token.Type.COLON, 1);
 
 			// Unix style line ending
-			case '\n': {
-				Token token = new Token(1, Token.Type.NEWLINE, cursor.line, cursor.column);
-
-				if (advanceCursor) {
-					cursor.cursor++;
-					cursor.line++;
-					cursor.column = 1;
-				}
-
-				return token;
-			}
+			case '\n':
+				return cursor.emitNewline(1);
 
 			// An integer or a floating point number
 			//
 			// Must start with a sign or number character
-			case '-': {
-				Token token = new Token(1, Token.Type.MINUS, cursor.line, cursor.column);
+			case '-':
+				return cursor.emit(Token.Type.MINUS, 1);
 
-				if (advanceCursor) {
-					cursor.advanceBy(1);
-				}
+			case '+':
+				return cursor.emit(Token.Type.PLUS, 1);
 
-				return token;
-			}
+			// Windows style line ending
+			case '\r':
+				// Next character must be `\n` for this to be a valid Windows line ending.
+				if (cursor.has(1) && cursor.charAt(1) == '\n') {
+					return cursor.emitNewline(2); // `\r\n` is 2 characters long.
+				}
 
-			case '+': {
-				Token token = new Token(1, Token.Type.PLUS, cursor.line, cursor.column);
+				// Fall-through on only a `\r` with no following `\n` to the default case.
 
-				if (advanceCursor) {
-					cursor.advanceBy(1);
+			default:
+				// "inf" and "nan" are handled as identifiers after this if block.
+				if (c >= '0' && c <= '9' && nextNumber(cursor, c)) {
+					return true;
 				}
 
-				return token;
-			}
-
-			// Windows style line ending
-			case '\r': {
-				// There is another character following this `\r`, is it a `\n`?
-				if (cursor.remaining() > 1) {
-					Character next = cursor.peekBy(1);
-					assert next != null;
-
-					// Next character must be `\n` for this to be a valid Windows line ending.
-					if (next == '\n') {
-						Token token = new Token(2, Token.Type.NEWLINE, cursor.line, cursor.column);
-
-						if (advanceCursor) {
-							cursor.cursor += 2; // `\r\n` is 2 characters long.
-							cursor.line++;
-							cursor.column = 1;
-						}
+				// The number we were looking at is likely not a number, fall-through to tokenize as an identifier.
 
-						return token;
-					}
-				}
-			}
+				// If we reach here, we have one of the following:
+				// Some sort of keyword, such as "import", "empty", "inf", "nan"
+				// An invalid number, such as a number with invalid characters.
+				// Some sort of identifier, such as the key in a key value entry.
+				// Some sort of invalid characters in the file.
 
-			// Fall-through on only a `\r` with no following `\n` to the default case.
+				// Validate the character a valid Gura character?
+				// TODO: return INVALID if this is not a valid character
 
-			default:
-				// "inf" and "nan" are handled as identifiers after this if block.
-				if (c >= '0' && c <= '9') {
-					// Try to parse numbers
-					if (cursor.remaining() <= 1) {
-						// Just an integer
-						Token token = new Token(1, Token.Type.NUMBER, cursor.line, cursor.column);
-
-						if (advanceCursor) {
-							cursor.advanceBy(1);
-						}
+				// Scan forward until we find the start of a token which differs from an identifier.
+				return cursor.emit(Token.Type.IDENTIFIER, identifierLength(cursor));
+		}
+	}
 
-						return token;
-					}
+	/**
+	 * Reads a string token.
+	 *
+	 * <p>The content of the string is scanned in bulk up to the next character which may end the string, start an
+	 * escape sequence or variable, or start a new line. A string which is not closed becomes an
+	 * {@link Token.Type#UNKNOWN unknown} token which extends to the end of its line, or to the end of the content for
+	 * multiline strings.
+	 *
+	 * @param cursor the cursor positioned at the opening quote
+	 * @param quote the quote character
+	 * @param type the type of the string token
+	 * @param specialClass the character class of the characters to stop the bulk scan at
+	 * @return true, since a token is always read
+	 */
+	private static boolean nextString(Cursor cursor, char quote, Token.Type type, int specialClass) {
+		int flags = 0;
+		int offset = 1;
+
+		if (cursor.has(2) && cursor.charAt(1) == quote && cursor.charAt(2) == quote) {
+			flags = Token.MULTILINE;
+			offset = 3;
+		} else if (cursor.has(1) && cursor.charAt(1) == quote) {
+			// Empty string
+			return cursor.emit(type, 2);
+		}
 
-					boolean firstCharacterIsZero = c == '0';
+		boolean multiline = flags != 0;
+		int lines = 0;
+		int lastLineStart = 0;
 
-					Character next = cursor.peekBy(1);
-					assert next != null;
+		while (true) {
+			offset = skipUntil(cursor, offset, specialClass);
 
-					if (firstCharacterIsZero) {
-						// Try to parse encoding base
-						if (isValidEncodingBaseOrNumberDigit(next)) {
-							// We have an encoding base with no value, return a number albeit an invalid one
-							if (cursor.remaining() == 2) {
-								Token token = new Token(2, Token.Type.NUMBER, cursor.line, cursor.column);
+			if (!cursor.has(offset)) {
+				// The string is not closed before the end of the content.
+				return cursor.emitString(Token.Type.UNKNOWN, offset, flags, lines, lastLineStart);
+			}
 
-								if (advanceCursor) {
-									cursor.advanceBy(2);
-								}
+			switch (cursor.charAt(offset)) {
+				case '\\':
+					flags |= Token.ESCAPES;
+					offset++;
 
-								return token;
-							}
+					// The escaped character is skipped, unless it is a newline which must still be counted.
+					if (cursor.has(offset) && cursor.charAt(offset) != '\n') {
+						offset++;
+					}
 
-							int length = 3;
+					break;
+				case '$':
+					flags |= Token.INTERPOLATIONS;
+					offset++;
+					break;
+				case '\n':
+					if (!multiline) {
+						// The string is not closed before the end of the line, the newline is not part of the token.
+						int end = cursor.charAt(offset - 1) == '\r' ? offset - 1 : offset;
+						return cursor.emitString(Token.Type.UNKNOWN, end, flags, 0, 0);
+					}
 
-							while (cursor.remaining() >= length) {
-								next = cursor.peekBy(length - 1);
-								assert next != null;
+					offset++;
+					lines++;
+					lastLineStart = offset;
+					break;
+				default:
+					// A quote
+					offset++;
 
-				 				if (!isValidHexadecimalOrOctalOrBinaryDigit(next)) {
-									// Have we reached the end of the token?
-									if (next == ' ' || next == '\t' || next == '\r' || next == '\n' || next == '#') {
-										Token token = new Token(length - 1, Token.Type.NUMBER, cursor.line, cursor.column);
+					if (!multiline) {
+						return cursor.emitString(type, offset, flags, 0, 0);
+					}
 
-										if (advanceCursor) {
-											cursor.advanceBy(length - 1);
-										}
+					if (cursor.has(offset + 1) && cursor.charAt(offset) == quote
+							&& cursor.charAt(offset + 1) == quote) {
+						offset += 2;
 
-										return token;
-									}
+						// Up to two more quotes are part of the content of the string.
+						int contentEnd = offset + 2;
 
-									// exit since this is not a valid number.
-									break;
-								}
+						while (offset < contentEnd && cursor.has(offset) && cursor.charAt(offset) == quote) {
+							offset++;
+						}
 
-								length++;
-							}
+						return cursor.emitString(type, offset, flags, lines, lastLineStart);
+					}
+			}
+		}
+	}
 
-							// Reached end of stream
-							if (cursor.remaining() - length <= 0) {
-								Character last = cursor.peekBy(length - 2);
-								assert last != null;
+	/**
+	 * Tries to read a number token.
+	 *
+	 * @param cursor the cursor positioned at the first digit of the number
+	 * @param first the first digit of the number
+	 * @return true if a number token was read, false if the characters are not a number
+	 */
+	private static boolean nextNumber(Cursor cursor, char first) {
+		if (!cursor.has(1)) {
+			// Just an integer
+			return cursor.emit(Token.Type.NUMBER, 1);
+		}
 
-								if (isValidHexadecimalOrOctalOrBinaryDigit(last)) {
-									Token token = new Token(length - 1, Token.Type.NUMBER, cursor.line, cursor.column);
+		char next = cursor.charAt(1);
+		int runEnd;
+		boolean hexadecimal = first == '0';
 
-									if (advanceCursor) {
-										cursor.advanceBy(length);
-									}
+		if (hexadecimal) {
+			// Try to parse encoding base
+			if (!isValidEncodingBaseOrNumberDigit(next)) {
+				return false;
+			}
 
-									return token;
-								}
+			// We have an encoding base with no value, return a number albeit an invalid one
+			if (!cursor.has(2)) {
+				return cursor.emit(Token.Type.NUMBER, 2);
+			}
 
-								// fall-through since this is not a valid number.
-							}
-						}
-					} else {
-						if (isValidNumberDigit(next)) {
-							int length = 2;
+			runEnd = skipWhile(cursor, 2, HEXADECIMAL_OR_OCTAL_OR_BINARY_DIGIT);
+		} else {
+			if (!isValidNumberDigit(next)) {
+				return false;
+			}
 
-							while (cursor.remaining() >= length) {
-								next = cursor.peekBy(length - 1);
-								assert next != null;
+			runEnd = skipWhile(cursor, 1, NUMBER_DIGIT);
+		}
 
-								if (!isValidNumberDigit(next)) {
-									// Have we reached the end of the token?
-									if (next == ' ' || next == '\t' || next == '\r' || next == '\n' || next == '#') {
-										Token token = new Token(length - 1, Token.Type.NUMBER, cursor.line, cursor.column);
+		// Reached end of stream, or the end of the token
+		if (!cursor.has(runEnd) || is(cursor.charAt(runEnd), NUMBER_TERMINATOR)) {
+			return cursor.emit(Token.Type.NUMBER, runEnd);
+		}
 
-										if (advanceCursor) {
-											cursor.advanceBy(length - 1);
-										}
+		// An invalid last character is tolerated as long as the character before it is a digit.
+		int last = cursor.characterLength(runEnd);
 
-										return token;
-									}
+		if (!cursor.has(runEnd + last) && isLastNumberDigit(cursor, runEnd, hexadecimal)) {
+			// The character after the last digit is part of the token, so that no content is left without a token.
+			return cursor.emit(Token.Type.NUMBER, runEnd + last);
+		}
 
-									// exit since this is not a valid number.
-									break;
-								}
+		// Not a valid number.
+		return false;
+	}
 
-								length++;
-							}
+	/**
+	 * Measures the length of the identifier starting at the cursor.
+	 *
+	 * <p>An identifier consumes the character at the cursor unconditionally and then continues up to the first
+	 * character which would start a token of any other type. This is done in a single forward pass: the runs of number
+	 * digits scanned while checking whether a digit starts a number are remembered, so that every character is only
+	 * visited a bounded number of times no matter how long the identifier is.
+	 *
+	 * @param cursor the cursor positioned at the start of the identifier
+	 * @return the length of the identifier
+	 */
+	static int identifierLength(Cursor cursor) {
+		int length = 1;
+		// Remembered runs of number digits, as offsets relative to the cursor.
+		int decimalRunStart = -1;
+		int decimalRunEnd = -1;
+		int hexRunStart = -1;
+		int hexRunEnd = -1;
 
-							// Reached end of stream
-							if (cursor.remaining() - length <= 0) {
-								Character last = cursor.peekBy(length - 2);
-								assert last != null;
+		while (true) {
+			// Skip the characters which can never end an identifier.
+			length = skipUntil(cursor, length, IDENTIFIER_TERMINATOR | CARRIAGE_RETURN | DECIMAL_DIGIT);
 
-								if (isValidNumberDigit(last)) {
-									Token token = new Token(length - 1, Token.Type.NUMBER, cursor.line, cursor.column);
+			if (!cursor.has(length)) {
+				return length;
+			}
 
-									if (advanceCursor) {
-										cursor.advanceBy(length);
-									}
+			char next = cursor.charAt(length);
 
-									return token;
-								}
+			if (is(next, IDENTIFIER_TERMINATOR)) {
+				return length;
+			}
 
-								// fall-through since this is not a valid number.
-							}
-						}
-					}
+			if (next == '\r') {
+				// Only a Windows style line ending ends the identifier, a lone `\r` is part of it.
+				if (cursor.has(length + 1) && cursor.charAt(length + 1) == '\n') {
+					return length;
 				}
 
-				// The number we were looking at is likely not a number, fall-through to tokenize as an identifier.
-
-				// If we reach here, we have one of the following:
-				// Some sort of keyword, such as "import", "empty", "inf", "nan"
-				// An invalid number, such as a number with invalid characters.
-				// Some sort of identifier, such as the key in a key value entry.
-				// Some sort of invalid characters in the file.
+				length++;
+				continue;
+			}
 
-				// Validate the character a valid Gura character?
-				// TODO: return INVALID if this is not a valid character
+			// A digit only ends the identifier if a number token could be read from it.
+			if (!cursor.has(length + 1)) {
+				return length;
+			}
 
-				// Peek forward until we find a token type which differs from an identifier.
-				// Store past position of the cursor for length cursor state
-				int previousRawCursor = cursor.cursor;
-				int line = cursor.line;
-				int column = cursor.column;
+			char afterDigit = cursor.charAt(length + 1);
 
-				Token nextToken;
+			if (next == '0') {
+				if (isValidEncodingBaseOrNumberDigit(afterDigit)) {
+					if (!cursor.has(length + 2)) {
+						return length;
+					}
 
-				// TODO: Avoid as much recursion
+					int runStart = length + 2;
 
-				// do while loop here is intentional since we want to advance the cursor and then check the exit condition
-				do {
-					cursor.advanceBy(1);
-				} while ((nextToken = nextToken(cursor, false)) != null && nextToken.type() == Token.Type.IDENTIFIER);
+					if (runStart < hexRunStart || runStart > hexRunEnd) {
+						hexRunStart = runStart;
+						hexRunEnd = skipWhile(cursor, runStart, HEXADECIMAL_OR_OCTAL_OR_BINARY_DIGIT);
+					}
 
-				// We have either reached the end of the file or the next token is not an identifier, so we can end this
-				// token.
+					if (numberEndsAt(cursor, hexRunEnd, true)) {
+						return length;
+					}
+				}
+			} else if (isValidNumberDigit(afterDigit)) {
+				int runStart = length + 1;
 
-				Token token = new Token(
-						cursor.cursor - previousRawCursor, // Length of the token
-						Token.Type.IDENTIFIER,
-						line, // Use start line and column
-						column
-				);
+				if (runStart < decimalRunStart || runStart > decimalRunEnd) {
+					decimalRunStart = runStart;
+					decimalRunEnd = skipWhile(cursor, runStart, NUMBER_DIGIT);
+				}
 
-				if (!advanceCursor) {
-					// Roll back the cursor state since we are not advancing the cursor
-					cursor.cursor = previousRawCursor;
-					cursor.line = line;
-					cursor.column = column;
+				if (numberEndsAt(cursor, decimalRunEnd, false)) {
+					return length;
 				}
+			}
 
-				return token;
+			length++;
 		}
 	}
 
-	private TokenizerImpl() {}
-
 	/**
-	 * A cursor tracking the current position of the tokenizer in a file.
+	 * Checks whether a number would be read as a number token, given where its run of digits ends.
+	 *
+	 * <p>This mirrors the acceptance rules of {@link #nextNumber(Cursor, char)}.
+	 *
+	 * @param cursor the cursor
+	 * @param runEnd the offset relative to the cursor of the first character after the digits of the number
+	 * @param hexadecimal whether the digits are hexadecimal, octal or binary rather than decimal
+	 * @return true if a number token would be read
 	 */
-	private static final class Cursor {
-		private final String content;
-		private final int length;
-		private int cursor;
-		int line;
-		int column;
-
-		Cursor(String content) {
-			this.content = content;
-			this.length = content.length();
-			this.line = 1;
-			this.column = 1;
-		}
-
-		/**
-		 * Peek forward by one character.
-		 *
-		 * @return the next character, or null
-		 */
-		public Character peek() {
-			if (this.remaining() == 0) {
-				return null;
-			}
-
-			return this.content.charAt(this.cursor);
-		}
-
-		/**
-		 * Peeks forward by a specified amount of characters.
-		 *
-		 * @param amount the amount of characters to peek forward relative to the cursor
-		 * @return the character, or null
-		 */
-		public Character peekBy(int amount) {
-			if (this.remaining() < amount) {
-				return null;
-			}
-
-			return this.content.charAt(this.cursor + amount);
+	private static boolean numberEndsAt(Cursor cursor, int runEnd, boolean hexadecimal) {
+		// Reached end of stream, or the end of the token
+		if (!cursor.has(runEnd) || is(cursor.charAt(runEnd), NUMBER_TERMINATOR)) {
+			return true;
 		}
 
-		public void advanceBy(int amount) {
-			this.cursor += amount;
-			this.column += amount;
-		}
+		// An invalid last character is tolerated as long as the character before it is a digit.
+		return !cursor.has(runEnd + cursor.characterLength(runEnd)) && isLastNumberDigit(cursor, runEnd, hexadecimal);
+	}
 
-		public int remaining() {
-			return this.length - this.cursor;
-		}
+	/**
+	 * @param cursor the cursor
+	 * @param runEnd the offset relative to the cursor of the first character after the digits of the number
+	 * @param hexadecimal whether the digits are hexadecimal, octal or binary rather than decimal
+	 * @return true if the character before the end of the run is a digit
+	 */
+	private static boolean isLastNumberDigit(Cursor cursor, int runEnd, boolean hexadecimal) {
+		char last = cursor.charAt(runEnd - 1);
+		return hexadecimal ? isValidHexadecimalOrOctalOrBinaryDigit(last) : isValidNumberDigit(last);
 	}
+
+	private TokenizerImpl() {}
 }
@@ -0,0 +1,80 @@
+package me.i509.gura.token;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Options controlling how much of a file is tokenized.
+ *
+ * <p>By default the entire file is tokenized regardless of how many invalid tokens are encountered. When only the
+ * validity of a file matters, tokenizing can instead stop once a number of invalid tokens were encountered, so that
+ * rejecting an invalid file costs little more than reading up to its first few errors. Use
+ * {@link TokenizationResult#complete()} to check whether the entire file was tokenized.
+ */
+public final class TokenizerOptions {
+	/**
+	 * Tokenizes the entire file.
+	 */
+	public static final TokenizerOptions DEFAULT = new TokenizerOptions(Integer.MAX_VALUE);
+
+	private static final TokenizerOptions FAIL_FAST = new TokenizerOptions(1);
+
+	/**
+	 * Stops tokenizing at the first invalid token.
+	 *
+	 * @return the options
+	 */
+	public static TokenizerOptions failFast() {
+		return FAIL_FAST;
+	}
+
+	/**
+	 * Stops tokenizing once an amount of invalid tokens were encountered.
+	 *
+	 * <p>The last invalid token is included in the result.
+	 *
+	 * @param maxErrors the amount of invalid tokens to stop at
+	 * @return the options
+	 * @throws IllegalArgumentException if the amount is not positive
+	 */
+	public static TokenizerOptions maxErrors(int maxErrors) {
+		if (maxErrors <= 0) {
+			throw new IllegalArgumentException("Max errors must be positive");
+		}
+
+		return maxErrors == 1 ? FAIL_FAST : new TokenizerOptions(maxErrors);
+	}
+
+	private final int maxErrors;
+
+	private TokenizerOptions(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	/**
+	 * @return the amount of invalid tokens after which tokenizing stops, or {@link Integer#MAX_VALUE} if unlimited
+	 */
+	public int maxErrors() {
+		return this.maxErrors;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		TokenizerOptions options = (TokenizerOptions) o;
+		return this.maxErrors == options.maxErrors;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.maxErrors);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", TokenizerOptions.class.getSimpleName() + "[", "]")
+				.add("maxErrors=" + this.maxErrors)
+				.toString();
+	}
+}
@@ -0,0 +1,179 @@
+package me.i509.gura.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilities for working with UTF-8 encoded content without decoding it.
+ */
+final class Utf8 {
+	/**
+	 * Counts the UTF-16 characters a span of UTF-8 encoded content decodes to.
+	 *
+	 * <p>The span is not validated, every byte which is not a continuation byte counts as a character and every
+	 * four byte sequence counts as a surrogate pair.
+	 *
+	 * @param content the content
+	 * @param offset the absolute index of the first byte
+	 * @param length the amount of bytes
+	 * @return the amount of UTF-16 characters
+	 */
+	static int characters(ByteBuffer content, int offset, int length) {
+		int characters = 0;
+
+		for (int i = offset, end = offset + length; i < end; i++) {
+			int b = content.get(i);
+
+			if (b >= 0) {
+				characters++;
+			} else if ((b & 0xC0) != 0x80) {
+				// Leading byte of a multibyte sequence, 4 byte sequences are a surrogate pair.
+				characters += (b & 0xF8) == 0xF0 ? 2 : 1;
+			}
+		}
+
+		return characters;
+	}
+
+	/**
+	 * Validates a span of UTF-8 encoded content and counts the UTF-16 characters it decodes to.
+	 *
+	 * <p>Overlong encodings, encoded surrogates, code points above U+10FFFF and truncated sequences are invalid.
+	 *
+	 * @param content the content
+	 * @param offset the absolute index of the first byte
+	 * @param length the amount of bytes
+	 * @return the amount of UTF-16 characters, or -1 if the span is not valid UTF-8
+	 */
+	static int validate(ByteBuffer content, int offset, int length) {
+		int characters = 0;
+		int end = offset + length;
+		int i = offset;
+
+		while (i < end) {
+			int b = content.get(i);
+
+			if (b >= 0) {
+				i++;
+				characters++;
+				continue;
+			}
+
+			int lead = b & 0xFF;
+			int continuations;
+			int minimum;
+			int codePoint;
+
+			if (lead >= 0xC2 && lead <= 0xDF) {
+				continuations = 1;
+				minimum = 0x80;
+				codePoint = lead & 0x1F;
+			} else if (lead >= 0xE0 && lead <= 0xEF) {
+				continuations = 2;
+				minimum = 0x800;
+				codePoint = lead & 0x0F;
+			} else if (lead >= 0xF0 && lead <= 0xF4) {
+				continuations = 3;
+				minimum = 0x10000;
+				codePoint = lead & 0x07;
+			} else {
+				// A continuation byte without a leading byte, or a leading byte which is overlong or out of range.
+				return -1;
+			}
+
+			if (end - i <= continuations) {
+				return -1;
+			}
+
+			for (int j = 1; j <= continuations; j++) {
+				int continuation = content.get(i + j);
+
+				if ((continuation & 0xC0) != 0x80) {
+					return -1;
+				}
+
+				codePoint = (codePoint << 6) | (continuation & 0x3F);
+			}
+
+			if (codePoint < minimum || codePoint > Character.MAX_CODE_POINT
+					|| (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+				return -1;
+			}
+
+			i += continuations + 1;
+			characters += Character.charCount(codePoint);
+		}
+
+		return characters;
+	}
+
+	/**
+	 * Creates a view of a span of UTF-8 encoded content as characters.
+	 *
+	 * <p>If the span only contains ASCII characters, the returned sequence reads directly from the content. Otherwise
+	 * the span is decoded.
+	 *
+	 * @param content the content
+	 * @param offset the absolute index of the first byte
+	 * @param length the amount of bytes
+	 * @return the characters of the span
+	 */
+	static CharSequence slice(ByteBuffer content, int offset, int length) {
+		for (int i = offset, end = offset + length; i < end; i++) {
+			if (content.get(i) < 0) {
+				return StandardCharsets.UTF_8.decode(content.duplicate().limit(offset + length).position(offset));
+			}
+		}
+
+		return new AsciiSequence(content, offset, length);
+	}
+
+	private Utf8() {}
+
+	/**
+	 * A view of ASCII encoded content as characters.
+	 */
+	private static final class AsciiSequence implements CharSequence {
+		private final ByteBuffer content;
+		private final int offset;
+		private final int length;
+
+		AsciiSequence(ByteBuffer content, int offset, int length) {
+			this.content = content;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return this.length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= this.length) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.length);
+			}
+
+			return (char) this.content.get(this.offset + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || end > this.length || start > end) {
+				throw new IndexOutOfBoundsException(
+						"Range [" + start + ", " + end + ") out of bounds for length " + this.length
+				);
+			}
+
+			return new AsciiSequence(this.content, this.offset + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[this.length];
+			this.content.duplicate().position(this.offset).get(bytes);
+			return new String(bytes, StandardCharsets.US_ASCII);
+		}
+	}
+}
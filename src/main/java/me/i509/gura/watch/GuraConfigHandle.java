@@ -0,0 +1,431 @@
+package me.i509.gura.watch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.resolve.GuraResolveException;
+import me.i509.gura.token.Token;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A document loaded from one or more Gura files, which is reloaded when the files change.
+ *
+ * <p>The files are watched by a daemon thread, which waits until no file changed for the
+ * {@link Builder#debounce(Duration) debounce} duration before reading them again, so an editor saving a file in
+ * several writes causes a single reload. The files are parsed on that thread and the new document replaces the
+ * current one at once: {@link #document()} never blocks and always returns a complete document. If a file cannot be
+ * read or is not valid, the current document is kept and {@linkplain Listener#failed(Throwable) listeners are told}
+ * instead. A {@link VirtualMachineError}, such as running out of memory, is not handled and stops the watcher thread.
+ *
+ * <p>The entries and variables of the files are merged in the order of the files, and must be unique across all of
+ * them. Imports are not loaded, the imports of all the files are kept in order.
+ *
+ * <pre>{@code
+ * GuraConfigHandle handle = GuraConfigHandle.open(Path.of("service.ura"));
+ * handle.addListener((previous, current, diff) -> diff.changes().forEach(System.out::println));
+ * long port = handle.document().root().get("port").asNumber().longValue();
+ * }</pre>
+ *
+ * <p>A handle is thread safe, and must be {@linkplain #close() closed} to stop watching the files.
+ */
+public final class GuraConfigHandle implements Closeable {
+	/**
+	 * Loads UTF-8 encoded Gura files and starts watching them, with the default debounce duration.
+	 *
+	 * @param sources the paths to the Gura files
+	 * @return the handle
+	 * @throws IOException if a file could not be read or watched
+	 * @throws GuraParseException if the content of a file is not a valid Gura document
+	 * @throws GuraResolveException if a key or variable is defined by more than one file
+	 */
+	public static GuraConfigHandle open(Path... sources) throws IOException {
+		return builder().sources(List.of(sources)).open();
+	}
+
+	/**
+	 * @return a builder to open a handle
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private final List<Path> sources;
+	private final long debounceNanos;
+	private final WatchService watcher;
+	private final Thread thread;
+	@Nullable
+	private final Thread.UncaughtExceptionHandler listenerErrorHandler;
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	/**
+	 * Held while reloading, so reloads apply in order. Readers never take it.
+	 */
+	private final Object reloadLock = new Object();
+	private volatile GuraDocument document;
+
+	private GuraConfigHandle(
+			List<Path> sources,
+			Duration debounce,
+			@Nullable Thread.UncaughtExceptionHandler listenerErrorHandler
+	) throws IOException {
+		this.sources = sources;
+		this.debounceNanos = debounce.toNanos();
+		this.listenerErrorHandler = listenerErrorHandler;
+		this.document = this.load();
+
+		FileSystem fileSystem = sources.get(0).getFileSystem();
+		this.watcher = fileSystem.newWatchService();
+		Map<Path, Set<Path>> names = new HashMap<>();
+
+		try {
+			for (Path source : sources) {
+				Path directory = source.getParent();
+
+				if (!names.containsKey(directory)) {
+					directory.register(
+							this.watcher,
+							StandardWatchEventKinds.ENTRY_CREATE,
+							StandardWatchEventKinds.ENTRY_MODIFY,
+							StandardWatchEventKinds.ENTRY_DELETE
+					);
+				}
+
+				names.computeIfAbsent(directory, d -> new HashSet<>()).add(source.getFileName());
+			}
+		} catch (IOException e) {
+			this.watcher.close();
+			throw e;
+		}
+
+		this.thread = new Thread(() -> this.watch(names), "Gura watcher " + sources.get(0).getFileName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Returns the current document, without blocking.
+	 *
+	 * <p>The document is immutable, so a caller which reads several values should read them from the same document
+	 * rather than calling this method for each value.
+	 *
+	 * @return the current document
+	 */
+	public GuraDocument document() {
+		return this.document;
+	}
+
+	/**
+	 * @return the paths to the watched files, in the order they are merged
+	 */
+	public List<Path> sources() {
+		return this.sources;
+	}
+
+	/**
+	 * Adds a listener which is called on the watcher thread after each reload.
+	 *
+	 * @param listener the listener
+	 */
+	public void addListener(Listener listener) {
+		this.listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+	}
+
+	/**
+	 * @param listener the listener to remove
+	 */
+	public void removeListener(Listener listener) {
+		this.listeners.remove(listener);
+	}
+
+	/**
+	 * Reads the files again now, without waiting for them to change.
+	 *
+	 * <p>Listeners are called on the calling thread. If the files cannot be loaded the current document is kept.
+	 *
+	 * @return the current document
+	 * @throws IOException if a file could not be read
+	 * @throws GuraParseException if the content of a file is not a valid Gura document
+	 * @throws GuraResolveException if a key or variable is defined by more than one file
+	 */
+	public GuraDocument reload() throws IOException {
+		synchronized (this.reloadLock) {
+			GuraDocument previous = this.document;
+			GuraDocument current = this.load();
+
+			if (!current.equals(previous)) {
+				this.document = current;
+				GuraDiff diff = GuraDiff.of(previous, current);
+
+				for (Listener listener : this.listeners) {
+					this.notify(() -> listener.changed(previous, current, diff));
+				}
+			}
+
+			return current;
+		}
+	}
+
+	/**
+	 * Stops watching the files. The current document stays available.
+	 *
+	 * @throws IOException if the watch service could not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		this.watcher.close();
+	}
+
+	private GuraDocument load() throws IOException {
+		if (this.sources.size() == 1) {
+			return parse(this.sources.get(0));
+		}
+
+		GuraObject.Builder entries = GuraObject.builder();
+		Map<String, GuraValue> variables = new LinkedHashMap<>();
+		List<String> imports = new ArrayList<>();
+
+		for (Path source : this.sources) {
+			GuraDocument document = parse(source);
+
+			for (Map.Entry<String, GuraValue> entry : document.root().asMap().entrySet()) {
+				if (!entries.tryPut(entry.getKey(), entry.getValue())) {
+					throw new GuraResolveException(
+							"Duplicate key '" + entry.getKey() + "', defined again in '" + source + "'"
+					);
+				}
+			}
+
+			for (Map.Entry<String, GuraValue> entry : document.variables().entrySet()) {
+				if (variables.putIfAbsent(entry.getKey(), entry.getValue()) != null) {
+					throw new GuraResolveException(
+							"Variable '$" + entry.getKey() + "' is already defined, defined again in '" + source + "'"
+					);
+				}
+			}
+
+			imports.addAll(document.imports());
+		}
+
+		return new GuraDocument(entries.build(), variables, imports);
+	}
+
+	/**
+	 * Reads a file into memory before parsing it. A mapped file may be truncated by a writer while it is read, which
+	 * fails with an {@link InternalError} rather than an {@link IOException}.
+	 */
+	private static GuraDocument parse(Path source) throws IOException {
+		return GuraParser.parse(Token.tokenize(ByteBuffer.wrap(Files.readAllBytes(source))));
+	}
+
+	private void watch(Map<Path, Set<Path>> names) {
+		try {
+			// The time at which the files are reloaded, once no file changed for the debounce duration.
+			long deadline = 0;
+			boolean pending = false;
+
+			while (true) {
+				WatchKey key;
+
+				if (!pending) {
+					key = this.watcher.take();
+				} else {
+					long remaining = deadline - System.nanoTime();
+					key = remaining > 0 ? this.watcher.poll(remaining, TimeUnit.NANOSECONDS) : null;
+				}
+
+				if (key == null) {
+					pending = false;
+					this.reloadQuietly();
+					continue;
+				}
+
+				Set<Path> watched = names.getOrDefault((Path) key.watchable(), Set.of());
+
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW || watched.contains((Path) event.context())) {
+						pending = true;
+						deadline = System.nanoTime() + this.debounceNanos;
+					}
+				}
+
+				key.reset();
+			}
+		} catch (ClosedWatchServiceException | InterruptedException e) {
+			// The handle was closed
+		}
+	}
+
+	private void reloadQuietly() {
+		try {
+			this.reload();
+		} catch (Exception | LinkageError e) {
+			// The current document is kept and the files are still watched.
+			for (Listener listener : this.listeners) {
+				this.notify(() -> listener.failed(e));
+			}
+		}
+	}
+
+	/**
+	 * Calls a listener, so that a failing listener does not stop the others from being called.
+	 */
+	private void notify(Runnable call) {
+		try {
+			call.run();
+		} catch (Exception | LinkageError e) {
+			Thread current = Thread.currentThread();
+			Thread.UncaughtExceptionHandler handler = this.listenerErrorHandler != null
+					? this.listenerErrorHandler
+					: current.getUncaughtExceptionHandler();
+			handler.uncaughtException(current, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraConfigHandle.class.getSimpleName() + "[", "]")
+				.add("sources=" + this.sources)
+				.add("debounce=" + Duration.ofNanos(this.debounceNanos))
+				.toString();
+	}
+
+	/**
+	 * A listener which is told when the document of a handle changes.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * Called after the document was replaced by a different document.
+		 *
+		 * @param previous the previous document
+		 * @param current the current document
+		 * @param diff the differences between both documents
+		 */
+		void changed(GuraDocument previous, GuraDocument current, GuraDiff diff);
+
+		/**
+		 * Called when the files changed but could not be loaded, the previous document is kept.
+		 *
+		 * <p>The error is usually an {@link IOException}, a {@link GuraParseException} or a
+		 * {@link GuraResolveException}, but may be any other exception or a {@link LinkageError}.
+		 *
+		 * @param error the error which occurred while loading the files
+		 */
+		default void failed(Throwable error) {
+		}
+	}
+
+	/**
+	 * A builder to open a {@link GuraConfigHandle}.
+	 */
+	public static final class Builder {
+		private final List<Path> sources = new ArrayList<>();
+		private Duration debounce = Duration.ofMillis(100);
+		@Nullable
+		private Thread.UncaughtExceptionHandler listenerErrorHandler;
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds a file to watch, after the files which were already added.
+		 *
+		 * @param source the path to the Gura file
+		 * @return this builder
+		 */
+		public Builder source(Path source) {
+			this.sources.add(Objects.requireNonNull(source, "Source cannot be null"));
+			return this;
+		}
+
+		/**
+		 * Adds files to watch, after the files which were already added.
+		 *
+		 * @param sources the paths to the Gura files
+		 * @return this builder
+		 */
+		public Builder sources(List<Path> sources) {
+			for (Path source : sources) {
+				this.source(source);
+			}
+
+			return this;
+		}
+
+		/**
+		 * Sets how long no file must change before the files are reloaded, 100 milliseconds by default.
+		 *
+		 * @param debounce the debounce duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if the duration is negative
+		 */
+		public Builder debounce(Duration debounce) {
+			if (debounce.isNegative()) {
+				throw new IllegalArgumentException("Debounce cannot be negative: " + debounce);
+			}
+
+			this.debounce = debounce;
+			return this;
+		}
+
+		/**
+		 * Sets the handler of the exceptions thrown by listeners, which are otherwise passed to the uncaught exception
+		 * handler of the thread calling the listeners.
+		 *
+		 * @param handler the handler
+		 * @return this builder
+		 */
+		public Builder listenerErrorHandler(Thread.UncaughtExceptionHandler handler) {
+			this.listenerErrorHandler = Objects.requireNonNull(handler, "Handler cannot be null");
+			return this;
+		}
+
+		/**
+		 * Loads the files and starts watching them.
+		 *
+		 * @return the handle
+		 * @throws IllegalStateException if no file was added
+		 * @throws IOException if a file could not be read or watched
+		 * @throws GuraParseException if the content of a file is not a valid Gura document
+		 * @throws GuraResolveException if a key or variable is defined by more than one file
+		 */
+		public GuraConfigHandle open() throws IOException {
+			if (this.sources.isEmpty()) {
+				throw new IllegalStateException("No source to watch");
+			}
+
+			List<Path> sources = new ArrayList<>();
+
+			for (Path source : this.sources) {
+				sources.add(source.toAbsolutePath().normalize());
+			}
+
+			return new GuraConfigHandle(List.copyOf(sources), this.debounce, this.listenerErrorHandler);
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package me.i509.gura.watch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import me.i509.gura.ast.GuraArray;
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraValue;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The structural differences between two versions of a document.
+ *
+ * <p>Objects are compared key by key and arrays element by element, so a change deep within a document is reported at
+ * its own path rather than as a change of the whole top level entry. Paths are written like the paths of a
+ * {@link me.i509.gura.parser.GuraQuery}, such as {@code services.api.ports[2]}, and variables are reported at their
+ * name with the leading {@code $}.
+ */
+public final class GuraDiff {
+	/**
+	 * Compares two versions of a document.
+	 *
+	 * @param previous the previous version
+	 * @param current the current version
+	 * @return the differences, in the order of the previous version followed by the additions of the current version
+	 */
+	public static GuraDiff of(GuraDocument previous, GuraDocument current) {
+		List<Change> changes = new ArrayList<>();
+		diffObject("", previous.root(), current.root(), changes);
+		diffEntries("$", previous.variables(), current.variables(), changes);
+		return new GuraDiff(List.copyOf(changes));
+	}
+
+	private static void diffObject(String path, GuraObject previous, GuraObject current, List<Change> changes) {
+		diffEntries(path.isEmpty() ? "" : path + ".", previous.asMap(), current.asMap(), changes);
+	}
+
+	private static void diffEntries(
+			String prefix,
+			Map<String, GuraValue> previous,
+			Map<String, GuraValue> current,
+			List<Change> changes
+	) {
+		for (Map.Entry<String, GuraValue> entry : previous.entrySet()) {
+			GuraValue value = current.get(entry.getKey());
+
+			if (value == null) {
+				changes.add(new Change(prefix + entry.getKey(), entry.getValue(), null));
+			} else {
+				diffValue(prefix + entry.getKey(), entry.getValue(), value, changes);
+			}
+		}
+
+		for (Map.Entry<String, GuraValue> entry : current.entrySet()) {
+			if (!previous.containsKey(entry.getKey())) {
+				changes.add(new Change(prefix + entry.getKey(), null, entry.getValue()));
+			}
+		}
+	}
+
+	private static void diffValue(String path, GuraValue previous, GuraValue current, List<Change> changes) {
+		if (previous.equals(current)) {
+			return;
+		}
+
+		if (previous.type() == GuraValue.Type.OBJECT && current.type() == GuraValue.Type.OBJECT) {
+			diffObject(path, previous.asObject(), current.asObject(), changes);
+		} else if (previous.type() == GuraValue.Type.ARRAY && current.type() == GuraValue.Type.ARRAY) {
+			diffArray(path, previous.asArray(), current.asArray(), changes);
+		} else {
+			changes.add(new Change(path, previous, current));
+		}
+	}
+
+	private static void diffArray(String path, GuraArray previous, GuraArray current, List<Change> changes) {
+		int common = Math.min(previous.size(), current.size());
+
+		for (int i = 0; i < common; i++) {
+			diffValue(path + "[" + i + "]", previous.get(i), current.get(i), changes);
+		}
+
+		for (int i = common; i < previous.size(); i++) {
+			changes.add(new Change(path + "[" + i + "]", previous.get(i), null));
+		}
+
+		for (int i = common; i < current.size(); i++) {
+			changes.add(new Change(path + "[" + i + "]", null, current.get(i)));
+		}
+	}
+
+	private final List<Change> changes;
+
+	private GuraDiff(List<Change> changes) {
+		this.changes = changes;
+	}
+
+	/**
+	 * @return the changes
+	 */
+	public List<Change> changes() {
+		return this.changes;
+	}
+
+	/**
+	 * @return true if both versions are equal
+	 */
+	public boolean isEmpty() {
+		return this.changes.isEmpty();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		return this.changes.equals(((GuraDiff) o).changes);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.changes.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GuraDiff.class.getSimpleName() + "[", "]")
+				.add("changes=" + this.changes)
+				.toString();
+	}
+
+	/**
+	 * A value which was added, removed or changed.
+	 */
+	public static final class Change {
+		private final String path;
+		@Nullable
+		private final GuraValue previous;
+		@Nullable
+		private final GuraValue current;
+
+		Change(String path, @Nullable GuraValue previous, @Nullable GuraValue current) {
+			this.path = path;
+			this.previous = previous;
+			this.current = current;
+		}
+
+		/**
+		 * @return the path of the value
+		 */
+		public String path() {
+			return this.path;
+		}
+
+		/**
+		 * @return the kind of change
+		 */
+		public Kind kind() {
+			return this.previous == null ? Kind.ADDED : this.current == null ? Kind.REMOVED : Kind.CHANGED;
+		}
+
+		/**
+		 * @return the previous value, or null if the value was added
+		 */
+		@Nullable
+		public GuraValue previous() {
+			return this.previous;
+		}
+
+		/**
+		 * @return the current value, or null if the value was removed
+		 */
+		@Nullable
+		public GuraValue current() {
+			return this.current;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Change that = (Change) o;
+			return this.path.equals(that.path)
+					&& Objects.equals(this.previous, that.previous)
+					&& Objects.equals(this.current, that.current);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.path, this.previous, this.current);
+		}
+
+		@Override
+		public String toString() {
+			return new StringJoiner(", ", Change.class.getSimpleName() + "[", "]")
+					.add("path='" + this.path + "'")
+					.add("previous=" + this.previous)
+					.add("current=" + this.current)
+					.toString();
+		}
+
+		/**
+		 * A kind of change.
+		 */
+		public enum Kind {
+			/**
+			 * The value was added.
+			 */
+			ADDED,
+
+			/**
+			 * The value was removed.
+			 */
+			REMOVED,
+
+			/**
+			 * The value was replaced, by a value of another type or a different scalar.
+			 */
+			CHANGED
+		}
+	}
+}
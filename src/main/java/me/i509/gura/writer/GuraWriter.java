@@ -0,0 +1,897 @@
+package me.i509.gura.writer;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraHandler;
+import me.i509.gura.parser.GuraLocator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes Gura documents as text.
+ *
+ * <p>A writer is a {@link GuraHandler}, so a document can be written from the same events the parser reports, either
+ * by calling the events directly or by passing the writer to the parser. Whole documents and values are written with
+ * {@link #write(GuraDocument)} and {@link #write(String, GuraValue)}. Every value is written with its key, or with a
+ * null key if the value is an element of an array, and variables are defined by keys starting with {@code $}.
+ *
+ * <p>Text is written to a buffer which is reused for the lifetime of the writer and passed to the output whenever it
+ * is full, or when the document ends. Numbers, keys and strings are written straight into the buffer, escape
+ * sequences included, so writing a value does not allocate. An {@link OutputStream} receives the text encoded as
+ * UTF-8, through a byte buffer which is reused as well.
+ *
+ * <pre>{@code
+ * try (GuraWriter writer = GuraWriter.of(Files.newOutputStream(path))) {
+ *     writer.startObject("server");
+ *     writer.string("host", "example.com");
+ *     writer.integer("port", 8080);
+ *     writer.endObject();
+ *     writer.endDocument();
+ * }
+ * }</pre>
+ *
+ * <p>Events write to the output and throw an {@link UncheckedIOException} if it fails. Events which do not form a
+ * valid document, such as a value without a key outside of an array, throw an {@link IllegalStateException}. A
+ * writer is not thread safe.
+ */
+public final class GuraWriter implements GuraHandler, Flushable, Closeable {
+	private static final int BUFFER_SIZE = 8192;
+	private static final int INDENTATION = 4;
+
+	private static final int ROOT = 0;
+	private static final int OBJECT = 1;
+	private static final int ARRAY = 2;
+	private static final int KIND = 3;
+	/**
+	 * The key of an object has not been written yet, as the object may turn out to be empty.
+	 */
+	private static final int PENDING = 1 << 2;
+	/**
+	 * An object has an entry, or an array has an element.
+	 */
+	private static final int HAS_VALUES = 1 << 3;
+	/**
+	 * The elements of an array are written on their own lines.
+	 */
+	private static final int MULTILINE = 1 << 4;
+	/**
+	 * A comma was already written after the last element of an array.
+	 */
+	private static final int SEPARATED = 1 << 5;
+
+	/**
+	 * Creates a writer which appends text to an {@link Appendable}, such as a {@link Writer} or
+	 * {@link StringBuilder}.
+	 *
+	 * @param out the appendable
+	 * @return a new writer
+	 */
+	public static GuraWriter of(Appendable out) {
+		return new GuraWriter(new AppendableSink(Objects.requireNonNull(out, "Output cannot be null")));
+	}
+
+	/**
+	 * Creates a writer which writes text encoded as UTF-8 to an {@link OutputStream}.
+	 *
+	 * @param out the output stream
+	 * @return a new writer
+	 */
+	public static GuraWriter of(OutputStream out) {
+		return new GuraWriter(new Utf8Sink(Objects.requireNonNull(out, "Output cannot be null")));
+	}
+
+	/**
+	 * Writes a document to a string.
+	 *
+	 * @param document the document
+	 * @return the text of the document
+	 */
+	public static String toString(GuraDocument document) {
+		StringBuilder builder = new StringBuilder();
+
+		try {
+			of(builder).write(document);
+		} catch (IOException e) {
+			// A StringBuilder does not throw.
+			throw new UncheckedIOException(e);
+		}
+
+		return builder.toString();
+	}
+
+	private final Sink sink;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+	/**
+	 * Used to format floating point numbers, which appends them without creating a string.
+	 */
+	private final StringBuilder scratch = new StringBuilder(32);
+	// The stack of the objects and arrays being written, with the root object at the bottom.
+	private int[] frames = new int[16];
+	/**
+	 * The indentation of the entries of an object, or of the line an array starts on.
+	 */
+	private int[] indents = new int[16];
+	/**
+	 * The keys of the objects which are pending.
+	 */
+	private String[] keys = new String[16];
+	private int depth;
+	/**
+	 * The indentation of the current line.
+	 */
+	private int lineIndent;
+	/**
+	 * Whether anything was written on the current line, in which case a new line must be started first.
+	 */
+	private boolean lineOpen;
+	/**
+	 * Whether the current line ends with a comment, after which nothing else can be written on the line.
+	 */
+	private boolean commentLine;
+
+	private GuraWriter(Sink sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * Writes a document, its imports, then its variables and its entries, and ends it.
+	 *
+	 * @param document the document
+	 * @throws IOException if the output could not be written to
+	 * @throws IllegalStateException if the writer is within an object or array
+	 * @throws IllegalArgumentException if a key cannot be written
+	 */
+	public void write(GuraDocument document) throws IOException {
+		try {
+			for (String path : document.imports()) {
+				this.importFile(path);
+			}
+
+			for (Map.Entry<String, GuraValue> variable : document.variables().entrySet()) {
+				this.write(variable.getKey(), true, variable.getValue());
+			}
+
+			for (Map.Entry<String, GuraValue> entry : document.root().asMap().entrySet()) {
+				this.write(entry.getKey(), false, entry.getValue());
+			}
+
+			this.endDocument();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Writes a value.
+	 *
+	 * @param key the key of the value, or null if the value is an element of an array
+	 * @param value the value
+	 * @throws UncheckedIOException if the output could not be written to
+	 * @throws IllegalStateException if the value needs a key or cannot have one
+	 * @throws IllegalArgumentException if a key cannot be written
+	 */
+	public void write(@Nullable String key, GuraValue value) {
+		this.write(key, false, value);
+	}
+
+	private void write(@Nullable String key, boolean variable, GuraValue value) {
+		switch (value.type()) {
+			case OBJECT:
+				this.startObject(key);
+
+				for (Map.Entry<String, GuraValue> entry : value.asObject().asMap().entrySet()) {
+					this.write(entry.getKey(), false, entry.getValue());
+				}
+
+				this.endObject();
+				break;
+			case ARRAY:
+				this.begin(key, variable, false);
+				this.startArray();
+
+				for (GuraValue element : value.asArray().asList()) {
+					this.write(null, false, element);
+				}
+
+				this.endArray();
+				break;
+			case STRING:
+				this.begin(key, variable, false);
+				this.writeString(value.asString().value());
+				break;
+			case INTERPOLATED_STRING:
+				this.begin(key, variable, false);
+				this.writeInterpolated(((GuraInterpolatedString) value).parts());
+				break;
+			case NUMBER:
+				GuraNumber number = value.asNumber();
+				this.begin(key, variable, false);
+
+				if (number.isBig()) {
+					this.writeRaw(number.value().toString());
+				} else if (number.isInteger()) {
+					this.writeLong(number.longValue());
+				} else {
+					this.writeDouble(number.doubleValue());
+				}
+
+				break;
+			case BOOLEAN:
+				this.begin(key, variable, false);
+				this.writeRaw(value.asBoolean().value() ? "true" : "false");
+				break;
+			case NULL:
+				this.begin(key, variable, false);
+				this.writeRaw("null");
+				break;
+			case VARIABLE:
+				this.begin(key, variable, false);
+				this.writeVariable(((GuraVariable) value).name());
+				break;
+			default:
+				throw new AssertionError(value.type());
+		}
+	}
+
+	@Override
+	public void startDocument(GuraLocator locator) {
+	}
+
+	/**
+	 * Ends the current line and passes all buffered text to the output, without flushing the output. The writer may
+	 * then be used to write another document.
+	 *
+	 * @throws UncheckedIOException if the output could not be written to
+	 * @throws IllegalStateException if an object or array was not ended
+	 */
+	@Override
+	public void endDocument() {
+		if (this.depth != 0) {
+			throw new IllegalStateException("Cannot end the document within an object or array");
+		}
+
+		if (this.lineOpen) {
+			this.write('\n');
+			this.lineOpen = false;
+			this.commentLine = false;
+		}
+
+		this.frames[0] = ROOT;
+		this.drain(true);
+	}
+
+	@Override
+	public void importFile(String path) {
+		if (this.depth != 0) {
+			throw new IllegalStateException("Imports can only be written at the top level");
+		}
+
+		this.newLine(0);
+		this.writeRaw("import ");
+		this.writeString(path);
+	}
+
+	@Override
+	public boolean startObject(@Nullable String key) {
+		this.begin(key, false, true);
+		int parent = this.depth;
+
+		if ((this.frames[parent] & KIND) == ARRAY) {
+			this.push(OBJECT, this.indents[parent] + INDENTATION, null);
+		} else {
+			this.push(OBJECT | PENDING, this.indents[parent] + INDENTATION, key);
+		}
+
+		return true;
+	}
+
+	@Override
+	public void endObject() {
+		int frame = this.frames[this.depth];
+
+		if ((frame & KIND) != OBJECT) {
+			throw new IllegalStateException("Not within an object");
+		}
+
+		if ((frame & PENDING) != 0) {
+			this.newLine(this.indents[this.depth] - INDENTATION);
+			this.writeKey(this.keys[this.depth], false);
+			this.writeRaw(": empty");
+		} else if ((frame & HAS_VALUES) == 0) {
+			// An object within an array, which starts on its own line.
+			this.newLine(this.indents[this.depth]);
+			this.writeRaw("empty");
+		}
+
+		this.keys[this.depth--] = null;
+	}
+
+	@Override
+	public boolean startArray(@Nullable String key) {
+		this.begin(key, false, false);
+		this.startArray();
+		return true;
+	}
+
+	private void startArray() {
+		this.write('[');
+		this.push(ARRAY, this.lineIndent, null);
+	}
+
+	@Override
+	public void endArray() {
+		int frame = this.frames[this.depth];
+
+		if ((frame & KIND) != ARRAY) {
+			throw new IllegalStateException("Not within an array");
+		}
+
+		if ((frame & MULTILINE) != 0) {
+			this.newLine(this.indents[this.depth]);
+		}
+
+		this.write(']');
+		this.depth--;
+	}
+
+	@Override
+	public void string(@Nullable String key, String value) {
+		this.begin(key, false, false);
+		this.writeString(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException if a variable is directly followed by text which would be read as part of its
+	 *     name
+	 */
+	@Override
+	public void interpolatedString(@Nullable String key, GuraInterpolatedString value) {
+		this.begin(key, false, false);
+		this.writeInterpolated(value.parts());
+	}
+
+	@Override
+	public void integer(@Nullable String key, long value) {
+		this.begin(key, false, false);
+		this.writeLong(value);
+	}
+
+	@Override
+	public void floatingPoint(@Nullable String key, double value) {
+		this.begin(key, false, false);
+		this.writeDouble(value);
+	}
+
+	@Override
+	public void bigInteger(@Nullable String key, BigInteger value) {
+		this.begin(key, false, false);
+		this.writeRaw(value.toString());
+	}
+
+	@Override
+	public void bigDecimal(@Nullable String key, BigDecimal value) {
+		this.begin(key, false, false);
+		this.writeRaw(value.toString());
+	}
+
+	@Override
+	public void bool(@Nullable String key, boolean value) {
+		this.begin(key, false, false);
+		this.writeRaw(value ? "true" : "false");
+	}
+
+	@Override
+	public void nullValue(@Nullable String key) {
+		this.begin(key, false, false);
+		this.writeRaw("null");
+	}
+
+	@Override
+	public void variable(@Nullable String key, String name) {
+		this.begin(key, false, false);
+		this.writeVariable(name);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>A comment is written on its own line. A comment within an object whose key was not written yet is written
+	 * before the key.
+	 *
+	 * @throws IllegalArgumentException if the text contains a line break
+	 */
+	@Override
+	public void comment(CharSequence text) {
+		int frame = this.frames[this.depth];
+		int indent;
+
+		if ((frame & KIND) == ARRAY) {
+			indent = this.indents[this.depth] + INDENTATION;
+
+			if ((frame & (HAS_VALUES | SEPARATED)) == HAS_VALUES) {
+				// The comma must come before the comment.
+				if (this.commentLine) {
+					this.newLine(indent);
+				}
+
+				this.write(',');
+				frame |= SEPARATED;
+			}
+
+			this.frames[this.depth] = frame | MULTILINE;
+		} else if ((frame & PENDING) != 0) {
+			indent = this.indents[this.depth] - INDENTATION;
+		} else {
+			indent = this.indents[this.depth];
+		}
+
+		this.newLine(indent);
+		this.write('#');
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c == '\n' || c == '\r') {
+				throw new IllegalArgumentException("Comments cannot contain line breaks");
+			}
+
+			this.write(c);
+		}
+
+		this.commentLine = true;
+	}
+
+	/**
+	 * Passes all buffered text to the output and flushes it.
+	 *
+	 * @throws IOException if the output could not be written to
+	 */
+	@Override
+	public void flush() throws IOException {
+		try {
+			this.drain(false);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		this.sink.flush();
+	}
+
+	/**
+	 * Passes all buffered text to the output and closes it, if it is {@link Closeable}.
+	 *
+	 * @throws IOException if the output could not be written to or closed
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			this.drain(true);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		this.sink.close();
+	}
+
+	/**
+	 * Writes what comes before a value: the key of an entry, or the separator before an element of an array.
+	 *
+	 * @param object whether the value is an object, whose key is written once the object is known not to be empty
+	 */
+	private void begin(@Nullable String key, boolean variable, boolean object) {
+		int frame = this.frames[this.depth];
+
+		if ((frame & KIND) == ARRAY) {
+			if (key != null) {
+				throw new IllegalStateException("Elements of an array cannot have a key: " + key);
+			}
+
+			this.separate(frame, object);
+			return;
+		}
+
+		if (key == null) {
+			throw new IllegalStateException("Entries of an object must have a key");
+		}
+
+		// Fail before anything is written.
+		checkKey(key, variable);
+
+		if ((frame & PENDING) != 0) {
+			// The first entry of the object, so its key can be written.
+			this.newLine(this.indents[this.depth] - INDENTATION);
+			this.writeKey(this.keys[this.depth], false);
+			this.write(':');
+			this.keys[this.depth] = null;
+			frame &= ~PENDING;
+		}
+
+		this.frames[this.depth] = frame | HAS_VALUES;
+
+		if (!object) {
+			this.newLine(this.indents[this.depth]);
+			this.writeKey(key, variable);
+			this.write(':');
+			this.write(' ');
+		}
+	}
+
+	private void separate(int frame, boolean object) {
+		int indent = this.indents[this.depth] + INDENTATION;
+		boolean first = (frame & HAS_VALUES) == 0;
+
+		if (!first && (frame & SEPARATED) == 0) {
+			if (this.commentLine) {
+				this.newLine(indent);
+			}
+
+			this.write(',');
+		}
+
+		frame = (frame | HAS_VALUES) & ~SEPARATED;
+
+		if (object) {
+			// The entries of an object are written on their own lines, at the indentation of the elements.
+			frame |= MULTILINE;
+		} else if ((frame & MULTILINE) != 0) {
+			this.newLine(indent);
+		} else if (!first) {
+			this.write(' ');
+		}
+
+		this.frames[this.depth] = frame;
+	}
+
+	private void push(int frame, int indent, @Nullable String key) {
+		if (++this.depth == this.frames.length) {
+			this.frames = Arrays.copyOf(this.frames, this.depth * 2);
+			this.indents = Arrays.copyOf(this.indents, this.depth * 2);
+			this.keys = Arrays.copyOf(this.keys, this.depth * 2);
+		}
+
+		this.frames[this.depth] = frame;
+		this.indents[this.depth] = indent;
+		this.keys[this.depth] = key;
+	}
+
+	private void newLine(int indent) {
+		this.ensure(indent + 1);
+
+		if (this.lineOpen) {
+			this.buffer[this.position++] = '\n';
+		}
+
+		Arrays.fill(this.buffer, this.position, this.position + indent, ' ');
+		this.position += indent;
+		this.lineIndent = indent;
+		this.lineOpen = true;
+		this.commentLine = false;
+	}
+
+	private void writeKey(String key, boolean variable) {
+		if (variable) {
+			this.write('$');
+		}
+
+		this.writeRaw(key);
+	}
+
+	private static void checkKey(String key, boolean variable) {
+		int start = !variable && key.length() > 1 && key.charAt(0) == '$' ? 1 : 0;
+
+		if (key.length() == start) {
+			throw new IllegalArgumentException("Key cannot be empty");
+		}
+
+		for (int i = start; i < key.length(); i++) {
+			if (!isKeyCharacter(key.charAt(i))) {
+				throw new IllegalArgumentException("Invalid character '" + key.charAt(i) + "' in key " + key);
+			}
+		}
+	}
+
+	private static boolean isKeyCharacter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	private void writeVariable(String name) {
+		this.write('$');
+		this.writeRaw(name);
+	}
+
+	private void writeInterpolated(List<GuraValue> parts) {
+		this.write('"');
+
+		for (int i = 0; i < parts.size(); i++) {
+			GuraValue part = parts.get(i);
+
+			if (part.type() == GuraValue.Type.VARIABLE) {
+				String name = ((GuraVariable) part).name();
+
+				if (i + 1 < parts.size() && parts.get(i + 1).type() == GuraValue.Type.STRING) {
+					String next = parts.get(i + 1).asString().value();
+
+					if (!next.isEmpty() && isKeyCharacter(next.charAt(0))) {
+						throw new IllegalArgumentException(
+								"Variable '$" + name + "' cannot be followed by '" + next + "' in a string"
+						);
+					}
+				}
+
+				this.writeVariable(name);
+			} else {
+				this.writeEscaped(part.asString().value());
+			}
+		}
+
+		this.write('"');
+	}
+
+	private void writeString(String value) {
+		this.write('"');
+		this.writeEscaped(value);
+		this.write('"');
+	}
+
+	/**
+	 * Writes the content of a basic string, escaping quotes, backslashes, {@code $} and control characters.
+	 */
+	private void writeEscaped(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			// The longest escape sequence, \u0000.
+			this.ensure(6);
+			char c = value.charAt(i);
+			char[] buffer = this.buffer;
+
+			if (c >= ' ' && c != '"' && c != '\\' && c != '$') {
+				buffer[this.position++] = c;
+				continue;
+			}
+
+			buffer[this.position++] = '\\';
+
+			switch (c) {
+				case '"':
+				case '\\':
+				case '$':
+					buffer[this.position++] = c;
+					break;
+				case '\b':
+					buffer[this.position++] = 'b';
+					break;
+				case '\f':
+					buffer[this.position++] = 'f';
+					break;
+				case '\n':
+					buffer[this.position++] = 'n';
+					break;
+				case '\r':
+					buffer[this.position++] = 'r';
+					break;
+				case '\t':
+					buffer[this.position++] = 't';
+					break;
+				default:
+					buffer[this.position++] = 'u';
+					buffer[this.position++] = '0';
+					buffer[this.position++] = '0';
+					buffer[this.position++] = Character.forDigit(c >> 4, 16);
+					buffer[this.position++] = Character.forDigit(c & 0xF, 16);
+			}
+		}
+	}
+
+	private void writeLong(long value) {
+		// The longest integer, -9223372036854775808.
+		this.ensure(20);
+
+		if (value < 0) {
+			this.buffer[this.position++] = '-';
+		} else {
+			value = -value;
+		}
+
+		// Digits are computed from the negative value, which also covers Long.MIN_VALUE.
+		int digits = 1;
+
+		for (long rest = value / 10; rest != 0; rest /= 10) {
+			digits++;
+		}
+
+		int end = this.position + digits;
+
+		for (int i = end - 1; i >= this.position; i--) {
+			this.buffer[i] = (char) ('0' - value % 10);
+			value /= 10;
+		}
+
+		this.position = end;
+	}
+
+	private void writeDouble(double value) {
+		if (Double.isNaN(value)) {
+			this.writeRaw("nan");
+		} else if (Double.isInfinite(value)) {
+			this.writeRaw(value > 0 ? "inf" : "-inf");
+		} else {
+			this.scratch.setLength(0);
+			this.scratch.append(value);
+			int length = this.scratch.length();
+			this.ensure(length);
+			this.scratch.getChars(0, length, this.buffer, this.position);
+			this.position += length;
+		}
+	}
+
+	private void writeRaw(String text) {
+		int offset = 0;
+
+		while (offset < text.length()) {
+			this.ensure(1);
+			int length = Math.min(text.length() - offset, this.buffer.length - this.position);
+			text.getChars(offset, offset + length, this.buffer, this.position);
+			this.position += length;
+			offset += length;
+		}
+	}
+
+	private void write(char c) {
+		this.ensure(1);
+		this.buffer[this.position++] = c;
+	}
+
+	private void ensure(int length) {
+		if (this.position + length > this.buffer.length) {
+			this.drain(false);
+		}
+	}
+
+	/**
+	 * Passes the buffered text to the output.
+	 *
+	 * @param end whether no more text follows, otherwise a trailing high surrogate is kept until its pair is written
+	 */
+	private void drain(boolean end) {
+		try {
+			int written = this.sink.write(this.buffer, this.position, end);
+			System.arraycopy(this.buffer, written, this.buffer, 0, this.position - written);
+			this.position -= written;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Where buffered text is written to.
+	 */
+	private abstract static class Sink {
+		/**
+		 * @return the number of characters which were written, from the start of the buffer
+		 */
+		abstract int write(char[] buffer, int length, boolean end) throws IOException;
+
+		abstract Object out();
+
+		void flush() throws IOException {
+			if (this.out() instanceof Flushable) {
+				((Flushable) this.out()).flush();
+			}
+		}
+
+		void close() throws IOException {
+			if (this.out() instanceof Closeable) {
+				((Closeable) this.out()).close();
+			}
+		}
+	}
+
+	private static final class AppendableSink extends Sink {
+		private final Appendable out;
+		@Nullable
+		private CharBuffer view;
+
+		AppendableSink(Appendable out) {
+			this.out = out;
+		}
+
+		@Override
+		int write(char[] buffer, int length, boolean end) throws IOException {
+			if (this.out instanceof Writer) {
+				((Writer) this.out).write(buffer, 0, length);
+			} else if (this.out instanceof StringBuilder) {
+				((StringBuilder) this.out).append(buffer, 0, length);
+			} else {
+				if (this.view == null) {
+					this.view = CharBuffer.wrap(buffer);
+				}
+
+				this.view.limit(length).position(0);
+				this.out.append(this.view);
+			}
+
+			return length;
+		}
+
+		@Override
+		Object out() {
+			return this.out;
+		}
+	}
+
+	private static final class Utf8Sink extends Sink {
+		private final OutputStream out;
+		private final byte[] bytes = new byte[BUFFER_SIZE];
+
+		Utf8Sink(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		int write(char[] buffer, int length, boolean end) throws IOException {
+			byte[] bytes = this.bytes;
+			int position = 0;
+			int i = 0;
+
+			while (i < length) {
+				if (position > bytes.length - 4) {
+					this.out.write(bytes, 0, position);
+					position = 0;
+				}
+
+				char c = buffer[i];
+
+				if (c < 0x80) {
+					bytes[position++] = (byte) c;
+				} else if (c < 0x800) {
+					bytes[position++] = (byte) (0xC0 | c >> 6);
+					bytes[position++] = (byte) (0x80 | c & 0x3F);
+				} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(buffer[i + 1])) {
+					int codePoint = Character.toCodePoint(c, buffer[++i]);
+					bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+					bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+					bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+					bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+				} else if (Character.isHighSurrogate(c) && i + 1 == length && !end) {
+					// The low surrogate may be in the next buffer.
+					break;
+				} else if (Character.isSurrogate(c)) {
+					// Unpaired surrogates are replaced, like String.getBytes does.
+					bytes[position++] = '?';
+				} else {
+					bytes[position++] = (byte) (0xE0 | c >> 12);
+					bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+					bytes[position++] = (byte) (0x80 | c & 0x3F);
+				}
+
+				i++;
+			}
+
+			this.out.write(bytes, 0, position);
+			return i;
+		}
+
+		@Override
+		Object out() {
+			return this.out;
+		}
+	}
+}
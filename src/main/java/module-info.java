@@ -6,5 +6,16 @@
  */
 module gura.jvm {
 	requires java.base;
-	requires org.jetbrains.annotations;
+	requires static transitive org.jetbrains.annotations;
+
+	exports me.i509.gura.ast;
+	exports me.i509.gura.bind;
+	exports me.i509.gura.cst;
+	exports me.i509.gura.extract;
+	exports me.i509.gura.parser;
+	exports me.i509.gura.resolve;
+	exports me.i509.gura.snapshot;
+	exports me.i509.gura.token;
+	exports me.i509.gura.watch;
+	exports me.i509.gura.writer;
 }
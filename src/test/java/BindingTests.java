@@ -0,0 +1,182 @@
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import me.i509.gura.bind.GuraBindException;
+import me.i509.gura.bind.GuraBinder;
+import me.i509.gura.parser.GuraParseException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class Binding {
+	enum Level {
+		DEBUG,
+		INFO
+	}
+
+	static class Server {
+		String host;
+		int port;
+		private List<String> tags;
+		boolean setterUsed;
+
+		void setTags(List<String> tags) {
+			this.tags = tags;
+			this.setterUsed = true;
+		}
+	}
+
+	static class Config {
+		String name;
+		long maxConnections;
+		double ratio;
+		boolean enabled;
+		Level level;
+		Server server;
+		List<Server> mirrors;
+		List<Integer> ports;
+		Set<String> names;
+		Map<String, Integer> limits;
+		BigInteger big;
+		Object extra;
+	}
+
+	static class Node {
+		String name;
+		List<Node> children;
+	}
+
+	static class Small {
+		byte value;
+	}
+
+	@Test
+	void bindValues() {
+		Config config = GuraBinder.bind("name: \"test\"\n"
+				+ "max_connections: 10\n"
+				+ "ratio: 0.5\n"
+				+ "enabled: true\n"
+				+ "level: \"info\"\n"
+				+ "ports: [80, 443]\n"
+				+ "names: [\"a\", \"b\", \"a\"]\n"
+				+ "big: 9223372036854775808\n", Config.class);
+
+		assertEquals("test", config.name);
+		assertEquals(10, config.maxConnections);
+		assertEquals(0.5, config.ratio);
+		assertEquals(true, config.enabled);
+		assertEquals(Level.INFO, config.level);
+		assertEquals(List.of(80, 443), config.ports);
+		assertEquals(Set.of("a", "b"), config.names);
+		assertEquals(BigInteger.ONE.shiftLeft(63), config.big);
+		assertNull(config.server);
+	}
+
+	@Test
+	void bindNested() {
+		Config config = GuraBinder.bind("server:\n"
+				+ "    host: \"localhost\"\n"
+				+ "    port: 8080\n"
+				+ "    tags: [\"api\"]\n"
+				+ "mirrors: [\n"
+				+ "    host: \"a\"\n"
+				+ "    port: 1,\n"
+				+ "    host: \"b\"\n"
+				+ "    port: 2\n"
+				+ "]\n"
+				+ "limits:\n"
+				+ "    requests: 100\n"
+				+ "    connections: 5\n"
+				+ "extra:\n"
+				+ "    values: [1, 1.5, \"x\", null]\n", Config.class);
+
+		assertEquals("localhost", config.server.host);
+		assertEquals(8080, config.server.port);
+		assertEquals(List.of("api"), config.server.tags);
+		assertEquals(true, config.server.setterUsed);
+		assertEquals(2, config.mirrors.size());
+		assertEquals("b", config.mirrors.get(1).host);
+		assertEquals(2, config.mirrors.get(1).port);
+		assertEquals(List.of("requests", "connections"), List.copyOf(config.limits.keySet()));
+		assertEquals(Integer.valueOf(100), config.limits.get("requests"));
+		assertEquals(Map.of("values", Arrays.asList(1L, 1.5, "x", null)), config.extra);
+	}
+
+	@Test
+	void bindRecursive() {
+		Node node = GuraBinder.bind("name: \"root\"\n"
+				+ "children: [\n"
+				+ "    name: \"child\"\n"
+				+ "    children: []\n"
+				+ "]\n", Node.class);
+
+		assertEquals("root", node.name);
+		assertEquals("child", node.children.get(0).name);
+		assertEquals(List.of(), node.children.get(0).children);
+	}
+
+	@Test
+	void bindVariables() {
+		Server server = GuraBinder.bind("$host: \"example.com\"\n"
+				+ "$port: 8080\n"
+				+ "host: \"api.$host\"\n"
+				+ "port: $port\n", Server.class);
+
+		assertEquals("api.example.com", server.host);
+		assertEquals(8080, server.port);
+	}
+
+	@Test
+	void skipUnknown() {
+		Server server = GuraBinder.bind(new StringReader("unknown:\n"
+				+ "    nested: [1, [2, 3]]\n"
+				+ "    other: true\n"
+				+ "port: 1\n"
+				+ "missing: [\"x\"]\n"), Server.class);
+
+		assertEquals(1, server.port);
+		assertNull(server.host);
+	}
+
+	@Test
+	void bindMap() {
+		@SuppressWarnings("unchecked")
+		Map<String, Object> map = GuraBinder.bind("a: 1\nb: [true]\n", Map.class);
+
+		assertEquals(Map.of("a", 1L, "b", List.of(true)), map);
+	}
+
+	@Test
+	void mismatches() {
+		assertEquals("Cannot bind a string to int", error("port: \"80\"\n", Server.class).reason());
+		assertEquals("Cannot bind null to int", error("port: null\n", Server.class).reason());
+		assertEquals("Integer 300 is out of range for byte", error("value: 300\n", Small.class).reason());
+		assertEquals("Unknown constant 'trace' of Binding$Level", error("level: \"trace\"\n", Config.class).reason());
+		assertEquals("Duplicate key 'max_connections'", error(
+				"maxConnections: 1\nmax_connections: 2\n",
+				Config.class
+		).reason());
+		assertEquals("Variable '$port' is not defined", error("port: $port\n", Server.class).reason());
+
+		GuraBindException exception = error("host: \"a\"\nport: true\n", Server.class);
+		assertEquals(2, exception.row());
+	}
+
+	@Test
+	void unsupported() {
+		assertThrows(GuraBindException.class, () -> GuraBinder.bind("import \"a.ura\"\nport: 1\n", Server.class));
+		assertThrows(GuraParseException.class, () -> GuraBinder.bind("port 1\n", Server.class));
+		assertThrows(IllegalArgumentException.class, () -> GuraBinder.bind("a: 1\n", String.class));
+		assertThrows(IllegalArgumentException.class, () -> GuraBinder.bind("a: 1\n", List.class));
+	}
+
+	private static GuraBindException error(String content, Class<?> type) {
+		return assertThrows(GuraBindException.class, () -> GuraBinder.bind(content, type));
+	}
+}
@@ -0,0 +1,100 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.extract.GuraExtractor;
+import me.i509.gura.extract.GuraTable;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraQuery;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Extraction {
+	private static final GuraQuery QUERY = GuraQuery.compile("name", "server.port", "server.ratio", "enabled", "tags");
+
+	@Test
+	public void extract() throws IOException {
+		Path directory = Files.createTempDirectory("gura-extract");
+		directory.toFile().deleteOnExit();
+		List<Path> files = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++) {
+			files.add(TestFiles.write(directory, i + ".ura", "name: \"service" + i + "\"\n"
+					+ "server:\n"
+					+ "    port: " + (8000 + i) + "\n"
+					+ "    ratio: " + (i % 2 == 0 ? String.valueOf(i) : i + ".5") + "\n"
+					+ "enabled: " + (i % 3 == 0) + "\n"
+					+ "tags: " + (i % 2 == 0 ? "[\"a\"]" : "1") + "\n"));
+		}
+
+		files.add(TestFiles.write(directory, "missing.ura", "name: null\nserver:\n    port: 1\n"));
+		files.add(TestFiles.write(directory, "invalid.ura", "name: 1 2\n"));
+		files.add(directory.resolve("absent.ura"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			GuraTable table = GuraExtractor.builder().executor(executor).parallelism(3).build().extract(QUERY, files);
+			assertEquals(103, table.rows());
+			assertEquals(QUERY.paths(), table.columns());
+
+			GuraTable.Column names = table.column("name");
+			assertEquals(GuraTable.Column.Type.STRING, names.type());
+			assertEquals("service42", names.strings()[42]);
+			assertFalse(names.isPresent(100));
+			assertNull(names.strings()[100]);
+
+			GuraTable.Column ports = table.column("server.port");
+			assertEquals(GuraTable.Column.Type.LONG, ports.type());
+			assertEquals(8099, ports.longs()[99]);
+			assertEquals(1, ports.longs()[100]);
+			assertTrue(ports.isPresent(100));
+			assertFalse(ports.isPresent(101));
+			assertThrows(IllegalStateException.class, ports::strings);
+
+			assertEquals(GuraTable.Column.Type.DOUBLE, table.column("server.ratio").type());
+			assertEquals(3.5, table.column("server.ratio").doubles()[3]);
+			assertEquals(GuraTable.Column.Type.BOOLEAN, table.column("enabled").type());
+			assertTrue(table.column("enabled").booleans()[3]);
+
+			GuraTable.Column tags = table.column("tags");
+			assertEquals(GuraTable.Column.Type.VALUE, tags.type());
+			assertEquals(GuraNumber.of(1), tags.values()[1]);
+			assertEquals(GuraValue.Type.ARRAY, tags.values()[0].type());
+
+			assertNull(table.error(0));
+			assertTrue(table.error(101) instanceof GuraParseException);
+			assertTrue(table.error(102) instanceof NoSuchFileException);
+			assertThrows(IllegalArgumentException.class, () -> table.column("other"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void stopsEarly() throws IOException {
+		Path directory = Files.createTempDirectory("gura-extract");
+		directory.toFile().deleteOnExit();
+		// Everything after the server object is never read.
+		Path file = TestFiles.write(directory, "early.ura", "server:\n    port: 80\nrest: [\n");
+		GuraTable table = GuraExtractor.create().extract(GuraQuery.compile("server.port"), List.of(file, file));
+
+		assertNull(table.error(0));
+		assertArrayEquals(new long[] {80, 80}, table.column("server.port").longs());
+		assertEquals(0, GuraExtractor.create().extract(QUERY, List.of()).rows());
+		assertThrows(IllegalArgumentException.class, () -> GuraExtractor.builder().parallelism(0));
+	}
+}
@@ -0,0 +1,275 @@
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.parser.GuraHandler;
+import me.i509.gura.parser.GuraLocator;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenWindow;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class Events {
+	private static final String DOCUMENT = "import \"base.ura\"\n"
+			+ "# Services\n"
+			+ "$port: 8080\n"
+			+ "services:\n"
+			+ "    api:\n"
+			+ "        port: $port  # default\n"
+			+ "        hosts: [\"a\", 'b',\n"
+			+ "            [1.5, null]]\n"
+			+ "    web:\n"
+			+ "        url: \"http://$host\"\n"
+			+ "        users: [\n"
+			+ "            admin:\n"
+			+ "                enabled: true,\n"
+			+ "            guest: empty\n"
+			+ "        ]\n"
+			+ "timeout: 30\n";
+
+	/**
+	 * Records every event as a string.
+	 */
+	static class Recorder implements GuraHandler {
+		final List<String> events = new ArrayList<>();
+		GuraLocator locator;
+
+		@Override
+		public void startDocument(GuraLocator locator) {
+			this.locator = locator;
+			this.events.add("startDocument");
+		}
+
+		@Override
+		public void endDocument() {
+			this.events.add("endDocument");
+		}
+
+		@Override
+		public void importFile(String path) {
+			this.events.add("import " + path);
+		}
+
+		@Override
+		public boolean startObject(@Nullable String key) {
+			this.events.add("startObject " + key);
+			return true;
+		}
+
+		@Override
+		public void endObject() {
+			this.events.add("endObject");
+		}
+
+		@Override
+		public boolean startArray(@Nullable String key) {
+			this.events.add("startArray " + key);
+			return true;
+		}
+
+		@Override
+		public void endArray() {
+			this.events.add("endArray");
+		}
+
+		@Override
+		public void string(@Nullable String key, String value) {
+			this.events.add(key + "=\"" + value + "\"");
+		}
+
+		@Override
+		public void interpolatedString(@Nullable String key, GuraInterpolatedString value) {
+			this.events.add(key + "=" + value.parts().size() + " parts");
+		}
+
+		@Override
+		public void integer(@Nullable String key, long value) {
+			this.events.add(key + "=" + value);
+		}
+
+		@Override
+		public void floatingPoint(@Nullable String key, double value) {
+			this.events.add(key + "=" + value);
+		}
+
+		@Override
+		public void bool(@Nullable String key, boolean value) {
+			this.events.add(key + "=" + value);
+		}
+
+		@Override
+		public void nullValue(@Nullable String key) {
+			this.events.add(key + "=null");
+		}
+
+		@Override
+		public void variable(@Nullable String key, String name) {
+			this.events.add(key + "=$" + name);
+		}
+
+		@Override
+		public void comment(CharSequence text) {
+			this.events.add("#" + text + " at " + this.locator.row() + ":" + this.locator.column());
+		}
+	}
+
+	@Test
+	public void events() {
+		var recorder = new Recorder();
+		GuraParser.parse(DOCUMENT, recorder);
+
+		var expected = List.of(
+				"startDocument",
+				"import base.ura",
+				"# Services at 2:1",
+				"$port=8080",
+				"startObject services",
+				"startObject api",
+				"port=$port",
+				"# default at 6:22",
+				"startArray hosts",
+				"null=\"a\"",
+				"null=\"b\"",
+				"startArray null",
+				"null=1.5",
+				"null=null",
+				"endArray",
+				"endArray",
+				"endObject",
+				"startObject web",
+				"url=2 parts",
+				"startArray users",
+				"startObject null",
+				"startObject admin",
+				"enabled=true",
+				"endObject",
+				"endObject",
+				"startObject null",
+				"startObject guest",
+				"endObject",
+				"endObject",
+				"endArray",
+				"endObject",
+				"endObject",
+				"timeout=30",
+				"endDocument"
+		);
+
+		assertEquals(expected, recorder.events);
+	}
+
+	@Test
+	public void sameEventsFromAllSources() {
+		var fromString = new Recorder();
+		GuraParser.parse(DOCUMENT, fromString);
+		var fromTokens = new Recorder();
+		GuraParser.parse(Token.tokenize(DOCUMENT), fromTokens);
+
+		assertEquals(fromString.events, fromTokens.events);
+
+		// A tiny buffer forces the content of the tokens in the window to be moved around constantly.
+		for (int bufferSize = 1; bufferSize <= 8; bufferSize++) {
+			var fromReader = new Recorder();
+			GuraParser.parse(TokenWindow.of(new StringReader(DOCUMENT), bufferSize), fromReader);
+
+			assertEquals(fromString.events, fromReader.events);
+		}
+	}
+
+	@Test
+	public void skipSubtrees() {
+		var recorder = new Recorder() {
+			@Override
+			public boolean startObject(@Nullable String key) {
+				return !"api".equals(key) && !"admin".equals(key) && super.startObject(key);
+			}
+
+			@Override
+			public boolean startArray(@Nullable String key) {
+				return !"hosts".equals(key) && super.startArray(key);
+			}
+		};
+		GuraParser.parse(DOCUMENT, recorder);
+
+		var expected = List.of(
+				"startDocument",
+				"import base.ura",
+				"# Services at 2:1",
+				"$port=8080",
+				"startObject services",
+				"startObject web",
+				"url=2 parts",
+				"startArray users",
+				"startObject null",
+				"endObject",
+				"startObject null",
+				"startObject guest",
+				"endObject",
+				"endObject",
+				"endArray",
+				"endObject",
+				"endObject",
+				"timeout=30",
+				"endDocument"
+		);
+
+		assertEquals(expected, recorder.events);
+	}
+
+	@Test
+	public void skipArrayObjects() {
+		var recorder = new Recorder() {
+			@Override
+			public boolean startObject(@Nullable String key) {
+				return key != null && super.startObject(key);
+			}
+		};
+		var content = "a: [\n"
+				+ "    x: 1,\n"
+				+ "    y:\n"
+				+ "        z: [1,\n"
+				+ "2],\n"
+				+ "    w: 3\n"
+				+ "]\n"
+				+ "b: 2";
+		GuraParser.parse(content, recorder);
+
+		assertEquals(List.of("startDocument", "startArray a", "endArray", "b=2", "endDocument"), recorder.events);
+	}
+
+	@Test
+	public void errorsFromReader() {
+		var exception = assertThrows(GuraParseException.class, () -> {
+			GuraParser.parse(new StringReader("a:\n    b: 1\n    c: [1, 2\n"), new Recorder());
+		});
+
+		assertEquals(4, exception.row());
+		assertEquals(1, exception.column());
+		assertThrows(GuraParseException.class, () -> GuraParser.parse(new StringReader("a: \"b"), new Recorder()));
+	}
+
+	@Test
+	public void largeDocumentFromReader() {
+		var builder = new StringBuilder();
+
+		for (int i = 0; i < 10_000; i++) {
+			builder.append("key").append(i).append(":\n    value: \"").append(i).append("\"\n");
+		}
+
+		var count = new int[1];
+		GuraParser.parse(TokenWindow.of(new StringReader(builder.toString()), 64), new GuraHandler() {
+			@Override
+			public void string(@Nullable String key, String value) {
+				assertEquals(String.valueOf(count[0]++), value);
+			}
+		});
+
+		assertEquals(10_000, count[0]);
+	}
+}
@@ -0,0 +1,116 @@
+import java.util.List;
+
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraLazyDocument;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class LazyDocuments {
+	private static final String DOCUMENT = "# Header\n"
+			+ "import \"base.ura\"\n"
+			+ "import \"other.ura\"\n"
+			+ "\n"
+			+ "$host: \"example.com\"\n"
+			+ "url: \"http://$host:80/\"\n"
+			+ "singers: [\n"
+			+ "    user1:\n"
+			+ "        name: \"Carlos\"\n"
+			+ "        year: 1890,\n"
+			+ "user2:\n"
+			+ "    tags: [a: 1, b: empty]\n"
+			+ ", 5, [], empty\n"
+			+ "]\n"
+			+ "# Between\n"
+			+ "server:\n"
+			+ "    nested:\n"
+			+ "        deep: null\n"
+			+ "\n"
+			+ "    ports: [1, # One\n"
+			+ "2]\n"
+			+ "$port: 8080\n"
+			+ "last: 'literal'";
+
+	@Test
+	public void sameAsParser() {
+		GuraLazyDocument document = GuraLazyDocument.parse(DOCUMENT);
+
+		assertEquals(List.of("url", "singers", "server", "last"), document.keys());
+		assertEquals(List.of("base.ura", "other.ura"), document.imports());
+		assertEquals(GuraParser.parse(DOCUMENT).root().get("server"), document.get("server"));
+		assertEquals(GuraString.of("example.com"), document.variable("host"));
+		assertEquals(GuraNumber.of(8080), document.variable("port"));
+		assertEquals(GuraParser.parse(DOCUMENT), document.document());
+
+		assertTrue(document.containsKey("singers"));
+		assertFalse(document.containsKey("user2"));
+		assertFalse(document.containsKey("$host"));
+		assertNull(document.get("user2"));
+		assertNull(document.get("$host"));
+		assertNull(document.variable("url"));
+	}
+
+	@Test
+	public void cachesValues() {
+		GuraLazyDocument document = GuraLazyDocument.parse(DOCUMENT);
+		assertSame(document.get("singers"), document.get("singers"));
+		assertSame(document.get("singers"), document.document().root().get("singers"));
+	}
+
+	@Test
+	public void variableAtEndOfContent() {
+		GuraLazyDocument document = GuraLazyDocument.parse("$v0: 1\na: 1\nb: $v0");
+		assertEquals(GuraVariable.of("v0"), document.get("b"));
+		assertEquals(GuraNumber.of(1), document.variable("v0"));
+	}
+
+	@Test
+	public void parsesOnAccess() {
+		String content = "good: 1\n"
+				+ "bad:\n"
+				+ "    value: 1 2\n"
+				+ "indented: 2\n"
+				+ "  extra: 3\n"
+				+ "late: 4\n"
+				+ "import \"late.ura\"\n"
+				+ "other: [1, 2]";
+		GuraLazyDocument document = GuraLazyDocument.parse(content);
+
+		assertEquals(GuraNumber.of(1), document.get("good"));
+		assertEquals(GuraParser.parse("a: [1, 2]").root().get("a"), document.get("other"));
+
+		GuraParseException error = assertThrows(GuraParseException.class, () -> document.get("bad"));
+		assertEquals(3, error.row());
+		assertEquals(14, error.column());
+
+		error = assertThrows(GuraParseException.class, () -> document.get("indented"));
+		assertEquals("Unexpected indentation, expected 0 spaces", error.reason());
+		assertEquals(5, error.row());
+
+		error = assertThrows(GuraParseException.class, () -> document.get("late"));
+		assertEquals("Imports must come before any other entry", error.reason());
+		assertThrows(GuraParseException.class, document::document);
+	}
+
+	@Test
+	public void errorsOnLoad() {
+		GuraParseException error = assertThrows(GuraParseException.class, () -> GuraLazyDocument.parse("a: 1\na: 2"));
+		assertEquals("Duplicate key 'a'", error.reason());
+		assertEquals(2, error.row());
+
+		error = assertThrows(GuraParseException.class, () -> GuraLazyDocument.parse("$a: 1\n$a: 2"));
+		assertEquals("Variable '$a' is already defined", error.reason());
+
+		assertThrows(GuraParseException.class, () -> GuraLazyDocument.parse("import 1\na: 1"));
+		assertEquals(List.of(), GuraLazyDocument.parse("").keys());
+	}
+}
@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.resolve.GuraFileCache;
+import me.i509.gura.resolve.GuraLoader;
+import me.i509.gura.resolve.GuraResolveException;
+import me.i509.gura.resolve.GuraVariableResolver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Imports {
+	private static Path directory() throws IOException {
+		Path directory = Files.createTempDirectory("gura");
+		directory.toFile().deleteOnExit();
+		return directory;
+	}
+
+	@Test
+	public void mergeImports() throws IOException {
+		Path directory = directory();
+		TestFiles.write(directory, "common/base.ura", "$host: \"example.com\"\ntimeout: 30\n");
+		TestFiles.write(directory, "common/ports.ura", "import \"base.ura\"\n$port: 8080\n");
+		TestFiles.write(directory, "other.ura", "retries: 3\n");
+		Path service = TestFiles.write(directory, "service.ura", "import \"common/ports.ura\"\nimport \"other.ura\"\n"
+				+ "url: \"http://$host:$port\"\n");
+
+		GuraDocument document = GuraLoader.builder().cache(new GuraFileCache()).build().load(service);
+
+		assertEquals(List.of("timeout", "retries", "url"), new ArrayList<>(document.root().keys()));
+		assertEquals(List.of("host", "port"), new ArrayList<>(document.variables().keySet()));
+		assertEquals(List.of(), document.imports());
+
+		GuraDocument resolved = GuraVariableResolver.of(document).resolve(document);
+		assertEquals(GuraString.of("http://example.com:8080"), resolved.root().get("url"));
+	}
+
+	@Test
+	public void cache() throws IOException {
+		Path directory = directory();
+		Path base = TestFiles.write(directory, "base.ura", "timeout: 30\n");
+		var cache = new GuraFileCache();
+		GuraDocument document = cache.get(base);
+
+		assertSame(document, cache.get(base));
+		assertSame(document, cache.get(directory.resolve("./base.ura")));
+		assertEquals(1, cache.size());
+
+		Files.writeString(base, "timeout: 60\n");
+		Files.setLastModifiedTime(base, FileTime.fromMillis(Files.getLastModifiedTime(base).toMillis() + 10_000));
+		assertEquals(GuraNumber.of(60L), cache.get(base).root().get("timeout"));
+
+		cache.invalidate(base);
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void sharedBaseParsedOnce() throws Exception {
+		Path directory = directory();
+		TestFiles.write(directory, "base.ura", "$version: 3\n");
+		List<Path> services = new ArrayList<>();
+
+		for (int i = 0; i < 50; i++) {
+			StringBuilder content = new StringBuilder("import \"base.ura\"\n");
+
+			for (int j = 0; j < 4; j++) {
+				TestFiles.write(directory, "part" + i + "_" + j + ".ura", "key" + j + ": " + i + "\n");
+				content.append("import \"part").append(i).append('_').append(j).append(".ura\"\n");
+			}
+
+			content.append("version: $version\n");
+			services.add(TestFiles.write(directory, "service" + i + ".ura", content.toString()));
+		}
+
+		var cache = new GuraFileCache();
+		AtomicInteger tasks = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+
+		try {
+			GuraLoader loader = GuraLoader.builder()
+					.cache(cache)
+					.executor(task -> {
+						tasks.incrementAndGet();
+						pool.execute(task);
+					})
+					.parallelism(3)
+					.build();
+			List<Future<GuraDocument>> documents = new ArrayList<>();
+
+			for (Path service : services) {
+				documents.add(callers.submit(() -> loader.load(service)));
+			}
+
+			for (int i = 0; i < services.size(); i++) {
+				GuraDocument document = documents.get(i).get();
+				assertEquals(GuraNumber.of((long) i), document.root().get("key3"));
+				assertEquals(GuraVariable.of("version"), document.root().get("version"));
+			}
+		} finally {
+			callers.shutdown();
+			pool.shutdown();
+		}
+
+		// Every file is parsed once: the base, 50 services and 200 parts.
+		assertEquals(251, cache.size());
+		assertTrue(tasks.get() <= 251 * 3, "Tasks " + tasks.get());
+	}
+
+	@Test
+	public void errors() throws IOException {
+		Path directory = directory();
+		var loader = GuraLoader.builder().cache(new GuraFileCache()).build();
+		Path a = TestFiles.write(directory, "a.ura", "import \"b.ura\"\nx: 1\n");
+		TestFiles.write(directory, "b.ura", "import \"a.ura\"\ny: 1\n");
+		var cycle = assertThrows(GuraResolveException.class, () -> loader.load(a));
+		assertTrue(cycle.getMessage().startsWith("Import cycle: "), cycle.getMessage());
+		assertTrue(cycle.getMessage().endsWith("a.ura"), cycle.getMessage());
+
+		TestFiles.write(directory, "base.ura", "x: 1\n");
+		TestFiles.write(directory, "left.ura", "import \"base.ura\"\n");
+		TestFiles.write(directory, "right.ura", "import \"base.ura\"\n");
+		Path twice = TestFiles.write(directory, "twice.ura", "import \"left.ura\"\nimport \"right.ura\"\n");
+		assertThrows(GuraResolveException.class, () -> loader.load(twice));
+
+		Path duplicate = TestFiles.write(directory, "duplicate.ura", "import \"base.ura\"\nx: 2\n");
+		assertEquals(
+				"Duplicate key 'x', defined again in '" + duplicate.toRealPath() + "'",
+				assertThrows(GuraResolveException.class, () -> loader.load(duplicate)).getMessage()
+		);
+
+		Path missing = TestFiles.write(directory, "missing.ura", "import \"nothing.ura\"\n");
+		assertThrows(NoSuchFileException.class, () -> loader.load(missing));
+
+		Path invalid = TestFiles.write(directory, "invalid.ura", "import \"broken.ura\"\n");
+		TestFiles.write(directory, "broken.ura", "a: [1\n");
+		assertThrows(GuraParseException.class, () -> loader.load(invalid));
+	}
+}
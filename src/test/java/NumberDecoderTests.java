@@ -0,0 +1,107 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import me.i509.gura.parser.GuraNumberDecoder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class NumberDecoding {
+	private final GuraNumberDecoder decoder = new GuraNumberDecoder();
+
+	private long integer(String text) {
+		assertEquals(GuraNumberDecoder.Kind.INTEGER, this.decoder.decode(text), text);
+		return this.decoder.longValue();
+	}
+
+	private double floatingPoint(String text) {
+		assertEquals(GuraNumberDecoder.Kind.FLOATING_POINT, this.decoder.decode(text), text);
+		return this.decoder.doubleValue();
+	}
+
+	private void invalid(String text, String error, int index) {
+		assertEquals(GuraNumberDecoder.Kind.INVALID, this.decoder.decode(text), text);
+		assertEquals(error, this.decoder.error());
+		assertEquals(index, this.decoder.errorIndex());
+	}
+
+	@Test
+	public void integers() {
+		assertEquals(0, this.integer("0"));
+		assertEquals(-42, this.integer("-42"));
+		assertEquals(1_000_000, this.integer("+1_000_000"));
+		assertEquals(255, this.integer("0xFF"));
+		assertEquals(-255, this.integer("-0xff"));
+		assertEquals(511, this.integer("0o777"));
+		assertEquals(5, this.integer("0b1_01"));
+		assertEquals(Long.MAX_VALUE, this.integer("9223372036854775807"));
+		assertEquals(Long.MIN_VALUE, this.integer("-9223372036854775808"));
+		assertEquals(Long.MIN_VALUE, this.integer("-0x8000000000000000"));
+	}
+
+	@Test
+	public void floatingPoints() {
+		assertEquals(1.5, this.floatingPoint("1.5"));
+		assertEquals(-0.0015, this.floatingPoint("-1.5e-3"));
+		assertEquals(1.001e11, this.floatingPoint("1_0.0_1e1_0"));
+		assertEquals(0.1, this.floatingPoint("0.1"));
+		assertEquals(-0.0, this.floatingPoint("-0.0"));
+		assertEquals(Double.MAX_VALUE, this.floatingPoint("1.7976931348623157e308"));
+		assertEquals(Double.MIN_VALUE, this.floatingPoint("4.9e-324"));
+		assertEquals(1.2345678901234568E29, this.floatingPoint("123456789012345678901234567890.5"));
+		assertEquals(Double.POSITIVE_INFINITY, this.floatingPoint("+inf"));
+		assertEquals(Double.NaN, this.floatingPoint("nan"));
+	}
+
+	@Test
+	public void exactRounding() {
+		// Every decimal of up to 17 digits must round to the same double as the JDK.
+		var random = new Random(509);
+
+		for (int i = 0; i < 100_000; i++) {
+			String text = random.nextLong() % 100_000_000 + "." + Math.abs(random.nextLong() % 1_000_000_000L)
+					+ "e" + (random.nextInt(80) - 40);
+
+			assertEquals(Double.parseDouble(text), this.floatingPoint(text), text);
+		}
+	}
+
+	@Test
+	public void overflow() {
+		assertEquals(GuraNumberDecoder.Kind.BIG_INTEGER, this.decoder.decode("9223372036854775808"));
+		assertEquals(new BigInteger("9223372036854775808"), this.decoder.bigIntegerValue());
+		assertEquals(GuraNumberDecoder.Kind.BIG_INTEGER, this.decoder.decode("-0x1_0000_0000_0000_0000"));
+		assertEquals(BigInteger.ONE.shiftLeft(64).negate(), this.decoder.bigIntegerValue());
+		assertEquals(GuraNumberDecoder.Kind.BIG_DECIMAL, this.decoder.decode("-1.5e400"));
+		assertEquals(new BigDecimal("-1.5e400"), this.decoder.bigDecimalValue());
+		assertEquals(Double.NEGATIVE_INFINITY, this.decoder.doubleValue());
+		assertThrows(IllegalStateException.class, this.decoder::longValue);
+	}
+
+	@Test
+	public void spans() {
+		assertEquals(GuraNumberDecoder.Kind.INTEGER, this.decoder.decode("port: 8080\n", 6, 10));
+		assertEquals(8080, this.decoder.longValue());
+		assertThrows(IndexOutOfBoundsException.class, () -> this.decoder.decode("8080", 2, 5));
+	}
+
+	@Test
+	public void errors() {
+		this.invalid("", "Expected a digit", 0);
+		this.invalid("-", "Expected a digit", 1);
+		this.invalid("_1", "Expected a digit, found '_'", 0);
+		this.invalid("1__0", "Underscores must be between digits", 1);
+		this.invalid("1_", "Underscores must be between digits", 1);
+		this.invalid("1_.5", "Underscores must be between digits", 1);
+		this.invalid("0x", "Expected digits after the prefix", 2);
+		this.invalid("0b102", "Invalid digit '2' in a number of base 2", 4);
+		this.invalid("1.", "Expected digits after the decimal point", 2);
+		this.invalid("1.e5", "Expected digits after the decimal point", 2);
+		this.invalid("1e+", "Expected digits in the exponent", 3);
+		this.invalid("1.5f", "Unexpected character 'f' in a number", 3);
+		this.invalid("1e99999999999", "Number is too large", 0);
+		assertThrows(IllegalStateException.class, this.decoder::doubleValue);
+	}
+}
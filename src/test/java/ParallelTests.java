@@ -0,0 +1,70 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenBuffer;
+import me.i509.gura.token.TokenizationResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class ParallelTokenize {
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	private static void assertSameAsSequential(String content) {
+		TokenizationResult expected = Token.tokenize(content);
+		TokenizationResult actual = Token.tokenizeParallel(content, POOL);
+		TokenBuffer expectedBuffer = expected.buffer();
+		TokenBuffer actualBuffer = actual.buffer();
+
+		assertEquals(expectedBuffer.size(), actualBuffer.size());
+
+		for (int i = 0; i < expectedBuffer.size(); i++) {
+			assertEquals(expectedBuffer.token(i), actualBuffer.token(i));
+			assertEquals(expectedBuffer.offset(i), actualBuffer.offset(i));
+		}
+	}
+
+	@Test
+	public void smallContent() {
+		assertSameAsSequential("key: value\n");
+	}
+
+	@Test
+	public void largeConfig() {
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; builder.length() < 1 << 20; i++) {
+			builder.append("# entry ").append(i).append("\r\n")
+					.append("key_").append(i).append(":\n")
+					.append("    value: ").append(i).append('\n')
+					.append("    list: [0x").append(Integer.toHexString(i)).append(", $var]\n");
+		}
+
+		assertSameAsSequential(builder.toString());
+		assertSameAsSequential("\uFEFF" + builder);
+	}
+
+	@Test
+	public void randomContent() {
+		String alphabet = "ab10x9e._-+:#\r\n\t[],$ \"'\\";
+		Random random = new Random(509);
+
+		for (int round = 0; round < 4; round++) {
+			StringBuilder builder = new StringBuilder();
+
+			while (builder.length() < 1 << 19) {
+				builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+
+			assertSameAsSequential(builder.toString());
+		}
+	}
+
+	@Test
+	public void longLines() {
+		// Lines longer than a chunk make chunks start at the same line.
+		String line = "k".repeat(300_000) + ": v\n";
+		assertSameAsSequential(line.repeat(4));
+	}
+}
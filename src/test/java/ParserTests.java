@@ -0,0 +1,256 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.ast.GuraArray;
+import me.i509.gura.ast.GuraBoolean;
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraNull;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ParseObjects {
+	@Test
+	public void flatObject() {
+		var expected = GuraObject.builder()
+				.put("title", GuraString.of("Gura"))
+				.put("port", GuraNumber.of(8080L))
+				.put("enabled", GuraBoolean.TRUE)
+				.build();
+
+		assertEquals(expected, GuraParser.parse("title: \"Gura\"\nport: 8080\nenabled: true\n").root());
+	}
+
+	@Test
+	public void nestedObjects() {
+		var content = "server:\n"
+				+ "    host: 'localhost'\n"
+				+ "\n"
+				+ "    # The limits of the server\n"
+				+ "    limits:\n"
+				+ "        requests: 100  # per second\n"
+				+ "    name: \"api\"\n"
+				+ "other: null\n";
+		var limits = GuraObject.builder().put("requests", GuraNumber.of(100L)).build();
+		var server = GuraObject.builder()
+				.put("host", GuraString.of("localhost"))
+				.put("limits", limits)
+				.put("name", GuraString.of("api"))
+				.build();
+		var expected = GuraObject.builder().put("server", server).put("other", GuraNull.INSTANCE).build();
+
+		assertEquals(expected, GuraParser.parse(content).root());
+		assertEquals(List.of("server", "other"), List.copyOf(GuraParser.parse(content).root().keys()));
+	}
+
+	@Test
+	public void emptyObject() {
+		assertEquals(GuraObject.empty(), GuraParser.parse("a: empty").root().get("a"));
+	}
+
+	@Test
+	public void emptyDocument() {
+		assertEquals(GuraObject.empty(), GuraParser.parse("").root());
+		assertEquals(GuraObject.empty(), GuraParser.parse("# only a comment\n\n").root());
+	}
+
+	@Test
+	public void variablesAndImports() {
+		var content = "import \"base.ura\"\n"
+				+ "import \"other.ura\"\n"
+				+ "$host: \"localhost\"\n"
+				+ "url: \"http://$host:8080\"\n"
+				+ "host: $host\n";
+		GuraDocument document = GuraParser.parse(content);
+		var url = GuraInterpolatedString.of(List.of(
+				GuraString.of("http://"),
+				GuraVariable.of("host"),
+				GuraString.of(":8080")
+		));
+
+		assertEquals(List.of("base.ura", "other.ura"), document.imports());
+		assertEquals(Map.of("host", GuraString.of("localhost")), document.variables());
+		assertEquals(url, document.root().get("url"));
+		assertEquals(GuraVariable.of("host"), document.root().get("host"));
+	}
+
+	@Test
+	public void variablesAtEndOfContent() {
+		// Without a trailing newline, the digits at the end of a variable name are tokenized apart from the name.
+		assertEquals(GuraVariable.of("var_1"), GuraParser.parse("a: $var_1").root().get("a"));
+		assertEquals(GuraVariable.of("v0"), GuraParser.parse("a: 1\nb: $v0").root().get("b"));
+		assertEquals(GuraArray.of(GuraVariable.of("port1")), GuraParser.parse("a: [$port1]").root().get("a"));
+		assertThrows(GuraParseException.class, () -> GuraParser.parse("a: $var-1"));
+	}
+}
+
+final class ParseValues {
+	private static GuraValue value(String text) {
+		return GuraParser.parse("v: " + text).root().get("v");
+	}
+
+	@Test
+	public void numbers() {
+		assertEquals(GuraNumber.of(0L), value("0"));
+		assertEquals(GuraNumber.of(7L), value("7\n"));
+		assertEquals(GuraNumber.of(-42L), value("-42"));
+		assertEquals(GuraNumber.of(1_000_000L), value("+1_000_000"));
+		assertEquals(GuraNumber.of(255L), value("0xFF"));
+		assertEquals(GuraNumber.of(8L), value("0o10"));
+		assertEquals(GuraNumber.of(5L), value("0b101"));
+		assertEquals(GuraNumber.of(1.5), value("1.5"));
+		assertEquals(GuraNumber.of(-0.0015), value("-1.5e-3"));
+		assertEquals(GuraNumber.of(Double.NEGATIVE_INFINITY), value("-inf"));
+		assertEquals(GuraNumber.of(Double.NaN), value("nan"));
+	}
+
+	@Test
+	public void bigNumbers() {
+		var integer = new BigInteger("9223372036854775808");
+		var decimal = new BigDecimal("1.79e309");
+
+		assertEquals(GuraNumber.of(integer), value("9223372036854775808"));
+		assertEquals(GuraNumber.of(integer.negate().subtract(BigInteger.ONE)), value("-9223372036854775809"));
+		assertEquals(integer.shiftLeft(1), value("0x1_0000_0000_0000_0000").asNumber().value());
+		assertEquals(GuraNumber.of(decimal), value("1.79e309"));
+		assertEquals(decimal, value("17.9e308").asNumber().value());
+		assertTrue(value("1.79e309").asNumber().isBig());
+		assertFalse(value("1.79e309").asNumber().isInteger());
+		assertEquals(Double.POSITIVE_INFINITY, value("1.79e309").asNumber().doubleValue());
+		assertEquals(Long.MAX_VALUE, value("9223372036854775808").asNumber().longValue());
+
+		// Numbers which fit in a primitive are stored as one, whichever way they are created.
+		assertEquals(GuraNumber.of(Long.MIN_VALUE), GuraNumber.of(BigInteger.valueOf(Long.MIN_VALUE)));
+		assertEquals(GuraNumber.of(1.5), GuraNumber.of(new BigDecimal("1.5")));
+		assertFalse(GuraNumber.of(BigInteger.valueOf(Long.MAX_VALUE)).isBig());
+	}
+
+	@Test
+	public void strings() {
+		assertEquals(GuraString.of("plain"), value("\"plain\""));
+		assertEquals(GuraString.of("C:\\path"), value("'C:\\path'"));
+		assertEquals(GuraString.of("tab\there \"quoted\" $5"), value("\"tab\\there \\\"quoted\\\" \\$5\""));
+		assertEquals(GuraString.of("\u00FC\uD83D\uDE00"), value("\"\\u00FC\\U0001F600\""));
+		assertEquals(GuraString.of("line one\nline two"), value("'''\nline one\nline two'''"));
+		assertEquals(GuraString.of("joined lines"), value("\"\"\"joined \\\n    lines\"\"\""));
+	}
+
+	@Test
+	public void keywords() {
+		assertEquals(GuraBoolean.TRUE, value("true"));
+		assertEquals(GuraBoolean.FALSE, value("false"));
+		assertEquals(GuraNull.INSTANCE, value("null"));
+	}
+}
+
+final class ParseArrays {
+	@Test
+	public void inlineArrays() {
+		var expected = GuraArray.of(
+				GuraNumber.of(1L),
+				GuraString.of("two"),
+				GuraArray.of(GuraBoolean.TRUE, GuraArray.of()),
+				GuraNull.INSTANCE
+		);
+
+		assertEquals(expected, GuraParser.parse("a: [1, \"two\", [true, []], null,]").root().get("a"));
+	}
+
+	@Test
+	public void multilineArray() {
+		var content = "a: [\n"
+				+ "    1,  # one\n"
+				+ "\n"
+				+ "    2\n"
+				+ "]\n"
+				+ "b: 3";
+		var expected = GuraObject.builder()
+				.put("a", GuraArray.of(GuraNumber.of(1L), GuraNumber.of(2L)))
+				.put("b", GuraNumber.of(3L))
+				.build();
+
+		assertEquals(expected, GuraParser.parse(content).root());
+	}
+
+	@Test
+	public void objectsInArray() {
+		var content = "singers: [\n"
+				+ "    user1:\n"
+				+ "        name: \"Carlos\"\n"
+				+ "        year: 1890,\n"
+				+ "    user2:\n"
+				+ "        name: \"Anibal\"\n"
+				+ "        year: 1897\n"
+				+ "]\n"
+				+ "inline: [a: 1, b: 2]";
+		var user1 = GuraObject.builder().put("name", GuraString.of("Carlos")).put("year", GuraNumber.of(1890L)).build();
+		var user2 = GuraObject.builder().put("name", GuraString.of("Anibal")).put("year", GuraNumber.of(1897L)).build();
+		var singers = GuraArray.of(
+				GuraObject.builder().put("user1", user1).build(),
+				GuraObject.builder().put("user2", user2).build()
+		);
+		var inline = GuraArray.of(
+				GuraObject.builder().put("a", GuraNumber.of(1L)).build(),
+				GuraObject.builder().put("b", GuraNumber.of(2L)).build()
+		);
+		GuraObject root = GuraParser.parse(content).root();
+
+		assertEquals(singers, root.get("singers"));
+		assertEquals(inline, root.get("inline"));
+	}
+}
+
+final class ParseErrors {
+	private static GuraParseException error(String content) {
+		return assertThrows(GuraParseException.class, () -> GuraParser.parse(content));
+	}
+
+	@Test
+	public void positions() {
+		var exception = error("a: 1\n    b: 2");
+
+		assertEquals(2, exception.row());
+		assertEquals(5, exception.column());
+	}
+
+	@Test
+	public void invalidNumbers() {
+		var exception = error("a: 1\nb: 1_000.5_f");
+
+		assertEquals("Underscores must be between digits", exception.reason());
+		assertEquals(2, exception.row());
+		assertEquals(11, exception.column());
+	}
+
+	@Test
+	public void invalidDocuments() {
+		error("a:\n");
+		error("a: value");
+		error("a 1");
+		error("a: [1 2]");
+		error("a: [1, 2");
+		error("a: [1,\n");
+		error("a: 1 2");
+		error("a: 1\na: 2");
+		error("$a: 1\n$a: 2");
+		error("a: 1\nimport \"file.ura\"");
+		error("a:\n\tb: 1");
+		error("a:\n  b: 1");
+		error("a: \"\\q\"");
+		error("a: 1.5f");
+		error("a: \"unterminated");
+	}
+}
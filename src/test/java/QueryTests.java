@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.parser.GuraLazyDocument;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.parser.GuraQuery;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Queries {
+	private static final String DOCUMENT = "$port: 1\n"
+			+ "services:\n"
+			+ "    api:\n"
+			+ "        host: \"api.local\"\n"
+			+ "        ports: [80, 443, [8080, 8081]]\n"
+			+ "        timeout: 30\n"
+			+ "    db:\n"
+			+ "        host: \"db.local\"\n"
+			+ "        timeout: 5.5\n"
+			+ "list: [\n"
+			+ "    name: \"a\"\n"
+			+ "    size: $port,\n"
+			+ "    name: \"b\"\n"
+			+ "    size: 2\n"
+			+ "]\n"
+			+ "timeout: 1\n";
+
+	private static final GuraQuery QUERY = GuraQuery.compile(
+			"services.api.ports[2][1]",
+			"services.*.timeout",
+			"list[*].name",
+			"list[1]",
+			"services.api",
+			"*",
+			"missing.key"
+	);
+
+	@Test
+	public void matches() {
+		GuraDocument document = GuraParser.parse(DOCUMENT);
+		GuraValue services = document.root().get("services");
+
+		for (GuraQuery.Result result : List.of(QUERY.run(DOCUMENT), QUERY.run(GuraLazyDocument.parse(DOCUMENT)))) {
+			assertEquals(Map.of("services.api.ports[2][1]", GuraNumber.of(8081)),
+					result.matches("services.api.ports[2][1]"));
+			assertEquals(List.of("services.api.timeout", "services.db.timeout"),
+					List.copyOf(result.matches("services.*.timeout").keySet()));
+			assertEquals(GuraNumber.of(5.5), result.matches("services.*.timeout").get("services.db.timeout"));
+			assertEquals(List.of(GuraString.of("a"), GuraString.of("b")),
+					List.copyOf(result.matches("list[*].name").values()));
+			assertEquals(document.root().get("list").asArray().get(1), result.first("list[1]"));
+			assertEquals(services.asObject().get("api"), result.first("services.api"));
+			assertEquals(List.of("services", "list", "timeout"), List.copyOf(result.matches("*").keySet()));
+			assertEquals(services, result.first("*"));
+			assertNull(result.first("missing.key"));
+			assertThrows(IllegalArgumentException.class, () -> result.matches("other"));
+		}
+	}
+
+	@Test
+	public void stopsEarly() {
+		String content = "server:\n"
+				+ "    port: 8080\n"
+				+ "    nested:\n"
+				+ "        value: true\n"
+				+ "invalid: [\n";
+		GuraQuery query = GuraQuery.compile("server.port", "server.nested");
+
+		assertThrows(GuraParseException.class, () -> GuraParser.parse(content));
+		assertEquals(GuraNumber.of(8080), query.run(content).first("server.port"));
+		// A path which is not found is settled once the object which would hold it ends.
+		assertEquals(Map.of(), GuraQuery.compile("server.missing").run(content).matches("server.missing"));
+		assertThrows(GuraParseException.class, () -> GuraQuery.compile("missing").run(content));
+
+		int[] read = new int[1];
+		StringBuilder large = new StringBuilder("first: 1\n");
+
+		for (int i = 0; i < 100_000; i++) {
+			large.append("key").append(i).append(": ").append(i).append('\n');
+		}
+
+		Reader reader = new StringReader(large.toString()) {
+			@Override
+			public int read(char[] buffer, int offset, int length) throws IOException {
+				int count = super.read(buffer, offset, length);
+				read[0] += Math.max(count, 0);
+				return count;
+			}
+		};
+
+		assertEquals(GuraNumber.of(1), GuraQuery.compile("first").run(reader).first("first"));
+		assertTrue(read[0] < large.length() / 10, "Read " + read[0] + " of " + large.length());
+	}
+
+	@Test
+	public void nestedVariables() {
+		String content = "a:\n    $v: 1\n    b: 2\n";
+		GuraQuery query = GuraQuery.compile("a.*");
+
+		for (GuraQuery.Result result : List.of(query.run(content), query.run(GuraLazyDocument.parse(content)))) {
+			assertEquals(Map.of("a.b", GuraNumber.of(2)), result.matches("a.*"));
+		}
+	}
+
+	@Test
+	public void lazyDocument() {
+		GuraLazyDocument document = GuraLazyDocument.parse("good:\n    value: 1\nbad: 1 2\n");
+		GuraQuery query = GuraQuery.compile("good.value", "missing");
+
+		assertEquals(GuraNumber.of(1), query.run(document).first("good.value"));
+		assertThrows(GuraParseException.class, () -> GuraQuery.compile("*.value").run(document));
+	}
+
+	@Test
+	public void invalidPaths() {
+		for (String path : List.of("", "a.", ".a", "a[", "a[x]", "a[1", "a..b", "$a", "a]", "a[9999999999]")) {
+			assertThrows(IllegalArgumentException.class, () -> GuraQuery.compile(path), path);
+		}
+	}
+}
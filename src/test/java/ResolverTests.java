@@ -0,0 +1,126 @@
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.i509.gura.ast.GuraArray;
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraValue;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.resolve.GuraResolveException;
+import me.i509.gura.resolve.GuraVariableResolver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class Variables {
+	private static final String DOCUMENT = "$host: \"example.com\"\n"
+			+ "$port: 8080\n"
+			+ "$url: \"http://$host:$port\"\n"
+			+ "$api: \"$url/api\"\n"
+			+ "service:\n"
+			+ "    url: $api\n"
+			+ "    ports: [$port, 443]\n"
+			+ "    name: \"static\"\n"
+			+ "other:\n"
+			+ "    enabled: true\n";
+
+	@Test
+	public void resolveDocument() {
+		GuraDocument document = GuraParser.parse(DOCUMENT);
+		GuraDocument resolved = GuraVariableResolver.of(document).resolve(document);
+		var service = resolved.root().get("service").asObject();
+
+		assertEquals(GuraString.of("http://example.com:8080/api"), service.get("url"));
+		assertEquals(GuraArray.of(GuraNumber.of(8080L), GuraNumber.of(443L)), service.get("ports"));
+		assertEquals(GuraString.of("http://example.com:8080"), resolved.variables().get("url"));
+		// Values without variables are shared.
+		assertSame(document.root().get("other"), resolved.root().get("other"));
+		assertSame(document.root().get("service").asObject().get("name"), service.get("name"));
+	}
+
+	@Test
+	public void memoize() {
+		var resolver = GuraVariableResolver.of(GuraParser.parse(DOCUMENT));
+		GuraValue api = resolver.resolve("api");
+		GuraValue url = resolver.resolve("url");
+
+		assertSame(api, resolver.resolve("api"));
+		assertSame(url, resolver.resolve(GuraVariable.of("url")));
+		assertEquals(4, resolver.resolveAll().size());
+	}
+
+	@Test
+	public void redefine() {
+		var resolver = GuraVariableResolver.of(GuraParser.parse(DOCUMENT));
+		GuraValue port = resolver.resolve("port");
+		GuraValue url = resolver.resolve("api");
+
+		resolver.define("host", GuraString.of("localhost"));
+
+		assertSame(port, resolver.resolve("port"));
+		assertNotSame(url, resolver.resolve("api"));
+		assertEquals(GuraString.of("http://localhost:8080/api"), resolver.resolve("api"));
+
+		resolver.define("extra", GuraInterpolatedString.of(List.of(GuraVariable.of("api"))));
+		assertEquals(GuraString.of("http://localhost:8080/api"), resolver.resolve("extra"));
+	}
+
+	@Test
+	public void cycles() {
+		var exception = assertThrows(
+				GuraResolveException.class,
+				() -> GuraVariableResolver.of(GuraParser.parse("$a: $b\n$b: \"x$c\"\n$c: $a\n"))
+		);
+		assertEquals("Variable '$a' depends on itself: $a -> $b -> $c -> $a", exception.getMessage());
+
+		var resolver = GuraVariableResolver.of(GuraParser.parse("$a: $b\n$b: 1\n"));
+		assertThrows(GuraResolveException.class, () -> resolver.define("b", GuraVariable.of("a")));
+		// A rejected definition leaves the previous one in place.
+		assertEquals(GuraNumber.of(1L), resolver.resolve("a"));
+		assertThrows(GuraResolveException.class, () -> resolver.define("c", GuraVariable.of("c")));
+		assertEquals(2, resolver.names().size());
+	}
+
+	@Test
+	public void errors() {
+		var resolver = GuraVariableResolver.of(GuraParser.parse("$a: $missing\n$b: \"x\"\n"));
+
+		assertEquals(
+				"Variable '$missing' is not defined, referenced by '$a'",
+				assertThrows(GuraResolveException.class, () -> resolver.resolve("a")).getMessage()
+		);
+		assertThrows(GuraResolveException.class, () -> resolver.resolve("c"));
+		assertEquals(GuraString.of("x"), resolver.resolve("b"));
+
+		resolver.define("list", GuraArray.of(GuraNumber.of(1L)));
+		resolver.define("text", GuraInterpolatedString.of(List.of(GuraVariable.of("list"))));
+		assertEquals(
+				"Cannot interpolate '$list', it holds an array",
+				assertThrows(GuraResolveException.class, () -> resolver.resolve("text")).getMessage()
+		);
+	}
+
+	@Test
+	public void longChains() {
+		Map<String, GuraValue> variables = new LinkedHashMap<>();
+
+		for (int i = 0; i < 100_000; i++) {
+			variables.put("v" + i, GuraVariable.of("v" + (i + 1)));
+		}
+
+		variables.put("v100000", GuraNumber.of(1.5));
+		var resolver = GuraVariableResolver.of(variables);
+
+		assertEquals(GuraNumber.of(1.5), resolver.resolve("v0"));
+
+		resolver.define("v100000", GuraNumber.of(2L));
+		assertEquals(GuraNumber.of(2L), resolver.resolve("v0"));
+	}
+}
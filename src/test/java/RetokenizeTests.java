@@ -0,0 +1,92 @@
+import java.util.Random;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenBuffer;
+import me.i509.gura.token.TokenizationResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class Retokenize {
+	private static void assertSameTokens(TokenizationResult expected, TokenizationResult actual, String content) {
+		TokenBuffer expectedBuffer = expected.buffer();
+		TokenBuffer actualBuffer = actual.buffer();
+
+		assertEquals(expected.tokens(), actual.tokens(), content);
+
+		for (int i = 0; i < expectedBuffer.size(); i++) {
+			assertEquals(expectedBuffer.offset(i), actualBuffer.offset(i), content);
+		}
+	}
+
+	private static void assertEdit(String before, int offset, int removedLength, String inserted) {
+		String after = before.substring(0, offset) + inserted + before.substring(offset + removedLength);
+		TokenizationResult previous = Token.tokenize(before);
+
+		assertSameTokens(
+				Token.tokenize(after),
+				Token.retokenize(previous, after, offset, removedLength, inserted.length()),
+				after
+		);
+	}
+
+	@Test
+	public void insertIntoValue() {
+		assertEdit("a: 1\nb: 2\nc: 3\n", 8, 0, "23");
+	}
+
+	@Test
+	public void insertLines() {
+		assertEdit("a: 1\nb: 2\nc: 3\n", 5, 0, "x: 9\ny: 8\n");
+	}
+
+	@Test
+	public void removeLines() {
+		assertEdit("a: 1\nb: 2\nc: 3\n", 5, 5, "");
+	}
+
+	@Test
+	public void joinLines() {
+		assertEdit("a: 1\r\nb: 2\nc: 3\n", 5, 1, "");
+	}
+
+	@Test
+	public void editChangesEarlierTokenOnLine() {
+		// "key12" is split into an identifier and a number only because a space follows the digits.
+		assertEdit("x: 1\nkey12 # comment\ny: 2\n", 10, 1, "");
+	}
+
+	@Test
+	public void appendToEnd() {
+		assertEdit("a: 12", 5, 0, "x");
+	}
+
+	@Test
+	public void insertIntoEmpty() {
+		assertEdit("", 0, 0, "a: b\n");
+	}
+
+	@Test
+	public void randomEdits() {
+		String alphabet = "ab10x9e._-+:#\r\n\t[],$ \"'\\";
+		Random random = new Random(509);
+
+		for (int i = 0; i < 2000; i++) {
+			String before = randomString(random, alphabet, random.nextInt(80));
+			int offset = random.nextInt(before.length() + 1);
+			int removedLength = random.nextInt(before.length() - offset + 1);
+
+			assertEdit(before, offset, removedLength, randomString(random, alphabet, random.nextInt(8)));
+		}
+	}
+
+	private static String randomString(Random random, String alphabet, int length) {
+		StringBuilder builder = new StringBuilder(length);
+
+		for (int i = 0; i < length; i++) {
+			builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+
+		return builder.toString();
+	}
+}
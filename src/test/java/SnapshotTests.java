@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.snapshot.GuraSnapshot;
+import me.i509.gura.snapshot.GuraSnapshotException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Snapshots {
+	private static final String DOCUMENT = "import \"base.ura\"\n"
+			+ "$host: \"example.com\"\n"
+			+ "$port: 8080\n"
+			+ "title: \"Gura \u2713\"\n"
+			+ "url: \"http://$host:$port\"\n"
+			+ "port: $port\n"
+			+ "numbers: [0, -1, 134217728, -9223372036854775808, 1.5, inf, nan]\n"
+			+ "big: [-9223372036854775809, 1e400]\n"
+			+ "flags: [true, false, null]\n"
+			+ "server:\n"
+			+ "    name: \"title\"\n"
+			+ "    nested:\n"
+			+ "        deep: empty\n"
+			+ "empty_array: []\n";
+
+	private static byte[] hash(String content) {
+		return GuraSnapshot.hash(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void roundTrip() {
+		GuraDocument document = GuraParser.parse(DOCUMENT);
+		byte[] hash = hash(DOCUMENT);
+		GuraSnapshot snapshot = GuraSnapshot.of(ByteBuffer.wrap(GuraSnapshot.encode(document, hash)));
+
+		assertEquals(document, snapshot.document());
+		assertEquals(List.copyOf(document.root().keys()), snapshot.keys());
+		assertEquals(List.of("base.ura"), snapshot.imports());
+		assertEquals(GuraNumber.of(8080L), snapshot.variable("port"));
+		assertNull(snapshot.variable("missing"));
+		assertArrayEquals(hash, snapshot.sourceHash());
+		assertTrue(snapshot.isValidFor(hash));
+		assertFalse(snapshot.isValidFor(hash(DOCUMENT + "\n")));
+	}
+
+	@Test
+	public void lazyValues() {
+		GuraDocument document = GuraParser.parse(DOCUMENT);
+		GuraSnapshot snapshot = GuraSnapshot.of(ByteBuffer.wrap(GuraSnapshot.encode(document, hash(DOCUMENT))));
+
+		assertEquals(document.root().get("server"), snapshot.get("server"));
+		assertSame(snapshot.get("server"), snapshot.get("server"));
+		assertEquals(GuraString.of("Gura \u2713"), snapshot.get("title"));
+		assertTrue(snapshot.containsKey("empty_array"));
+		assertFalse(snapshot.containsKey("name"));
+		assertNull(snapshot.get("missing"));
+	}
+
+	@Test
+	public void loadFiles() throws IOException {
+		Path directory = Files.createTempDirectory("gura");
+		directory.toFile().deleteOnExit();
+		Path source = directory.resolve("config.ura");
+		Path file = directory.resolve("config.ura.snapshot");
+		source.toFile().deleteOnExit();
+		file.toFile().deleteOnExit();
+		Files.writeString(source, "port: 8080\nname: \"service\"\n");
+
+		GuraSnapshot created = GuraSnapshot.load(source, file);
+		assertEquals(GuraNumber.of(8080L), created.get("port"));
+		assertTrue(Files.exists(file));
+
+		GuraSnapshot opened = GuraSnapshot.open(file);
+		assertTrue(opened.isValidFor(source));
+		assertEquals(GuraParser.parse(source), opened.document());
+		assertEquals(GuraString.of("service"), GuraSnapshot.load(source, file).get("name"));
+
+		Files.writeString(source, "port: 9090\n");
+		assertFalse(opened.isValidFor(source));
+		GuraSnapshot reloaded = GuraSnapshot.load(source, file);
+		assertEquals(GuraNumber.of(9090L), reloaded.get("port"));
+		assertEquals(List.of("port"), reloaded.keys());
+		// The previous mapping is still readable after the file was replaced.
+		assertEquals(GuraNumber.of(8080L), opened.get("port"));
+
+		Files.write(file, new byte[] {1, 2, 3});
+		assertThrows(GuraSnapshotException.class, () -> GuraSnapshot.open(file));
+		assertEquals(GuraNumber.of(9090L), GuraSnapshot.load(source, file).get("port"));
+	}
+
+	@Test
+	public void malformed() {
+		byte[] encoded = GuraSnapshot.encode(GuraParser.parse("a: 1\n"), hash(""));
+
+		assertThrows(GuraSnapshotException.class, () -> GuraSnapshot.of(ByteBuffer.wrap(encoded, 0, 40)));
+		assertThrows(
+				GuraSnapshotException.class,
+				() -> GuraSnapshot.of(ByteBuffer.wrap(encoded, 0, encoded.length - 1))
+		);
+
+		encoded[4] = 9;
+		assertEquals(
+				"Unsupported snapshot version 9",
+				assertThrows(GuraSnapshotException.class, () -> GuraSnapshot.of(ByteBuffer.wrap(encoded))).getMessage()
+		);
+		assertThrows(IllegalArgumentException.class, () -> GuraSnapshot.encode(GuraParser.parse(""), new byte[4]));
+	}
+
+	@Test
+	public void corrupt() throws IOException {
+		byte[] encoded = GuraSnapshot.encode(GuraParser.parse(DOCUMENT), hash(DOCUMENT));
+		byte[] flipped = encoded.clone();
+		flipped[encoded.length - 1] ^= 1;
+
+		assertEquals(
+				"Corrupt snapshot, checksum mismatch",
+				assertThrows(GuraSnapshotException.class, () -> GuraSnapshot.of(ByteBuffer.wrap(flipped))).getMessage()
+		);
+
+		Path directory = Files.createTempDirectory("gura");
+		directory.toFile().deleteOnExit();
+		Path source = directory.resolve("config.ura");
+		Path file = directory.resolve("config.ura.snapshot");
+		source.toFile().deleteOnExit();
+		file.toFile().deleteOnExit();
+		Files.writeString(source, DOCUMENT);
+		Files.write(file, flipped);
+		assertEquals(GuraParser.parse(DOCUMENT), GuraSnapshot.load(source, file).document());
+
+		// Sizes and offsets are checked even when the checksum matches.
+		ByteBuffer buffer = ByteBuffer.wrap(encoded.clone()).order(ByteOrder.LITTLE_ENDIAN);
+		int root = firstStructure(buffer);
+		int size = buffer.getInt(root);
+		buffer.putInt(root, Integer.MAX_VALUE);
+		assertThrows(GuraSnapshotException.class, () -> GuraSnapshot.of(checksum(buffer)));
+
+		// The value of the first entry of the root object is replaced by an array at the offset of the root object.
+		buffer.putInt(root, size);
+		buffer.putInt(root + 2 * Integer.BYTES, 9);
+		GuraSnapshot snapshot = GuraSnapshot.of(checksum(buffer));
+		assertThrows(GuraSnapshotException.class, snapshot::document);
+	}
+
+	private static int firstStructure(ByteBuffer buffer) {
+		int header = 40 + Long.BYTES;
+		int strings = buffer.getInt(header);
+		int longs = buffer.getInt(header + 4);
+		int doubles = buffer.getInt(header + 8);
+		return header + 8 * Integer.BYTES + doubles * Double.BYTES + longs * Long.BYTES + (strings + 1) * Integer.BYTES;
+	}
+
+	private static ByteBuffer checksum(ByteBuffer buffer) {
+		CRC32C checksum = new CRC32C();
+		checksum.update(buffer.array(), 48, buffer.capacity() - 48);
+		buffer.putLong(40, checksum.getValue());
+		return ByteBuffer.wrap(buffer.array());
+	}
+}
@@ -0,0 +1,144 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import me.i509.gura.token.Token;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Strings {
+	private static Token last(String content) {
+		List<Token> tokens = Token.tokenize(content).tokens();
+		return tokens.get(tokens.size() - 1);
+	}
+
+	@Test
+	public void basicString() {
+		var expected = List.of(
+				new Token(3, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 4),
+				new Token(1, Token.Type.SPACE_WS, 1, 5),
+				new Token(7, Token.Type.BASIC_STRING_VALUE, 1, 6)
+		);
+
+		assertEquals(expected, Token.tokenize("key: \"value\"").tokens());
+	}
+
+	@Test
+	public void literalString() {
+		var expected = List.of(
+				new Token(3, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 4),
+				new Token(1, Token.Type.SPACE_WS, 1, 5),
+				new Token(11, Token.Type.LITERAL_STRING_VALUE, 1, 6)
+		);
+
+		// Backslashes and variables have no meaning in literal strings.
+		assertEquals(expected, Token.tokenize("key: 'C:\\$path\\'").tokens());
+	}
+
+	@Test
+	public void emptyStrings() {
+		assertEquals(new Token(2, Token.Type.BASIC_STRING_VALUE, 1, 1), last("\"\""));
+		assertEquals(new Token(2, Token.Type.LITERAL_STRING_VALUE, 1, 1), last("''"));
+	}
+
+	@Test
+	public void escapesAndInterpolations() {
+		assertEquals(Token.ESCAPES, last("\"say \\\"hi\\\"\"").flags());
+		assertEquals(Token.INTERPOLATIONS, last("\"Hello $name\"").flags());
+		assertEquals(Token.ESCAPES | Token.INTERPOLATIONS, last("\"$a\\t$b\"").flags());
+		assertEquals(0, last("\"plain\"").flags());
+		assertEquals(0, last("'$plain'").flags());
+	}
+
+	@Test
+	public void escapedQuoteDoesNotCloseString() {
+		var expected = List.of(
+				new Token(-1, 6, Token.Type.BASIC_STRING_VALUE, 1, 1, Token.ESCAPES),
+				new Token(1, Token.Type.SPACE_WS, 1, 7)
+		);
+
+		assertEquals(expected, Token.tokenize("\"a\\\"b\" ").tokens());
+	}
+
+	@Test
+	public void multilineBasicString() {
+		var expected = List.of(
+				new Token(1, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 2),
+				new Token(1, Token.Type.SPACE_WS, 1, 3),
+				new Token(-1, 15, Token.Type.BASIC_STRING_VALUE, 1, 4, Token.MULTILINE | Token.ESCAPES),
+				new Token(1, Token.Type.NEWLINE, 3, 7),
+				new Token(1, Token.Type.IDENTIFIER, 4, 1)
+		);
+
+		assertEquals(expected, Token.tokenize("a: \"\"\"\none\\\ntwo\"\"\"\nb").tokens());
+	}
+
+	@Test
+	public void multilineLiteralString() {
+		var expected = List.of(
+				new Token(-1, 13, Token.Type.LITERAL_STRING_VALUE, 1, 1, Token.MULTILINE),
+				new Token(1, Token.Type.SPACE_WS, 2, 10)
+		);
+
+		assertEquals(expected, Token.tokenize("'''\n'a' b'''' ").tokens());
+	}
+
+	@Test
+	public void multilineStringEndsWithQuotes() {
+		// Up to two quotes before the closing quotes are part of the string.
+		var withQuotes = new Token(-1, 9, Token.Type.BASIC_STRING_VALUE, 1, 1, Token.MULTILINE);
+		var empty = new Token(-1, 6, Token.Type.BASIC_STRING_VALUE, 1, 1, Token.MULTILINE);
+
+		assertEquals(withQuotes, last("\"\"\"a\"\"\"\"\""));
+		assertEquals(empty, last("\"\"\"\"\"\""));
+	}
+
+	@Test
+	public void unterminatedString() {
+		var result = Token.tokenize("a: \"value\r\nb: 'c");
+		var expected = List.of(
+				new Token(1, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 2),
+				new Token(1, Token.Type.SPACE_WS, 1, 3),
+				new Token(6, Token.Type.UNKNOWN, 1, 4),
+				new Token(2, Token.Type.NEWLINE, 1, 10),
+				new Token(1, Token.Type.IDENTIFIER, 2, 1),
+				new Token(1, Token.Type.COLON, 2, 2),
+				new Token(1, Token.Type.SPACE_WS, 2, 3),
+				new Token(2, Token.Type.UNKNOWN, 2, 4)
+		);
+
+		assertEquals(expected, result.tokens());
+		assertFalse(result.success());
+		assertEquals(2, result.invalidTokens().size());
+	}
+
+	@Test
+	public void unterminatedMultilineString() {
+		var expected = List.of(
+				new Token(1, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 2),
+				new Token(-1, 11, Token.Type.UNKNOWN, 1, 3, Token.MULTILINE)
+		);
+
+		assertEquals(expected, Token.tokenize("a:\"\"\"\nb: c\n\"\"").tokens());
+	}
+
+	@Test
+	public void utf8Strings() {
+		var content = "a: \"\u00FCber\"\nb: '''\n\u00FC'''\nc: 1";
+		var utf8 = Token.tokenize(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+
+		assertTrue(utf8.success());
+		// The rows and columns match, however the lengths are in bytes.
+		assertEquals(Token.tokenize(content).tokens().get(9).column(), utf8.tokens().get(9).column());
+		assertEquals(Token.tokenize(content).tokens().get(10), utf8.tokens().get(10));
+		assertEquals("'''\n\u00FC'''", utf8.text(8).toString());
+	}
+}
@@ -0,0 +1,125 @@
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.parser.GuraHandler;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.token.SymbolTable;
+import me.i509.gura.token.TokenWindow;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class Symbols {
+	@Test
+	public void intern() {
+		var symbols = new SymbolTable(16);
+		String host = symbols.intern(new StringBuilder("host"));
+
+		assertEquals("host", host);
+		assertSame(host, symbols.intern("a host", 2, 6));
+		assertSame(host, symbols.intern("hostname".toCharArray(), 0, 4));
+		assertEquals("port", symbols.intern("port".toCharArray(), 0, 4));
+		assertEquals(16, symbols.capacity());
+		assertEquals(2, new SymbolTable(1).capacity());
+		assertEquals(32, new SymbolTable(17).capacity());
+		assertThrows(IllegalArgumentException.class, () -> new SymbolTable(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> symbols.intern("host", 2, 5));
+	}
+
+	@Test
+	public void bounded() {
+		var symbols = new SymbolTable(4);
+		String first = symbols.intern("key0");
+
+		for (int i = 1; i < 1000; i++) {
+			assertEquals("key" + i, symbols.intern("key" + i));
+		}
+
+		// Evicted strings are still interned to equal strings.
+		assertEquals(first, symbols.intern("key0"));
+
+		String long1 = symbols.intern("x".repeat(SymbolTable.MAX_LENGTH + 1));
+		assertNotSame(long1, symbols.intern("x".repeat(SymbolTable.MAX_LENGTH + 1)));
+	}
+
+	@Test
+	public void sharedBetweenDocuments() {
+		var symbols = new SymbolTable(64);
+		String content = "$port: 8080\nserver:\n    host: \"a\"\n    port: $port\n";
+		List<String> keys = new ArrayList<>();
+		GuraHandler handler = new GuraHandler() {
+			@Override
+			public boolean startObject(@Nullable String key) {
+				keys.add(key);
+				return true;
+			}
+
+			@Override
+			public void string(@Nullable String key, String value) {
+				keys.add(key);
+			}
+
+			@Override
+			public void integer(@Nullable String key, long value) {
+				keys.add(key);
+			}
+
+			@Override
+			public void variable(@Nullable String key, String name) {
+				keys.add(key);
+				keys.add(name);
+			}
+		};
+
+		GuraParser.parse(TokenWindow.of(content), handler, symbols);
+		GuraParser.parse(TokenWindow.of(new StringReader(content), 4), handler, symbols);
+
+		assertEquals(List.of("$port", "server", "host", "port", "port"), keys.subList(0, 5));
+		assertEquals(0, keys.size() % 2);
+
+		for (int i = 0; i < keys.size() / 2; i++) {
+			assertSame(keys.get(i), keys.get(i + keys.size() / 2));
+		}
+
+		GuraDocument first = GuraParser.parse("server:\n    timeout: 30\n");
+		GuraDocument second = GuraParser.parse("server:\n    timeout: 60\n");
+		String timeout = first.root().get("server").asObject().keys().iterator().next();
+
+		assertSame(timeout, second.root().get("server").asObject().keys().iterator().next());
+		assertSame(timeout, SymbolTable.shared().intern("timeout"));
+	}
+
+	@Test
+	public void concurrent() throws Exception {
+		var symbols = new SymbolTable(64);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 100_000; i++) {
+						String key = "key" + i % 200;
+						assertEquals(key, symbols.intern(key.toCharArray(), 0, key.length()));
+					}
+				}));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
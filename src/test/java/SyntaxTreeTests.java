@@ -0,0 +1,166 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraObject;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.cst.GuraSyntaxTree;
+import me.i509.gura.cst.SyntaxNode;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class SyntaxTrees {
+	private static final String DOCUMENT = "import \"base.ura\"\n"
+			+ "# The host\n"
+			+ "$host: \"example.com\"\n"
+			+ "\n"
+			+ "url:   \"http://$host:80/\"   # Inline comment\n"
+			+ "numbers: [1, -2, 1.5e300,   -inf]\n"
+			+ "singers: [\n"
+			+ "    user1:\n"
+			+ "        name: \"Carlos\"\n"
+			+ "        year: 1890,\n"
+			+ "    # Between\n"
+			+ "    user2:\n"
+			+ "        tags: [a: 1, b: empty]\n"
+			+ ", 5, [], empty\n"
+			+ "]\n"
+			+ "server:  # The server\n"
+			+ "    nested:\n"
+			+ "        deep: null\n"
+			+ "\n"
+			+ "        # Deeper\n"
+			+ "        port: 8080 # Default\n"
+			+ "    ports: [1, # One\n"
+			+ "        2]\n"
+			+ "last: 'literal'";
+
+	@Test
+	public void roundTrip() {
+		GuraSyntaxTree tree = GuraSyntaxTree.parse(DOCUMENT);
+		assertEquals(DOCUMENT, tree.text());
+		assertEquals(DOCUMENT.length(), tree.root().textLength());
+		assertEquals(GuraParser.parse(DOCUMENT), tree.toDocument());
+
+		assertEquals(SyntaxNode.Kind.IMPORT, ((SyntaxNode) tree.root().children().get(0)).kind());
+		assertEquals("8080", tree.entry("server", "nested", "port").value().text());
+		assertEquals(SyntaxNode.Kind.ARRAY, tree.entry("server", "ports").value().kind());
+		assertEquals(SyntaxNode.Kind.OBJECT, tree.entry("server").value().kind());
+		assertEquals("\"example.com\"", tree.entry("$host").value().text());
+		assertNull(tree.entry("server", "missing"));
+		assertNull(tree.entry("url", "nested"));
+	}
+
+	@Test
+	public void byteOrderMark() throws IOException {
+		String content = "\uFEFFa: 1 # One\n";
+		GuraSyntaxTree tree = GuraSyntaxTree.parse(content);
+		assertEquals(content, tree.text());
+		assertEquals("\uFEFFa: 2 # One\n", tree.withValue(List.of("a"), "2").text());
+		assertEquals(GuraParser.parse(content), tree.toDocument());
+		assertEquals("\uFEFF", GuraSyntaxTree.parse("\uFEFF").text());
+
+		Path file = Files.createTempFile("gura", ".ura");
+		file.toFile().deleteOnExit();
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		Files.write(file, bytes);
+		assertArrayEquals(bytes, GuraSyntaxTree.parse(file).text().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void withValue() {
+		GuraSyntaxTree tree = GuraSyntaxTree.parse(DOCUMENT);
+		GuraSyntaxTree edited = tree.withValue(List.of("server", "nested", "port"), "8081");
+
+		assertEquals(DOCUMENT.replace("port: 8080 # Default", "port: 8081 # Default"), edited.text());
+		assertEquals(DOCUMENT, tree.text());
+
+		edited = edited.withValue(List.of("url"), GuraString.of("http://localhost/"))
+				.withValue(List.of("numbers"), "[3,  4]")
+				.withValue(List.of("server", "nested", "deep"), GuraNumber.of(-5));
+		String expected = DOCUMENT.replace("port: 8080", "port: 8081")
+				.replace("\"http://$host:80/\"   #", "\"http://localhost/\"   #")
+				.replace("[1, -2, 1.5e300,   -inf]", "[3,  4]")
+				.replace("deep: null", "deep: -5");
+		assertEquals(expected, edited.text());
+		assertEquals(GuraParser.parse(expected), edited.toDocument());
+	}
+
+	@Test
+	public void withVariable() {
+		GuraSyntaxTree tree = GuraSyntaxTree.parse("$port1: 80\nport: 1 # Port\n");
+		String expected = "$port1: 80\nport: $port1 # Port\n";
+
+		for (GuraSyntaxTree edited : List.of(
+				tree.withValue(List.of("port"), GuraVariable.of("port1")),
+				tree.withValue(List.of("port"), "$port1")
+		)) {
+			assertEquals(expected, edited.text());
+			assertEquals(GuraParser.parse(expected), edited.toDocument());
+			// The name is a single token, as it is when the whole document is parsed.
+			assertEquals(1, edited.entry("port").value().children().size());
+		}
+	}
+
+	@Test
+	public void sharesUnchangedNodes() {
+		GuraSyntaxTree tree = GuraSyntaxTree.parse(DOCUMENT);
+		GuraSyntaxTree edited = tree.withValue(List.of("server", "nested", "port"), "8081");
+
+		assertSame(tree.entry("singers"), edited.entry("singers"));
+		assertSame(tree.entry("server", "ports"), edited.entry("server", "ports"));
+		assertSame(tree.entry("server", "nested", "deep"), edited.entry("server", "nested", "deep"));
+		assertNotSame(tree.entry("server"), edited.entry("server"));
+		assertNotSame(tree.entry("server", "nested", "port"), edited.entry("server", "nested", "port"));
+	}
+
+	@Test
+	public void wideDocument() {
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < 10_000; i++) {
+			text.append("key").append(i).append(": ").append(i).append(" # Entry ").append(i).append('\n');
+		}
+
+		GuraSyntaxTree tree = GuraSyntaxTree.parse(text.toString());
+		assertEquals(text.toString(), tree.text());
+
+		for (int i = 0; i < 10_000; i += 997) {
+			tree = tree.withValue(List.of("key" + i), "\"changed\"");
+		}
+
+		GuraObject document = tree.toDocument().root();
+		assertEquals(GuraString.of("changed"), document.get("key997"));
+		assertEquals(GuraNumber.of(998), document.get("key998"));
+		assertEquals("key9970: \"changed\" # Entry 9970", tree.entry("key9970").text().trim());
+	}
+
+	@Test
+	public void errors() {
+		GuraSyntaxTree tree = GuraSyntaxTree.parse(DOCUMENT);
+
+		assertThrows(GuraParseException.class, () -> GuraSyntaxTree.parse("key: [1, 2"));
+		assertThrows(IllegalArgumentException.class, () -> tree.withValue(List.of("missing"), "1"));
+		assertThrows(IllegalArgumentException.class, () -> tree.withValue(List.of("url", "port"), "1"));
+		assertThrows(IllegalArgumentException.class, () -> tree.withValue(List.of("server"), "1"));
+		assertThrows(IllegalArgumentException.class, () -> tree.withValue(List.of(), "1"));
+		assertThrows(IllegalArgumentException.class, () -> tree.withValue(List.of("url"), "[1,\n2]"));
+		assertThrows(GuraParseException.class, () -> tree.withValue(List.of("url"), "1 2"));
+		assertThrows(IllegalArgumentException.class, () -> tree.withValue(List.of("url"), "1 # Comment"));
+		assertThrows(GuraParseException.class, () -> tree.withValue(List.of("url"), "[1, 2"));
+		assertThrows(IllegalArgumentException.class,
+				() -> tree.withValue(List.of("url"), GuraParser.parse("a: 1").root()));
+	}
+}
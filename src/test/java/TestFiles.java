@@ -0,0 +1,19 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class TestFiles {
+	/**
+	 * Writes a file, and its parent directories, which is deleted when the tests end.
+	 */
+	static Path write(Path directory, String name, String content) throws IOException {
+		Path path = directory.resolve(name);
+		Files.createDirectories(path.getParent());
+		Files.writeString(path, content);
+		path.toFile().deleteOnExit();
+		return path;
+	}
+
+	private TestFiles() {
+	}
+}
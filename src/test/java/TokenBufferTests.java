@@ -0,0 +1,113 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class BufferAccess {
+	@Test
+	public void indexedAccess() {
+		TokenBuffer buffer = Token.tokenize("key: 42\nother: $var").buffer();
+
+		assertEquals(9, buffer.size());
+		assertEquals(Token.Type.NUMBER, buffer.type(3));
+		assertEquals(5, buffer.offset(3));
+		assertEquals(2, buffer.length(3));
+		assertEquals(1, buffer.row(3));
+		assertEquals(6, buffer.column(3));
+		assertEquals(Token.Type.IDENTIFIER, buffer.type(5));
+		assertEquals(8, buffer.offset(5));
+		assertEquals(2, buffer.row(5));
+		assertEquals(1, buffer.column(5));
+	}
+
+	@Test
+	public void cursorVisitsEveryToken() {
+		var result = Token.tokenize("a: [1, 2]\n# comment");
+		TokenBuffer.Cursor cursor = result.buffer().cursor();
+		int index = 0;
+
+		while (cursor.next()) {
+			Token token = result.tokens().get(index);
+
+			assertEquals(index, cursor.index());
+			assertEquals(token.type(), cursor.type());
+			assertEquals(token.length(), cursor.length());
+			assertEquals(token.row(), cursor.row());
+			assertEquals(token.column(), cursor.column());
+			index++;
+		}
+
+		assertEquals(result.buffer().size(), index);
+		assertFalse(cursor.next());
+	}
+
+	@Test
+	public void offsetsAreContiguous() {
+		TokenBuffer buffer = Token.tokenize("key:\r\n    nested: 0xFF # comment\n").buffer();
+		int offset = 0;
+
+		for (int i = 0; i < buffer.size(); i++) {
+			assertEquals(offset, buffer.offset(i));
+			offset += buffer.length(i);
+		}
+	}
+
+	@Test
+	public void cursorMustBeOnToken() {
+		TokenBuffer.Cursor cursor = Token.tokenize("a").buffer().cursor();
+
+		assertThrows(RuntimeException.class, cursor::type);
+		assertTrue(cursor.next());
+		assertEquals(Token.Type.IDENTIFIER, cursor.type());
+		assertFalse(cursor.next());
+		assertThrows(RuntimeException.class, cursor::type);
+	}
+}
+
+final class TokenText {
+	@Test
+	public void tokenOffsets() {
+		var tokens = Token.tokenize("key: 42\n  other: $var").tokens();
+
+		assertEquals(0, tokens.get(0).offset());
+		assertEquals(5, tokens.get(3).offset());
+		assertEquals(8, tokens.get(5).offset());
+		assertEquals(10, tokens.get(6).offset());
+	}
+
+	@Test
+	public void textOfTokens() {
+		var result = Token.tokenize("key: 0xFF # comment\nother: $var");
+
+		assertEquals("key", result.text(0).toString());
+		assertEquals("0xFF", result.text(3).toString());
+		assertEquals("# comment", result.text(5).toString());
+		assertEquals("$var", result.text(result.tokens().get(10)).toString());
+	}
+
+	@Test
+	public void textOfUtf8Tokens() {
+		var content = "key: \u00FCber # comment";
+		var result = Token.tokenize(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals("key", result.text(0).toString());
+		assertEquals("\u00FCber", result.text(3).toString());
+		assertEquals("# comment", result.text(5).toString());
+		assertEquals('c', result.text(5).charAt(2));
+		assertEquals("com", result.text(5).subSequence(2, 5).toString());
+	}
+
+	@Test
+	public void tokenWithoutOffset() {
+		var result = Token.tokenize("key");
+
+		assertThrows(IllegalArgumentException.class, () -> result.text(new Token(3, Token.Type.IDENTIFIER, 1, 1)));
+	}
+}
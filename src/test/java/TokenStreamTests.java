@@ -0,0 +1,69 @@
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class Streaming {
+	private static final String CONTENT = "# A comment\r\n"
+			+ "title: $title\n"
+			+ "numbers: [0xFF, 42, 0b1010]\n"
+			+ "nested:\n"
+			+ "    key: value # trailing\n";
+
+	private static List<Token> drain(TokenStream stream) {
+		List<Token> tokens = new ArrayList<>();
+
+		while (stream.hasNext()) {
+			tokens.add(stream.next());
+		}
+
+		return tokens;
+	}
+
+	@Test
+	public void charSequenceMatchesTokenize() {
+		assertEquals(Token.tokenize(CONTENT).tokens(), drain(TokenStream.of(CONTENT)));
+	}
+
+	@Test
+	public void readerMatchesTokenize() {
+		assertEquals(Token.tokenize(CONTENT).tokens(), drain(TokenStream.of(new StringReader(CONTENT))));
+	}
+
+	@Test
+	public void tinyBufferMatchesTokenize() {
+		// Tokens longer than the buffer force the buffer to grow, everything else slides through it.
+		for (int size = 1; size < 8; size++) {
+			assertEquals(Token.tokenize(CONTENT).tokens(), drain(TokenStream.of(new StringReader(CONTENT), size)));
+		}
+	}
+
+	@Test
+	public void peekDoesNotConsume() {
+		TokenStream stream = TokenStream.of("a: b");
+		Token peeked = stream.peek();
+
+		assertEquals(new Token(1, Token.Type.IDENTIFIER, 1, 1), peeked);
+		assertSame(peeked, stream.next());
+		assertEquals(new Token(1, Token.Type.COLON, 1, 2), stream.peek());
+	}
+
+	@Test
+	public void exhaustedStream() {
+		TokenStream stream = TokenStream.of("");
+
+		assertFalse(stream.hasNext());
+		assertNull(stream.peek());
+		assertThrows(NoSuchElementException.class, stream::next);
+	}
+}
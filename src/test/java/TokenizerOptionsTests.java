@@ -0,0 +1,87 @@
+import java.nio.ByteBuffer;
+
+import me.i509.gura.token.Token;
+import me.i509.gura.token.TokenizationResult;
+import me.i509.gura.token.TokenizerOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Options {
+	// Three lines with an identifier containing a lone continuation byte each, which is an unknown token.
+	private static final byte[] INVALID = {
+			'a', ':', ' ', (byte) 0x80, '\n',
+			'b', ':', ' ', (byte) 0x80, '\n',
+			'c', ':', ' ', (byte) 0x80, '\n'
+	};
+
+	private static TokenizationResult tokenize(TokenizerOptions options) {
+		return Token.tokenize(ByteBuffer.wrap(INVALID), options);
+	}
+
+	@Test
+	public void defaultTokenizesEverything() {
+		var result = tokenize(TokenizerOptions.DEFAULT);
+
+		assertTrue(result.complete());
+		assertFalse(result.success());
+		assertEquals(15, result.tokens().size());
+		assertEquals(3, result.invalidTokens().size());
+		assertEquals(3, result.buffer().invalidCount());
+		assertEquals(3, result.buffer().invalidIndex(0));
+		assertEquals(13, result.buffer().invalidIndex(2));
+		assertEquals(result.tokens().get(8), result.invalidTokens().get(1));
+	}
+
+	@Test
+	public void failFastStopsAtFirstError() {
+		var result = tokenize(TokenizerOptions.failFast());
+
+		assertFalse(result.complete());
+		assertFalse(result.success());
+		assertEquals(4, result.tokens().size());
+		assertEquals(Token.Type.UNKNOWN, result.tokens().get(3).type());
+		assertEquals(1, result.invalidTokens().size());
+	}
+
+	@Test
+	public void maxErrorsStopsAfterErrors() {
+		var result = tokenize(TokenizerOptions.maxErrors(2));
+
+		assertFalse(result.complete());
+		assertEquals(9, result.tokens().size());
+		assertEquals(2, result.invalidTokens().size());
+	}
+
+	@Test
+	public void lastTokenErrorIsComplete() {
+		var result = tokenize(TokenizerOptions.maxErrors(3));
+
+		// The third error is followed by a newline, so tokenizing stopped before the end.
+		assertFalse(result.complete());
+		assertEquals(14, result.tokens().size());
+
+		var withoutNewline = Token.tokenize(ByteBuffer.wrap(INVALID, 0, 4), TokenizerOptions.failFast());
+
+		assertTrue(withoutNewline.complete());
+		assertEquals(1, withoutNewline.invalidTokens().size());
+	}
+
+	@Test
+	public void validContentIsComplete() {
+		var result = Token.tokenize("key: value\n", TokenizerOptions.failFast());
+
+		assertTrue(result.complete());
+		assertTrue(result.success());
+		assertEquals(Token.tokenize("key: value\n").tokens(), result.tokens());
+	}
+
+	@Test
+	public void maxErrorsMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> TokenizerOptions.maxErrors(0));
+		assertEquals(TokenizerOptions.failFast(), TokenizerOptions.maxErrors(1));
+	}
+}
@@ -371,3 +371,57 @@ final class Arrays {
 		assertEquals(expected, Token.tokenize("[[]]").tokens());
 	}
 }
+
+final class Identifiers {
+	@Test
+	public void keyWithTrailingDigit() {
+		var expected = List.of(
+				new Token(4, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 5)
+		);
+
+		assertEquals(expected, Token.tokenize("key1:").tokens());
+	}
+
+	@Test
+	public void identifierEndsAtNumber() {
+		var expected = List.of(
+				new Token(3, Token.Type.IDENTIFIER, 1, 1),
+				new Token(2, Token.Type.NUMBER, 1, 4),
+				new Token(1, Token.Type.SPACE_WS, 1, 6)
+		);
+
+		assertEquals(expected, Token.tokenize("key12 ").tokens());
+	}
+
+	@Test
+	public void identifierWithLoneCarriageReturn() {
+		var expected = List.of(
+				new Token(3, Token.Type.IDENTIFIER, 1, 1),
+				new Token(2, Token.Type.NEWLINE, 1, 4)
+		);
+
+		assertEquals(expected, Token.tokenize("a\rb\r\n").tokens());
+	}
+
+	@Test
+	public void veryLongKey() {
+		var key = "k".repeat(1_000_000);
+		var expected = List.of(
+				new Token(1_000_000, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 1_000_001)
+		);
+
+		assertEquals(expected, Token.tokenize(key + ":").tokens());
+	}
+
+	@Test
+	public void veryLongVariableWithDigits() {
+		var variable = "$" + "v0".repeat(500_000) + "v";
+		var expected = List.of(
+				new Token(1_000_002, Token.Type.IDENTIFIER, 1, 1)
+		);
+
+		assertEquals(expected, Token.tokenize(variable).tokens());
+	}
+}
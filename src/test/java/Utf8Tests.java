@@ -0,0 +1,129 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import me.i509.gura.token.Token;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+final class Utf8Input {
+	private static List<Token> tokenizeUtf8(String content) {
+		return Token.tokenize(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8))).tokens();
+	}
+
+	@Test
+	public void asciiMatchesString() {
+		var content = "# config\r\ntitle: $title\nnumbers: [0xFF, 42, 0b1010]\nnested:\n    key: value\n";
+
+		assertEquals(Token.tokenize(content).tokens(), tokenizeUtf8(content));
+	}
+
+	@Test
+	public void numberAtEndOfContent() {
+		for (var content : List.of("key: 12", "key: 0x1F", "12")) {
+			assertEquals(Token.tokenize(content).tokens(), tokenizeUtf8(content));
+		}
+	}
+
+	@Test
+	public void multibyteCharacterAfterNumber() {
+		// The last character of the content may follow a number, whatever its length in bytes.
+		for (var content : List.of("01\u00E9", "key: 1\u20AC", "0x1\uD83D\uDE00", "1\u00E9x")) {
+			var expected = Token.tokenize(content).tokens();
+			var actual = tokenizeUtf8(content);
+
+			assertEquals(expected.size(), actual.size(), content);
+
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).type(), actual.get(i).type(), content);
+				assertEquals(expected.get(i).row(), actual.get(i).row(), content);
+				assertEquals(expected.get(i).column(), actual.get(i).column(), content);
+			}
+		}
+
+		assertEquals(List.of(new Token(4, Token.Type.NUMBER, 1, 1)), tokenizeUtf8("01\u00E9"));
+	}
+
+	@Test
+	public void multibyteIdentifier() {
+		var expected = List.of(
+				new Token(8, Token.Type.IDENTIFIER, 1, 1), // The key is 8 bytes but 4 characters
+				new Token(1, Token.Type.COLON, 1, 5),
+				new Token(1, Token.Type.SPACE_WS, 1, 6),
+				new Token(5, Token.Type.IDENTIFIER, 1, 7)
+		);
+
+		assertEquals(expected, tokenizeUtf8("\u043A\u043B\u044E\u0447: value"));
+	}
+
+	@Test
+	public void surrogatePairInComment() {
+		var expected = List.of(
+				new Token(6, Token.Type.COMMENT, 1, 1), // The emoji is 4 bytes and a surrogate pair of 2 characters
+				new Token(1, Token.Type.NEWLINE, 1, 5),
+				new Token(1, Token.Type.IDENTIFIER, 2, 1)
+		);
+
+		assertEquals(expected, tokenizeUtf8("# \uD83D\uDE00\na"));
+	}
+
+	@Test
+	public void byteOrderMarkIsSkipped() {
+		var expected = List.of(
+				new Token(3, Token.Type.IDENTIFIER, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 4)
+		);
+
+		assertEquals(expected, tokenizeUtf8("\uFEFFkey:"));
+		assertEquals(expected, Token.tokenize("\uFEFFkey:").tokens());
+	}
+
+	@Test
+	public void invalidIdentifier() {
+		// A truncated two byte sequence
+		var result = Token.tokenize(ByteBuffer.wrap(new byte[] {'a', (byte) 0xC3, ':'}));
+		var expected = List.of(
+				new Token(2, Token.Type.UNKNOWN, 1, 1),
+				new Token(1, Token.Type.COLON, 1, 3)
+		);
+
+		assertFalse(result.success());
+		assertEquals(expected, result.tokens());
+	}
+
+	@Test
+	public void bufferPositionIsRespected() {
+		var buffer = ByteBuffer.wrap("xxkey: 1".getBytes(StandardCharsets.UTF_8));
+		buffer.position(2);
+
+		assertEquals(Token.tokenize("key: 1").tokens(), Token.tokenize(buffer).tokens());
+		assertEquals(2, buffer.position());
+	}
+
+	@Test
+	public void mappedFile() throws IOException {
+		var content = "key: \u00FCn\u00EFc\u00F6d\u00E9 # comment\n";
+		Path file = Files.createTempFile("gura", ".ura");
+
+		try {
+			Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+			var tokens = Token.tokenize(file).tokens();
+			var expected = Token.tokenize(content).tokens();
+
+			assertEquals(expected.size(), tokens.size());
+
+			for (int i = 0; i < tokens.size(); i++) {
+				assertEquals(expected.get(i).type(), tokens.get(i).type());
+				assertEquals(expected.get(i).row(), tokens.get(i).row());
+				assertEquals(expected.get(i).column(), tokens.get(i).column());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
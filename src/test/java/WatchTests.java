@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraNumber;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.parser.GuraParseException;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.resolve.GuraResolveException;
+import me.i509.gura.watch.GuraConfigHandle;
+import me.i509.gura.watch.GuraDiff;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Watching {
+	@Test
+	public void diff() {
+		GuraDocument previous = GuraParser.parse("$a: 1\n"
+				+ "server:\n"
+				+ "    host: \"a\"\n"
+				+ "    ports: [1, 2, 3]\n"
+				+ "removed: true\n"
+				+ "kept: 1\n");
+		GuraDocument current = GuraParser.parse("$a: 2\n"
+				+ "server:\n"
+				+ "    host: \"b\"\n"
+				+ "    ports: [1, 5]\n"
+				+ "kept: 1\n"
+				+ "added: null\n");
+		List<GuraDiff.Change> changes = GuraDiff.of(previous, current).changes();
+
+		assertEquals(6, changes.size());
+		assertEquals("server.host", changes.get(0).path());
+		assertEquals(GuraDiff.Change.Kind.CHANGED, changes.get(0).kind());
+		assertEquals(GuraString.of("b"), changes.get(0).current());
+		assertEquals("server.ports[1]", changes.get(1).path());
+		assertEquals("server.ports[2]", changes.get(2).path());
+		assertEquals(GuraDiff.Change.Kind.REMOVED, changes.get(2).kind());
+		assertNull(changes.get(2).current());
+		assertEquals("removed", changes.get(3).path());
+		assertEquals("added", changes.get(4).path());
+		assertEquals(GuraDiff.Change.Kind.ADDED, changes.get(4).kind());
+
+		assertEquals("$a", changes.get(5).path());
+		assertEquals(GuraNumber.of(2), changes.get(5).current());
+		assertTrue(GuraDiff.of(current, current).isEmpty());
+	}
+
+	@Test
+	public void reload() throws Exception {
+		Path directory = Files.createTempDirectory("gura-watch");
+		directory.toFile().deleteOnExit();
+		Path first = TestFiles.write(directory, "first.ura", "port: 80\n");
+		Path second = TestFiles.write(directory, "second.ura", "$name: \"a\"\nname: $name\n");
+		BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+		BlockingQueue<Throwable> listenerErrors = new LinkedBlockingQueue<>();
+
+		try (GuraConfigHandle handle = GuraConfigHandle.builder()
+				.sources(List.of(first, second))
+				.debounce(Duration.ofMillis(50))
+				.listenerErrorHandler((thread, error) -> listenerErrors.add(error))
+				.open()) {
+			handle.addListener(new GuraConfigHandle.Listener() {
+				@Override
+				public void changed(GuraDocument previous, GuraDocument current, GuraDiff diff) {
+					events.add(diff);
+				}
+
+				@Override
+				public void failed(Throwable error) {
+					events.add(error);
+				}
+			});
+
+			// A listener which fails does not stop the other listeners nor later reloads.
+			handle.addListener((previous, current, diff) -> {
+				throw new IllegalStateException("Failing listener");
+			});
+
+			assertEquals(GuraNumber.of(80), handle.document().root().get("port"));
+			assertEquals(GuraString.of("a"), handle.document().variables().get("name"));
+
+			// Several quick writes are reloaded once, when the last one is done.
+			Files.writeString(first, "port: 81\n");
+			Files.writeString(first, "port: 82\n");
+			Files.writeString(first, "port: 8080\n");
+			GuraDiff diff = (GuraDiff) events.poll(10, TimeUnit.SECONDS);
+			assertEquals(1, diff.changes().size());
+			assertEquals("port", diff.changes().get(0).path());
+			assertEquals(GuraNumber.of(8080), diff.changes().get(0).current());
+			assertEquals(GuraNumber.of(8080), handle.document().root().get("port"));
+			Throwable listenerError = listenerErrors.poll(10, TimeUnit.SECONDS);
+			assertTrue(listenerError instanceof IllegalStateException);
+			assertEquals("Failing listener", listenerError.getMessage());
+
+			// An invalid file keeps the last good document.
+			GuraDocument good = handle.document();
+			Files.writeString(second, "name: 1 2\n");
+			assertTrue(events.poll(10, TimeUnit.SECONDS) instanceof GuraParseException);
+			assertEquals(good, handle.document());
+
+			Files.writeString(second, "port: 1\n");
+			assertTrue(events.poll(10, TimeUnit.SECONDS) instanceof GuraResolveException);
+			assertThrows(GuraResolveException.class, handle::reload);
+			assertEquals(good, handle.document());
+
+			Files.writeString(second, "name: \"b\"\n");
+			diff = (GuraDiff) events.poll(10, TimeUnit.SECONDS);
+			assertEquals(List.of("name", "$name"), List.of(diff.changes().get(0).path(), diff.changes().get(1).path()));
+			assertEquals(GuraString.of("b"), handle.document().root().get("name"));
+		}
+	}
+
+	@Test
+	public void errors() throws IOException {
+		Path directory = Files.createTempDirectory("gura-watch");
+		directory.toFile().deleteOnExit();
+		Path invalid = TestFiles.write(directory, "invalid.ura", "a: 1 2\n");
+
+		assertThrows(GuraParseException.class, () -> GuraConfigHandle.open(invalid));
+		assertThrows(IOException.class, () -> GuraConfigHandle.open(directory.resolve("absent.ura")));
+		assertThrows(IllegalStateException.class, () -> GuraConfigHandle.builder().open());
+		assertThrows(IllegalArgumentException.class, () -> GuraConfigHandle.builder().debounce(Duration.ofMillis(-1)));
+		assertThrows(NullPointerException.class, () -> GuraConfigHandle.builder().listenerErrorHandler(null));
+	}
+}
@@ -0,0 +1,162 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import me.i509.gura.ast.GuraDocument;
+import me.i509.gura.ast.GuraInterpolatedString;
+import me.i509.gura.ast.GuraString;
+import me.i509.gura.ast.GuraVariable;
+import me.i509.gura.parser.GuraParser;
+import me.i509.gura.writer.GuraWriter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Writing {
+	private static final String DOCUMENT = "import \"base.ura\"\n"
+			+ "$host: \"example.com\"\n"
+			+ "# Comment\n"
+			+ "url: \"http://$host:80/\\$x\"\n"
+			+ "numbers: [1, -9223372036854775808, 1.5e300, -inf, nan, 0.1]\n"
+			+ "big: [9223372036854775808, -1.79e309]\n"
+			+ "nothing: empty\n"
+			+ "singers: [\n"
+			+ "    user1:\n"
+			+ "        name: \"Carlos\\n\\\"q\\\"\"\n"
+			+ "        year: 1890,\n"
+			+ "    user2:\n"
+			+ "        tags: [a: 1, b: empty]\n"
+			+ ", 5, [], empty\n"
+			+ "]\n"
+			+ "server:\n"
+			+ "    nested:\n"
+			+ "        deep: null\n"
+			+ "    ports: [1, # One\n"
+			+ "        2]\n";
+
+	@Test
+	public void writeDocument() {
+		GuraDocument document = GuraParser.parse(DOCUMENT);
+		String expected = "import \"base.ura\"\n"
+				+ "$host: \"example.com\"\n"
+				+ "url: \"http://$host:80/\\$x\"\n"
+				+ "numbers: [1, -9223372036854775808, 1.5E300, -inf, nan, 0.1]\n"
+				+ "big: [9223372036854775808, -1.79E+309]\n"
+				+ "nothing: empty\n"
+				+ "singers: [\n"
+				+ "    user1:\n"
+				+ "        name: \"Carlos\\n\\\"q\\\"\"\n"
+				+ "        year: 1890,\n"
+				+ "    user2:\n"
+				+ "        tags: [\n"
+				+ "            a: 1,\n"
+				+ "            b: empty\n"
+				+ "        ],\n"
+				+ "    5,\n"
+				+ "    [],\n"
+				+ "    empty\n"
+				+ "]\n"
+				+ "server:\n"
+				+ "    nested:\n"
+				+ "        deep: null\n"
+				+ "    ports: [1, 2]\n";
+
+		assertEquals(expected, GuraWriter.toString(document));
+		assertEquals(document, GuraParser.parse(GuraWriter.toString(document)));
+	}
+
+	@Test
+	public void writeEvents() throws IOException {
+		var out = new StringWriter();
+
+		try (GuraWriter writer = GuraWriter.of(out)) {
+			GuraParser.parse(DOCUMENT, writer);
+		}
+
+		String text = out.toString();
+		assertEquals(GuraParser.parse(DOCUMENT), GuraParser.parse(text));
+		assertTrue(text.contains("# Comment\nurl:"), text);
+		assertTrue(text.contains("    ports: [1,\n        # One\n        2\n    ]\n"), text);
+	}
+
+	@Test
+	public void writeValues() {
+		var out = new StringBuilder();
+		GuraWriter writer = GuraWriter.of(out);
+		writer.startObject("server");
+		writer.startObject("empty");
+		writer.endObject();
+		writer.integer("port", Long.MIN_VALUE);
+		writer.floatingPoint("ratio", -0.0);
+		writer.bigInteger("big", BigInteger.TWO.pow(70));
+		writer.string("text", "tab\t\u0001\u00e9");
+		writer.interpolatedString(
+				"url",
+				GuraInterpolatedString.of(List.of(GuraVariable.of("host"), GuraString.of(":80")))
+		);
+		writer.variable("$alias", "host");
+		writer.endObject();
+		writer.endDocument();
+
+		assertEquals(
+				"server:\n"
+						+ "    empty: empty\n"
+						+ "    port: -9223372036854775808\n"
+						+ "    ratio: -0.0\n"
+						+ "    big: 1180591620717411303424\n"
+						+ "    text: \"tab\\t\\u0001\u00e9\"\n"
+						+ "    url: \"$host:80\"\n"
+						+ "    $alias: $host\n",
+				out.toString()
+		);
+	}
+
+	@Test
+	public void utf8() throws IOException {
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < 5000; i++) {
+			// Surrogate pairs end up split across the buffer.
+			text.append("a\u00e9\u20ac\ud83d\ude00");
+		}
+
+		var bytes = new ByteArrayOutputStream();
+
+		try (GuraWriter writer = GuraWriter.of(bytes)) {
+			writer.string("text", text.toString());
+			writer.endDocument();
+		}
+
+		assertEquals("text: \"" + text + "\"\n", bytes.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void errors() {
+		var out = new StringBuilder();
+		GuraWriter writer = GuraWriter.of(out);
+
+		assertThrows(IllegalStateException.class, () -> writer.integer(null, 1));
+		assertThrows(IllegalArgumentException.class, () -> writer.integer("a b", 1));
+		assertThrows(IllegalArgumentException.class, () -> writer.integer("", 1));
+		writer.endDocument();
+		assertEquals("", out.toString());
+		assertThrows(IllegalStateException.class, writer::endObject);
+
+		writer.startArray("array");
+		assertThrows(IllegalStateException.class, () -> writer.integer("key", 1));
+		assertThrows(IllegalStateException.class, writer::endDocument);
+		assertThrows(IllegalArgumentException.class, () -> writer.comment("a\nb"));
+		assertThrows(
+				IllegalArgumentException.class,
+				() -> writer.interpolatedString(
+						null,
+						GuraInterpolatedString.of(List.of(GuraVariable.of("a"), GuraString.of("b")))
+				)
+		);
+	}
+}